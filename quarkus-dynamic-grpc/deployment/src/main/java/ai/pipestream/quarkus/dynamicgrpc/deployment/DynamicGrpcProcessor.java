@@ -1,21 +1,32 @@
 package ai.pipestream.quarkus.dynamicgrpc.deployment;
 
 import ai.pipestream.quarkus.dynamicgrpc.ChannelManager;
+import ai.pipestream.quarkus.dynamicgrpc.ChannelWarmup;
 import ai.pipestream.quarkus.dynamicgrpc.DynamicGrpcClientFactory;
 import ai.pipestream.quarkus.dynamicgrpc.GrpcClientFactory;
 import ai.pipestream.quarkus.dynamicgrpc.ServiceDiscoveryManager;
+import ai.pipestream.quarkus.dynamicgrpc.circuitbreaker.CircuitBreakers;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.ConsulWatchServiceDiscoveryLoader;
 import ai.pipestream.quarkus.dynamicgrpc.discovery.DynamicConsulServiceDiscovery;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.LeastLatencyLoadBalancer;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.OutlierDetectionLoadBalancer;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.OutlierDetectionLoadBalancerLoader;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.PowerOfTwoChoicesLoadBalancer;
 import ai.pipestream.quarkus.dynamicgrpc.discovery.RandomLoadBalancer;
 import ai.pipestream.quarkus.dynamicgrpc.discovery.ServiceDiscovery;
 import ai.pipestream.quarkus.dynamicgrpc.discovery.ServiceDiscoveryImpl;
 import ai.pipestream.quarkus.dynamicgrpc.discovery.ServiceDiscoveryProducer;
 import ai.pipestream.quarkus.dynamicgrpc.discovery.StandaloneServiceDiscoveryProducer;
 import ai.pipestream.quarkus.dynamicgrpc.discovery.StandaloneVertxProducer;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.WeightedLoadBalancer;
+import ai.pipestream.quarkus.dynamicgrpc.health.WarmupReadinessCheck;
 import ai.pipestream.quarkus.dynamicgrpc.metrics.DynamicGrpcMetrics;
 import io.quarkus.arc.deployment.AdditionalBeanBuildItem;
 import io.quarkus.deployment.annotations.BuildStep;
 import io.quarkus.deployment.builditem.FeatureBuildItem;
 import io.quarkus.deployment.builditem.nativeimage.ReflectiveClassBuildItem;
+import io.quarkus.deployment.builditem.nativeimage.ServiceProviderBuildItem;
+import io.quarkus.smallrye.health.deployment.spi.HealthBuildItem;
 
 /**
  * Quarkus deployment processor for the Dynamic gRPC extension.
@@ -51,6 +62,8 @@ public class DynamicGrpcProcessor {
                         DynamicGrpcClientFactory.class,
                         ChannelManager.class,
                         ServiceDiscoveryManager.class,
+                        ChannelWarmup.class,
+                        CircuitBreakers.class,
                         // Configuration
                         ai.pipestream.quarkus.dynamicgrpc.config.DynamicGrpcTlsAdapter.class,
                         // Authentication
@@ -64,12 +77,57 @@ public class DynamicGrpcProcessor {
                         DynamicConsulServiceDiscovery.class,
                         StandaloneServiceDiscoveryProducer.class,
                         StandaloneVertxProducer.class,
-                        RandomLoadBalancer.class
+                        RandomLoadBalancer.class,
+                        OutlierDetectionLoadBalancerLoader.class,
+                        ConsulWatchServiceDiscoveryLoader.class
                 )
                 .setUnremovable()
                 .build();
     }
 
+    /**
+     * Registers the warm-up readiness check. Only consumed when SmallRye Health is present.
+     *
+     * @return the health build item
+     */
+    @BuildStep
+    HealthBuildItem warmupReadinessCheck() {
+        return new HealthBuildItem(WarmupReadinessCheck.class.getName(), true);
+    }
+
+    /**
+     * Registers the outlier detection load balancer with Stork's service loader in native mode.
+     *
+     * @return the service provider build item
+     */
+    @BuildStep
+    ServiceProviderBuildItem outlierDetectionLoadBalancer() {
+        return new ServiceProviderBuildItem("io.smallrye.stork.spi.internal.LoadBalancerLoader",
+                OutlierDetectionLoadBalancerLoader.class.getName());
+    }
+
+    /**
+     * Registers the Consul watch service discovery with Stork's service loader in native mode.
+     *
+     * @return the service provider build item
+     */
+    @BuildStep
+    ServiceProviderBuildItem consulWatchServiceDiscovery() {
+        return new ServiceProviderBuildItem("io.smallrye.stork.spi.internal.ServiceDiscoveryLoader",
+                ConsulWatchServiceDiscoveryLoader.class.getName());
+    }
+
+    /**
+     * Registers the {@code dynamic-grpc://} name resolver with grpc-java's service loader in native mode.
+     *
+     * @return the service provider build item
+     */
+    @BuildStep
+    ServiceProviderBuildItem storkNameResolver() {
+        return new ServiceProviderBuildItem("io.grpc.NameResolverProvider",
+                DynamicGrpcClientFactory.StorkNameResolverProvider.class.getName());
+    }
+
     /**
      * Registers classes for reflection in native mode.
      *
@@ -79,10 +137,17 @@ public class DynamicGrpcProcessor {
     ReflectiveClassBuildItem registerReflection() {
         return ReflectiveClassBuildItem.builder(
                 DynamicGrpcClientFactory.class,
+                DynamicGrpcClientFactory.StorkNameResolverProvider.class,
                 ChannelManager.class,
                 ServiceDiscoveryManager.class,
                 DynamicConsulServiceDiscovery.class,
-                RandomLoadBalancer.class
+                RandomLoadBalancer.class,
+                PowerOfTwoChoicesLoadBalancer.class,
+                LeastLatencyLoadBalancer.class,
+                WeightedLoadBalancer.class,
+                OutlierDetectionLoadBalancer.class,
+                OutlierDetectionLoadBalancerLoader.class,
+                ConsulWatchServiceDiscoveryLoader.class
         ).methods().fields().build();
     }
 }
@@ -0,0 +1,90 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulServiceRegistration;
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import io.grpc.Channel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static ai.pipestream.quarkus.dynamicgrpc.util.TestMeters.count;
+import static ai.pipestream.quarkus.dynamicgrpc.util.TestMeters.readable;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that concurrent first calls for a service share a single channel creation.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+public class ChannelCreationCoalescingTest {
+
+    private static final int CALLERS = 16;
+
+    @Inject
+    GrpcClientFactory clientFactory;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.host")
+    String consulHost;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.port")
+    int consulPort;
+
+    @BeforeEach
+    void setup() {
+        readable(registry);
+    }
+
+    @Test
+    @DisplayName("Concurrent first calls create exactly one channel and join or reuse it")
+    void testConcurrentFirstCallsCreateOneChannel() throws Exception {
+        String serviceName = "coalescing-test-service";
+        ConsulServiceRegistration consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            consulRegistration.registerService(serviceName, serviceName + "-1", "127.0.0.1", 50201);
+            Thread.sleep(500);
+
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<Channel>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    go.await();
+                    return clientFactory.getChannel(serviceName).await().atMost(Duration.ofSeconds(10));
+                }));
+            }
+            go.countDown();
+
+            Channel first = results.getFirst().get();
+            for (Future<Channel> result : results) {
+                assertThat(result.get()).isSameAs(first);
+            }
+
+            // Every caller either built the channel, joined the creation in progress or found it cached
+            assertThat(count(registry, "dynamic.grpc.channel.created", serviceName)).isEqualTo(1);
+            assertThat(count(registry, "dynamic.grpc.cache.miss", serviceName)).isEqualTo(1);
+            assertThat(count(registry, "dynamic.grpc.channel.creation.coalesced", serviceName)
+                    + count(registry, "dynamic.grpc.cache.hit", serviceName))
+                .isEqualTo(CALLERS - 1);
+        } finally {
+            executor.shutdownNow();
+            clientFactory.evictChannel(serviceName);
+            consulRegistration.deregisterService(serviceName + "-1");
+        }
+    }
+}
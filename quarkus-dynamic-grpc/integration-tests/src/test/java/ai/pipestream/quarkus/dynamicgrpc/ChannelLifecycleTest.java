@@ -126,6 +126,43 @@ public class ChannelLifecycleTest {
         consulRegistration.deregisterService(serviceName + "-1");
     }
 
+    @Test
+    @DisplayName("A call in flight during eviction should still complete")
+    void testEvictionDrainsInFlightCalls() throws Exception {
+        String serviceName = "drain-service";
+        int slowPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            slowPort = socket.getLocalPort();
+        }
+        Server slowServer = ServerBuilder.forPort(slowPort)
+            .addService(new SlowGreeterService())
+            .build()
+            .start();
+
+        try {
+            consulRegistration.registerService(serviceName, serviceName + "-1", "127.0.0.1", slowPort);
+            Thread.sleep(500);
+
+            var client = clientFactory.getClient(serviceName, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(5));
+
+            var inFlight = client.sayHello(HelloRequest.newBuilder().setName("drain").build())
+                .subscribeAsCompletionStage();
+            Thread.sleep(100);
+
+            // Eviction returns at once and leaves the call to finish on the draining channel
+            long start = System.nanoTime();
+            clientFactory.evictChannel(serviceName);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(200));
+
+            HelloReply reply = inFlight.toCompletableFuture().get(5, TimeUnit.SECONDS);
+            assertThat(reply.getMessage()).isEqualTo("Hello drain");
+        } finally {
+            slowServer.shutdown();
+            consulRegistration.deregisterService(serviceName + "-1");
+        }
+    }
+
     @Test
     @DisplayName("Multiple evictions of same service should be safe")
     void testMultipleEvictions() throws InterruptedException {
@@ -298,4 +335,17 @@ public class ChannelLifecycleTest {
             return Uni.createFrom().item(response);
         }
     }
+
+    /**
+     * Greeter service answering after one second, to keep calls in flight.
+     */
+    static class SlowGreeterService extends MutinyGreeterGrpc.GreeterImplBase {
+        @Override
+        public Uni<HelloReply> sayHello(HelloRequest request) {
+            HelloReply response = HelloReply.newBuilder()
+                .setMessage("Hello " + request.getName())
+                .build();
+            return Uni.createFrom().item(response).onItem().delayIt().by(Duration.ofSeconds(1));
+        }
+    }
 }
@@ -0,0 +1,136 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulServiceRegistration;
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import ai.pipestream.quarkus.dynamicgrpc.circuitbreaker.CircuitBreaker;
+import ai.pipestream.quarkus.dynamicgrpc.circuitbreaker.CircuitBreakers;
+import ai.pipestream.quarkus.dynamicgrpc.exception.CircuitBreakerOpenException;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.MutinyGreeterGrpc;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests that the circuit breaker opens on a dead service, short-circuits it and closes once the
+ * service is back.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+@TestProfile(CircuitBreakerTest.CircuitBreakerProfile.class)
+public class CircuitBreakerTest {
+
+    @Inject
+    GrpcClientFactory clientFactory;
+
+    @Inject
+    CircuitBreakers circuitBreakers;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.host")
+    String consulHost;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.port")
+    int consulPort;
+
+    /**
+     * Opens the breaker after four calls, half of them failed, for one second.
+     */
+    public static class CircuitBreakerProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "quarkus.dynamic-grpc.circuit-breaker.enabled", "true",
+                "quarkus.dynamic-grpc.circuit-breaker.sliding-window-size", "4",
+                "quarkus.dynamic-grpc.circuit-breaker.minimum-calls", "4",
+                "quarkus.dynamic-grpc.circuit-breaker.wait-duration-in-open-state", "1s",
+                "quarkus.dynamic-grpc.circuit-breaker.permitted-calls-in-half-open-state", "1");
+        }
+    }
+
+    @Test
+    @DisplayName("A dead service is short-circuited and recovers after the open state")
+    void testBreakerOpensAndCloses() throws Exception {
+        String serviceName = "circuit-breaker-test-service";
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        ConsulServiceRegistration consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        Server server = null;
+        try {
+            // Registered, but nothing listens yet
+            consulRegistration.registerService(serviceName, serviceName + "-1", "127.0.0.1", port);
+            Thread.sleep(500);
+
+            var client = clientFactory.getClient(serviceName, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(10));
+
+            for (int i = 0; i < 4; i++) {
+                client.sayHello(HelloRequest.newBuilder().setName("Down " + i).build())
+                    .onFailure().recoverWithNull()
+                    .await().atMost(Duration.ofSeconds(5));
+            }
+            assertThat(circuitBreakers.state(serviceName)).isEqualTo(CircuitBreaker.State.OPEN);
+
+            // Existing stubs and new channel requests are both short-circuited
+            assertThatThrownBy(() -> client.sayHello(HelloRequest.newBuilder().setName("Open").build())
+                    .await().atMost(Duration.ofSeconds(1)))
+                .isInstanceOf(StatusRuntimeException.class)
+                .satisfies(e -> assertThat(((StatusRuntimeException) e).getStatus().getCode())
+                    .isEqualTo(Status.Code.UNAVAILABLE));
+            assertThatThrownBy(() -> clientFactory.getChannel(serviceName).await().atMost(Duration.ofSeconds(1)))
+                .isInstanceOf(CircuitBreakerOpenException.class);
+
+            server = ServerBuilder.forPort(port)
+                .addService(new TestGreeterService())
+                .build()
+                .start();
+            Thread.sleep(1200);
+
+            // The trial call goes through the rebuilt channel and closes the breaker
+            var recovered = clientFactory.getClient(serviceName, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(10));
+            HelloReply reply = recovered.sayHello(HelloRequest.newBuilder().setName("Back").build())
+                .await().atMost(Duration.ofSeconds(5));
+
+            assertThat(reply.getMessage()).isEqualTo("Hello Back");
+            assertThat(circuitBreakers.state(serviceName)).isEqualTo(CircuitBreaker.State.CLOSED);
+        } finally {
+            if (server != null) {
+                server.shutdownNow();
+            }
+            consulRegistration.deregisterService(serviceName + "-1");
+        }
+    }
+
+    /**
+     * Simple greeter service.
+     */
+    static class TestGreeterService extends MutinyGreeterGrpc.GreeterImplBase {
+        @Override
+        public Uni<HelloReply> sayHello(HelloRequest request) {
+            return Uni.createFrom().item(HelloReply.newBuilder()
+                .setMessage("Hello " + request.getName())
+                .build());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulServiceRegistration;
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.MutinyGreeterGrpc;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests that calls beyond a service's concurrency limit fail fast, also across channel rebuilds.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+@TestProfile(ConcurrencyLimitTest.ConcurrencyLimitProfile.class)
+public class ConcurrencyLimitTest {
+
+    @Inject
+    GrpcClientFactory clientFactory;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.host")
+    String consulHost;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.port")
+    int consulPort;
+
+    /**
+     * Pins the concurrency limit of every service to a single call.
+     */
+    public static class ConcurrencyLimitProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "quarkus.dynamic-grpc.concurrency-limit.enabled", "true",
+                "quarkus.dynamic-grpc.concurrency-limit.initial-limit", "1",
+                "quarkus.dynamic-grpc.concurrency-limit.max-limit", "1");
+        }
+    }
+
+    @Test
+    @DisplayName("A call beyond the limit fails with RESOURCE_EXHAUSTED while the first is in flight")
+    void testCallBeyondLimitIsRejected() throws Exception {
+        String serviceName = "concurrency-limit-test-service";
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        Server server = ServerBuilder.forPort(port)
+            .addService(new SlowGreeterService())
+            .build()
+            .start();
+
+        ConsulServiceRegistration consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        try {
+            consulRegistration.registerService(serviceName, serviceName + "-1", "127.0.0.1", port);
+            Thread.sleep(500);
+
+            var client = clientFactory.getClient(serviceName, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(10));
+
+            var inFlight = client.sayHello(HelloRequest.newBuilder().setName("First").build())
+                .subscribeAsCompletionStage();
+            Thread.sleep(100);
+
+            assertThatThrownBy(() -> client.sayHello(HelloRequest.newBuilder().setName("Second").build())
+                    .await().atMost(Duration.ofSeconds(1)))
+                .isInstanceOf(StatusRuntimeException.class)
+                .satisfies(e -> assertThat(((StatusRuntimeException) e).getStatus().getCode())
+                    .isEqualTo(Status.Code.RESOURCE_EXHAUSTED));
+
+            assertThat(inFlight.get().getMessage()).isEqualTo("Hello First");
+
+            // The slot is free again once the first call completed
+            HelloReply reply = client.sayHello(HelloRequest.newBuilder().setName("Third").build())
+                .await().atMost(Duration.ofSeconds(5));
+            assertThat(reply.getMessage()).isEqualTo("Hello Third");
+        } finally {
+            server.shutdownNow();
+            consulRegistration.deregisterService(serviceName + "-1");
+        }
+    }
+
+    @Test
+    @DisplayName("A rebuilt channel keeps the limit of its service and the calls still in flight")
+    void testLimitSurvivesChannelRebuild() throws Exception {
+        String serviceName = "concurrency-limit-rebuild-test-service";
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        Server server = ServerBuilder.forPort(port)
+            .addService(new SlowGreeterService())
+            .build()
+            .start();
+
+        ConsulServiceRegistration consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        try {
+            consulRegistration.registerService(serviceName, serviceName + "-1", "127.0.0.1", port);
+            Thread.sleep(500);
+
+            var client = clientFactory.getClient(serviceName, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(10));
+            var inFlight = client.sayHello(HelloRequest.newBuilder().setName("First").build())
+                .subscribeAsCompletionStage();
+            Thread.sleep(100);
+
+            // Rebuild the channel as the circuit breaker does; the first call still holds the only slot
+            clientFactory.evictChannel(serviceName);
+            var rebuilt = clientFactory.getClient(serviceName, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(10));
+
+            assertThatThrownBy(() -> rebuilt.sayHello(HelloRequest.newBuilder().setName("Second").build())
+                    .await().atMost(Duration.ofSeconds(1)))
+                .isInstanceOf(StatusRuntimeException.class)
+                .satisfies(e -> assertThat(((StatusRuntimeException) e).getStatus().getCode())
+                    .isEqualTo(Status.Code.RESOURCE_EXHAUSTED));
+
+            assertThat(inFlight.get().getMessage()).isEqualTo("Hello First");
+        } finally {
+            server.shutdownNow();
+            consulRegistration.deregisterService(serviceName + "-1");
+        }
+    }
+
+    /**
+     * Greeter service answering after half a second.
+     */
+    static class SlowGreeterService extends MutinyGreeterGrpc.GreeterImplBase {
+        @Override
+        public Uni<HelloReply> sayHello(HelloRequest request) {
+            return Uni.createFrom().item(HelloReply.newBuilder()
+                    .setMessage("Hello " + request.getName())
+                    .build())
+                .onItem().delayIt().by(Duration.ofMillis(500));
+        }
+    }
+}
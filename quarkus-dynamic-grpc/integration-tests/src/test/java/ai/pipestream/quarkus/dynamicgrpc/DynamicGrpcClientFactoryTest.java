@@ -2,9 +2,18 @@ package ai.pipestream.quarkus.dynamicgrpc;
 
 import ai.pipestream.quarkus.dynamicgrpc.GrpcClientFactory;
 import ai.pipestream.quarkus.dynamicgrpc.base.DynamicGrpcClientFactoryTestBase;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.MutinyGreeterGrpc;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * Core integration tests for DynamicGrpcClientFactory with real Consul discovery.
@@ -29,4 +38,30 @@ class DynamicGrpcClientFactoryTest extends DynamicGrpcClientFactoryTestBase {
     protected GrpcClientFactory getFactory() {
         return factory;
     }
+
+    @Test
+    @DisplayName("Each getClient counts exactly one cache lookup")
+    void testCacheStatsCountOneLookupPerCall() throws InterruptedException {
+        Thread.sleep(500);
+
+        // The first call creates the channel and caches the stub
+        factory.getClient(TEST_SERVICE_NAME, MutinyGreeterGrpc::newMutinyStub)
+            .await().atMost(Duration.ofSeconds(10));
+        long[] before = hitsAndMisses();
+
+        for (int i = 0; i < 5; i++) {
+            factory.getClient(TEST_SERVICE_NAME, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(5));
+        }
+
+        long[] after = hitsAndMisses();
+        assertThat(after[0] - before[0]).isEqualTo(5);
+        assertThat(after[1] - before[1]).isZero();
+    }
+
+    private long[] hitsAndMisses() {
+        Matcher matcher = Pattern.compile("Hits: (\\d+), Misses: (\\d+)").matcher(factory.getCacheStats());
+        assertThat(matcher.find()).isTrue();
+        return new long[] {Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2))};
+    }
 }
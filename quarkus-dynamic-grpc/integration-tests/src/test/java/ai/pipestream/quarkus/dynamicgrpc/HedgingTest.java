@@ -0,0 +1,178 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulServiceRegistration;
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.MutinyGreeterGrpc;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests that a hedged call is answered by a fast instance while a slow one is still working, and
+ * that the attempts of a call go to different instances.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+@TestProfile(HedgingTest.HedgingProfile.class)
+public class HedgingTest {
+
+    private static final String SERVICE_NAME = "hedging-test-service";
+    private static final String SPREAD_SERVICE_NAME = "hedging-spread-test-service";
+
+    @Inject
+    GrpcClientFactory clientFactory;
+
+    @Inject
+    ServiceDiscoveryManager serviceDiscoveryManager;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.host")
+    String consulHost;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.port")
+    int consulPort;
+
+    /**
+     * Hedges every method of the test services. Outlier detection is enabled for its in-flight
+     * aware selection; the spread service selects at random, so only the exclusion of outstanding
+     * attempts sends its hedges to the other instance.
+     */
+    public static class HedgingProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "quarkus.dynamic-grpc.outlier-detection.enabled", "true",
+                "quarkus.dynamic-grpc.services." + SERVICE_NAME + ".hedging.methods", "*",
+                "quarkus.dynamic-grpc.services." + SERVICE_NAME + ".hedging.delay", "100ms",
+                "quarkus.dynamic-grpc.services." + SERVICE_NAME + ".hedging.max-attempts", "2",
+                "quarkus.dynamic-grpc.services." + SPREAD_SERVICE_NAME + ".hedging.methods", "*",
+                "quarkus.dynamic-grpc.services." + SPREAD_SERVICE_NAME + ".hedging.delay", "50ms",
+                "quarkus.dynamic-grpc.services." + SPREAD_SERVICE_NAME + ".hedging.max-attempts", "2",
+                "quarkus.dynamic-grpc.services." + SPREAD_SERVICE_NAME + ".stork.load-balancer", "random");
+        }
+    }
+
+    @Test
+    @DisplayName("Calls complete at the fast instance's pace when one instance is slow")
+    void testSlowInstanceIsHedged() throws Exception {
+        int fastPort;
+        int slowPort;
+        try (ServerSocket fast = new ServerSocket(0); ServerSocket slow = new ServerSocket(0)) {
+            fastPort = fast.getLocalPort();
+            slowPort = slow.getLocalPort();
+        }
+
+        Server fastServer = ServerBuilder.forPort(fastPort)
+            .addService(new TestGreeterService("fast", Duration.ZERO))
+            .build()
+            .start();
+        Server slowServer = ServerBuilder.forPort(slowPort)
+            .addService(new TestGreeterService("slow", Duration.ofSeconds(5)))
+            .build()
+            .start();
+
+        ConsulServiceRegistration consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        try {
+            consulRegistration.registerService(SERVICE_NAME, SERVICE_NAME + "-fast", "127.0.0.1", fastPort);
+            consulRegistration.registerService(SERVICE_NAME, SERVICE_NAME + "-slow", "127.0.0.1", slowPort);
+            Thread.sleep(500);
+
+            var client = clientFactory.getClient(SERVICE_NAME, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(10));
+
+            // Sequential calls, so whichever instance gets the original, the hedge goes to the other one
+            for (int i = 0; i < 10; i++) {
+                HelloReply reply = client.sayHello(HelloRequest.newBuilder().setName("Call " + i).build())
+                    .await().atMost(Duration.ofSeconds(2));
+                assertThat(reply.getMessage()).isEqualTo("fast: Hello Call " + i);
+            }
+        } finally {
+            fastServer.shutdown();
+            slowServer.shutdownNow();
+            consulRegistration.deregisterService(SERVICE_NAME + "-fast");
+            consulRegistration.deregisterService(SERVICE_NAME + "-slow");
+        }
+    }
+
+    @Test
+    @DisplayName("The attempts of a hedged call go to two different instances")
+    void testHedgeGoesToAnotherInstance() throws Exception {
+        TestGreeterService first = new TestGreeterService("first", Duration.ofMillis(300));
+        TestGreeterService second = new TestGreeterService("second", Duration.ofMillis(300));
+        Server firstServer = ServerBuilder.forPort(0).addService(first).build().start();
+        Server secondServer = ServerBuilder.forPort(0).addService(second).build().start();
+
+        ConsulServiceRegistration consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        try {
+            consulRegistration.registerService(SPREAD_SERVICE_NAME, SPREAD_SERVICE_NAME + "-1", "127.0.0.1",
+                firstServer.getPort());
+            consulRegistration.registerService(SPREAD_SERVICE_NAME, SPREAD_SERVICE_NAME + "-2", "127.0.0.1",
+                secondServer.getPort());
+            await().atMost(Duration.ofSeconds(10)).until(() -> serviceDiscoveryManager
+                .getServiceInstances(SPREAD_SERVICE_NAME).await().atMost(Duration.ofSeconds(5)).size() == 2);
+
+            var client = clientFactory.getClient(SPREAD_SERVICE_NAME, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(10));
+
+            // Both instances are slower than the hedge delay, so every call sends two attempts
+            for (int i = 0; i < 10; i++) {
+                client.sayHello(HelloRequest.newBuilder().setName("Call " + i).build())
+                    .await().atMost(Duration.ofSeconds(2));
+            }
+
+            // Random selection alone would put both attempts of a call on one instance half of the time
+            List<String> names = IntStream.range(0, 10).mapToObj(i -> "Call " + i).toList();
+            await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> {
+                assertThat(first.received).containsExactlyInAnyOrderElementsOf(names);
+                assertThat(second.received).containsExactlyInAnyOrderElementsOf(names);
+            });
+        } finally {
+            firstServer.shutdownNow();
+            secondServer.shutdownNow();
+            consulRegistration.deregisterService(SPREAD_SERVICE_NAME + "-1");
+            consulRegistration.deregisterService(SPREAD_SERVICE_NAME + "-2");
+        }
+    }
+
+    /**
+     * Greeter service answering after a fixed delay and keeping the names it was sent.
+     */
+    static class TestGreeterService extends MutinyGreeterGrpc.GreeterImplBase {
+        final List<String> received = new CopyOnWriteArrayList<>();
+        private final String name;
+        private final Duration delay;
+
+        TestGreeterService(String name, Duration delay) {
+            this.name = name;
+            this.delay = delay;
+        }
+
+        @Override
+        public Uni<HelloReply> sayHello(HelloRequest request) {
+            received.add(request.getName());
+            Uni<HelloReply> reply = Uni.createFrom().item(HelloReply.newBuilder()
+                .setMessage(name + ": Hello " + request.getName())
+                .build());
+            return delay.isZero() ? reply : reply.onItem().delayIt().by(delay);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulServiceRegistration;
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.MutinyGreeterGrpc;
+import io.grpc.Channel;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that channels follow the instance changes of their service without being rebuilt, both
+ * the cached channels of the factory and plain grpc-java channels on a {@code dynamic-grpc://} target,
+ * and that a cached channel is dropped once its service has no instance left.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+public class InstanceChangeTest {
+
+    @Inject
+    GrpcClientFactory clientFactory;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.host")
+    String consulHost;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.port")
+    int consulPort;
+
+    @Test
+    @DisplayName("A rolling replacement of the only instance keeps the channel and moves calls to the new one")
+    void testRollingReplacementKeepsChannel() throws Exception {
+        String serviceName = "instance-change-test-service";
+        Server oldServer = startServer("Old");
+        Server newServer = startServer("New");
+
+        ConsulServiceRegistration consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        try {
+            consulRegistration.registerService(serviceName, serviceName + "-old", "127.0.0.1", oldServer.getPort());
+            Thread.sleep(500);
+
+            var client = clientFactory.getClient(serviceName, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(10));
+            Channel channel = clientFactory.getChannel(serviceName).await().atMost(Duration.ofSeconds(5));
+            assertThat(sayHello(client)).isEqualTo("Hello from Old");
+
+            // Roll the deployment: the new instance comes up, then the old one goes away
+            consulRegistration.registerService(serviceName, serviceName + "-new", "127.0.0.1", newServer.getPort());
+            consulRegistration.deregisterService(serviceName + "-old");
+            oldServer.shutdownNow();
+            Thread.sleep(1000);
+
+            for (int i = 0; i < 5; i++) {
+                assertThat(sayHello(client)).isEqualTo("Hello from New");
+            }
+            assertThat(clientFactory.getChannel(serviceName).await().atMost(Duration.ofSeconds(5)))
+                .isSameAs(channel);
+        } finally {
+            oldServer.shutdownNow();
+            newServer.shutdownNow();
+            consulRegistration.deregisterService(serviceName + "-old");
+            consulRegistration.deregisterService(serviceName + "-new");
+        }
+    }
+
+    @Test
+    @DisplayName("Removing the last instance evicts the channel, and the service comes back on a new one")
+    void testLastInstanceRemovedEvictsChannel() throws Exception {
+        String serviceName = "instance-gone-test-service";
+        Server server = startServer("Back");
+
+        ConsulServiceRegistration consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        try {
+            consulRegistration.registerService(serviceName, serviceName + "-1", "127.0.0.1", server.getPort());
+            Thread.sleep(500);
+            Channel channel = clientFactory.getChannel(serviceName).await().atMost(Duration.ofSeconds(10));
+
+            consulRegistration.deregisterService(serviceName + "-1");
+            Thread.sleep(1000);
+
+            consulRegistration.registerService(serviceName, serviceName + "-2", "127.0.0.1", server.getPort());
+            Thread.sleep(500);
+            var client = clientFactory.getClient(serviceName, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(10));
+            assertThat(sayHello(client)).isEqualTo("Hello from Back");
+            assertThat(clientFactory.getChannel(serviceName).await().atMost(Duration.ofSeconds(5)))
+                .isNotSameAs(channel);
+        } finally {
+            server.shutdownNow();
+            consulRegistration.deregisterService(serviceName + "-1");
+            consulRegistration.deregisterService(serviceName + "-2");
+        }
+    }
+
+    @Test
+    @DisplayName("A plain grpc-java channel on a dynamic-grpc:// target receives the new instance without re-resolving")
+    void testNameResolverPushesChanges() throws Exception {
+        String serviceName = "name-resolver-test-service";
+        Server oldServer = startServer("Old");
+        Server newServer = startServer("New");
+
+        ConsulServiceRegistration consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        ManagedChannel channel = null;
+        try {
+            consulRegistration.registerService(serviceName, serviceName + "-old", "127.0.0.1", oldServer.getPort());
+            Thread.sleep(500);
+
+            channel = ManagedChannelBuilder.forTarget(DynamicGrpcClientFactory.StorkNameResolverProvider.SCHEME + "://" + serviceName)
+                .defaultLoadBalancingPolicy("round_robin")
+                .usePlaintext()
+                .build();
+            var client = MutinyGreeterGrpc.newMutinyStub(channel);
+            assertThat(sayHello(client)).isEqualTo("Hello from Old");
+
+            // The old server keeps running, so only a pushed update moves the calls
+            consulRegistration.registerService(serviceName, serviceName + "-new", "127.0.0.1", newServer.getPort());
+            consulRegistration.deregisterService(serviceName + "-old");
+            Thread.sleep(1000);
+
+            for (int i = 0; i < 5; i++) {
+                assertThat(sayHello(client)).isEqualTo("Hello from New");
+            }
+        } finally {
+            if (channel != null) {
+                channel.shutdownNow();
+            }
+            oldServer.shutdownNow();
+            newServer.shutdownNow();
+            consulRegistration.deregisterService(serviceName + "-old");
+            consulRegistration.deregisterService(serviceName + "-new");
+        }
+    }
+
+    @Test
+    @DisplayName("The name resolver declines stork:// targets and targets without a service name")
+    void testNameResolverDeclinesOtherTargets() {
+        var provider = new DynamicGrpcClientFactory.StorkNameResolverProvider();
+
+        assertThat(provider.newNameResolver(URI.create("stork://orders-service"), null)).isNull();
+        assertThat(provider.newNameResolver(URI.create("dynamic-grpc:///"), null)).isNull();
+        assertThat(provider.newNameResolver(URI.create("dynamic-grpc://orders-service"), null).getServiceAuthority())
+            .isEqualTo("orders-service");
+    }
+
+    private static String sayHello(MutinyGreeterGrpc.MutinyGreeterStub client) {
+        HelloReply reply = client.sayHello(HelloRequest.newBuilder().setName("Rolling").build())
+            .await().atMost(Duration.ofSeconds(5));
+        return reply.getMessage();
+    }
+
+    private static Server startServer(String instanceName) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        return ServerBuilder.forPort(port)
+            .addService(new NamedGreeterService(instanceName))
+            .build()
+            .start();
+    }
+
+    /**
+     * Greeter service answering with its instance name.
+     */
+    static class NamedGreeterService extends MutinyGreeterGrpc.GreeterImplBase {
+        private final String instanceName;
+
+        NamedGreeterService(String instanceName) {
+            this.instanceName = instanceName;
+        }
+
+        @Override
+        public Uni<HelloReply> sayHello(HelloRequest request) {
+            return Uni.createFrom().item(HelloReply.newBuilder()
+                .setMessage("Hello from " + instanceName)
+                .build());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulServiceRegistration;
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.DynamicConsulServiceDiscovery;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.ServiceDiscoveryImpl;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.stork.api.ServiceInstance;
+import io.smallrye.stork.loadbalancer.leastresponsetime.LeastResponseTimeConfiguration;
+import io.smallrye.stork.loadbalancer.leastresponsetime.LeastResponseTimeLoadBalancer;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that instances of the direct Consul discovery have distinct, stable ids, which Stork
+ * load balancers with per-instance statistics rely on.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+public class InstanceIdentityTest {
+
+    private static final String SERVICE_NAME = "identity-test-service";
+    private static final int INSTANCES = 32;
+
+    @Inject
+    @ServiceDiscoveryImpl(ServiceDiscoveryImpl.Type.CONSUL_DIRECT)
+    DynamicConsulServiceDiscovery discovery;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.host")
+    String consulHost;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.port")
+    int consulPort;
+
+    private ConsulServiceRegistration consulRegistration;
+    private final List<String> serviceIds = new ArrayList<>();
+
+    @BeforeEach
+    void setup() throws InterruptedException {
+        consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        // Ids that only differ in letters, so a digits-only id would be the same for all of them
+        for (int i = 0; i < INSTANCES; i++) {
+            String serviceId = SERVICE_NAME + "-" + (char) ('a' + i % 26) + (char) ('a' + i / 26) + "-1";
+            serviceIds.add(serviceId);
+            consulRegistration.registerService(SERVICE_NAME, serviceId, "127.0.0.1", 52000 + i);
+        }
+        Thread.sleep(500);
+    }
+
+    @AfterEach
+    void cleanup() {
+        serviceIds.forEach(consulRegistration::deregisterService);
+        serviceIds.clear();
+    }
+
+    @Test
+    @DisplayName("Instance ids are unique and derived from the full Consul service id")
+    void testIdsAreUniqueAndStable() {
+        List<ServiceInstance> instances = discovery.discoverAllInstances(SERVICE_NAME)
+            .await().atMost(Duration.ofSeconds(5));
+
+        assertThat(instances).hasSize(INSTANCES);
+        assertThat(instances).extracting(ServiceInstance::getId).doesNotHaveDuplicates();
+        assertThat(instances).extracting(ServiceInstance::getId)
+            .containsExactlyInAnyOrderElementsOf(serviceIds.stream()
+                .map(DynamicConsulServiceDiscovery::instanceId)
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Least-response-time selection converges on the only healthy instance")
+    void testLeastResponseTimeWithManyInstances() {
+        List<ServiceInstance> instances = discovery.discoverAllInstances(SERVICE_NAME)
+            .await().atMost(Duration.ofSeconds(5));
+        int healthyPort = 52000 + INSTANCES - 1;
+
+        LeastResponseTimeLoadBalancer loadBalancer =
+            new LeastResponseTimeLoadBalancer(new LeastResponseTimeConfiguration());
+
+        // Every instance but one fails; the balancer must tell them apart to avoid the failures
+        int healthySelections = 0;
+        for (int i = 0; i < 500; i++) {
+            ServiceInstance selected = loadBalancer.selectServiceInstance(instances);
+            selected.recordStart(true);
+            if (selected.getPort() == healthyPort) {
+                selected.recordReply();
+                selected.recordEnd(null);
+                if (i >= 400) {
+                    healthySelections++;
+                }
+            } else {
+                selected.recordEnd(new RuntimeException("instance failure"));
+            }
+        }
+
+        assertThat(healthySelections).isGreaterThan(50);
+    }
+}
@@ -0,0 +1,184 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulServiceRegistration;
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.ConsulInstanceMetadataKey;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.DynamicConsulServiceDiscovery;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.ServiceDiscoveryImpl;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.MutinyGreeterGrpc;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.stork.api.ServiceInstance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests for tag/meta filtering and zone preference of the direct Consul discovery and of channels.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+@TestProfile(InstanceRoutingTest.ZoneProfile.class)
+public class InstanceRoutingTest {
+
+    private static final String SERVICE_NAME = "routing-test-service";
+    private static final String CHANNEL_SERVICE_NAME = "routing-channel-test-service";
+
+    @Inject
+    @ServiceDiscoveryImpl(ServiceDiscoveryImpl.Type.CONSUL_DIRECT)
+    DynamicConsulServiceDiscovery discovery;
+
+    @Inject
+    GrpcClientFactory clientFactory;
+
+    @Inject
+    ServiceDiscoveryManager serviceDiscoveryManager;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.host")
+    String consulHost;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.port")
+    int consulPort;
+
+    private ConsulServiceRegistration consulRegistration;
+
+    /**
+     * Runs the application in zone {@code zone-a} and requires the {@code grpc} tag and
+     * {@code tier=gold} meta for the test service. The channel test service has no requirements.
+     */
+    public static class ZoneProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "quarkus.dynamic-grpc.discovery.zone", "zone-a",
+                "quarkus.dynamic-grpc.services." + SERVICE_NAME + ".required-tags", "grpc",
+                "quarkus.dynamic-grpc.services." + SERVICE_NAME + ".required-meta.tier", "gold");
+        }
+    }
+
+    @BeforeEach
+    void setup() throws InterruptedException {
+        consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        consulRegistration.registerService(SERVICE_NAME, "routing-local", "127.0.0.1", 50001,
+            List.of("grpc", "tls"), Map.of("tier", "gold", "zone", "zone-a", "weight", "5"));
+        consulRegistration.registerService(SERVICE_NAME, "routing-remote", "127.0.0.1", 50002,
+            List.of("grpc"), Map.of("tier", "gold", "zone", "zone-b"));
+        consulRegistration.registerService(SERVICE_NAME, "routing-silver", "127.0.0.1", 50003,
+            List.of("grpc"), Map.of("tier", "silver", "zone", "zone-a"));
+        consulRegistration.registerService(SERVICE_NAME, "routing-untagged", "127.0.0.1", 50004,
+            List.of(), Map.of("tier", "gold", "zone", "zone-a"));
+        Thread.sleep(500);
+    }
+
+    @AfterEach
+    void cleanup() {
+        for (String id : List.of("routing-local", "routing-remote", "routing-silver", "routing-untagged")) {
+            consulRegistration.deregisterService(id);
+        }
+    }
+
+    @Test
+    @DisplayName("Instances without the required tags or meta are filtered out, local zone first")
+    void testFilteringAndZoneOrder() {
+        List<ServiceInstance> instances = discovery.discoverAllInstances(SERVICE_NAME)
+            .await().atMost(Duration.ofSeconds(5));
+
+        assertThat(instances).extracting(ServiceInstance::getPort).containsExactly(50001, 50002);
+
+        ServiceInstance local = instances.getFirst();
+        assertThat(local.isSecure()).isTrue();
+        assertThat(local.getLabels()).containsEntry("zone", "zone-a").containsKey("grpc");
+        assertThat(local.getMetadata().getMetadata())
+            .containsEntry(ConsulInstanceMetadataKey.ZONE, "zone-a")
+            .containsEntry(ConsulInstanceMetadataKey.WEIGHT, 5);
+        assertThat(instances.get(1).isSecure()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Single-instance lookups stay in the local zone while it has instances")
+    void testLocalZonePreferred() {
+        for (int i = 0; i < 20; i++) {
+            ServiceInstance selected = discovery.discoverService(SERVICE_NAME)
+                .await().atMost(Duration.ofSeconds(5));
+            assertThat(selected.getPort()).isEqualTo(50001);
+        }
+    }
+
+    @Test
+    @DisplayName("Channels stay in the local zone while it has instances and overflow once it has none")
+    void testChannelPrefersLocalZone() throws Exception {
+        ZoneGreeterService localService = new ZoneGreeterService("zone-a");
+        ZoneGreeterService remoteService = new ZoneGreeterService("zone-b");
+        Server localServer = ServerBuilder.forPort(0).addService(localService).build().start();
+        Server remoteServer = ServerBuilder.forPort(0).addService(remoteService).build().start();
+        try {
+            consulRegistration.registerService(CHANNEL_SERVICE_NAME, "channel-local", "127.0.0.1",
+                localServer.getPort(), List.of(), Map.of("zone", "zone-a"));
+            consulRegistration.registerService(CHANNEL_SERVICE_NAME, "channel-remote", "127.0.0.1",
+                remoteServer.getPort(), List.of(), Map.of("zone", "zone-b"));
+            await().atMost(Duration.ofSeconds(10)).until(() -> serviceDiscoveryManager
+                .getServiceInstances(CHANNEL_SERVICE_NAME).await().atMost(Duration.ofSeconds(5)).size() == 2);
+
+            var client = clientFactory.getClient(CHANNEL_SERVICE_NAME, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(10));
+            for (int i = 0; i < 20; i++) {
+                HelloReply reply = client.sayHello(HelloRequest.newBuilder().setName("Call " + i).build())
+                    .await().atMost(Duration.ofSeconds(5));
+                assertThat(reply.getMessage()).isEqualTo("zone-a: Hello Call " + i);
+            }
+            assertThat(remoteService.received).hasValue(0);
+
+            // Without local instances, the same channel overflows to the other zone
+            consulRegistration.deregisterService("channel-local");
+            await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+                HelloReply reply = client.sayHello(HelloRequest.newBuilder().setName("Overflow").build())
+                    .await().atMost(Duration.ofSeconds(5));
+                assertThat(reply.getMessage()).isEqualTo("zone-b: Hello Overflow");
+            });
+        } finally {
+            clientFactory.evictChannel(CHANNEL_SERVICE_NAME);
+            consulRegistration.deregisterService("channel-local");
+            consulRegistration.deregisterService("channel-remote");
+            localServer.shutdownNow();
+            remoteServer.shutdownNow();
+        }
+    }
+
+    /**
+     * Greeter service answering with its zone and counting its calls.
+     */
+    static class ZoneGreeterService extends MutinyGreeterGrpc.GreeterImplBase {
+        final AtomicInteger received = new AtomicInteger();
+        private final String zone;
+
+        ZoneGreeterService(String zone) {
+            this.zone = zone;
+        }
+
+        @Override
+        public Uni<HelloReply> sayHello(HelloRequest request) {
+            received.incrementAndGet();
+            return Uni.createFrom().item(HelloReply.newBuilder()
+                .setMessage(zone + ": Hello " + request.getName())
+                .build());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulServiceRegistration;
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.MutinyGreeterGrpc;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests that calls over a dynamic channel feed the load-aware balancers, so a busy instance
+ * receives less traffic.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+@TestProfile(LoadAwareSelectionTest.PowerOfTwoProfile.class)
+public class LoadAwareSelectionTest {
+
+    private static final String SERVICE_NAME = "load-aware-test-service";
+
+    @Inject
+    GrpcClientFactory clientFactory;
+
+    @Inject
+    ServiceDiscoveryManager serviceDiscoveryManager;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.host")
+    String consulHost;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.port")
+    int consulPort;
+
+    private ConsulServiceRegistration consulRegistration;
+    private final HangingGreeterService busy = new HangingGreeterService();
+    private final CountingGreeterService idle = new CountingGreeterService();
+    private Server busyServer;
+    private Server idleServer;
+
+    /**
+     * Selects the instances of channels with power-of-two-choices, through outlier detection.
+     */
+    public static class PowerOfTwoProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "quarkus.dynamic-grpc.outlier-detection.enabled", "true",
+                "quarkus.dynamic-grpc.outlier-detection.load-balancer", "power-of-two-choices");
+        }
+    }
+
+    @BeforeEach
+    void setup() throws IOException {
+        busyServer = ServerBuilder.forPort(0).addService(busy).build().start();
+        idleServer = ServerBuilder.forPort(0).addService(idle).build().start();
+
+        consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        consulRegistration.registerService(SERVICE_NAME, "load-busy", "127.0.0.1", busyServer.getPort());
+        consulRegistration.registerService(SERVICE_NAME, "load-idle", "127.0.0.1", idleServer.getPort());
+        await().atMost(Duration.ofSeconds(10)).until(() -> serviceDiscoveryManager.getServiceInstances(SERVICE_NAME)
+            .await().atMost(Duration.ofSeconds(5)).size() == 2);
+    }
+
+    @AfterEach
+    void cleanup() throws InterruptedException {
+        busy.release();
+        clientFactory.evictChannel(SERVICE_NAME);
+        consulRegistration.deregisterService("load-busy");
+        consulRegistration.deregisterService("load-idle");
+        busyServer.shutdown();
+        idleServer.shutdown();
+        busyServer.awaitTermination(5, TimeUnit.SECONDS);
+        idleServer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("An instance with calls in flight is selected less often than an idle one")
+    void testBusyInstanceReceivesLessTraffic() throws Exception {
+        var client = clientFactory.getClient(SERVICE_NAME, MutinyGreeterGrpc::newMutinyStub)
+            .await().atMost(Duration.ofSeconds(10));
+
+        List<CompletableFuture<HelloReply>> busyCalls = new ArrayList<>();
+        int calls = 50;
+        for (int i = 0; i < calls; i++) {
+            int received = busy.received() + idle.received.get();
+            CompletableFuture<HelloReply> reply = client.sayHello(HelloRequest.newBuilder().setName("Call " + i).build())
+                .subscribeAsCompletionStage();
+            await().atMost(Duration.ofSeconds(5)).until(() -> busy.received() + idle.received.get() > received);
+            if (busy.received() > busyCalls.size()) {
+                // Calls on the busy instance stay in flight until the end of the test
+                busyCalls.add(reply);
+            } else {
+                reply.get(5, TimeUnit.SECONDS);
+            }
+        }
+
+        // Once one call is stuck on the busy instance, both choices only pick it on a tie
+        assertThat(busyCalls).hasSizeLessThanOrEqualTo(1);
+        assertThat(idle.received.get()).isGreaterThanOrEqualTo(calls - 1);
+
+        busy.release();
+        for (CompletableFuture<HelloReply> call : busyCalls) {
+            assertThat(call.get(5, TimeUnit.SECONDS).getMessage()).startsWith("Hello Call");
+        }
+    }
+
+    /**
+     * Greeter service that answers at once and counts its calls.
+     */
+    static class CountingGreeterService extends MutinyGreeterGrpc.GreeterImplBase {
+        final AtomicInteger received = new AtomicInteger();
+
+        @Override
+        public Uni<HelloReply> sayHello(HelloRequest request) {
+            received.incrementAndGet();
+            return Uni.createFrom().item(HelloReply.newBuilder()
+                .setMessage("Hello " + request.getName())
+                .build());
+        }
+    }
+
+    /**
+     * Greeter service that holds every call until released.
+     */
+    static class HangingGreeterService extends MutinyGreeterGrpc.GreeterImplBase {
+        private final List<Map.Entry<HelloRequest, UniEmitter<? super HelloReply>>> pending = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Uni<HelloReply> sayHello(HelloRequest request) {
+            return Uni.createFrom().emitter(emitter -> pending.add(Map.entry(request, emitter)));
+        }
+
+        int received() {
+            return pending.size();
+        }
+
+        void release() {
+            pending.forEach(call -> call.getValue().complete(HelloReply.newBuilder()
+                .setMessage("Hello " + call.getKey().getName())
+                .build()));
+        }
+    }
+}
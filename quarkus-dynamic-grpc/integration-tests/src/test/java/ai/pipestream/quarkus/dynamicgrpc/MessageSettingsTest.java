@@ -0,0 +1,150 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulServiceRegistration;
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.MutinyGreeterGrpc;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests the outbound message limit and the compression threshold against a server recording the
+ * {@code grpc-encoding} of every call it receives.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+@TestProfile(MessageSettingsTest.MessageSettingsProfile.class)
+public class MessageSettingsTest {
+
+    private static final String SERVICE_NAME = "message-settings-test-service";
+    private static final Metadata.Key<String> GRPC_ENCODING =
+        Metadata.Key.of("grpc-encoding", Metadata.ASCII_STRING_MARSHALLER);
+
+    @Inject
+    GrpcClientFactory clientFactory;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.host")
+    String consulHost;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.port")
+    int consulPort;
+
+    private final List<String> encodings = new CopyOnWriteArrayList<>();
+    private ConsulServiceRegistration consulRegistration;
+    private Server server;
+
+    /**
+     * Limits outbound messages to 1KB and gzips requests of at least 256 bytes.
+     */
+    public static class MessageSettingsProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "quarkus.dynamic-grpc.services." + SERVICE_NAME + ".max-outbound-message-size", "1024",
+                "quarkus.dynamic-grpc.services." + SERVICE_NAME + ".compression", "gzip",
+                "quarkus.dynamic-grpc.services." + SERVICE_NAME + ".compression-threshold", "256");
+        }
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        ServerInterceptor recordEncoding = new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+                    ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                String encoding = headers.get(GRPC_ENCODING);
+                encodings.add(encoding != null ? encoding : "identity");
+                return next.startCall(call, headers);
+            }
+        };
+        server = ServerBuilder.forPort(port)
+            .addService(ServerInterceptors.intercept(new EchoGreeterService(), recordEncoding))
+            .build()
+            .start();
+
+        consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        consulRegistration.registerService(SERVICE_NAME, SERVICE_NAME + "-1", "127.0.0.1", port);
+        Thread.sleep(500);
+    }
+
+    @AfterEach
+    void cleanup() {
+        consulRegistration.deregisterService(SERVICE_NAME + "-1");
+        server.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("An oversized request fails with RESOURCE_EXHAUSTED without reaching the server")
+    void testOversizedMessageIsRejected() {
+        var client = clientFactory.getClient(SERVICE_NAME, MutinyGreeterGrpc::newMutinyStub)
+            .await().atMost(Duration.ofSeconds(10));
+
+        HelloRequest oversized = HelloRequest.newBuilder().setName("x".repeat(2000)).build();
+        assertThatThrownBy(() -> client.sayHello(oversized).await().atMost(Duration.ofSeconds(5)))
+            .isInstanceOf(StatusRuntimeException.class)
+            .satisfies(e -> assertThat(((StatusRuntimeException) e).getStatus().getCode())
+                .isEqualTo(Status.Code.RESOURCE_EXHAUSTED));
+        assertThat(encodings).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Requests reaching the threshold are sent gzip-encoded, smaller ones uncompressed")
+    void testCompressionThreshold() {
+        var client = clientFactory.getClient(SERVICE_NAME, MutinyGreeterGrpc::newMutinyStub)
+            .await().atMost(Duration.ofSeconds(10));
+
+        String compressible = "a".repeat(600);
+        HelloReply large = client.sayHello(HelloRequest.newBuilder().setName(compressible).build())
+            .await().atMost(Duration.ofSeconds(5));
+        HelloReply small = client.sayHello(HelloRequest.newBuilder().setName("small").build())
+            .await().atMost(Duration.ofSeconds(5));
+
+        assertThat(large.getMessage()).isEqualTo("Hello " + compressible);
+        assertThat(small.getMessage()).isEqualTo("Hello small");
+        assertThat(encodings).containsExactly("gzip", "identity");
+    }
+
+    /**
+     * Greeter service echoing the name.
+     */
+    static class EchoGreeterService extends MutinyGreeterGrpc.GreeterImplBase {
+        @Override
+        public Uni<HelloReply> sayHello(HelloRequest request) {
+            return Uni.createFrom().item(HelloReply.newBuilder()
+                .setMessage("Hello " + request.getName())
+                .build());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulServiceRegistration;
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.MutinyGreeterGrpc;
+import ai.pipestream.quarkus.dynamicgrpc.util.TestMeters;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests that an instance which keeps failing is ejected, from the outcome of real calls, before
+ * Consul stops returning it.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+@TestProfile(OutlierDetectionTest.OutlierDetectionProfile.class)
+public class OutlierDetectionTest {
+
+    @Inject
+    GrpcClientFactory clientFactory;
+
+    @Inject
+    ServiceDiscoveryManager serviceDiscoveryManager;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.host")
+    String consulHost;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.port")
+    int consulPort;
+
+    /**
+     * Enables outlier detection with a low failure threshold.
+     */
+    public static class OutlierDetectionProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "quarkus.dynamic-grpc.outlier-detection.enabled", "true",
+                "quarkus.dynamic-grpc.outlier-detection.consecutive-failures", "2",
+                "quarkus.dynamic-grpc.outlier-detection.base-ejection-time", "1m");
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        TestMeters.readable(registry);
+    }
+
+    @Test
+    @DisplayName("Calls stop reaching a dead instance once it has been ejected")
+    void testDeadInstanceIsEjected() throws Exception {
+        String serviceName = "outlier-test-service";
+        int livePort;
+        int deadPort;
+        try (ServerSocket live = new ServerSocket(0); ServerSocket dead = new ServerSocket(0)) {
+            livePort = live.getLocalPort();
+            deadPort = dead.getLocalPort();
+        }
+
+        Server server = ServerBuilder.forPort(livePort)
+            .addService(new TestGreeterService())
+            .build()
+            .start();
+
+        ConsulServiceRegistration consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        try {
+            // The dead instance stays registered: no health check will remove it during the test
+            consulRegistration.registerService(serviceName, serviceName + "-live", "127.0.0.1", livePort);
+            consulRegistration.registerService(serviceName, serviceName + "-dead", "127.0.0.1", deadPort);
+            await().atMost(Duration.ofSeconds(10)).until(() -> serviceDiscoveryManager.getServiceInstances(serviceName)
+                .await().atMost(Duration.ofSeconds(5)).size() == 2);
+
+            var client = clientFactory.getClient(serviceName, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(10));
+
+            // Calls that reach the dead instance fail until it has collected enough consecutive failures
+            await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+                client.sayHello(HelloRequest.newBuilder().setName("Warm-up").build())
+                    .onFailure().recoverWithNull()
+                    .await().atMost(Duration.ofSeconds(5));
+                assertThat(TestMeters.count(registry, "dynamic.grpc.outlier.ejections", serviceName,
+                    "reason", "consecutive_failures")).isEqualTo(1);
+            });
+            Gauge ejected = registry.find("dynamic.grpc.outlier.ejected").tag("service", serviceName).gauge();
+            assertThat(ejected).isNotNull();
+            assertThat(ejected.value()).isEqualTo(1);
+
+            for (int i = 0; i < 20; i++) {
+                HelloReply reply = client.sayHello(HelloRequest.newBuilder().setName("Call " + i).build())
+                    .await().atMost(Duration.ofSeconds(5));
+                assertThat(reply.getMessage()).isEqualTo("Hello Call " + i);
+            }
+        } finally {
+            server.shutdown();
+            consulRegistration.deregisterService(serviceName + "-live");
+            consulRegistration.deregisterService(serviceName + "-dead");
+        }
+    }
+
+    /**
+     * Simple greeter service.
+     */
+    static class TestGreeterService extends MutinyGreeterGrpc.GreeterImplBase {
+        @Override
+        public Uni<HelloReply> sayHello(HelloRequest request) {
+            return Uni.createFrom().item(HelloReply.newBuilder()
+                .setMessage("Hello " + request.getName())
+                .build());
+        }
+    }
+}
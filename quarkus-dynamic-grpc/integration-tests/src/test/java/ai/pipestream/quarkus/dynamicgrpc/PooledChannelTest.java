@@ -0,0 +1,87 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.GreeterGrpc;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import ai.pipestream.quarkus.dynamicgrpc.util.StubChannel;
+import ai.pipestream.quarkus.dynamicgrpc.util.StubChannel.StubCall;
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests of {@link PooledChannel} over stub member channels.
+ */
+class PooledChannelTest {
+
+    @Test
+    @DisplayName("Each new call goes to the member with the fewest calls in flight")
+    void testLeastInFlightSelection() {
+        List<StubChannel> members = List.of(new StubChannel(), new StubChannel(), new StubChannel());
+        PooledChannel pool = new PooledChannel("pool-unit-test", List.copyOf(members));
+
+        // Three open calls land on three different members
+        List<StubCall> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            calls.add(start(pool, members));
+        }
+        assertThat(members).allSatisfy(member -> assertThat(member.calls).hasSize(1));
+        assertThat(pool.inFlight()).isEqualTo(3);
+
+        // Once the call of one member closes, that member is the only one without a call in flight
+        StubChannel freed = members.get(1);
+        freed.calls.getFirst().close(Status.OK);
+        assertThat(pool.inFlight()).isEqualTo(2);
+        for (int i = 0; i < 5; i++) {
+            StubCall call = start(pool, members);
+            assertThat(freed.calls).contains(call);
+            call.close(Status.OK);
+        }
+        assertThat(members.get(0).calls).hasSize(1);
+        assertThat(members.get(2).calls).hasSize(1);
+
+        calls.forEach(call -> call.close(Status.OK));
+        assertThat(pool.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("A call holds its slot from start to close, and a call that is never started holds none")
+    void testSlotTakenOnStart() {
+        List<StubChannel> members = List.of(new StubChannel(), new StubChannel());
+        PooledChannel pool = new PooledChannel("pool-unit-test", List.copyOf(members));
+
+        ClientCall<HelloRequest, HelloReply> abandoned = pool.newCall(GreeterGrpc.getSayHelloMethod(), CallOptions.DEFAULT);
+        assertThat(pool.inFlight()).isZero();
+        abandoned.cancel("Not needed", null);
+        assertThat(pool.inFlight()).isZero();
+
+        StubCall call = start(pool, members);
+        assertThat(pool.inFlight()).isEqualTo(1);
+        call.close(Status.CANCELLED);
+        assertThat(pool.inFlight()).isZero();
+    }
+
+    /**
+     * Starts a call on the pool and returns the member call it was routed to.
+     */
+    private static StubCall start(PooledChannel pool, List<StubChannel> members) {
+        int[] before = members.stream().mapToInt(member -> member.calls.size()).toArray();
+        ClientCall<HelloRequest, HelloReply> call = pool.newCall(GreeterGrpc.getSayHelloMethod(), CallOptions.DEFAULT);
+        call.start(new ClientCall.Listener<>() {
+        }, new Metadata());
+        for (int i = 0; i < before.length; i++) {
+            if (members.get(i).calls.size() > before[i]) {
+                return members.get(i).calls.getLast();
+            }
+        }
+        throw new AssertionError("The call was not routed to any member");
+    }
+}
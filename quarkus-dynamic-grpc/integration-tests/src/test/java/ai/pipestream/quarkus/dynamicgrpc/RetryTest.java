@@ -0,0 +1,147 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulServiceRegistration;
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.MutinyGreeterGrpc;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests call retries and the default deadline of a service.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+@TestProfile(RetryTest.RetryProfile.class)
+public class RetryTest {
+
+    private static final String RETRY_SERVICE = "retry-test-service";
+    private static final String DEADLINE_SERVICE = "deadline-test-service";
+
+    @Inject
+    GrpcClientFactory clientFactory;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.host")
+    String consulHost;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.port")
+    int consulPort;
+
+    /**
+     * Retries every method of one service and gives the other a short default deadline.
+     */
+    public static class RetryProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "quarkus.dynamic-grpc.services." + RETRY_SERVICE + ".retry.methods", "*",
+                "quarkus.dynamic-grpc.services." + RETRY_SERVICE + ".retry.max-attempts", "3",
+                "quarkus.dynamic-grpc.services." + RETRY_SERVICE + ".retry.initial-backoff", "10ms",
+                "quarkus.dynamic-grpc.services." + DEADLINE_SERVICE + ".retry.deadline", "200ms");
+        }
+    }
+
+    @Test
+    @DisplayName("A call failing with UNAVAILABLE succeeds on a later attempt")
+    void testUnavailableIsRetried() throws Exception {
+        FlakyGreeterService service = new FlakyGreeterService(2, Duration.ZERO);
+        withService(RETRY_SERVICE, service, () -> {
+            var client = clientFactory.getClient(RETRY_SERVICE, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(10));
+
+            HelloReply reply = client.sayHello(HelloRequest.newBuilder().setName("Retry").build())
+                .await().atMost(Duration.ofSeconds(5));
+
+            assertThat(reply.getMessage()).isEqualTo("Hello Retry");
+            assertThat(service.calls.get()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    @DisplayName("A call made without deadline fails with DEADLINE_EXCEEDED after the service's deadline")
+    void testDefaultDeadline() throws Exception {
+        FlakyGreeterService service = new FlakyGreeterService(0, Duration.ofSeconds(5));
+        withService(DEADLINE_SERVICE, service, () -> {
+            var client = clientFactory.getClient(DEADLINE_SERVICE, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(10));
+
+            assertThatThrownBy(() -> client.sayHello(HelloRequest.newBuilder().setName("Slow").build())
+                    .await().atMost(Duration.ofSeconds(2)))
+                .isInstanceOf(StatusRuntimeException.class)
+                .satisfies(e -> assertThat(((StatusRuntimeException) e).getStatus().getCode())
+                    .isEqualTo(Status.Code.DEADLINE_EXCEEDED));
+        });
+    }
+
+    private void withService(String serviceName, FlakyGreeterService service, ThrowingRunnable test) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        Server server = ServerBuilder.forPort(port)
+            .addService(service)
+            .build()
+            .start();
+
+        ConsulServiceRegistration consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        try {
+            consulRegistration.registerService(serviceName, serviceName + "-1", "127.0.0.1", port);
+            Thread.sleep(500);
+            test.run();
+        } finally {
+            server.shutdownNow();
+            consulRegistration.deregisterService(serviceName + "-1");
+        }
+    }
+
+    @FunctionalInterface
+    interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    /**
+     * Greeter service failing its first calls with UNAVAILABLE and answering after a fixed delay.
+     */
+    static class FlakyGreeterService extends MutinyGreeterGrpc.GreeterImplBase {
+        final AtomicInteger calls = new AtomicInteger();
+        private final int failures;
+        private final Duration delay;
+
+        FlakyGreeterService(int failures, Duration delay) {
+            this.failures = failures;
+            this.delay = delay;
+        }
+
+        @Override
+        public Uni<HelloReply> sayHello(HelloRequest request) {
+            if (calls.incrementAndGet() <= failures) {
+                return Uni.createFrom().failure(Status.UNAVAILABLE.withDescription("Not yet").asRuntimeException());
+            }
+            Uni<HelloReply> reply = Uni.createFrom().item(HelloReply.newBuilder()
+                .setMessage("Hello " + request.getName())
+                .build());
+            return delay.isZero() ? reply : reply.onItem().delayIt().by(delay);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import ai.pipestream.quarkus.dynamicgrpc.config.DynamicGrpcConfig;
+import ai.pipestream.quarkus.dynamicgrpc.config.ServiceStorkSettings;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.stork.Stork;
+import io.smallrye.stork.loadbalancer.leastresponsetime.LeastResponseTimeLoadBalancer;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that per-service Stork settings override the defaults and reach the Stork service definition.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+@TestProfile(ServiceStorkSettingsTest.PerServiceStorkProfile.class)
+public class ServiceStorkSettingsTest {
+
+    private static final String CONFIGURED_SERVICE = "stork-settings-test-service";
+    private static final String DEFAULT_SERVICE = "stork-defaults-test-service";
+
+    @Inject
+    DynamicGrpcConfig config;
+
+    @Inject
+    ServiceDiscoveryManager serviceDiscoveryManager;
+
+    /**
+     * Gives one service its own load balancer, parameters and selection deadline.
+     */
+    public static class PerServiceStorkProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            String prefix = "quarkus.dynamic-grpc.services." + CONFIGURED_SERVICE + ".stork.";
+            return Map.of(
+                prefix + "load-balancer", "least-response-time",
+                prefix + "load-balancer-parameters.declining-factor", "0.8",
+                prefix + "deadline", "2500");
+        }
+    }
+
+    @Test
+    @DisplayName("Per-service settings override the defaults and leave other services alone")
+    void testPerServiceSettingsResolve() {
+        ServiceStorkSettings configured = ServiceStorkSettings.resolve(config, CONFIGURED_SERVICE);
+        assertThat(configured.loadBalancer()).contains("least-response-time");
+        assertThat(configured.loadBalancerParameters()).containsEntry("declining-factor", "0.8");
+        assertThat(configured.deadline()).isEqualTo(2500);
+        assertThat(configured.retries()).isEqualTo(config.stork().retries());
+
+        ServiceStorkSettings defaults = ServiceStorkSettings.resolve(config, DEFAULT_SERVICE);
+        assertThat(defaults.loadBalancer()).isEqualTo(config.stork().loadBalancer());
+        assertThat(defaults.loadBalancerParameters()).isEmpty();
+        assertThat(defaults.deadline()).isEqualTo(config.stork().deadline());
+    }
+
+    @Test
+    @DisplayName("The per-service load balancer is the one Stork builds for the service")
+    void testPerServiceLoadBalancerReachesDefinition() {
+        serviceDiscoveryManager.ensureServiceDefined(CONFIGURED_SERVICE).await().atMost(Duration.ofSeconds(10));
+        serviceDiscoveryManager.ensureServiceDefined(DEFAULT_SERVICE).await().atMost(Duration.ofSeconds(10));
+
+        assertThat(Stork.getInstance().getService(CONFIGURED_SERVICE).getLoadBalancer())
+            .isInstanceOf(LeastResponseTimeLoadBalancer.class);
+        assertThat(Stork.getInstance().getService(DEFAULT_SERVICE).getLoadBalancer())
+            .isNotInstanceOf(LeastResponseTimeLoadBalancer.class);
+    }
+}
@@ -0,0 +1,91 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import io.vertx.core.Vertx;
+import io.vertx.grpc.client.GrpcClient;
+import io.vertx.grpc.client.GrpcClientOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests of the client sharing and reference counting in {@link SharedGrpcClients}.
+ */
+class SharedGrpcClientsTest {
+
+    private static final SharedGrpcClients.Profile PROFILE = new SharedGrpcClients.Profile(4 * 1024 * 1024, 0);
+
+    private Vertx vertx;
+    private SharedGrpcClients clients;
+
+    @BeforeEach
+    void setup() {
+        vertx = Vertx.vertx();
+        clients = new SharedGrpcClients(vertx);
+    }
+
+    @AfterEach
+    void cleanup() {
+        clients.closeAll();
+        vertx.close().toCompletionStage().toCompletableFuture().join();
+    }
+
+    @Test
+    @DisplayName("Distinct pool slots get distinct clients, and slot i of every pool shares client i")
+    void testSlotsUseDistinctClients() {
+        int poolSize = 3;
+        List<GrpcClient> first = new ArrayList<>();
+        List<GrpcClient> second = new ArrayList<>();
+        for (int slot = 0; slot < poolSize; slot++) {
+            SharedGrpcClients.Profile profile = new SharedGrpcClients.Profile(PROFILE.maxInboundMessageSize(), slot);
+            first.add(clients.acquire(profile, GrpcClientOptions::new));
+            second.add(clients.acquire(profile, GrpcClientOptions::new));
+        }
+
+        // Each client has its own HTTP connection pool, so distinct clients mean distinct connections
+        assertThat(new HashSet<>(first)).hasSize(poolSize);
+        assertThat(second).containsExactlyElementsOf(first);
+        assertThat(clients.size()).isEqualTo(poolSize);
+    }
+
+    @Test
+    @DisplayName("The client is kept while a channel holds it and closed when the last one releases it")
+    void testLastReleaseClosesClient() {
+        GrpcClient first = clients.acquire(PROFILE, GrpcClientOptions::new);
+        GrpcClient second = clients.acquire(PROFILE, GrpcClientOptions::new);
+        assertThat(second).isSameAs(first);
+
+        clients.release(PROFILE);
+        assertThat(clients.size()).isEqualTo(1);
+        assertThat(clients.acquire(PROFILE, GrpcClientOptions::new)).isSameAs(first);
+        clients.release(PROFILE);
+
+        clients.release(PROFILE);
+        assertThat(clients.size()).isZero();
+
+        // The closed client is never handed out again
+        assertThat(clients.acquire(PROFILE, GrpcClientOptions::new)).isNotSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Releasing a client that is already closed is a no-op")
+    void testDoubleReleaseIsSafe() {
+        GrpcClient closed = clients.acquire(PROFILE, GrpcClientOptions::new);
+        clients.release(PROFILE);
+        clients.release(PROFILE);
+        assertThat(clients.size()).isZero();
+
+        // The next channel gets a fresh client, unaffected by the earlier release or one of another slot
+        GrpcClient live = clients.acquire(PROFILE, GrpcClientOptions::new);
+        assertThat(live).isNotSameAs(closed);
+        clients.release(new SharedGrpcClients.Profile(PROFILE.maxInboundMessageSize(), 1));
+        assertThat(clients.size()).isEqualTo(1);
+        assertThat(clients.acquire(PROFILE, GrpcClientOptions::new)).isSameAs(live);
+    }
+}
@@ -0,0 +1,119 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulServiceRegistration;
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import ai.pipestream.quarkus.dynamicgrpc.util.TestMeters;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.stork.api.ServiceInstance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests that instance lookups serve the last known instances while they are stale but within the
+ * maximum staleness, refreshing them in the background, and fetch synchronously beyond it.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+@TestProfile(StaleDiscoveryTest.ShortStalenessProfile.class)
+public class StaleDiscoveryTest {
+
+    private static final String SERVICE_NAME = "stale-discovery-test-service";
+
+    @Inject
+    ServiceDiscoveryManager serviceDiscoveryManager;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.host")
+    String consulHost;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.port")
+    int consulPort;
+
+    private ConsulServiceRegistration consulRegistration;
+
+    /**
+     * Makes cached instances stale after one second and too stale after three, and looks them up
+     * through polling rather than the watch, which would replace them on every change.
+     */
+    public static class ShortStalenessProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "quarkus.dynamic-grpc.discovery.refresh-after", "1s",
+                "quarkus.dynamic-grpc.discovery.max-staleness", "3s",
+                "quarkus.dynamic-grpc.discovery.watch-instances", "false");
+        }
+    }
+
+    @BeforeEach
+    void setup() throws InterruptedException {
+        TestMeters.readable(registry);
+        consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        consulRegistration.registerService(SERVICE_NAME, SERVICE_NAME + "-1", "127.0.0.1", 50301);
+        Thread.sleep(500);
+        serviceDiscoveryManager.ensureServiceDefined(SERVICE_NAME).await().atMost(Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void cleanup() {
+        consulRegistration.deregisterService(SERVICE_NAME + "-1");
+    }
+
+    @Test
+    @DisplayName("Stale instances are served while a background refresh runs, beyond max staleness they are fetched")
+    void testStaleInstancesServedWithinMaxStaleness() throws InterruptedException {
+        assertThat(lookup()).hasSize(1);
+
+        // Fresh: answered from the cache without counting a stale lookup
+        double stale = count("dynamic.grpc.discovery.stale.served", "reason", "revalidating");
+        double discoveries = count("dynamic.grpc.discovery.attempts", "result", "success");
+        List<ServiceInstance> fetched = lookup();
+        assertThat(lookup()).isSameAs(fetched);
+        assertThat(count("dynamic.grpc.discovery.stale.served", "reason", "revalidating")).isEqualTo(stale);
+        assertThat(count("dynamic.grpc.discovery.attempts", "result", "success")).isEqualTo(discoveries);
+
+        // Stale: the same list is served at once and one refresh starts in the background
+        Thread.sleep(1200);
+        assertThat(lookup()).isSameAs(fetched);
+        assertThat(count("dynamic.grpc.discovery.stale.served", "reason", "revalidating")).isEqualTo(stale + 1);
+        await().atMost(Duration.ofSeconds(5))
+            .until(() -> count("dynamic.grpc.discovery.attempts", "result", "success") == discoveries + 1);
+
+        // The refresh replaced the cached list, so the next lookup is fresh again
+        List<ServiceInstance> refreshed = lookup();
+        assertThat(refreshed).hasSize(1).isNotSameAs(fetched);
+        assertThat(count("dynamic.grpc.discovery.stale.served", "reason", "revalidating")).isEqualTo(stale + 1);
+
+        // Too stale: the lookup waits for discovery instead of serving the old list
+        Thread.sleep(3200);
+        List<ServiceInstance> refetched = lookup();
+        assertThat(refetched).hasSize(1).isNotSameAs(refreshed);
+        assertThat(count("dynamic.grpc.discovery.stale.served", "reason", "revalidating")).isEqualTo(stale + 1);
+        assertThat(count("dynamic.grpc.discovery.attempts", "result", "success")).isEqualTo(discoveries + 2);
+    }
+
+    private List<ServiceInstance> lookup() {
+        return serviceDiscoveryManager.getServiceInstances(SERVICE_NAME).await().atMost(Duration.ofSeconds(5));
+    }
+
+    private double count(String name, String tag, String value) {
+        return TestMeters.count(registry, name, SERVICE_NAME, tag, value);
+    }
+}
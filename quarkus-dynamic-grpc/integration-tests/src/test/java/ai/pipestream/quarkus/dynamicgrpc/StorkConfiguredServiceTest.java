@@ -0,0 +1,70 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.stork.api.ServiceInstance;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that a service configured through plain {@code stork.*} properties is defined from the
+ * property index, and that later definitions of a known service take the fast path.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+@TestProfile(StorkConfiguredServiceTest.StaticDiscoveryProfile.class)
+public class StorkConfiguredServiceTest {
+
+    private static final String SERVICE_NAME = "stork-static-test-service";
+
+    @Inject
+    ServiceDiscoveryManager serviceDiscoveryManager;
+
+    /**
+     * Configures one service with Stork's static discovery instead of Consul.
+     */
+    public static class StaticDiscoveryProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "stork." + SERVICE_NAME + ".service-discovery.type", "static",
+                "stork." + SERVICE_NAME + ".service-discovery.address-list", "127.0.0.1:50401,127.0.0.1:50402");
+        }
+    }
+
+    @Test
+    @DisplayName("A service with stork.* discovery properties is defined from them rather than from Consul")
+    void testStaticServiceDefinedFromProperties() {
+        serviceDiscoveryManager.ensureServiceDefined(SERVICE_NAME).await().atMost(Duration.ofSeconds(10));
+
+        List<ServiceInstance> instances = serviceDiscoveryManager.getServiceInstances(SERVICE_NAME)
+            .await().atMost(Duration.ofSeconds(5));
+        assertThat(instances).extracting(ServiceInstance::getPort).containsExactlyInAnyOrder(50401, 50402);
+        assertThat(instances).extracting(ServiceInstance::getHost).containsOnly("127.0.0.1");
+    }
+
+    @Test
+    @DisplayName("Once defined, a service is answered with the shared completed Uni")
+    void testDefinedServiceFastPath() {
+        Uni<Void> first = serviceDiscoveryManager.ensureServiceDefined(SERVICE_NAME);
+        first.await().atMost(Duration.ofSeconds(10));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(serviceDiscoveryManager.ensureServiceDefined(SERVICE_NAME)).isSameAs(first);
+        }
+        // The Consul application name only matters for the first definition
+        assertThat(serviceDiscoveryManager.ensureServiceDefinedFor(SERVICE_NAME, "another-application"))
+            .isSameAs(first);
+    }
+}
@@ -0,0 +1,58 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfig;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests of the index of plain {@code stork.*} properties built by {@link ServiceDiscoveryManager}.
+ */
+class StorkPropertyIndexTest {
+
+    @Test
+    @DisplayName("Discovery and load balancer properties are grouped by service with their prefix removed")
+    void testPropertiesGroupedByService() {
+        SmallRyeConfig config = config(Map.of(
+            "stork.static-service.service-discovery.type", "static",
+            "stork.static-service.service-discovery.address-list", "127.0.0.1:50401,127.0.0.1:50402",
+            "stork.static-service.load-balancer.type", "random",
+            "stork.balanced-service.load-balancer.type", "least-requests",
+            "stork.\"dotted.service\".service-discovery.type", "static",
+            "stork.unrelated-service.other.type", "ignored",
+            "quarkus.dynamic-grpc.consul.host", "localhost"));
+
+        Map<String, ServiceDiscoveryManager.StorkProperties> index = ServiceDiscoveryManager.indexStorkProperties(config);
+
+        assertThat(index).containsOnlyKeys("static-service", "balanced-service", "dotted.service");
+        ServiceDiscoveryManager.StorkProperties staticService = index.get("static-service");
+        assertThat(staticService.discovery()).containsOnly(
+            Map.entry("type", "static"),
+            Map.entry("address-list", "127.0.0.1:50401,127.0.0.1:50402"));
+        assertThat(staticService.loadBalancer()).containsOnly(Map.entry("type", "random"));
+
+        // A load balancer alone is indexed so its type still applies to the Consul fallback
+        assertThat(index.get("balanced-service").discovery()).isEmpty();
+        assertThat(index.get("balanced-service").loadBalancer()).containsOnly(Map.entry("type", "least-requests"));
+
+        assertThat(index.get("dotted.service").discovery()).containsOnly(Map.entry("type", "static"));
+    }
+
+    @Test
+    @DisplayName("Without stork properties the index is empty")
+    void testNoStorkProperties() {
+        assertThat(ServiceDiscoveryManager.indexStorkProperties(config(Map.of("quarkus.dynamic-grpc.consul.port", "8500"))))
+            .isEmpty();
+    }
+
+    private static SmallRyeConfig config(Map<String, String> properties) {
+        return new SmallRyeConfigBuilder()
+            .withSources(new PropertiesConfigSource(properties, "stork-index-test", 100))
+            .build();
+    }
+}
@@ -0,0 +1,114 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulServiceRegistration;
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.MutinyGreeterGrpc;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for eager channel warm-up through {@link GrpcClientFactory#warmUp(List)}.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+public class WarmupTest {
+
+    @Inject
+    GrpcClientFactory clientFactory;
+
+    @Inject
+    ChannelWarmup channelWarmup;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.host")
+    String consulHost;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.port")
+    int consulPort;
+
+    private ConsulServiceRegistration consulRegistration;
+
+    @BeforeEach
+    void setup() {
+        consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+    }
+
+    @Test
+    @DisplayName("Warm-up creates and connects the channel before the first call")
+    void testWarmUpRegisteredService() throws Exception {
+        String serviceName = "warmup-test-service";
+        int port;
+
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        Server server = ServerBuilder.forPort(port)
+            .addService(new TestGreeterService())
+            .build()
+            .start();
+
+        try {
+            consulRegistration.registerService(serviceName, serviceName + "-1", "127.0.0.1", port);
+            Thread.sleep(500);
+
+            List<String> warmed = clientFactory.warmUp(List.of(serviceName))
+                .await().atMost(Duration.ofSeconds(15));
+
+            assertThat(warmed).containsExactly(serviceName);
+            assertThat(clientFactory.getActiveServiceCount()).isGreaterThanOrEqualTo(1);
+
+            // The first call reuses the warmed channel
+            var client = clientFactory.getClient(serviceName, MutinyGreeterGrpc::newMutinyStub)
+                .await().atMost(Duration.ofSeconds(5));
+            HelloReply reply = client.sayHello(HelloRequest.newBuilder().setName("Warm").build())
+                .await().atMost(Duration.ofSeconds(3));
+            assertThat(reply.getMessage()).isEqualTo("Hello Warm");
+        } finally {
+            server.shutdown();
+            consulRegistration.deregisterService(serviceName + "-1");
+        }
+    }
+
+    @Test
+    @DisplayName("Warm-up skips services that cannot be reached without failing")
+    void testWarmUpUnknownService() {
+        List<String> warmed = clientFactory.warmUp(List.of("warmup-missing-service"))
+            .await().atMost(Duration.ofSeconds(30));
+
+        assertThat(warmed).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Startup warm-up completes when no services are configured")
+    void testStartupWarmupComplete() {
+        assertThat(channelWarmup.isComplete()).isTrue();
+    }
+
+    /**
+     * Simple greeter service.
+     */
+    static class TestGreeterService extends MutinyGreeterGrpc.GreeterImplBase {
+        @Override
+        public Uni<HelloReply> sayHello(HelloRequest request) {
+            return Uni.createFrom().item(HelloReply.newBuilder()
+                .setMessage("Hello " + request.getName())
+                .build());
+        }
+    }
+}
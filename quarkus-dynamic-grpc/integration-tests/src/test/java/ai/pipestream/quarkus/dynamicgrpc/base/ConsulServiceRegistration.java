@@ -7,6 +7,7 @@ import org.kiwiproject.consul.model.agent.Registration;
 import org.jboss.logging.Logger;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Helper for registering and deregistering test gRPC services in Consul.
@@ -45,12 +46,28 @@ public class ConsulServiceRegistration {
      * @param port        instance gRPC port
      */
     public void registerService(String serviceName, String serviceId, String host, int port) {
+        registerService(serviceName, serviceId, host, port, List.of("grpc"), Map.of());
+    }
+
+    /**
+     * Registers a gRPC service instance in Consul with the given tags and service meta.
+     *
+     * @param serviceName the logical Consul service name
+     * @param serviceId   a unique identifier for the instance
+     * @param host        instance host/IP
+     * @param port        instance gRPC port
+     * @param tags        the service tags
+     * @param meta        the service meta entries
+     */
+    public void registerService(String serviceName, String serviceId, String host, int port,
+                                List<String> tags, Map<String, String> meta) {
         Registration service = ImmutableRegistration.builder()
                 .id(serviceId)
                 .name(serviceName)
                 .address(host)
                 .port(port)
-                .tags(List.of("grpc"))
+                .tags(tags)
+                .meta(meta)
                 .build();
 
         consulClient.register(service);
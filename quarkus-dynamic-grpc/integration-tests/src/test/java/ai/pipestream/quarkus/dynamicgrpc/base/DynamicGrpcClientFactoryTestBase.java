@@ -132,6 +132,18 @@ public abstract class DynamicGrpcClientFactoryTestBase {
         // Should have cached the channel - only 1 active service
         assertThat(factory.getActiveServiceCount()).isGreaterThanOrEqualTo(1);
 
+        // Same stub class on the same channel - the stub itself is reused, whatever builds it
+        assertThat(client1).isSameAs(client2);
+        var plain = factory.getClient(TEST_SERVICE_NAME, channel -> MutinyGreeterGrpc.newMutinyStub(channel))
+            .await().atMost(java.time.Duration.ofSeconds(10));
+        assertThat(plain).isSameAs(client1);
+
+        // A stub configured by its caller is never shared
+        var withDeadline = factory.getClient(TEST_SERVICE_NAME,
+                channel -> MutinyGreeterGrpc.newMutinyStub(channel).withDeadlineAfter(5, TimeUnit.SECONDS))
+            .await().atMost(java.time.Duration.ofSeconds(10));
+        assertThat(withDeadline).isNotSameAs(client1);
+
         // Both clients should work
         HelloRequest request = HelloRequest.newBuilder()
             .setName("Reuse Test")
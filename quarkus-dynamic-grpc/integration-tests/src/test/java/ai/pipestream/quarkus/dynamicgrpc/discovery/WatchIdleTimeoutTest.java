@@ -0,0 +1,93 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulServiceRegistration;
+import ai.pipestream.quarkus.dynamicgrpc.base.ConsulTestResource;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.stork.api.ServiceInstance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests that the Consul watch of a service nobody uses any more is stopped and restarted on the
+ * next lookup.
+ */
+@QuarkusTest
+@WithTestResource(ConsulTestResource.class)
+@TestProfile(WatchIdleTimeoutTest.ShortIdleProfile.class)
+public class WatchIdleTimeoutTest {
+
+    private static final String SERVICE_NAME = "idle-watch-test-service";
+
+    @Inject
+    @ServiceDiscoveryImpl(ServiceDiscoveryImpl.Type.CONSUL_DIRECT)
+    DynamicConsulServiceDiscovery discovery;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.host")
+    String consulHost;
+
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.port")
+    int consulPort;
+
+    /**
+     * Stops watches after two idle seconds.
+     */
+    public static class ShortIdleProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.dynamic-grpc.consul.watch-idle-timeout", "2s");
+        }
+    }
+
+    @Test
+    @DisplayName("An unused watch is stopped and the next lookup starts a new one")
+    void testIdleWatchIsStopped() throws InterruptedException {
+        ConsulServiceRegistration consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        try {
+            consulRegistration.registerService(SERVICE_NAME, "idle-watch-1", "127.0.0.1", 50201);
+            Thread.sleep(500);
+
+            List<ServiceInstance> instances = discovery.discoverAllInstances(SERVICE_NAME)
+                .await().atMost(Duration.ofSeconds(5));
+            assertThat(instances).hasSize(1);
+            assertThat(discovery.watchedServices()).contains(SERVICE_NAME);
+
+            await().atMost(Duration.ofSeconds(10))
+                .until(() -> !discovery.watchedServices().contains(SERVICE_NAME));
+
+            instances = discovery.discoverAllInstances(SERVICE_NAME).await().atMost(Duration.ofSeconds(5));
+            assertThat(instances).hasSize(1);
+            assertThat(discovery.watchedServices()).contains(SERVICE_NAME);
+        } finally {
+            consulRegistration.deregisterService("idle-watch-1");
+        }
+    }
+
+    @Test
+    @DisplayName("A subscribed watch is kept however long it is not looked up")
+    void testSubscribedWatchIsKept() throws InterruptedException {
+        String serviceName = SERVICE_NAME + "-subscribed";
+        ConsulServiceRegistration consulRegistration = new ConsulServiceRegistration(consulHost, consulPort);
+        Runnable unsubscribe = discovery.subscribe(serviceName, change -> { });
+        try {
+            consulRegistration.registerService(serviceName, "idle-watch-subscribed-1", "127.0.0.1", 50202);
+            Thread.sleep(4000);
+
+            assertThat(discovery.watchedServices()).contains(serviceName);
+        } finally {
+            unsubscribe.run();
+            consulRegistration.deregisterService("idle-watch-subscribed-1");
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package ai.pipestream.quarkus.dynamicgrpc.interceptor;
+
+import ai.pipestream.quarkus.dynamicgrpc.circuitbreaker.CircuitBreaker;
+import ai.pipestream.quarkus.dynamicgrpc.config.DynamicGrpcConfig;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.GreeterGrpc;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import ai.pipestream.quarkus.dynamicgrpc.metrics.DynamicGrpcMetrics;
+import ai.pipestream.quarkus.dynamicgrpc.util.StubChannel;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptors;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests of {@link CircuitBreakerInterceptor} in front of a {@link ConcurrencyLimitInterceptor},
+ * as {@link ai.pipestream.quarkus.dynamicgrpc.ChannelManager} stacks them.
+ */
+class CircuitBreakerInterceptorTest {
+
+    @Test
+    @DisplayName("A trial call turned away by the concurrency limit gives its slot back")
+    void testLimitRejectionIsNeutral() {
+        StubChannel instance = new StubChannel();
+        CircuitBreaker breaker = new CircuitBreaker(new BreakerConfig(), (from, to) -> {
+        });
+        AimdConcurrencyLimit limit = new AimdConcurrencyLimit(new LimitConfig(), current -> {
+        });
+        DynamicGrpcMetrics metrics = new DynamicGrpcMetrics();
+        Channel channel = ClientInterceptors.intercept(instance,
+            new ConcurrencyLimitInterceptor("breaker-unit-test", limit, metrics),
+            new CircuitBreakerInterceptor("breaker-unit-test", breaker, metrics));
+
+        // One failure opens the breaker; without wait the next calls are its two trials
+        List<Status> statuses = new ArrayList<>();
+        start(channel, statuses);
+        instance.calls.getFirst().close(Status.UNAVAILABLE);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // The first trial holds the only slot of the limit, so the second one is rejected locally
+        start(channel, statuses);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        start(channel, statuses);
+        assertThat(instance.calls).hasSize(2);
+        assertThat(statuses.getLast().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+        assertThat(ConcurrencyLimitInterceptor.isRejection(statuses.getLast())).isTrue();
+        assertThat(ConcurrencyLimitInterceptor.isRejection(Status.RESOURCE_EXHAUSTED)).isFalse();
+
+        // The rejection did not count as a successful trial
+        instance.calls.get(1).close(Status.OK);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        // It gave its trial slot back, so another trial may start and close the breaker
+        start(channel, statuses);
+        assertThat(instance.calls).hasSize(3);
+        instance.calls.getLast().close(Status.OK);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private static void start(Channel channel, List<Status> statuses) {
+        ClientCall<HelloRequest, HelloReply> call = channel.newCall(GreeterGrpc.getSayHelloMethod(), CallOptions.DEFAULT);
+        call.start(new ClientCall.Listener<>() {
+            @Override
+            public void onClose(Status status, Metadata trailers) {
+                statuses.add(status);
+            }
+        }, new Metadata());
+    }
+
+    /**
+     * Opens on the first failure and allows two trial calls right away.
+     */
+    private static final class BreakerConfig implements DynamicGrpcConfig.CircuitBreakerConfig {
+        @Override
+        public boolean enabled() {
+            return true;
+        }
+
+        @Override
+        public int slidingWindowSize() {
+            return 1;
+        }
+
+        @Override
+        public int minimumCalls() {
+            return 1;
+        }
+
+        @Override
+        public int failureRateThreshold() {
+            return 50;
+        }
+
+        @Override
+        public int slowCallRateThreshold() {
+            return 100;
+        }
+
+        @Override
+        public Duration slowCallDuration() {
+            return Duration.ofMinutes(1);
+        }
+
+        @Override
+        public Duration waitDurationInOpenState() {
+            return Duration.ZERO;
+        }
+
+        @Override
+        public int permittedCallsInHalfOpenState() {
+            return 2;
+        }
+    }
+
+    /**
+     * Allows a single call in flight.
+     */
+    private static final class LimitConfig implements DynamicGrpcConfig.ConcurrencyLimitConfig {
+        @Override
+        public boolean enabled() {
+            return true;
+        }
+
+        @Override
+        public int initialLimit() {
+            return 1;
+        }
+
+        @Override
+        public int minLimit() {
+            return 1;
+        }
+
+        @Override
+        public int maxLimit() {
+            return 1;
+        }
+
+        @Override
+        public double backoffRatio() {
+            return 0.9;
+        }
+
+        @Override
+        public Duration latencyThreshold() {
+            return Duration.ofMinutes(1);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package ai.pipestream.quarkus.dynamicgrpc.interceptor;
+
+import ai.pipestream.quarkus.dynamicgrpc.config.ServiceHedgingSettings;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.GreeterGrpc;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import ai.pipestream.quarkus.dynamicgrpc.metrics.DynamicGrpcMetrics;
+import io.grpc.Attributes;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptors;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests of {@link HedgingInterceptor} against a channel standing for a single instance.
+ */
+class HedgingInterceptorTest {
+
+    private Vertx vertx;
+
+    @BeforeEach
+    void setup() {
+        vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    void cleanup() {
+        vertx.close().toCompletionStage().toCompletableFuture().join();
+    }
+
+    @Test
+    @DisplayName("An attempt rejected synchronously by the only instance is hedged to that instance again")
+    void testSynchronousNonFatalCloseHitsSameInstanceTwice() {
+        SingleInstanceChannel instance = new SingleInstanceChannel();
+        ServiceHedgingSettings settings = new ServiceHedgingSettings(
+            Set.of("*"), Duration.ofSeconds(10), 2, Set.of(Status.Code.UNAVAILABLE));
+        Channel channel = ClientInterceptors.intercept(instance,
+            new HedgingInterceptor("hedging-unit-test", settings, vertx, new DynamicGrpcMetrics()));
+
+        RecordingListener listener = new RecordingListener();
+        ClientCall<HelloRequest, HelloReply> call = channel.newCall(GreeterGrpc.getSayHelloMethod(), CallOptions.DEFAULT);
+        call.start(listener, new Metadata());
+        // The first attempt closes with UNAVAILABLE inside request(), starting the hedge on the same instance
+        call.request(1);
+        call.sendMessage(HelloRequest.newBuilder().setName("Hedge").build());
+        call.halfClose();
+
+        assertThat(instance.calls).isEqualTo(2);
+        assertThat(listener.status).isNotNull();
+        assertThat(listener.status.isOk()).isTrue();
+        assertThat(listener.messages).extracting(HelloReply::getMessage).containsExactly("Hello Hedge");
+    }
+
+    @Test
+    @DisplayName("A call that has not started yet is not ready, has no attributes and can be cancelled")
+    void testCallBeforeStart() {
+        SingleInstanceChannel instance = new SingleInstanceChannel();
+        ServiceHedgingSettings settings = new ServiceHedgingSettings(
+            Set.of("*"), Duration.ofSeconds(10), 2, Set.of(Status.Code.UNAVAILABLE));
+        Channel channel = ClientInterceptors.intercept(instance,
+            new HedgingInterceptor("hedging-unit-test", settings, vertx, new DynamicGrpcMetrics()));
+
+        ClientCall<HelloRequest, HelloReply> call = channel.newCall(GreeterGrpc.getSayHelloMethod(), CallOptions.DEFAULT);
+        assertThat(call.isReady()).isFalse();
+        assertThat(call.getAttributes()).isEqualTo(Attributes.EMPTY);
+
+        call.cancel("Not needed", null);
+        assertThatThrownBy(() -> call.start(new RecordingListener(), new Metadata()))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(instance.calls).isZero();
+    }
+
+    /**
+     * Channel of one instance that rejects its first call as soon as messages are requested and
+     * answers the following ones when they are half-closed.
+     */
+    static class SingleInstanceChannel extends Channel {
+        int calls;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions) {
+            boolean reject = calls++ == 0;
+            return (ClientCall<ReqT, RespT>) new InstanceCall(reject);
+        }
+
+        @Override
+        public String authority() {
+            return "hedging-unit-test";
+        }
+    }
+
+    static class InstanceCall extends ClientCall<HelloRequest, HelloReply> {
+        private final boolean reject;
+        private Listener<HelloReply> listener;
+        private HelloRequest request;
+        private boolean closed;
+
+        InstanceCall(boolean reject) {
+            this.reject = reject;
+        }
+
+        @Override
+        public void start(Listener<HelloReply> responseListener, Metadata headers) {
+            this.listener = responseListener;
+        }
+
+        @Override
+        public void request(int numMessages) {
+            if (reject && !closed) {
+                closed = true;
+                listener.onClose(Status.UNAVAILABLE.withDescription("Instance overloaded"), new Metadata());
+            }
+        }
+
+        @Override
+        public void sendMessage(HelloRequest message) {
+            request = message;
+        }
+
+        @Override
+        public void halfClose() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            listener.onHeaders(new Metadata());
+            listener.onMessage(HelloReply.newBuilder().setMessage("Hello " + request.getName()).build());
+            listener.onClose(Status.OK, new Metadata());
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+            if (!closed) {
+                closed = true;
+                listener.onClose(Status.CANCELLED.withDescription(message), new Metadata());
+            }
+        }
+    }
+
+    static class RecordingListener extends ClientCall.Listener<HelloReply> {
+        final List<HelloReply> messages = new ArrayList<>();
+        volatile Status status;
+
+        @Override
+        public void onMessage(HelloReply message) {
+            messages.add(message);
+        }
+
+        @Override
+        public void onClose(Status status, Metadata trailers) {
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ai.pipestream.quarkus.dynamicgrpc.interceptor;
+
+import ai.pipestream.quarkus.dynamicgrpc.config.ServiceRetrySettings;
+import ai.pipestream.quarkus.dynamicgrpc.interceptor.HedgingInterceptorTest.RecordingListener;
+import ai.pipestream.quarkus.dynamicgrpc.interceptor.HedgingInterceptorTest.SingleInstanceChannel;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.GreeterGrpc;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import ai.pipestream.quarkus.dynamicgrpc.metrics.DynamicGrpcMetrics;
+import io.grpc.Attributes;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptors;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Unit tests of {@link RetryInterceptor} against a channel standing for a single instance.
+ */
+class RetryInterceptorTest {
+
+    private Vertx vertx;
+    private Channel channel;
+    private SingleInstanceChannel instance;
+
+    @BeforeEach
+    void setup() {
+        vertx = Vertx.vertx();
+        instance = new SingleInstanceChannel();
+        ServiceRetrySettings settings = new ServiceRetrySettings(Set.of("*"), 3, Duration.ofMillis(10),
+            Duration.ofMillis(100), 2.0, Set.of(Status.Code.UNAVAILABLE), Optional.empty());
+        channel = ClientInterceptors.intercept(instance, new RetryInterceptor("retry-unit-test", settings,
+            new RetryBudget(0.2, 10), vertx, new DynamicGrpcMetrics()));
+    }
+
+    @AfterEach
+    void cleanup() {
+        vertx.close().toCompletionStage().toCompletableFuture().join();
+    }
+
+    @Test
+    @DisplayName("An attempt rejected by the instance is retried and the call succeeds")
+    void testRetryAfterUnavailable() {
+        RecordingListener listener = new RecordingListener();
+        ClientCall<HelloRequest, HelloReply> call = channel.newCall(GreeterGrpc.getSayHelloMethod(), CallOptions.DEFAULT);
+        call.start(listener, new Metadata());
+        call.request(1);
+        call.sendMessage(HelloRequest.newBuilder().setName("Retry").build());
+        call.halfClose();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> listener.status != null);
+        assertThat(instance.calls).isEqualTo(2);
+        assertThat(listener.status.isOk()).isTrue();
+        assertThat(listener.messages).extracting(HelloReply::getMessage).containsExactly("Hello Retry");
+    }
+
+    @Test
+    @DisplayName("A call cancelled before it started neither fails nor reaches the instance")
+    void testCancelBeforeStart() {
+        ClientCall<HelloRequest, HelloReply> call = channel.newCall(GreeterGrpc.getSayHelloMethod(), CallOptions.DEFAULT);
+        assertThat(call.isReady()).isFalse();
+        assertThat(call.getAttributes()).isEqualTo(Attributes.EMPTY);
+
+        call.cancel("Not needed", null);
+        call.cancel("Not needed again", null);
+        assertThatThrownBy(() -> call.start(new RecordingListener(), new Metadata()))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(instance.calls).isZero();
+    }
+}
@@ -0,0 +1,130 @@
+package ai.pipestream.quarkus.dynamicgrpc.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests of {@link DynamicGrpcMetrics} against a {@link SimpleMeterRegistry}.
+ */
+class DynamicGrpcMetricsTest {
+
+    private static final String SERVICE = "metrics-unit-test";
+
+    private MeterRegistry registry;
+    private DynamicGrpcMetrics metrics;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        metrics = new DynamicGrpcMetrics();
+        metrics.registry = registry;
+    }
+
+    @Test
+    @DisplayName("Pre-registered meters keep their names and tags, and repeated recordings reuse them")
+    void testPreRegisteredMetersKeepNamesAndTags() {
+        for (int i = 0; i < 2; i++) {
+            metrics.recordClientCreationSuccess(SERVICE);
+            metrics.recordClientCreationFailure(SERVICE, "IllegalStateException");
+            metrics.recordChannelCreated(SERVICE);
+            metrics.recordChannelCreationCoalesced(SERVICE);
+            metrics.recordChannelEvicted(SERVICE, "manual");
+            metrics.recordCacheHit(SERVICE);
+            metrics.recordCacheMiss(SERVICE);
+            metrics.recordServiceDiscovery(SERVICE, true, 3);
+            metrics.recordServiceDiscovery(SERVICE, false, 0);
+            metrics.recordStaleDiscoveryServed(SERVICE, "revalidating");
+            metrics.recordException("ServiceNotFoundException", SERVICE, "discovery");
+        }
+
+        Tags service = Tags.of("service", SERVICE);
+        assertCount("dynamic.grpc.client.created", service.and("result", "success"));
+        assertCount("dynamic.grpc.client.created",
+            service.and("result", "failure").and("exception", "IllegalStateException"));
+        assertCount("dynamic.grpc.channel.created", service);
+        assertCount("dynamic.grpc.channel.creation.coalesced", service);
+        assertCount("dynamic.grpc.channel.evicted", service.and("reason", "manual"));
+        assertCount("dynamic.grpc.cache.hit", service);
+        assertCount("dynamic.grpc.cache.miss", service);
+        assertCount("dynamic.grpc.discovery.attempts", service.and("result", "success"));
+        assertCount("dynamic.grpc.discovery.attempts", service.and("result", "failure"));
+        assertCount("dynamic.grpc.discovery.stale.served", service.and("reason", "revalidating"));
+        assertCount("dynamic.grpc.exceptions",
+            service.and("exception", "ServiceNotFoundException").and("operation", "discovery"));
+        assertThat(registry.get("dynamic.grpc.discovery.instances").tags(service).gauge().value()).isEqualTo(3);
+
+        // One meter per tag combination, however often it was recorded
+        assertThat(registry.find("dynamic.grpc.client.created").counters()).hasSize(2);
+        assertThat(registry.find("dynamic.grpc.cache.hit").counters()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Cache gauges read the live statistics of the cache on every scrape")
+    void testCacheGaugesAreLive() {
+        Cache<String, String> cache = Caffeine.newBuilder().recordStats().build();
+        metrics.registerCacheGauges(cache);
+        assertThat(gauge("dynamic.grpc.cache.size")).isZero();
+        assertThat(gauge("dynamic.grpc.cache.hit.total")).isZero();
+
+        cache.put("a", "channel-a");
+        cache.put("b", "channel-b");
+        cache.getIfPresent("a");
+        cache.getIfPresent("a");
+        cache.getIfPresent("c");
+        assertThat(gauge("dynamic.grpc.cache.size")).isEqualTo(2);
+        assertThat(gauge("dynamic.grpc.cache.hit.total")).isEqualTo(2);
+        assertThat(gauge("dynamic.grpc.cache.miss.total")).isEqualTo(1);
+        assertThat(gauge("dynamic.grpc.cache.hit.rate")).isCloseTo(2.0 / 3, within(1e-9));
+
+        cache.invalidate("b");
+        cache.getIfPresent("b");
+        assertThat(gauge("dynamic.grpc.cache.size")).isEqualTo(1);
+        assertThat(gauge("dynamic.grpc.cache.miss.total")).isEqualTo(2);
+        assertThat(registry.get("dynamic.grpc.cache.load").functionTimer().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("The deprecated snapshot update leaves the live cache gauges alone")
+    @SuppressWarnings("removal")
+    void testDeprecatedCacheSnapshotIsIgnored() {
+        Cache<String, String> cache = Caffeine.newBuilder().recordStats().build();
+        metrics.registerCacheGauges(cache);
+        cache.put("a", "channel-a");
+        cache.getIfPresent("a");
+
+        metrics.updateCacheStats(10, 20, 30, 40);
+        assertThat(gauge("dynamic.grpc.cache.size")).isEqualTo(1);
+        assertThat(gauge("dynamic.grpc.cache.hit.total")).isEqualTo(1);
+        assertThat(gauge("dynamic.grpc.cache.miss.total")).isZero();
+        assertThat(registry.find("dynamic.grpc.cache.size").gauges()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Without a registry every recording is a no-op")
+    void testNoRegistryIsNoOp() {
+        DynamicGrpcMetrics disabled = new DynamicGrpcMetrics();
+        disabled.recordCacheHit(SERVICE);
+        disabled.recordChannelCreated(SERVICE);
+        assertThat(disabled.createRpcMetricsInterceptor(SERVICE, List.of())).isEmpty();
+        assertThat(disabled.getActiveChannelCount()).isEqualTo(1);
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+
+    private void assertCount(String name, Tags tags) {
+        assertThat(registry.get(name).tags(tags).counter().count()).as(name + " " + tags).isEqualTo(2);
+    }
+}
@@ -0,0 +1,106 @@
+package ai.pipestream.quarkus.dynamicgrpc.metrics;
+
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.GreeterGrpc;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import ai.pipestream.quarkus.dynamicgrpc.util.StubChannel;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientInterceptors;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests of the per-call metrics recorded by {@link RpcMetricsInterceptor}.
+ */
+class RpcMetricsInterceptorTest {
+
+    private static final String SERVICE = "rpc-metrics-unit-test";
+    private static final HelloRequest REQUEST = HelloRequest.newBuilder().setName("Metrics").build();
+    private static final HelloReply REPLY = HelloReply.newBuilder().setMessage("Hello Metrics").build();
+
+    private MeterRegistry registry;
+    private DynamicGrpcMetrics metrics;
+    private Tags methodTags;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        metrics = new DynamicGrpcMetrics();
+        metrics.registry = registry;
+        methodTags = Tags.of("service", SERVICE, "method", GreeterGrpc.getSayHelloMethod().getFullMethodName());
+    }
+
+    @Test
+    @DisplayName("Each call records its latency, status code, message sizes and in-flight count")
+    void testCallsAreRecorded() {
+        StubChannel stub = new StubChannel();
+        Channel channel = ClientInterceptors.intercept(stub, interceptor());
+
+        ClientCall<HelloRequest, HelloReply> ok = start(channel);
+        ClientCall<HelloRequest, HelloReply> failed = start(channel);
+        assertThat(registry.get("dynamic.grpc.client.calls.active").tags(methodTags).gauge().value()).isEqualTo(2);
+
+        ok.sendMessage(REQUEST);
+        stub.calls.get(0).answer(REPLY, Status.OK);
+        failed.sendMessage(REQUEST);
+        stub.calls.get(1).answer(null, Status.UNAVAILABLE);
+
+        assertThat(registry.get("dynamic.grpc.client.calls.active").tags(methodTags).gauge().value()).isZero();
+        assertThat(registry.get("dynamic.grpc.client.call.duration").tags(methodTags).timer().count()).isEqualTo(2);
+        assertThat(registry.get("dynamic.grpc.client.calls").tags(methodTags.and("code", "OK")).counter().count())
+            .isEqualTo(1);
+        assertThat(registry.get("dynamic.grpc.client.calls").tags(methodTags.and("code", "UNAVAILABLE")).counter().count())
+            .isEqualTo(1);
+        // Completion counters exist only for the codes that occurred
+        assertThat(registry.find("dynamic.grpc.client.calls").counters()).hasSize(2);
+
+        var requestSize = registry.get("dynamic.grpc.client.request.size").tags(methodTags).summary();
+        assertThat(requestSize.count()).isEqualTo(2);
+        assertThat(requestSize.totalAmount()).isEqualTo(2.0 * REQUEST.getSerializedSize());
+        var responseSize = registry.get("dynamic.grpc.client.response.size").tags(methodTags).summary();
+        assertThat(responseSize.count()).isEqualTo(1);
+        assertThat(responseSize.totalAmount()).isEqualTo(REPLY.getSerializedSize());
+    }
+
+    @Test
+    @DisplayName("Channels recreated for a service keep reporting into the same meters")
+    void testRecreatedChannelsShareMeters() {
+        for (int i = 0; i < 2; i++) {
+            StubChannel stub = new StubChannel();
+            Channel channel = ClientInterceptors.intercept(stub, interceptor());
+            start(channel).sendMessage(REQUEST);
+            stub.calls.getFirst().answer(REPLY, Status.OK);
+        }
+
+        assertThat(registry.find("dynamic.grpc.client.call.duration").timers()).hasSize(1);
+        assertThat(registry.get("dynamic.grpc.client.calls").tags(methodTags.and("code", "OK")).counter().count())
+            .isEqualTo(2);
+    }
+
+    private ClientInterceptor interceptor() {
+        return metrics.createRpcMetricsInterceptor(SERVICE, List.of(Duration.ofMillis(50), Duration.ofMillis(500)))
+            .orElseThrow();
+    }
+
+    private static ClientCall<HelloRequest, HelloReply> start(Channel channel) {
+        ClientCall<HelloRequest, HelloReply> call = channel.newCall(GreeterGrpc.getSayHelloMethod(), CallOptions.DEFAULT);
+        call.start(new ClientCall.Listener<>() {
+        }, new Metadata());
+        call.request(1);
+        return call;
+    }
+}
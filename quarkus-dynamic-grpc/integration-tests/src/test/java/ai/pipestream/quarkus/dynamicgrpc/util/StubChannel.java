@@ -0,0 +1,97 @@
+package ai.pipestream.quarkus.dynamicgrpc.util;
+
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloReply;
+import ai.pipestream.quarkus.dynamicgrpc.it.proto.HelloRequest;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Channel standing for one instance in unit tests of channels and interceptors.
+ * <p>
+ * It records the calls created on it. Each call stays open until the test answers it.
+ * </p>
+ */
+public class StubChannel extends Channel {
+
+    /**
+     * Calls created on this channel, in creation order.
+     */
+    public final List<StubCall> calls = new ArrayList<>();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions) {
+        StubCall call = new StubCall();
+        calls.add(call);
+        return (ClientCall<ReqT, RespT>) call;
+    }
+
+    @Override
+    public String authority() {
+        return "stub-channel";
+    }
+
+    /**
+     * Greeter call answered by the test.
+     */
+    public static class StubCall extends ClientCall<HelloRequest, HelloReply> {
+        private Listener<HelloReply> listener;
+        private boolean closed;
+
+        @Override
+        public void start(Listener<HelloReply> responseListener, Metadata headers) {
+            this.listener = responseListener;
+        }
+
+        /**
+         * Answers the call with an optional reply and closes it with the given status. Calls are
+         * closed at most once.
+         *
+         * @param reply the reply to deliver, or {@code null} for none
+         * @param status the status to close the call with
+         */
+        public void answer(HelloReply reply, Status status) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            listener.onHeaders(new Metadata());
+            if (reply != null) {
+                listener.onMessage(reply);
+            }
+            listener.onClose(status, new Metadata());
+        }
+
+        /**
+         * Closes the call with the given status without a reply.
+         *
+         * @param status the status to close the call with
+         */
+        public void close(Status status) {
+            answer(null, status);
+        }
+
+        @Override
+        public void request(int numMessages) {
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+        }
+
+        @Override
+        public void halfClose() {
+        }
+
+        @Override
+        public void sendMessage(HelloRequest message) {
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ai.pipestream.quarkus.dynamicgrpc.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Reads back the meters the extension records in Quarkus tests.
+ */
+public final class TestMeters {
+
+    private TestMeters() {
+    }
+
+    /**
+     * Makes the injected registry readable. Without an export registry the composite registry
+     * records nothing, so a {@link SimpleMeterRegistry} is added to it the first time.
+     *
+     * @param registry the injected meter registry
+     * @return the same registry
+     */
+    public static MeterRegistry readable(MeterRegistry registry) {
+        if (registry instanceof CompositeMeterRegistry composite && composite.getRegistries().isEmpty()) {
+            composite.add(new SimpleMeterRegistry());
+        }
+        return registry;
+    }
+
+    /**
+     * Returns the count of a counter of a service.
+     *
+     * @param registry the registry to read from
+     * @param name the counter name
+     * @param serviceName the value of the {@code service} tag
+     * @param tags further tags as key/value pairs
+     * @return the count, or 0 if the counter was never registered
+     */
+    public static double count(MeterRegistry registry, String name, String serviceName, String... tags) {
+        Counter counter = registry.find(name).tag("service", serviceName).tags(tags).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,192 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import io.smallrye.stork.api.LoadBalancer;
+import io.smallrye.stork.api.Metadata;
+import io.smallrye.stork.api.MetadataKey;
+import io.smallrye.stork.api.ServiceInstance;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the load balancers of the direct Consul discovery on selection throughput, selection
+ * latency percentiles and how much traffic they send to a degraded backend.
+ * <p>
+ * The first instance of every set is skewed: it answers ten times slower, has calls stuck in
+ * flight and a Consul weight of 1 against 10 for the others. Every selection records a
+ * synthetic call on the chosen instance. The {@code slowSelections} / {@code selections} counters
+ * of the throughput benchmark show the share of calls each balancer routes to the slow instance.
+ * </p>
+ * <p>
+ * Run with {@code ./gradlew :quarkus-dynamic-grpc:jmh -PjmhArgs="LoadBalancerBenchmark -prof gc"}
+ * to also confirm that selection does not allocate.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LoadBalancerBenchmark {
+
+    private static final long FAST_NANOS = 1_000_000;
+    private static final long SLOW_NANOS = 10_000_000;
+    private static final int STUCK_CALLS = 8;
+
+    @Param({"random", "power-of-two-choices", "least-latency", "weighted"})
+    String balancer;
+
+    @Param({"3", "50"})
+    int instances;
+
+    private LoadBalancer loadBalancer;
+    private List<ServiceInstance> candidates;
+
+    /**
+     * Routing counters reported next to the throughput.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Routing {
+        /**
+         * Selections made.
+         */
+        public long selections;
+
+        /**
+         * Selections of the slow instance.
+         */
+        public long slowSelections;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            selections = 0;
+            slowSelections = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        loadBalancer = DynamicConsulServiceDiscovery.createLoadBalancer(balancer);
+        List<ServiceInstance> list = new ArrayList<>(instances);
+        for (int i = 0; i < instances; i++) {
+            BenchInstance instance = new BenchInstance(i, i == 0 ? 1 : 10);
+            instance.load.recordLatency(i == 0 ? SLOW_NANOS : FAST_NANOS, System.nanoTime());
+            list.add(instance);
+        }
+        for (int i = 0; i < STUCK_CALLS; i++) {
+            ((BenchInstance) list.getFirst()).load.recordStart();
+        }
+        candidates = List.copyOf(list);
+    }
+
+    /**
+     * Selects an instance and records a synthetic call on it.
+     *
+     * @param routing the routing counters
+     * @return the selected instance
+     */
+    @Benchmark
+    public ServiceInstance select(Routing routing) {
+        ServiceInstance selected = loadBalancer.selectServiceInstance(candidates);
+        record(selected);
+        routing.selections++;
+        if (selected.getId() == 0) {
+            routing.slowSelections++;
+        }
+        return selected;
+    }
+
+    /**
+     * Samples the time of single selections to compare latency percentiles.
+     *
+     * @return the selected instance
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ServiceInstance selectionLatency() {
+        ServiceInstance selected = loadBalancer.selectServiceInstance(candidates);
+        record(selected);
+        return selected;
+    }
+
+    private static void record(ServiceInstance selected) {
+        InstanceLoad load = InstanceLoad.of(selected);
+        long start = load.recordStart();
+        load.recordEnd(start, true);
+        load.recordLatency(selected.getId() == 0 ? SLOW_NANOS : FAST_NANOS, start);
+    }
+
+    /**
+     * Minimal tracked instance.
+     */
+    private static final class BenchInstance implements ServiceInstance, InstanceLoad.Tracked {
+        private final long id;
+        private final int weight;
+        private final InstanceLoad load = new InstanceLoad();
+
+        BenchInstance(long id, int weight) {
+            this.id = id;
+            this.weight = weight;
+        }
+
+        @Override
+        public long getId() {
+            return id;
+        }
+
+        @Override
+        public String getHost() {
+            return "10.0.0." + id;
+        }
+
+        @Override
+        public int getPort() {
+            return 9000;
+        }
+
+        @Override
+        public boolean isSecure() {
+            return false;
+        }
+
+        @Override
+        public Optional<String> getPath() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Metadata<? extends MetadataKey> getMetadata() {
+            return Metadata.empty();
+        }
+
+        @Override
+        public InstanceLoad load() {
+            return load;
+        }
+
+        @Override
+        public int weight() {
+            return weight;
+        }
+    }
+}
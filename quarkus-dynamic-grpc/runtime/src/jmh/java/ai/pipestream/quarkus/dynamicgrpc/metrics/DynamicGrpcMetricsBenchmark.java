@@ -0,0 +1,85 @@
+package ai.pipestream.quarkus.dynamicgrpc.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares recording a per-service counter through {@link DynamicGrpcMetrics} with building and
+ * registering the counter on every call, which is what the metrics class used to do.
+ * <p>
+ * Run with {@code ./gradlew :quarkus-dynamic-grpc:jmh -PjmhArgs="DynamicGrpcMetricsBenchmark -prof gc"}
+ * to also compare allocation rates.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class DynamicGrpcMetricsBenchmark {
+
+    @Param({"1", "50"})
+    int services;
+
+    private MeterRegistry registry;
+    private DynamicGrpcMetrics metrics;
+    private String[] serviceNames;
+
+    @Setup
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+        metrics = new DynamicGrpcMetrics();
+        metrics.registry = registry;
+        serviceNames = new String[services];
+        for (int i = 0; i < services; i++) {
+            serviceNames[i] = "service-" + i;
+            metrics.recordCacheHit(serviceNames[i]);
+            registerOnEveryCall(serviceNames[i]);
+        }
+    }
+
+    private String nextService() {
+        return serviceNames[(int) (Thread.currentThread().threadId() % services)];
+    }
+
+    /**
+     * Records a cache hit through the pre-registered meter handles.
+     */
+    @Benchmark
+    public void preRegistered() {
+        metrics.recordCacheHit(nextService());
+    }
+
+    /**
+     * Records a cache hit by looking the counter up in the registry on every call.
+     */
+    @Benchmark
+    public void builderPerCall() {
+        registerOnEveryCall(nextService());
+    }
+
+    private void registerOnEveryCall(String serviceName) {
+        Counter.builder("dynamic.grpc.cache.hit.baseline")
+                .tag("service", serviceName)
+                .description("Number of channel cache hits")
+                .register(registry)
+                .increment();
+    }
+}
@@ -0,0 +1,126 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.stub.AbstractStub;
+import io.smallrye.mutiny.Uni;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Channel cache entry held by {@link ChannelManager} for a single service.
+ * <p>
+ * Keeps the {@link PooledChannel} that owns the underlying connections together with the
+ * (possibly intercepted) view of it that is handed out to callers, and the shared client
+ * profiles its members hold references on, and the subscription to the service's instance changes.
+ * </p>
+ * <p>
+ * The entry also caches the stubs created on its channel, keyed by the stub class. Only plain
+ * stubs are cached: stubs bound to this channel itself with the default call options, such as the
+ * ones built by {@code MutinyGreeterGrpc::newMutinyStub}. A stub with a deadline, compression or
+ * interceptors is configured by its caller and never shared. Cached stubs are dropped together
+ * with the entry.
+ * </p>
+ */
+final class CachedChannel {
+
+    private final PooledChannel pool;
+    private final Channel channel;
+    private final Uni<Channel> ready;
+    private final List<SharedGrpcClients.Profile> clientProfiles;
+    private final Runnable instanceWatch;
+    private final ConcurrentMap<Class<?>, Object> stubs = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a cache entry.
+     *
+     * @param pool           the pool owning the underlying channels
+     * @param channel        the channel exposed to callers, usually the pool wrapped with interceptors
+     * @param clientProfiles the shared client profiles acquired for the pool members
+     * @param instanceWatch  cancels the subscription to the service's instance changes
+     */
+    CachedChannel(PooledChannel pool, Channel channel, List<SharedGrpcClients.Profile> clientProfiles,
+                  Runnable instanceWatch) {
+        this.pool = pool;
+        this.channel = channel;
+        this.ready = Uni.createFrom().item(channel);
+        this.clientProfiles = List.copyOf(clientProfiles);
+        this.instanceWatch = instanceWatch;
+    }
+
+    /**
+     * Returns the pool owning the underlying channels.
+     *
+     * @return the channel pool
+     */
+    PooledChannel pool() {
+        return pool;
+    }
+
+    /**
+     * Returns the channel handed out to callers.
+     *
+     * @return the caller-facing channel
+     */
+    Channel channel() {
+        return channel;
+    }
+
+    /**
+     * Returns a pre-completed Uni of {@link #channel()}, shared by every cache hit.
+     *
+     * @return the completed Uni
+     */
+    Uni<Channel> ready() {
+        return ready;
+    }
+
+    /**
+     * Returns the shared client profiles that must be released when this entry is removed.
+     *
+     * @return the acquired client profiles
+     */
+    List<SharedGrpcClients.Profile> clientProfiles() {
+        return clientProfiles;
+    }
+
+    /**
+     * Stops following the service's instance changes once the entry is removed.
+     */
+    void cancelInstanceWatch() {
+        instanceWatch.run();
+    }
+
+    /**
+     * Returns whether a stub is plain, i.e. built on {@link #channel()} with the default call
+     * options, so that any other plain stub of its class is interchangeable with it.
+     *
+     * @param stub the stub built on {@link #channel()}
+     * @return {@code true} if the stub may be cached
+     */
+    boolean isCacheable(Object stub) {
+        return stub instanceof AbstractStub<?> abstractStub
+                && abstractStub.getChannel() == channel
+                && abstractStub.getCallOptions() == CallOptions.DEFAULT;
+    }
+
+    /**
+     * Caches a plain stub under its class unless a stub of that class is cached already.
+     *
+     * @param stub a cacheable stub
+     * @return the stub now cached for its class
+     */
+    Object putStubIfAbsent(Object stub) {
+        Object existing = stubs.putIfAbsent(stub.getClass(), stub);
+        return existing != null ? existing : stub;
+    }
+
+    /**
+     * Drops all cached stubs.
+     */
+    void clearStubs() {
+        stubs.clear();
+    }
+}
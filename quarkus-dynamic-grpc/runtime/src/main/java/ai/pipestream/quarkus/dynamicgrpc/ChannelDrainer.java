@@ -0,0 +1,187 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import io.grpc.Channel;
+import io.grpc.ManagedChannel;
+import io.quarkus.grpc.runtime.stork.StorkGrpcChannel;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Shuts down evicted channel pools in the background.
+ * <p>
+ * An evicted pool is no longer handed out, but calls already started on it are allowed to finish:
+ * the drainer polls the pool's in-flight count on its own scheduler thread and closes the members
+ * once no call is left or the grace period has elapsed, then releases the pool's shared gRPC
+ * clients. Eviction therefore returns immediately, whichever thread it runs on, including a Vert.x
+ * event loop.
+ * </p>
+ */
+final class ChannelDrainer {
+
+    private static final Logger LOG = Logger.getLogger(ChannelDrainer.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final SharedGrpcClients grpcClients;
+    private final ScheduledExecutorService scheduler;
+    private final Set<Drain> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a drainer with its own scheduler thread.
+     *
+     * @param grpcClients the shared clients to release once a pool is closed
+     */
+    ChannelDrainer(SharedGrpcClients grpcClients) {
+        this.grpcClients = grpcClients;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("dynamic-grpc-channel-drainer").factory());
+    }
+
+    /**
+     * Starts draining an evicted pool.
+     *
+     * @param serviceName the logical service name of the pool
+     * @param cached      the evicted cache entry
+     * @param gracePeriod the time in-flight calls are given to finish
+     * @return a future completing once the pool is closed
+     */
+    CompletableFuture<Void> drain(String serviceName, CachedChannel cached, Duration gracePeriod) {
+        Drain drain = new Drain(serviceName, cached, System.nanoTime() + gracePeriod.toNanos());
+        pending.add(drain);
+        try {
+            drain.start();
+        } catch (RuntimeException e) {
+            // Scheduler already stopped: nothing will poll, so close right away
+            drain.close();
+        }
+        return drain.future;
+    }
+
+    /**
+     * Waits for every pending drain to complete.
+     *
+     * @param timeout the maximum time to wait
+     * @return true if all pools were closed in time
+     */
+    boolean awaitAll(Duration timeout) {
+        CompletableFuture<?>[] futures = pending.stream().map(drain -> drain.future).toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Closes every pool still draining and stops the scheduler.
+     */
+    void shutdownNow() {
+        scheduler.shutdownNow();
+        for (Drain drain : pending) {
+            drain.close();
+        }
+    }
+
+    /**
+     * Closes a channel immediately, failing its in-flight calls.
+     *
+     * @param serviceName the logical service name, for logging
+     * @param channel     the channel to close
+     */
+    static void closeNow(String serviceName, Channel channel) {
+        try {
+            if (channel instanceof ManagedChannel mc) {
+                mc.shutdownNow();
+            } else if (channel instanceof StorkGrpcChannel storkChannel) {
+                storkChannel.close();
+            }
+        } catch (Exception e) {
+            LOG.debugf(e, "Error closing channel for service %s", serviceName);
+        }
+    }
+
+    /**
+     * Drain of one pool, polled on the scheduler thread.
+     */
+    private final class Drain implements Runnable {
+
+        private final String serviceName;
+        private final CachedChannel cached;
+        private final long deadlineNanos;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Drain(String serviceName, CachedChannel cached, long deadlineNanos) {
+            this.serviceName = serviceName;
+            this.cached = cached;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        void start() {
+            // Managed members stop accepting calls but let the started ones finish
+            for (Channel member : cached.pool().members()) {
+                if (member instanceof ManagedChannel mc) {
+                    mc.shutdown();
+                }
+            }
+            scheduler.execute(this);
+        }
+
+        @Override
+        public void run() {
+            if (closed.get()) {
+                return;
+            }
+            if (drained()) {
+                LOG.debugf("Channel pool for service %s drained", serviceName);
+                close();
+            } else if (System.nanoTime() - deadlineNanos >= 0) {
+                LOG.warnf("Channel pool for service %s still had %d call(s) in flight after the grace period, closing it",
+                        serviceName, cached.pool().inFlight());
+                close();
+            } else {
+                scheduler.schedule(this, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private boolean drained() {
+            if (cached.pool().inFlight() > 0) {
+                return false;
+            }
+            for (Channel member : cached.pool().members()) {
+                if (member instanceof ManagedChannel mc && !mc.isTerminated()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            for (Channel member : cached.pool().members()) {
+                closeNow(serviceName, member);
+            }
+            cached.clientProfiles().forEach(grpcClients::release);
+            pending.remove(this);
+            future.complete(null);
+        }
+    }
+}
@@ -1,19 +1,33 @@
 package ai.pipestream.quarkus.dynamicgrpc;
 
 import ai.pipestream.quarkus.dynamicgrpc.auth.AuthMetadataInterceptor;
+import ai.pipestream.quarkus.dynamicgrpc.circuitbreaker.CircuitBreakers;
 import ai.pipestream.quarkus.dynamicgrpc.config.DynamicGrpcConfig;
 import ai.pipestream.quarkus.dynamicgrpc.config.DynamicGrpcTlsAdapter;
+import ai.pipestream.quarkus.dynamicgrpc.config.ServiceHedgingSettings;
+import ai.pipestream.quarkus.dynamicgrpc.config.ServiceMessageSettings;
+import ai.pipestream.quarkus.dynamicgrpc.config.ServiceRetrySettings;
+import ai.pipestream.quarkus.dynamicgrpc.config.ServiceStorkSettings;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.InstanceSetChange;
 import ai.pipestream.quarkus.dynamicgrpc.exception.ChannelCreationException;
 import ai.pipestream.quarkus.dynamicgrpc.exception.ServiceNotFoundException;
+import ai.pipestream.quarkus.dynamicgrpc.interceptor.AimdConcurrencyLimit;
+import ai.pipestream.quarkus.dynamicgrpc.interceptor.CircuitBreakerInterceptor;
+import ai.pipestream.quarkus.dynamicgrpc.interceptor.ConcurrencyLimitInterceptor;
+import ai.pipestream.quarkus.dynamicgrpc.interceptor.HedgingInterceptor;
+import ai.pipestream.quarkus.dynamicgrpc.interceptor.InstanceFeedbackInterceptor;
+import ai.pipestream.quarkus.dynamicgrpc.interceptor.MessageSettingsInterceptor;
+import ai.pipestream.quarkus.dynamicgrpc.interceptor.RetryBudget;
+import ai.pipestream.quarkus.dynamicgrpc.interceptor.RetryInterceptor;
 import ai.pipestream.quarkus.dynamicgrpc.metrics.DynamicGrpcMetrics;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
 import io.grpc.Channel;
+import io.grpc.ClientInterceptor;
 import io.grpc.ClientInterceptors;
-import io.grpc.ManagedChannel;
 import io.quarkus.grpc.runtime.stork.StorkGrpcChannel;
-import io.quarkus.grpc.runtime.config.GrpcClientConfiguration;
 import io.quarkus.grpc.runtime.supports.SSLConfigHelper;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.net.PemKeyCertOptions;
@@ -30,12 +44,12 @@ import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -44,6 +58,24 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Channels are cached with Caffeine and automatically evicted after an idle TTL.
  * On eviction or application shutdown, channels are shut down gracefully.
  * </p>
+ * <p>
+ * Each cached entry is a {@link PooledChannel} of {@code quarkus.dynamic-grpc.channel.pool-size}
+ * channels. Calls are routed to the member with the fewest in-flight calls.
+ * </p>
+ * <p>
+ * Vert.x gRPC clients are shared across services through {@link SharedGrpcClients}: pool member
+ * {@code i} of every service uses the same client, so the number of HTTP clients, connection pools
+ * and SSL contexts is bounded by the pool size rather than the number of services.
+ * </p>
+ * <p>
+ * A cached channel follows the instance changes of its service reported by
+ * {@link ServiceDiscoveryManager#watchInstances}. Its Stork members select an instance for every
+ * call from the watched snapshot, so added instances receive calls and removed ones stop receiving
+ * them without the channel being rebuilt, e.g. during a rolling deploy of the service. Calls
+ * already in flight to a removed instance are left to finish. Once every instance is gone the
+ * channel is evicted and drained, so callers go back through discovery instead of waiting for an
+ * instance on a channel that has none.
+ * </p>
  */
 @ApplicationScoped
 public class ChannelManager {
@@ -74,7 +106,21 @@ public class ChannelManager {
     @Inject
     AuthMetadataInterceptor authInterceptor;
 
-    private Cache<String, Channel> channelCache;
+    @Inject
+    CircuitBreakers circuitBreakers;
+
+    @Inject
+    ServiceDiscoveryManager discoveryManager;
+
+    private Cache<String, CachedChannel> channelCache;
+    private SharedGrpcClients grpcClients;
+    private ChannelDrainer drainer;
+    private RetryBudget retryBudget;
+    private final ConcurrentMap<String, Uni<Channel>> pendingCreations = new ConcurrentHashMap<>();
+    // Kept per service like the circuit breakers, so a rebuilt channel keeps the learned limit
+    private final ConcurrentMap<String, AimdConcurrencyLimit> concurrencyLimits = new ConcurrentHashMap<>();
+    // Channels are put into the cache rather than loaded through it, so creations are reported here as loads
+    private final ConcurrentStatsCounter cacheStats = new ConcurrentStatsCounter();
     private final AtomicBoolean shuttingDown = new AtomicBoolean(false);
 
     /**
@@ -83,16 +129,22 @@ public class ChannelManager {
      */
     @PostConstruct
     void init() {
+        this.grpcClients = new SharedGrpcClients(vertx);
+        this.drainer = new ChannelDrainer(grpcClients);
+        this.retryBudget = new RetryBudget(config.retryBudget().ratio(), config.retryBudget().maxTokens());
         this.channelCache = Caffeine.newBuilder()
                 .expireAfterAccess(Duration.ofMinutes(config.channel().idleTtlMinutes()))
                 .maximumSize(config.channel().maxSize())
+                // The listener only schedules the drain, so run it inline rather than on the common pool
+                .executor(Runnable::run)
                 .removalListener(this::onChannelRemoved)
-                .recordStats()
+                .recordStats(() -> cacheStats)
                 .build();
 
-        LOG.infof("Initialized ChannelManager with TTL=%d minutes, max cache size=%d, maxInboundMessageSize=%d, maxOutboundMessageSize=%d",
+        LOG.infof("Initialized ChannelManager with TTL=%d minutes, max cache size=%d, pool size=%d, maxInboundMessageSize=%d, maxOutboundMessageSize=%d",
                 config.channel().idleTtlMinutes(),
                 config.channel().maxSize(),
+                config.channel().poolSize(),
                 config.channel().maxInboundMessageSize(),
                 config.channel().maxOutboundMessageSize());
 
@@ -101,19 +153,22 @@ public class ChannelManager {
                     tlsConfig.trustAll(), tlsConfig.verifyHostname());
         }
 
-        // Register active channel gauge
+        // Register active channel and cache gauges
         metrics.registerActiveChannelGauge(this::getActiveServiceCount);
+        metrics.registerCacheGauges(channelCache);
+        metrics.registerRetryBudgetGauge(retryBudget::tokens);
     }
 
     /**
-     * Handles cache eviction by gracefully shutting down removed channels.
+     * Handles cache eviction by handing the removed pool to the drainer, which closes it once its
+     * in-flight calls have finished. Never blocks.
      *
      * @param serviceName logical service name used as cache key
-     * @param channel     the channel instance being removed
+     * @param cached      the cache entry being removed
      * @param cause       reason for eviction
      */
-    private void onChannelRemoved(String serviceName, Channel channel, RemovalCause cause) {
-        if (channel == null) return;
+    private void onChannelRemoved(String serviceName, CachedChannel cached, RemovalCause cause) {
+        if (cached == null) return;
 
         // Record metrics for eviction
         String evictionReason = switch (cause) {
@@ -125,55 +180,20 @@ public class ChannelManager {
         };
         metrics.recordChannelEvicted(serviceName, evictionReason);
 
-        if (shuttingDown.get()) {
-            LOG.debugf("Application shutting down, initiating non-blocking channel shutdown for service '%s'", serviceName);
-            try {
-                if (channel instanceof ManagedChannel) {
-                    ((ManagedChannel) channel).shutdownNow();
-                } else if (channel instanceof StorkGrpcChannel) {
-                    ((StorkGrpcChannel) channel).close();
-                }
-            } catch (Exception e) {
-                LOG.tracef("Error during shutdown of channel for service %s: %s", serviceName, e.getMessage());
-            }
-            return;
-        }
-
-        LOG.infof("Evicting gRPC channel for service '%s' due to: %s", serviceName, cause);
-
-        try {
-            if (channel instanceof ManagedChannel mc) {
-                mc.shutdown();
-                if (!mc.awaitTermination(500, TimeUnit.MILLISECONDS)) {
-                    LOG.warnf("Channel for service %s did not terminate gracefully, forcing shutdown", serviceName);
-                    mc.shutdownNow();
-                }
-            } else if (channel instanceof StorkGrpcChannel) {
-                ((StorkGrpcChannel) channel).close();
-            }
-            LOG.debugf("Successfully shut down channel for service: %s", serviceName);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            LOG.errorf("Interrupted while shutting down channel for service %s", serviceName);
-            try {
-                ((ManagedChannel) channel).shutdownNow();
-            } catch (Exception ex) {
-                LOG.errorf(ex, "Error forcing shutdown of channel for service %s", serviceName);
-            }
-        } catch (Exception e) {
-            LOG.errorf(e, "Error shutting down channel for service %s", serviceName);
-            try {
-                if (channel instanceof ManagedChannel) {
-                    ((ManagedChannel) channel).shutdownNow();
-                }
-            } catch (Exception ex) {
-                LOG.errorf(ex, "Error forcing shutdown of channel for service %s", serviceName);
-            }
+        if (!shuttingDown.get()) {
+            LOG.infof("Evicting gRPC channel pool for service '%s' due to: %s", serviceName, cause);
         }
+        cached.cancelInstanceWatch();
+        cached.clearStubs();
+        drainer.drain(serviceName, cached, config.channel().drainGracePeriod());
     }
 
     /**
      * Gets or creates a gRPC Channel for the given service.
+     * <p>
+     * Callers look the channel up with {@link #getCachedChannel(String)} first, which counts the
+     * hit or miss in the cache statistics, so the lookups made here are not counted again.
+     * </p>
      *
      * @param serviceName the logical service name used for discovery and caching
      * @param instances   the list of discovered service instances (must be non-empty)
@@ -198,69 +218,45 @@ public class ChannelManager {
             init();
         }
 
-        Channel existing = channelCache.getIfPresent(serviceName);
+        CachedChannel existing = peek(serviceName);
         if (existing != null) {
             LOG.debugf("Reusing existing gRPC channel for service: %s", serviceName);
             metrics.recordCacheHit(serviceName);
-            return Uni.createFrom().item(existing);
+            return existing.ready();
         }
 
-        LOG.infof("Creating new Stork gRPC channel for service: %s", serviceName);
-        metrics.recordCacheMiss(serviceName);
+        // Single-flight: concurrent callers for the same service share one in-progress creation
+        CompletableFuture<Channel> promise = new CompletableFuture<>();
+        Uni<Channel> inProgress = Uni.createFrom().completionStage(promise);
+        Uni<Channel> pending = pendingCreations.putIfAbsent(serviceName, inProgress);
+        if (pending != null) {
+            LOG.debugf("Joining in-progress channel creation for service: %s", serviceName);
+            metrics.recordChannelCreationCoalesced(serviceName);
+            return pending;
+        }
 
         try {
-            // Create HTTP client options for TLS configuration (Quarkus pattern)
-            HttpClientOptions httpOptions = new HttpClientOptions();
-            httpOptions.setHttp2ClearTextUpgrade(false); // Recommended by Quarkus
-
-            // Configure TLS if enabled (using Quarkus's SSLConfigHelper - 1:1 with Quarkus code)
-            if (tlsConfig.enabled()) {
-                LOG.debugf("Configuring TLS for service: %s", serviceName);
-                httpOptions.setSsl(true);
-                httpOptions.setUseAlpn(true);
-                httpOptions.setTrustAll(tlsConfig.trustAll());
-
-                // Apply Quarkus TLS configuration using their helper methods
-                SSLConfigHelper.configurePemTrustOptions(httpOptions, tlsConfig.trustCertificatePem());
-                SSLConfigHelper.configureJksTrustOptions(httpOptions, tlsConfig.trustCertificateJks());
-                SSLConfigHelper.configurePfxTrustOptions(httpOptions, tlsConfig.trustCertificateP12());
-
-                SSLConfigHelper.configurePemKeyCertOptions(httpOptions, tlsConfig.keyCertificatePem());
-                SSLConfigHelper.configureJksKeyCertOptions(httpOptions, tlsConfig.keyCertificateJks());
-                SSLConfigHelper.configurePfxKeyCertOptions(httpOptions, tlsConfig.keyCertificateP12());
-
-                httpOptions.setVerifyHost(tlsConfig.verifyHostname());
-
-                LOG.infof("TLS configured for service %s: trustAll=%s, verifyHostname=%s",
-                        serviceName, tlsConfig.trustAll(), tlsConfig.verifyHostname());
+            // Another caller may have finished its creation between our cache lookup and putIfAbsent
+            CachedChannel raced = peek(serviceName);
+            if (raced != null) {
+                metrics.recordCacheHit(serviceName);
+                promise.complete(raced.channel());
+                return Uni.createFrom().item(raced.channel());
             }
 
-            // Create gRPC client options with HTTP options and message size limits
-            GrpcClientOptions clientOptions = new GrpcClientOptions()
-                    .setTransportOptions(httpOptions)
-                    .setMaxMessageSize(config.channel().maxInboundMessageSize());
-
-            LOG.debugf("Creating gRPC client for %s with maxInbound=%d, maxOutbound=%d",
-                    serviceName,
-                    config.channel().maxInboundMessageSize(),
-                    config.channel().maxOutboundMessageSize());
-
-            GrpcClient grpcClient = GrpcClient.client(vertx, clientOptions);
+            LOG.infof("Creating new Stork gRPC channel for service: %s", serviceName);
+            metrics.recordCacheMiss(serviceName);
 
-            Channel created = getChannel(serviceName, grpcClient);
-
-            // Wrap channel with auth interceptor if auth is enabled
-            if (config.auth().enabled()) {
-                created = ClientInterceptors.intercept(created, authInterceptor);
-                LOG.debugf("Auth interceptor applied to channel for service: %s", serviceName);
+            long loadStart = System.nanoTime();
+            Channel created;
+            try {
+                created = createChannel(serviceName);
+            } catch (RuntimeException e) {
+                cacheStats.recordLoadFailure(System.nanoTime() - loadStart);
+                throw e;
             }
-
-            LOG.debugf("Created StorkGrpcChannel for %s", serviceName);
-            channelCache.put(serviceName, created);
-
-            // Record successful channel creation
-            metrics.recordChannelCreated(serviceName);
-
+            cacheStats.recordLoadSuccess(System.nanoTime() - loadStart);
+            promise.complete(created);
             return Uni.createFrom().item(created);
         } catch (Exception e) {
             LOG.errorf(e, "Failed to create gRPC channel for service: %s", serviceName);
@@ -268,44 +264,261 @@ public class ChannelManager {
             // Record exception
             metrics.recordException(e.getClass().getSimpleName(), serviceName, "channel_creation");
 
-            return Uni.createFrom().failure(
-                    new ChannelCreationException(serviceName, "Channel creation failed", e)
-            );
+            ChannelCreationException failure = new ChannelCreationException(serviceName, "Channel creation failed", e);
+            promise.completeExceptionally(failure);
+            return Uni.createFrom().failure(failure);
+        } finally {
+            pendingCreations.remove(serviceName, inProgress);
         }
     }
 
-    private Channel getChannel(String serviceName, GrpcClient grpcClient) {
-        GrpcClientConfiguration.StorkConfig storkConfig = new GrpcClientConfiguration.StorkConfig() {
-            @Override
-            public int threads() {
-                return 10;
+    /**
+     * Builds the channel pool for a service, wraps it with the configured interceptors and
+     * stores it in the cache. Callers must go through the single-flight path in
+     * {@link #getOrCreateChannel(String, List)}.
+     *
+     * @param serviceName the logical service name
+     * @return the caller-facing channel
+     */
+    private Channel createChannel(String serviceName) {
+        ServiceMessageSettings messageSettings = ServiceMessageSettings.resolve(config, serviceName);
+        int maxInboundMessageSize = messageSettings.maxInboundMessageSize();
+
+        LOG.debugf("Creating gRPC channel pool for %s with maxInbound=%d, maxOutbound=%d, compression=%s",
+                serviceName,
+                maxInboundMessageSize,
+                messageSettings.maxOutboundMessageSize(),
+                messageSettings.compression().orElse("none"));
+
+        ServiceStorkSettings storkSettings = ServiceStorkSettings.resolve(config, serviceName);
+        LOG.debugf("Stork settings for %s: %s", serviceName, storkSettings);
+
+        // Member i uses the shared client for slot i, so members still get distinct HTTP/2 connections
+        int poolSize = Math.max(1, config.channel().poolSize());
+        List<Channel> members = new ArrayList<>(poolSize);
+        List<SharedGrpcClients.Profile> profiles = new ArrayList<>(poolSize);
+        try {
+            for (int i = 0; i < poolSize; i++) {
+                SharedGrpcClients.Profile profile = new SharedGrpcClients.Profile(maxInboundMessageSize, i);
+                GrpcClient grpcClient = grpcClients.acquire(profile, () -> clientOptions(maxInboundMessageSize));
+                profiles.add(profile);
+                members.add(getChannel(serviceName, grpcClient, storkSettings));
             }
+        } catch (RuntimeException e) {
+            members.forEach(member -> ChannelDrainer.closeNow(serviceName, member));
+            profiles.forEach(grpcClients::release);
+            throw e;
+        }
+        PooledChannel pool = new PooledChannel(serviceName, members);
 
-            @Override
-            public long deadline() {
-                return 5000;
-            }
+        // Interceptors run last-to-first, so the auth interceptor sees the call before the message settings
+        List<ClientInterceptor> interceptors = new ArrayList<>();
 
-            @Override
-            public int retries() {
-                return 3;
-            }
+        // Innermost, so every attempt reports its outcome to the instance it reached
+        interceptors.add(new InstanceFeedbackInterceptor());
 
-            @Override
-            public long delay() {
-                return 60;
-            }
+        // Enforce outbound limits and compression only when they differ from the transport defaults
+        if (messageSettings.inspectsMessages()) {
+            interceptors.add(new MessageSettingsInterceptor(messageSettings));
+            LOG.debugf("Message settings interceptor applied to channel for service: %s", serviceName);
+        }
 
-            @Override
-            public long period() {
-                return 120;
-            }
-        };
+        // Wrap channel with auth interceptor if auth is enabled
+        if (config.auth().enabled()) {
+            interceptors.add(authInterceptor);
+            LOG.debugf("Auth interceptor applied to channel for service: %s", serviceName);
+        }
+
+        // Hedged attempts each pass through auth and message settings as separate calls
+        ServiceHedgingSettings.resolve(config, serviceName).ifPresent(hedging -> {
+            interceptors.add(new HedgingInterceptor(serviceName, hedging, vertx, metrics));
+            LOG.debugf("Hedging interceptor applied to channel for service %s: %s", serviceName, hedging);
+        });
+
+        // Outside hedging, so that every retry is hedged again and the deadline covers all attempts
+        ServiceRetrySettings.resolve(config, serviceName).ifPresent(retry -> {
+            interceptors.add(new RetryInterceptor(serviceName, retry, retryBudget, vertx, metrics));
+            LOG.debugf("Retry interceptor applied to channel for service %s: %s", serviceName, retry);
+        });
+
+        // Outside retries and hedging: a call holds one slot however many attempts it makes
+        if (config.concurrencyLimit().enabled()) {
+            AimdConcurrencyLimit limit = concurrencyLimits.computeIfAbsent(serviceName,
+                    name -> new AimdConcurrencyLimit(config.concurrencyLimit(),
+                            current -> metrics.recordConcurrencyLimit(name, current)));
+            interceptors.add(new ConcurrencyLimitInterceptor(serviceName, limit, metrics));
+            LOG.debugf("Concurrency limit interceptor applied to channel for service: %s", serviceName);
+        }
+
+        // Outside the concurrency limit, so short-circuited calls never take a slot
+        if (circuitBreakers.enabled()) {
+            interceptors.add(new CircuitBreakerInterceptor(serviceName, circuitBreakers.forService(serviceName), metrics));
+            LOG.debugf("Circuit breaker interceptor applied to channel for service: %s", serviceName);
+        }
+
+        // Added last so it runs first and times the whole call, including the other interceptors
+        if (config.metrics().rpcEnabled()) {
+            metrics.createRpcMetricsInterceptor(serviceName, config.metrics().sloBuckets())
+                    .ifPresent(interceptors::add);
+        }
+
+        Channel created = ClientInterceptors.intercept(pool, interceptors);
+
+        LOG.debugf("Created pool of %d StorkGrpcChannel(s) for %s", poolSize, serviceName);
+        Runnable instanceWatch = discoveryManager.watchInstances(serviceName,
+                change -> onInstancesChanged(serviceName, pool, change));
+        channelCache.put(serviceName, new CachedChannel(pool, created, profiles, instanceWatch));
+
+        // Record successful channel creation
+        metrics.recordChannelCreated(serviceName);
 
-        Channel created = new StorkGrpcChannel(grpcClient, serviceName, storkConfig, executor);
         return created;
     }
 
+    /**
+     * Handles a change of the instance set of a service with a cached channel. While instances
+     * remain, the channel is kept: its members select among them from their next call on, and calls
+     * in flight to removed instances finish on their connections. When the last instance is
+     * removed, the channel is evicted and drained.
+     *
+     * @param serviceName the logical service name
+     * @param pool        the pool of the channel that subscribed
+     * @param change      the instance set change
+     */
+    private void onInstancesChanged(String serviceName, PooledChannel pool, InstanceSetChange change) {
+        for (ServiceInstance removed : change.removed()) {
+            LOG.infof("Instance %s:%d of service '%s' is gone, no new calls are sent to it",
+                    removed.getHost(), removed.getPort(), serviceName);
+        }
+        if (change.instances().isEmpty()) {
+            // Only the channel that subscribed; a newer one has its own subscription
+            CachedChannel cached = peek(serviceName);
+            if (cached != null && cached.pool() == pool && channelCache.asMap().remove(serviceName, cached)) {
+                LOG.warnf("Service '%s' has no instances left, evicted its channel", serviceName);
+            }
+            return;
+        }
+        LOG.infof("Instances of service '%s' changed (+%d, -%d, now %d), keeping its channel",
+                serviceName, change.added().size(), change.removed().size(), change.instances().size());
+    }
+
+    /**
+     * Builds the options for a shared gRPC client, applying TLS settings and message size limits.
+     *
+     * @param maxInboundMessageSize the maximum inbound message size in bytes
+     * @return the gRPC client options
+     */
+    private GrpcClientOptions clientOptions(int maxInboundMessageSize) {
+        // Create HTTP client options for TLS configuration (Quarkus pattern)
+        HttpClientOptions httpOptions = new HttpClientOptions();
+        httpOptions.setHttp2ClearTextUpgrade(false); // Recommended by Quarkus
+
+        // Configure TLS if enabled (using Quarkus's SSLConfigHelper - 1:1 with Quarkus code)
+        if (tlsConfig.enabled()) {
+            httpOptions.setSsl(true);
+            httpOptions.setUseAlpn(true);
+            httpOptions.setTrustAll(tlsConfig.trustAll());
+
+            // Apply Quarkus TLS configuration using their helper methods
+            SSLConfigHelper.configurePemTrustOptions(httpOptions, tlsConfig.trustCertificatePem());
+            SSLConfigHelper.configureJksTrustOptions(httpOptions, tlsConfig.trustCertificateJks());
+            SSLConfigHelper.configurePfxTrustOptions(httpOptions, tlsConfig.trustCertificateP12());
+
+            SSLConfigHelper.configurePemKeyCertOptions(httpOptions, tlsConfig.keyCertificatePem());
+            SSLConfigHelper.configureJksKeyCertOptions(httpOptions, tlsConfig.keyCertificateJks());
+            SSLConfigHelper.configurePfxKeyCertOptions(httpOptions, tlsConfig.keyCertificateP12());
+
+            httpOptions.setVerifyHost(tlsConfig.verifyHostname());
+
+            LOG.debugf("TLS configured for shared gRPC client: trustAll=%s, verifyHostname=%s",
+                    tlsConfig.trustAll(), tlsConfig.verifyHostname());
+        }
+
+        // Create gRPC client options with HTTP options and message size limits
+        return new GrpcClientOptions()
+                .setTransportOptions(httpOptions)
+                .setMaxMessageSize(maxInboundMessageSize);
+    }
+
+    private Channel getChannel(String serviceName, GrpcClient grpcClient, ServiceStorkSettings storkSettings) {
+        return new StorkGrpcChannel(grpcClient, serviceName, storkSettings, executor);
+    }
+
+    /**
+     * Returns the cached channel of a service without going through discovery.
+     *
+     * @param serviceName the logical service name
+     * @return a pre-completed Uni of the cached channel, or {@code null} on a cache miss
+     */
+    Uni<Channel> getCachedChannel(String serviceName) {
+        if (channelCache == null || shuttingDown.get()) {
+            return null;
+        }
+        CachedChannel cached = channelCache.getIfPresent(serviceName);
+        if (cached == null) {
+            return null;
+        }
+        metrics.recordCacheHit(serviceName);
+        return cached.ready();
+    }
+
+    /**
+     * Looks up the cache entry of a service without counting a hit or miss in the cache
+     * statistics. Used by every lookup that follows the one counted by
+     * {@link #getCachedChannel(String)} for the same request; it still counts as an access for
+     * the idle expiry.
+     *
+     * @param serviceName the logical service name
+     * @return the cache entry, or {@code null} if none is cached
+     */
+    private CachedChannel peek(String serviceName) {
+        return channelCache.asMap().get(serviceName);
+    }
+
+    /**
+     * Returns the stub cached on the service's channel for the class of the given stub, caching
+     * the given one if there is none.
+     * <p>
+     * Only plain stubs are shared (see {@link CachedChannel}), and only while {@code channel} is
+     * still the cached channel of the service, so a caller holding a channel from an evicted
+     * entry never receives a stub bound to the new one.
+     * </p>
+     *
+     * @param <T>         the stub type
+     * @param serviceName the logical service name
+     * @param channel     the channel the stub was built on
+     * @param stub        the new stub
+     * @return the cached stub of the same class, or {@code stub} if it is the first or not cacheable
+     */
+    @SuppressWarnings("unchecked")
+    <T> T cacheStub(String serviceName, Channel channel, T stub) {
+        CachedChannel cached = peek(serviceName);
+        if (cached == null || cached.channel() != channel || !cached.isCacheable(stub)) {
+            return stub;
+        }
+        return (T) cached.putStubIfAbsent(stub);
+    }
+
+    /**
+     * Opens the transport connections of a service's cached channel pool by probing every member.
+     *
+     * @param serviceName the logical service name, whose channel must already be cached
+     * @param timeout     deadline of each probe call
+     * @return a Uni completing once every member reached a server
+     */
+    Uni<Void> connect(String serviceName, Duration timeout) {
+        CachedChannel cached = peek(serviceName);
+        if (cached == null) {
+            return Uni.createFrom().failure(
+                    new ChannelCreationException(serviceName, "No cached channel to connect"));
+        }
+        List<Uni<Void>> probes = new ArrayList<>();
+        for (Channel member : cached.pool().members()) {
+            probes.add(ConnectionProbe.probe(member, timeout));
+        }
+        return Uni.join().all(probes).andFailFast().replaceWithVoid();
+    }
+
     /**
      * Manually evicts a channel for a service from the cache.
      *
@@ -324,14 +537,6 @@ public class ChannelManager {
     public String getCacheStats() {
         var stats = channelCache.stats();
 
-        // Update metrics with current cache stats
-        metrics.updateCacheStats(
-                stats.hitCount(),
-                stats.missCount(),
-                stats.evictionCount(),
-                channelCache.estimatedSize()
-        );
-
         return String.format("Cache stats - Size: %d, Hits: %d, Misses: %d, Hit rate: %.2f%%, Evictions: %d",
                 channelCache.estimatedSize(),
                 stats.hitCount(),
@@ -350,8 +555,8 @@ public class ChannelManager {
     }
 
     /**
-     * Shuts down all channels during application shutdown.
-     * Invoked automatically by CDI before the bean is destroyed.
+     * Shuts down all channels during application shutdown, giving in-flight calls up to the
+     * shutdown timeout to finish. Invoked automatically by CDI before the bean is destroyed.
      */
     @PreDestroy
     void cleanup() {
@@ -364,55 +569,16 @@ public class ChannelManager {
 
         LOG.infof("Shutting down %d cached gRPC channels on application exit...", channelCache.estimatedSize());
 
-        var channels = new java.util.ArrayList<>(channelCache.asMap().values());
-
+        // Every pool drains in parallel; whatever is left at the timeout is closed immediately
         channelCache.invalidateAll();
         channelCache.cleanUp();
-
-        ExecutorService shutdownExecutor = Executors.newSingleThreadExecutor();
         try {
-            shutdownExecutor.submit(() -> {
-                for (Channel channel : channels) {
-                    try {
-                        if (channel instanceof ManagedChannel mc) {
-                            if (!mc.isShutdown()) {
-                                mc.shutdown();
-                                if (!mc.awaitTermination(100, TimeUnit.MILLISECONDS)) {
-                                    mc.shutdownNow();
-                                }
-                            }
-                        } else if (channel instanceof StorkGrpcChannel) {
-                            ((StorkGrpcChannel) channel).close();
-                        }
-                    } catch (Exception e) {
-                        LOG.tracef(e, "Error during channel shutdown, forcing immediate termination");
-                        try {
-                            if (channel instanceof ManagedChannel) {
-                                ((ManagedChannel) channel).shutdownNow();
-                            }
-                        } catch (Exception ex) {
-                            LOG.tracef(ex, "Error forcing shutdown during cleanup - ignoring");
-                        }
-                    }
-                }
-            }).get(config.channel().shutdownTimeoutSeconds(), TimeUnit.SECONDS);
-        } catch (TimeoutException e) {
-            LOG.warn("Channel shutdown timed out, forcing immediate termination");
-            channels.forEach(ch -> {
-                try {
-                    if (ch instanceof ManagedChannel mc) {
-                        if (!mc.isShutdown()) mc.shutdownNow();
-                    } else if (ch instanceof StorkGrpcChannel) {
-                        ((StorkGrpcChannel) ch).close();
-                    }
-                } catch (Exception ex) {
-                    LOG.tracef(ex, "Error during forced channel shutdown on timeout - ignoring");
-                }
-            });
-        } catch (Exception e) {
-            LOG.error("Error during channel cleanup", e);
+            if (!drainer.awaitAll(Duration.ofSeconds(config.channel().shutdownTimeoutSeconds()))) {
+                LOG.warn("Channel shutdown timed out, forcing immediate termination");
+            }
         } finally {
-            shutdownExecutor.shutdownNow();
+            drainer.shutdownNow();
+            grpcClients.closeAll();
         }
 
         LOG.info("ChannelManager cleanup complete.");
@@ -0,0 +1,67 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import ai.pipestream.quarkus.dynamicgrpc.config.DynamicGrpcConfig;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+
+/**
+ * Warms up the channels listed in {@code quarkus.dynamic-grpc.warmup.services} at startup.
+ * <p>
+ * Warm-up runs in the background so it never delays startup. Its completion is exposed through
+ * {@link #isComplete()}, which the readiness check uses when
+ * {@code quarkus.dynamic-grpc.warmup.readiness} is enabled.
+ * </p>
+ */
+@ApplicationScoped
+public class ChannelWarmup {
+
+    private static final Logger LOG = Logger.getLogger(ChannelWarmup.class);
+
+    /**
+     * Default constructor for CDI frameworks.
+     */
+    public ChannelWarmup() {
+    }
+
+    @Inject
+    GrpcClientFactory clientFactory;
+
+    @Inject
+    DynamicGrpcConfig config;
+
+    private volatile boolean complete;
+
+    void onStart(@Observes StartupEvent event) {
+        List<String> services = config.warmup().services().orElse(List.of());
+        if (services.isEmpty()) {
+            complete = true;
+            return;
+        }
+
+        LOG.infof("Warming up %d dynamic gRPC service(s): %s", services.size(), services);
+        clientFactory.warmUp(services)
+                .subscribe().with(
+                        warmed -> {
+                            complete = true;
+                            LOG.infof("Warm-up finished, %d of %d service(s) ready", warmed.size(), services.size());
+                        },
+                        failure -> {
+                            complete = true;
+                            LOG.warnf(failure, "Warm-up did not finish");
+                        });
+    }
+
+    /**
+     * Returns whether startup warm-up has finished, successfully or not.
+     *
+     * @return true once every configured service has been attempted
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -0,0 +1,89 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.smallrye.mutiny.Uni;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens the transport connection of a channel by making a cheap call over it.
+ * <p>
+ * The probe sends an empty {@code grpc.health.v1.Health/Check} request, which is a valid health
+ * check for the server as a whole. Any status returned by the server, including
+ * {@code UNIMPLEMENTED} from servers without a health service, proves that the connection
+ * (and TLS handshake) was established. Only {@code UNAVAILABLE}, {@code DEADLINE_EXCEEDED}
+ * and {@code CANCELLED} are treated as failures.
+ * </p>
+ */
+final class ConnectionProbe {
+
+    private static final MethodDescriptor.Marshaller<byte[]> BYTES = new MethodDescriptor.Marshaller<>() {
+        @Override
+        public InputStream stream(byte[] value) {
+            return new ByteArrayInputStream(value);
+        }
+
+        @Override
+        public byte[] parse(InputStream stream) {
+            try {
+                return stream.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    };
+
+    private static final MethodDescriptor<byte[], byte[]> HEALTH_CHECK = MethodDescriptor.<byte[], byte[]>newBuilder()
+            .setType(MethodDescriptor.MethodType.UNARY)
+            .setFullMethodName("grpc.health.v1.Health/Check")
+            .setRequestMarshaller(BYTES)
+            .setResponseMarshaller(BYTES)
+            .build();
+
+    private ConnectionProbe() {
+    }
+
+    /**
+     * Makes a probe call over the channel.
+     *
+     * @param channel the channel to connect
+     * @param timeout deadline of the probe call
+     * @return a Uni completing once the server answered, or failing with the call status
+     */
+    static Uni<Void> probe(Channel channel, Duration timeout) {
+        return Uni.createFrom().emitter(emitter -> {
+            ClientCall<byte[], byte[]> call = channel.newCall(HEALTH_CHECK,
+                    CallOptions.DEFAULT.withDeadlineAfter(timeout.toMillis(), TimeUnit.MILLISECONDS));
+            call.start(new ClientCall.Listener<>() {
+                @Override
+                public void onClose(Status status, Metadata trailers) {
+                    if (reachedServer(status)) {
+                        emitter.complete(null);
+                    } else {
+                        emitter.fail(status.asRuntimeException(trailers));
+                    }
+                }
+            }, new Metadata());
+            call.request(1);
+            call.sendMessage(new byte[0]);
+            call.halfClose();
+        });
+    }
+
+    private static boolean reachedServer(Status status) {
+        return switch (status.getCode()) {
+            case UNAVAILABLE, DEADLINE_EXCEEDED, CANCELLED -> false;
+            default -> true;
+        };
+    }
+}
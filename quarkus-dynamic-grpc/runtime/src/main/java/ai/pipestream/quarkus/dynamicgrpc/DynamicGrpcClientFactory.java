@@ -1,21 +1,34 @@
 package ai.pipestream.quarkus.dynamicgrpc;
 
+import ai.pipestream.quarkus.dynamicgrpc.circuitbreaker.CircuitBreaker;
+import ai.pipestream.quarkus.dynamicgrpc.circuitbreaker.CircuitBreakerStateChange;
+import ai.pipestream.quarkus.dynamicgrpc.circuitbreaker.CircuitBreakers;
+import ai.pipestream.quarkus.dynamicgrpc.config.DynamicGrpcConfig;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.ConsulWatchServiceDiscovery;
+import ai.pipestream.quarkus.dynamicgrpc.exception.CircuitBreakerOpenException;
 import ai.pipestream.quarkus.dynamicgrpc.exception.DynamicGrpcException;
 import ai.pipestream.quarkus.dynamicgrpc.exception.InvalidServiceNameException;
 import ai.pipestream.quarkus.dynamicgrpc.exception.ServiceNotFoundException;
 import ai.pipestream.quarkus.dynamicgrpc.metrics.DynamicGrpcMetrics;
 import io.grpc.*;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
 import io.quarkus.grpc.MutinyStub;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.stork.Stork;
-import io.smallrye.stork.api.Service;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
 
 import java.net.InetSocketAddress;
 import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -24,6 +37,11 @@ import java.util.stream.Collectors;
  * <p>
  * This factory ensures the service is defined in Stork, discovers instances,
  * obtains a Channel from ChannelManager, and produces Mutiny stubs on demand.
+ * When ChannelManager already holds a channel for the service, it is returned
+ * directly and discovery is skipped.
+ * Plain stubs, such as the ones built by {@code MutinyGreeterGrpc::newMutinyStub}, are
+ * cached with the channel by stub class and the same instance is returned until the
+ * channel is evicted.
  * </p>
  */
 @ApplicationScoped
@@ -46,6 +64,12 @@ public class DynamicGrpcClientFactory implements GrpcClientFactory {
     @Inject
     DynamicGrpcMetrics metrics;
 
+    @Inject
+    DynamicGrpcConfig config;
+
+    @Inject
+    CircuitBreakers circuitBreakers;
+
     /**
      * {@inheritDoc}
      */
@@ -63,7 +87,8 @@ public class DynamicGrpcClientFactory implements GrpcClientFactory {
                         T stub = stubCreator.apply(channel);
                         // Record successful client creation
                         metrics.recordClientCreationSuccess(serviceName);
-                        return stub;
+                        // Plain stubs are immutable and bound to the channel, so share one per stub class
+                        return channelManager.cacheStub(serviceName, channel, stub);
                     } catch (Exception e) {
                         LOG.errorf(e, "Failed to create stub for service: %s", serviceName);
                         // Record exception
@@ -97,6 +122,18 @@ public class DynamicGrpcClientFactory implements GrpcClientFactory {
             return Uni.createFrom().failure(ex);
         }
 
+        // While the breaker is open the channel has been evicted, so fail fast rather than rediscover
+        if (circuitBreakers.enabled() && !circuitBreakers.isCallPermitted(serviceName)) {
+            metrics.recordCircuitBreakerRejected(serviceName);
+            return Uni.createFrom().failure(new CircuitBreakerOpenException(serviceName));
+        }
+
+        // A cached channel selects instances itself on every call, so discovery is only needed on a miss
+        Uni<Channel> cached = channelManager.getCachedChannel(serviceName);
+        if (cached != null) {
+            return cached;
+        }
+
         LOG.debugf("Getting channel for service: %s", serviceName);
 
         return serviceDiscoveryManager.ensureServiceDefined(serviceName)
@@ -110,6 +147,47 @@ public class DynamicGrpcClientFactory implements GrpcClientFactory {
                 });
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Uni<List<String>> warmUp(List<String> serviceNames) {
+        if (serviceNames == null || serviceNames.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+
+        DynamicGrpcConfig.WarmupConfig warmup = config.warmup();
+        return Multi.createFrom().iterable(serviceNames.stream().distinct().toList())
+                .onItem().transformToUni(serviceName -> warmUpService(serviceName, warmup.timeout()))
+                .merge(Math.max(1, warmup.concurrency()))
+                .collect().asList()
+                .map(results -> results.stream().flatMap(Optional::stream).toList());
+    }
+
+    /**
+     * Warms up a single service, recovering from any failure.
+     *
+     * @param serviceName the logical service name
+     * @param timeout     time allowed for the whole warm-up of the service
+     * @return a Uni emitting the service name on success, or empty on failure
+     */
+    private Uni<Optional<String>> warmUpService(String serviceName, Duration timeout) {
+        long start = System.nanoTime();
+        return getChannel(serviceName)
+                .chain(ignored -> channelManager.connect(serviceName, timeout))
+                .ifNoItem().after(timeout).fail()
+                .map(ignored -> {
+                    LOG.infof("Warmed up channel for service %s in %d ms",
+                            serviceName, Duration.ofNanos(System.nanoTime() - start).toMillis());
+                    return Optional.of(serviceName);
+                })
+                .onFailure().recoverWithItem(e -> {
+                    LOG.warnf("Warm-up failed for service %s: %s", serviceName, e.toString());
+                    metrics.recordException(e.getClass().getSimpleName(), serviceName, "warmup");
+                    return Optional.empty();
+                });
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -124,6 +202,22 @@ public class DynamicGrpcClientFactory implements GrpcClientFactory {
     @Override
     public void evictChannel(String serviceName) {
         channelManager.evictChannel(serviceName);
+        // The next getChannel goes through discovery again, so make it see the registry's current state
+        serviceDiscoveryManager.invalidateInstances(serviceName);
+    }
+
+    /**
+     * Evicts the channel of a service whose circuit breaker has just opened, so that the calls
+     * after the open state go through discovery and a fresh channel. A breaker opening again
+     * from half-open already uses the rebuilt channel and leaves it in place.
+     *
+     * @param change the circuit breaker transition
+     */
+    void onCircuitBreakerStateChange(@Observes CircuitBreakerStateChange change) {
+        if (change.from() == CircuitBreaker.State.CLOSED && change.to() == CircuitBreaker.State.OPEN) {
+            LOG.infof("Rebuilding channel for service %s after its circuit breaker opened", change.serviceName());
+            evictChannel(change.serviceName());
+        }
     }
 
     /**
@@ -137,10 +231,36 @@ public class DynamicGrpcClientFactory implements GrpcClientFactory {
     /**
      * NameResolverProvider that uses SmallRye Stork to resolve service instances
      * for a logical service name into gRPC address groups.
+     * <p>
+     * Registered through {@code META-INF/services}, so channels built by grpc-java itself, e.g.
+     * {@code ManagedChannelBuilder.forTarget("dynamic-grpc://orders-service")} with the Netty
+     * transport, resolve {@code dynamic-grpc://} targets through it and can use grpc-java's own
+     * load-balancing policies such as {@code round_robin}. The service name is the target's
+     * authority, or its path for {@code dynamic-grpc:///orders-service}. A provider created for a
+     * fixed service name resolves that service whatever the target.
+     * </p>
+     * <p>
+     * The scheme is distinct from the {@code stork://} scheme of quarkus-grpc, whose resolver is
+     * left in charge of its own targets. Targets of other schemes, or without a service name, are
+     * declined, so grpc-java tries its other providers.
+     * </p>
      */
     public static class StorkNameResolverProvider extends NameResolverProvider {
+        /**
+         * URI scheme of the targets resolved by this provider.
+         */
+        public static final String SCHEME = "dynamic-grpc";
+
         private final String serviceName;
 
+        /**
+         * Creates a provider resolving the service named by each target URI. Used by grpc-java's
+         * service loader.
+         */
+        public StorkNameResolverProvider() {
+            this(null);
+        }
+
         /**
          * Creates a new StorkNameResolverProvider.
          *
@@ -161,42 +281,112 @@ public class DynamicGrpcClientFactory implements GrpcClientFactory {
         }
 
         /**
-         * Creates a new resolver for the given target URI using the configured service name.
+         * Creates a new resolver for the given target URI.
          *
          * @param targetUri the target URI passed by gRPC
          * @param args      resolver arguments provided by gRPC
-         * @return a NameResolver backed by SmallRye Stork
+         * @return a NameResolver backed by SmallRye Stork, or {@code null} for targets of other
+         *         schemes or without a service name
          */
         @Override
         public NameResolver newNameResolver(URI targetUri, NameResolver.Args args) {
-            return new StorkNameResolver(serviceName);
+            String name = serviceName;
+            if (name == null) {
+                if (!getDefaultScheme().equals(targetUri.getScheme())) {
+                    return null;
+                }
+                name = targetUri.getAuthority();
+                if (name == null || name.isEmpty()) {
+                    String path = targetUri.getPath();
+                    name = path != null && path.startsWith("/") ? path.substring(1) : path;
+                }
+                if (name == null || name.isEmpty()) {
+                    return null;
+                }
+            }
+            return new StorkNameResolver(name, args);
         }
 
         /**
          * Returns the default URI scheme used by this provider.
          *
-         * @return the {@code stork} scheme
+         * @return the {@code dynamic-grpc} scheme
          */
         @Override
         public String getDefaultScheme() {
-            return "stork";
+            return SCHEME;
         }
     }
 
     /**
      * NameResolver implementation that uses Stork for service instance resolution.
+     * <p>
+     * The first resolution makes sure the service is defined in Stork, falling back to Consul like
+     * {@link ServiceDiscoveryManager} does, and reports its instances. For services discovered
+     * through the Consul watch ({@code quarkus.dynamic-grpc.discovery.watch-instances}), every
+     * later change of the instance set is pushed to the channel as it happens. Other services have
+     * no such notification, so they are resolved again every
+     * {@code quarkus.dynamic-grpc.discovery.resolver-poll-interval}. Resolutions requested by the channel through {@link #refresh()} are rate-limited to one per
+     * {@code quarkus.dynamic-grpc.discovery.resolver-refresh-interval}; a refresh arriving sooner
+     * is deferred to the end of the interval, and coalesced with any other arriving meanwhile.
+     * Shutting the resolver down cancels its subscription and any scheduled resolution.
+     * </p>
+     * <p>
+     * All state is confined to the channel's synchronization context.
+     * </p>
      */
     public static class StorkNameResolver extends NameResolver {
+        private static final Logger LOG = Logger.getLogger(StorkNameResolver.class);
+
+        private static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(1);
+
+        private static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(30);
+
         private final String serviceName;
+        private final SynchronizationContext syncContext;
+        private final ScheduledExecutorService scheduler;
+        private final long refreshIntervalNanos;
+        private final long pollIntervalNanos;
+
+        // Confined to syncContext
         private Listener2 listener;
+        private Runnable subscription;
+        private SynchronizationContext.ScheduledHandle pendingRefresh;
+        private SynchronizationContext.ScheduledHandle pendingPoll;
+        private boolean resolving;
+        private boolean resolvedOnce;
+        private long lastResolutionNanos;
+        private boolean shutdown;
 
         /**
-         * Creates a new StorkNameResolver.
+         * Creates a new StorkNameResolver outside of a channel. Refreshes requested within the
+         * refresh interval of the previous resolution are dropped rather than deferred, and
+         * services without a watch are only resolved again when refreshed.
          *
          * @param serviceName the logical service name to resolve
          */
         public StorkNameResolver(String serviceName) {
+            this(serviceName, null);
+        }
+
+        /**
+         * Creates a new StorkNameResolver for a channel.
+         *
+         * @param serviceName the logical service name to resolve
+         * @param args        the resolver arguments of the channel, or {@code null}
+         */
+        public StorkNameResolver(String serviceName, NameResolver.Args args) {
             this.serviceName = serviceName;
+            this.syncContext = args != null
+                    ? args.getSynchronizationContext()
+                    : new SynchronizationContext((thread, e) ->
+                            LOG.errorf(e, "Uncaught error in name resolver of %s", serviceName));
+            this.scheduler = args != null ? args.getScheduledExecutorService() : null;
+            DynamicGrpcConfig.DiscoveryConfig discovery = discoveryConfig();
+            this.refreshIntervalNanos = (discovery != null
+                    ? discovery.resolverRefreshInterval() : DEFAULT_REFRESH_INTERVAL).toNanos();
+            this.pollIntervalNanos = (discovery != null
+                    ? discovery.resolverPollInterval() : DEFAULT_POLL_INTERVAL).toNanos();
         }
 
         /**
@@ -211,44 +401,161 @@ public class DynamicGrpcClientFactory implements GrpcClientFactory {
 
         @Override
         public void start(Listener2 listener) {
-            this.listener = listener;
-            resolve();
+            syncContext.execute(() -> {
+                this.listener = listener;
+                resolve();
+            });
         }
 
         @Override
         public void refresh() {
-            resolve();
+            syncContext.execute(() -> {
+                if (shutdown || resolving || pendingRefresh != null) {
+                    return;
+                }
+                long wait = lastResolutionNanos + refreshIntervalNanos - System.nanoTime();
+                if (!resolvedOnce || wait <= 0) {
+                    resolve();
+                } else if (scheduler != null) {
+                    pendingRefresh = syncContext.schedule(() -> {
+                        pendingRefresh = null;
+                        resolve();
+                    }, wait, TimeUnit.NANOSECONDS, scheduler);
+                }
+            });
         }
 
         /**
          * Performs a resolution round by querying Stork for current instances and reporting results
-         * to the registered listener.
+         * to the registered listener. Called in the synchronization context.
          */
         private void resolve() {
+            if (shutdown || resolving) {
+                return;
+            }
+            resolving = true;
+            resolvedOnce = true;
+            lastResolutionNanos = System.nanoTime();
             try {
-                Service service = Stork.getInstance().getService(serviceName);
-                service.getInstances().onItem().invoke(instances -> {
-                    if (instances.isEmpty()) {
-                        Logger.getLogger(StorkNameResolver.class).warnf("No instances found for service: %s", serviceName);
-                        listener.onError(io.grpc.Status.UNAVAILABLE.withDescription("No instances found for service " + serviceName));
-                    } else {
-                        List<EquivalentAddressGroup> addresses = instances.stream()
-                                .map(i -> new EquivalentAddressGroup(new InetSocketAddress(i.getHost(), i.getPort())))
-                                .collect(Collectors.toList());
-                        listener.onResult(ResolutionResult.newBuilder()
-                                .setAddressesOrError(StatusOr.fromValue(addresses))
-                                .build());
-                    }
-                }).subscribe().asCompletionStage();
+                defineService()
+                        .chain(() -> Stork.getInstance().getService(serviceName).getInstances())
+                        .subscribe().with(
+                                instances -> syncContext.execute(() -> {
+                                    resolving = false;
+                                    subscribeToChanges();
+                                    publish(instances);
+                                    schedulePoll();
+                                }),
+                                failure -> syncContext.execute(() -> {
+                                    resolving = false;
+                                    fail(failure);
+                                    schedulePoll();
+                                }));
             } catch (Exception e) {
-                Logger.getLogger(StorkNameResolver.class).errorf(e, "Failed to resolve service instances for %s", serviceName);
-                listener.onError(io.grpc.Status.INTERNAL.withCause(e).withDescription("Failed to resolve instances"));
+                resolving = false;
+                fail(e);
+                schedulePoll();
             }
         }
 
+        /**
+         * Schedules the next resolution of a service whose changes are not pushed, replacing any
+         * scheduled one. Called in the synchronization context.
+         */
+        private void schedulePoll() {
+            if (pendingPoll != null) {
+                pendingPoll.cancel();
+                pendingPoll = null;
+            }
+            if (shutdown || subscription != null || scheduler == null) {
+                return;
+            }
+            pendingPoll = syncContext.schedule(() -> {
+                pendingPoll = null;
+                resolve();
+            }, pollIntervalNanos, TimeUnit.NANOSECONDS, scheduler);
+        }
+
+        /**
+         * Subscribes to the service's instance changes once it is known to be watched. Called in
+         * the synchronization context.
+         */
+        private void subscribeToChanges() {
+            if (subscription != null || shutdown) {
+                return;
+            }
+            subscription = ConsulWatchServiceDiscovery.subscribe(serviceName,
+                            change -> syncContext.execute(() -> {
+                                LOG.debugf("Pushing %d instance(s) of %s after a change (+%d, -%d)",
+                                        change.instances().size(), serviceName,
+                                        change.added().size(), change.removed().size());
+                                publish(change.instances());
+                            }))
+                    .orElse(null);
+        }
+
+        private void publish(List<io.smallrye.stork.api.ServiceInstance> instances) {
+            if (shutdown) {
+                return;
+            }
+            if (instances.isEmpty()) {
+                LOG.warnf("No instances found for service: %s", serviceName);
+                listener.onError(Status.UNAVAILABLE.withDescription("No instances found for service " + serviceName));
+                return;
+            }
+            List<EquivalentAddressGroup> addresses = instances.stream()
+                    .map(i -> new EquivalentAddressGroup(new InetSocketAddress(i.getHost(), i.getPort())))
+                    .collect(Collectors.toList());
+            listener.onResult(ResolutionResult.newBuilder()
+                    .setAddressesOrError(StatusOr.fromValue(addresses))
+                    .build());
+        }
+
+        private void fail(Throwable failure) {
+            if (shutdown) {
+                return;
+            }
+            LOG.errorf(failure, "Failed to resolve service instances for %s", serviceName);
+            listener.onError(Status.UNAVAILABLE.withCause(failure).withDescription("Failed to resolve instances"));
+        }
+
         @Override
         public void shutdown() {
-            // Cleanup if needed
+            syncContext.execute(() -> {
+                shutdown = true;
+                if (pendingRefresh != null) {
+                    pendingRefresh.cancel();
+                    pendingRefresh = null;
+                }
+                if (pendingPoll != null) {
+                    pendingPoll.cancel();
+                    pendingPoll = null;
+                }
+                if (subscription != null) {
+                    subscription.run();
+                    subscription = null;
+                }
+            });
+        }
+
+        /**
+         * Makes sure the service is defined in Stork through the application's
+         * {@link ServiceDiscoveryManager}, when running inside a Quarkus application.
+         */
+        private Uni<Void> defineService() {
+            ArcContainer container = Arc.container();
+            if (container == null || !container.isRunning()) {
+                return Uni.createFrom().voidItem();
+            }
+            return container.instance(ServiceDiscoveryManager.class).get().ensureServiceDefined(serviceName);
+        }
+
+        private static DynamicGrpcConfig.DiscoveryConfig discoveryConfig() {
+            ArcContainer container = Arc.container();
+            if (container == null || !container.isRunning()) {
+                return null;
+            }
+            return container.instance(DynamicGrpcConfig.class).get().discovery();
         }
     }
 }
@@ -4,6 +4,7 @@ import io.grpc.Channel;
 import io.quarkus.grpc.MutinyStub;
 import io.smallrye.mutiny.Uni;
 
+import java.util.List;
 import java.util.function.Function;
 
 /**
@@ -33,6 +34,20 @@ public interface GrpcClientFactory {
      */
     Uni<Channel> getChannel(String serviceName);
 
+    /**
+     * Eagerly creates and connects the channels of the given services.
+     * <p>
+     * Each service goes through Stork definition, instance lookup, channel creation and a
+     * connection probe, with at most {@code quarkus.dynamic-grpc.warmup.concurrency} services
+     * in parallel and {@code quarkus.dynamic-grpc.warmup.timeout} per service. Failures are
+     * logged and do not fail the returned Uni.
+     * </p>
+     *
+     * @param serviceNames the logical service names to warm up
+     * @return a Uni emitting the services that were warmed up successfully
+     */
+    Uni<List<String>> warmUp(List<String> serviceNames);
+
     /**
      * Get the number of active service connections being managed.
      *
@@ -0,0 +1,150 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A {@link Channel} that spreads calls for one service over a fixed set of underlying channels.
+ * <p>
+ * Every new call is routed to the member with the fewest in-flight calls. A call counts as
+ * in-flight from the moment it is started until it is closed, so a member whose HTTP/2
+ * connection is saturated (or stuck behind a slow peer) stops receiving new work. Calls that are
+ * created but never started hold no slot.
+ * Ties are broken from a random starting point so idle pools still use every connection.
+ * </p>
+ */
+final class PooledChannel extends Channel {
+
+    private final String serviceName;
+    private final List<Channel> members;
+    private final AtomicIntegerArray inFlight;
+
+    /**
+     * Creates a pool over the given member channels.
+     *
+     * @param serviceName the logical service name the members connect to
+     * @param members     the member channels (must be non-empty)
+     */
+    PooledChannel(String serviceName, List<Channel> members) {
+        if (members == null || members.isEmpty()) {
+            throw new IllegalArgumentException("A channel pool needs at least one member");
+        }
+        this.serviceName = serviceName;
+        this.members = List.copyOf(members);
+        this.inFlight = new AtomicIntegerArray(this.members.size());
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions) {
+        int index = leastLoaded();
+        return new TrackedCall<>(members.get(index).newCall(method, callOptions), index);
+    }
+
+    @Override
+    public String authority() {
+        return members.getFirst().authority();
+    }
+
+    /**
+     * Returns the logical service name this pool connects to.
+     *
+     * @return the service name
+     */
+    String serviceName() {
+        return serviceName;
+    }
+
+    /**
+     * Returns the number of calls in flight across all members.
+     *
+     * @return the in-flight call count
+     */
+    int inFlight() {
+        int total = 0;
+        for (int i = 0; i < inFlight.length(); i++) {
+            total += inFlight.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the underlying member channels.
+     *
+     * @return an immutable list of member channels
+     */
+    List<Channel> members() {
+        return members;
+    }
+
+    private int leastLoaded() {
+        int size = members.size();
+        if (size == 1) {
+            return 0;
+        }
+        int best = ThreadLocalRandom.current().nextInt(size);
+        int bestCount = inFlight.get(best);
+        for (int i = 1; i < size && bestCount > 0; i++) {
+            int candidate = (best + i) % size;
+            int count = inFlight.get(candidate);
+            if (count < bestCount) {
+                best = candidate;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Forwarding call that takes its in-flight slot when it is started and releases it exactly
+     * once, on close or when starting fails.
+     */
+    private final class TrackedCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<TrackedCall> HOLDING =
+                AtomicIntegerFieldUpdater.newUpdater(TrackedCall.class, "holding");
+
+        private final int index;
+        private volatile int holding;
+
+        TrackedCall(ClientCall<ReqT, RespT> delegate, int index) {
+            super(delegate);
+            this.index = index;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            inFlight.incrementAndGet(index);
+            holding = 1;
+            try {
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        release();
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            } catch (RuntimeException e) {
+                release();
+                throw e;
+            }
+        }
+
+        private void release() {
+            if (HOLDING.compareAndSet(this, 1, 0)) {
+                inFlight.decrementAndGet(index);
+            }
+        }
+    }
+}
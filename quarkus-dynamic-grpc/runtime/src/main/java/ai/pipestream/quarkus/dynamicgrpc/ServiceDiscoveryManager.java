@@ -1,5 +1,13 @@
 package ai.pipestream.quarkus.dynamicgrpc;
 
+import ai.pipestream.quarkus.dynamicgrpc.config.DynamicGrpcConfig;
+import ai.pipestream.quarkus.dynamicgrpc.config.ServiceRoutingSettings;
+import ai.pipestream.quarkus.dynamicgrpc.config.ServiceStorkSettings;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.ConsulWatchServiceDiscovery;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.DynamicConsulServiceDiscovery;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.InstanceSetChange;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.OutlierDetectionLoadBalancer;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.OutlierDetector;
 import ai.pipestream.quarkus.dynamicgrpc.exception.ServiceDiscoveryException;
 import ai.pipestream.quarkus.dynamicgrpc.exception.ServiceNotFoundException;
 import ai.pipestream.quarkus.dynamicgrpc.metrics.DynamicGrpcMetrics;
@@ -8,7 +16,9 @@ import io.smallrye.stork.Stork;
 import io.smallrye.stork.api.Service;
 import io.smallrye.stork.api.ServiceDefinition;
 import io.smallrye.stork.api.ServiceInstance;
+import io.smallrye.stork.api.config.ConfigWithType;
 import io.smallrye.stork.spi.config.SimpleServiceConfig;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.Config;
@@ -16,10 +26,15 @@ import org.eclipse.microprofile.config.ConfigProvider;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Manages dynamic definition of SmallRye Stork services backed by Consul discovery
@@ -30,6 +45,20 @@ import java.util.Optional;
  * per-service overrides of the Consul application name via the
  * {@code quarkus.dynamic-grpc.consul.application-name.<service>} configuration key.
  * </p>
+ * <p>
+ * Definitions carry the load balancer configured via
+ * {@code quarkus.dynamic-grpc.services.<service>.stork.load-balancer} (or the global
+ * {@code quarkus.dynamic-grpc.stork.load-balancer}), which Stork uses for per-call instance selection.
+ * With {@code quarkus.dynamic-grpc.outlier-detection.enabled} they use an
+ * {@link OutlierDetectionLoadBalancer} instead, which selects among the instances in rotation with
+ * the configured load balancer if it is one of {@link OutlierDetector.Settings#LOAD_BALANCERS}.
+ * </p>
+ * <p>
+ * With {@code quarkus.dynamic-grpc.discovery.watch-instances} (the default), the Consul fallback
+ * uses a {@link ConsulWatchServiceDiscovery} backed by the blocking-query watch of
+ * {@link DynamicConsulServiceDiscovery}, and changes of its instances can be
+ * {@link #watchInstances(String, Consumer) subscribed} to.
+ * </p>
  */
 @ApplicationScoped
 public class ServiceDiscoveryManager {
@@ -45,6 +74,12 @@ public class ServiceDiscoveryManager {
     @Inject
     DynamicGrpcMetrics metrics;
 
+    @Inject
+    DynamicGrpcConfig dynamicGrpcConfig;
+
+    @Inject
+    DynamicConsulServiceDiscovery consulDiscovery;
+
     /**
      * Consul agent host used for service discovery.
      */
@@ -64,11 +99,42 @@ public class ServiceDiscoveryManager {
     String consulRefreshPeriod;
 
     /**
-     * Whether Consul health checks should be taken into account by discovery.
+     * Whether Consul health checks should be taken into account by the polling discovery. The watch
+     * used with {@code quarkus.dynamic-grpc.discovery.watch-instances} always filters on them.
      */
     @ConfigProperty(name = "quarkus.dynamic-grpc.consul.use-health-checks", defaultValue = "false")
     boolean consulUseHealthChecks;
 
+    private static final Uni<Void> DEFINED = Uni.createFrom().voidItem();
+    private static final Runnable NOT_WATCHED = () -> { };
+    private static final String STORK_PREFIX = "stork.";
+    private static final String DISCOVERY_SEGMENT = ".service-discovery.";
+    private static final String LOAD_BALANCER_SEGMENT = ".load-balancer.";
+
+    /**
+     * Plain Stork properties of one service, with the {@code stork.<service>.<segment>.} prefix removed.
+     *
+     * @param discovery    the service discovery properties, including {@code type}
+     * @param loadBalancer the load balancer properties, including {@code type}
+     */
+    record StorkProperties(Map<String, String> discovery, Map<String, String> loadBalancer) {
+    }
+
+    private final ConcurrentMap<String, Boolean> definedServices = new ConcurrentHashMap<>();
+    private volatile Map<String, StorkProperties> storkPropertyIndex;
+    private final ConcurrentMap<String, KnownInstances> knownInstances = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, OutlierDetector> outlierDetectors = new ConcurrentHashMap<>();
+
+    /**
+     * Removes the outlier detectors of this manager from the static registry before the bean is
+     * destroyed.
+     */
+    @PreDestroy
+    void cleanup() {
+        outlierDetectors.values().forEach(OutlierDetector::unregister);
+        outlierDetectors.clear();
+    }
+
     /**
      * Ensures a service is defined in Stork for discovery using the same Consul application name.
      *
@@ -90,7 +156,9 @@ public class ServiceDiscoveryManager {
      * <p>
      * If the configuration key {@code quarkus.dynamic-grpc.consul.application-name.<storkServiceName>}
      * is present, it overrides {@code consulApplicationName} for discovery. Subsequent calls are
-     * idempotent and will not re-define an already known Stork service.
+     * idempotent and will not re-define an already known Stork service: once defined, a service is
+     * answered from a map without touching Stork or the config. The {@code stork.*} properties are
+     * scanned once and indexed by service name.
      * </p>
      *
      * @param storkServiceName the logical service name as it will be known to Stork
@@ -99,33 +167,37 @@ public class ServiceDiscoveryManager {
      * @throws ServiceDiscoveryException if the service definition fails
      */
     public Uni<Void> ensureServiceDefinedFor(String storkServiceName, String consulApplicationName) {
+        // Steady state: a single map hit once the service has been defined
+        if (definedServices.containsKey(storkServiceName)) {
+            return DEFINED;
+        }
+
         // First check if this service is already programmatically defined
         Optional<Service> existingService = Stork.getInstance().getServiceOptional(storkServiceName);
         if (existingService.isPresent()) {
             LOG.debugf("Service %s already defined in Stork (programmatic)", storkServiceName);
-            return Uni.createFrom().voidItem();
+            definedServices.put(storkServiceName, Boolean.TRUE);
+            return DEFINED;
         }
 
         final Config config = ConfigProvider.getConfig();
 
         // Check if service is configured via MicroProfile Config (e.g., stork.repo-service.service-discovery.type)
         // This supports static discovery, Kubernetes, or any other Stork provider configured via properties
-        final String discoveryTypeKey = "stork." + storkServiceName + ".service-discovery.type";
-        Optional<String> configuredDiscoveryType = config.getOptionalValue(discoveryTypeKey, String.class);
-
-        // Log available stork config keys for debugging service discovery issues
-        if (LOG.isDebugEnabled()) {
-            LOG.debugf("Checking for Stork config key: %s (found=%s)", discoveryTypeKey, configuredDiscoveryType.isPresent());
-            int storkConfigCount = 0;
-            for (String name : config.getPropertyNames()) {
-                if (name.startsWith("stork.")) {
-                    storkConfigCount++;
-                    LOG.debugf("Stork property: %s = %s",
-                            name, config.getOptionalValue(name, String.class).orElse("<not found>"));
-                }
+        StorkProperties storkProperties = storkProperties(config).get(storkServiceName);
+        if (storkProperties == null
+                && config.getOptionalValue(STORK_PREFIX + storkServiceName + ".service-discovery.type", String.class).isPresent()) {
+            // Stork properties were added after the index was built; re-scan once
+            LOG.debugf("Stork config for %s appeared after indexing, rebuilding the index", storkServiceName);
+            synchronized (this) {
+                storkPropertyIndex = indexStorkProperties(config);
             }
-            LOG.debugf("Found %d stork.* properties total", storkConfigCount);
+            storkProperties = storkPropertyIndex.get(storkServiceName);
         }
+        Optional<String> configuredDiscoveryType = storkProperties == null
+                ? Optional.empty()
+                : Optional.ofNullable(storkProperties.discovery().get("type"));
+        LOG.debugf("Checking for Stork discovery config of %s (found=%s)", storkServiceName, configuredDiscoveryType.isPresent());
 
         if (configuredDiscoveryType.isPresent()) {
             String discoveryType = configuredDiscoveryType.get();
@@ -135,33 +207,19 @@ public class ServiceDiscoveryManager {
             // Quarkus Stork extension initializes services at startup from config,
             // but test resources add config AFTER startup. So we need to manually
             // create the service definition from the config properties.
-            // Check if already defined (might have been created by Quarkus at startup)
-            Optional<Service> existingFromConfig = Stork.getInstance().getServiceOptional(storkServiceName);
-            if (existingFromConfig.isPresent()) {
-                LOG.debugf("Service %s already exists in Stork", storkServiceName);
-                return Uni.createFrom().voidItem();
-            }
-            // Service doesn't exist yet - create it from config below
-
-            // Build service definition from config properties
-            Map<String, String> discoveryParams = new HashMap<>();
-            String prefix = "stork." + storkServiceName + ".service-discovery.";
-            for (String name : config.getPropertyNames()) {
-                if (name.startsWith(prefix) && !name.equals(prefix + "type")) {
-                    String paramName = name.substring(prefix.length());
-                    String paramValue = config.getOptionalValue(name, String.class).orElse("");
-                    discoveryParams.put(paramName, paramValue);
-                    LOG.debugf("Adding discovery param: %s=%s", paramName, paramValue);
-                }
-            }
+            // Build service definition from the pre-indexed config properties
+            Map<String, String> discoveryParams = new HashMap<>(storkProperties.discovery());
+            discoveryParams.remove("type");
+            LOG.debugf("Discovery params for %s: %s", storkServiceName, discoveryParams.keySet());
 
             var discoveryConfig = new SimpleServiceConfig.SimpleServiceDiscoveryConfig(discoveryType, discoveryParams);
-            ServiceDefinition definition = ServiceDefinition.of(discoveryConfig);
+            ServiceDefinition definition = definitionFor(storkServiceName, discoveryConfig, storkProperties);
 
             try {
                 Stork.getInstance().defineIfAbsent(storkServiceName, definition);
+                definedServices.put(storkServiceName, Boolean.TRUE);
                 LOG.infof("Successfully defined Stork service %s with %s discovery", storkServiceName, discoveryType);
-                return Uni.createFrom().voidItem();
+                return DEFINED;
             } catch (Exception e) {
                 LOG.errorf(e, "Failed to define Stork service %s with %s discovery", storkServiceName, discoveryType);
                 metrics.recordException(e.getClass().getSimpleName(), storkServiceName, "service_definition");
@@ -171,34 +229,44 @@ public class ServiceDiscoveryManager {
             }
         }
 
-        LOG.debugf("No Stork config found for key %s, will use Consul fallback", discoveryTypeKey);
+        LOG.debugf("No Stork discovery config found for %s, will use Consul fallback", storkServiceName);
 
         // No config found - fall back to Consul-based discovery
         LOG.infof("Defining new Stork service for Consul discovery: %s (consul application: %s)",
                 storkServiceName, consulApplicationName);
 
-        Map<String, String> consulParams = new HashMap<>();
-        consulParams.put("consul-host", consulHost);
-        consulParams.put("consul-port", consulPort);
-        consulParams.put("refresh-period", consulRefreshPeriod);
-        consulParams.put("use-health-checks", String.valueOf(consulUseHealthChecks));
-
         final String overrideKey = "quarkus.dynamic-grpc.consul.application-name." + storkServiceName;
         final String applicationToDiscover = config.getOptionalValue(overrideKey, String.class)
                 .orElse(consulApplicationName);
-        consulParams.put("application", applicationToDiscover);
+        final boolean watched = dynamicGrpcConfig.discovery().watchInstances();
 
-        var consulConfig = new SimpleServiceConfig.SimpleServiceDiscoveryConfig("consul", consulParams);
-        ServiceDefinition definition = ServiceDefinition.of(consulConfig);
+        Map<String, String> consulParams = new HashMap<>();
+        String discoveryType;
+        if (watched) {
+            // Channels read the snapshot kept by Consul blocking queries instead of polling
+            ConsulWatchServiceDiscovery.register(storkServiceName, applicationToDiscover, consulDiscovery);
+            discoveryType = ConsulWatchServiceDiscovery.TYPE;
+        } else {
+            consulParams.put("application", applicationToDiscover);
+            consulParams.put("consul-host", consulHost);
+            consulParams.put("consul-port", consulPort);
+            consulParams.put("refresh-period", consulRefreshPeriod);
+            consulParams.put("use-health-checks", String.valueOf(consulUseHealthChecks));
+            discoveryType = "consul";
+        }
+
+        var consulConfig = new SimpleServiceConfig.SimpleServiceDiscoveryConfig(discoveryType, consulParams);
+        ServiceDefinition definition = definitionFor(storkServiceName, consulConfig, storkProperties);
 
         try {
             Stork.getInstance().defineIfAbsent(storkServiceName, definition);
+            definedServices.put(storkServiceName, Boolean.TRUE);
             LOG.infof("Successfully defined Stork service: %s with Consul discovery", storkServiceName);
 
-            LOG.debugf("Stork will look for Consul service named: %s (overrideKey=%s, use-health-checks=%s)",
-                    applicationToDiscover, overrideKey, String.valueOf(consulUseHealthChecks));
+            LOG.debugf("Stork will look for Consul service named: %s (overrideKey=%s, watched=%s, use-health-checks=%s)",
+                    applicationToDiscover, overrideKey, watched, String.valueOf(consulUseHealthChecks));
 
-            return Uni.createFrom().voidItem();
+            return DEFINED;
         } catch (Exception e) {
             LOG.errorf(e, "Failed to define Stork service: %s", storkServiceName);
             metrics.recordException(e.getClass().getSimpleName(), storkServiceName, "service_definition");
@@ -208,8 +276,167 @@ public class ServiceDiscoveryManager {
         }
     }
 
+    /**
+     * Builds a Stork service definition, attaching the configured load balancer if there is one.
+     * <p>
+     * The load balancer type comes from the dynamic-grpc per-service or global setting, falling back
+     * to a plain {@code stork.<service>.load-balancer.type} property. Without any of these Stork
+     * uses its default round-robin selection.
+     * </p>
+     *
+     * @param storkServiceName the logical service name as known to Stork
+     * @param discoveryConfig  the service discovery configuration
+     * @param storkProperties  the service's plain {@code stork.*} properties, or {@code null} if it has none
+     * @return the service definition
+     */
+    private ServiceDefinition definitionFor(String storkServiceName, ConfigWithType discoveryConfig,
+                                            StorkProperties storkProperties) {
+        ServiceStorkSettings settings = ServiceStorkSettings.resolve(dynamicGrpcConfig, storkServiceName);
+        Optional<String> loadBalancerType = settings.loadBalancer()
+                .or(() -> storkProperties == null
+                        ? Optional.empty()
+                        : Optional.ofNullable(storkProperties.loadBalancer().get("type")));
+        if (dynamicGrpcConfig.outlierDetection().enabled()) {
+            return outlierDetectionDefinition(storkServiceName, discoveryConfig, loadBalancerType);
+        }
+
+        if (loadBalancerType.isEmpty()) {
+            return ServiceDefinition.of(discoveryConfig);
+        }
+
+        LOG.infof("Using %s load balancer for service %s", loadBalancerType.get(), storkServiceName);
+        var loadBalancerConfig = new SimpleServiceConfig.SimpleLoadBalancerConfig(
+                loadBalancerType.get(), new HashMap<>(settings.loadBalancerParameters()));
+        return ServiceDefinition.of(discoveryConfig, loadBalancerConfig);
+    }
+
+    /**
+     * Builds a Stork service definition that selects instances through outlier detection.
+     * <p>
+     * The service's detector is registered before the definition, so the
+     * {@link OutlierDetectionLoadBalancer} Stork creates for it reports ejections to the metrics.
+     * A load balancer configured for the service selects among the instances in rotation if the
+     * detector supports it; any other one is ignored with a warning. The service's local zone is
+     * passed to the load balancer, which prefers it among the instances in rotation.
+     * </p>
+     *
+     * @param storkServiceName the logical service name as known to Stork
+     * @param discoveryConfig  the service discovery configuration
+     * @param loadBalancerType the load balancer configured for the service, if any
+     * @return the service definition
+     */
+    private ServiceDefinition outlierDetectionDefinition(String storkServiceName, ConfigWithType discoveryConfig,
+                                                         Optional<String> loadBalancerType) {
+        OutlierDetector.Settings settings = OutlierDetector.Settings.from(dynamicGrpcConfig.outlierDetection());
+        if (loadBalancerType.isPresent()) {
+            if (OutlierDetector.Settings.LOAD_BALANCERS.contains(loadBalancerType.get())) {
+                settings = settings.withLoadBalancer(loadBalancerType.get());
+            } else {
+                LOG.warnf("Load balancer %s of service %s is not supported with outlier detection, using %s",
+                        loadBalancerType.get(), storkServiceName, settings.loadBalancer());
+            }
+        }
+
+        OutlierDetector detector = new OutlierDetector(storkServiceName, settings, new OutlierDetector.Listener() {
+            @Override
+            public void ejected(ServiceInstance instance, String reason, Duration duration) {
+                metrics.recordOutlierEjection(storkServiceName, reason);
+            }
+
+            @Override
+            public void ejectedCount(int ejected) {
+                metrics.recordEjectedInstances(storkServiceName, ejected);
+            }
+        });
+        OutlierDetector.register(detector);
+        outlierDetectors.put(storkServiceName, detector);
+
+        LOG.infof("Using outlier detection with %s selection for service %s", settings.loadBalancer(), storkServiceName);
+        Map<String, String> parameters = new HashMap<>(Map.of("service", storkServiceName));
+        ServiceRoutingSettings routing = ServiceRoutingSettings.resolve(dynamicGrpcConfig, storkServiceName);
+        routing.localZone().ifPresent(zone -> {
+            parameters.put("zone", zone);
+            parameters.put("zone-label", routing.zoneLabel());
+        });
+        var loadBalancerConfig = new SimpleServiceConfig.SimpleLoadBalancerConfig(
+                OutlierDetectionLoadBalancer.TYPE, parameters);
+        return ServiceDefinition.of(discoveryConfig, loadBalancerConfig);
+    }
+
+    /**
+     * Returns the {@code stork.<service>.*} properties grouped by service, scanning the config once.
+     *
+     * @param config the MicroProfile config
+     * @return the properties of every service with plain Stork configuration
+     */
+    private Map<String, StorkProperties> storkProperties(Config config) {
+        Map<String, StorkProperties> index = storkPropertyIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = storkPropertyIndex;
+                if (index == null) {
+                    index = indexStorkProperties(config);
+                    storkPropertyIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Groups the {@code stork.<service>.service-discovery.*} and {@code stork.<service>.load-balancer.*}
+     * properties by service name.
+     *
+     * @param config the MicroProfile config
+     * @return the immutable index
+     */
+    static Map<String, StorkProperties> indexStorkProperties(Config config) {
+        Map<String, Map<String, String>> discovery = new HashMap<>();
+        Map<String, Map<String, String>> loadBalancer = new HashMap<>();
+        for (String name : config.getPropertyNames()) {
+            if (!name.startsWith(STORK_PREFIX)) {
+                continue;
+            }
+            if (!indexProperty(config, name, DISCOVERY_SEGMENT, discovery)) {
+                indexProperty(config, name, LOAD_BALANCER_SEGMENT, loadBalancer);
+            }
+        }
+
+        Map<String, StorkProperties> index = new HashMap<>();
+        discovery.forEach((service, params) -> index.put(service,
+                new StorkProperties(Map.copyOf(params), Map.copyOf(loadBalancer.getOrDefault(service, Map.of())))));
+        loadBalancer.forEach((service, params) -> index.putIfAbsent(service,
+                new StorkProperties(Map.of(), Map.copyOf(params))));
+        LOG.debugf("Indexed plain Stork configuration of %d service(s)", index.size());
+        return Map.copyOf(index);
+    }
+
+    private static boolean indexProperty(Config config, String name, String segment,
+                                         Map<String, Map<String, String>> target) {
+        int at = name.indexOf(segment, STORK_PREFIX.length());
+        if (at <= STORK_PREFIX.length()) {
+            return false;
+        }
+        String service = name.substring(STORK_PREFIX.length(), at);
+        if (service.length() > 1 && service.startsWith("\"") && service.endsWith("\"")) {
+            service = service.substring(1, service.length() - 1);
+        }
+        String param = name.substring(at + segment.length());
+        target.computeIfAbsent(service, s -> new HashMap<>())
+                .put(param, config.getOptionalValue(name, String.class).orElse(""));
+        return true;
+    }
+
     /**
      * Gets service instances for a given service name from Stork.
+     * <p>
+     * Non-empty results are kept as the service's last-known-good list. Lookups within
+     * {@code quarkus.dynamic-grpc.discovery.refresh-after} are answered from that list directly.
+     * Older lists, up to {@code quarkus.dynamic-grpc.discovery.max-staleness}, are still served
+     * immediately while a single background refresh replaces them, so a slow or briefly unreachable
+     * registry does not fail callers. Only lists beyond the staleness bound, or missing ones,
+     * are fetched synchronously.
+     * </p>
      *
      * @param serviceName the service name to look up (must have been defined in Stork)
      * @return a Uni emitting the list of service instances; fails if the service is unknown or an error occurs
@@ -217,6 +444,82 @@ public class ServiceDiscoveryManager {
      * @throws ServiceDiscoveryException if service discovery fails
      */
     public Uni<List<ServiceInstance>> getServiceInstances(String serviceName) {
+        KnownInstances known = knownInstances.get(serviceName);
+        if (known == null) {
+            return fetchInstances(serviceName);
+        }
+
+        long now = System.nanoTime();
+        long age = now - known.fetchedAt;
+        if (age < known.refreshAfter) {
+            return Uni.createFrom().item(known.instances);
+        }
+        if (age > dynamicGrpcConfig.discovery().maxStaleness().toNanos()) {
+            LOG.debugf("Cached instances for %s exceeded max staleness, fetching synchronously", serviceName);
+            return fetchInstances(serviceName);
+        }
+
+        // Stale but within bounds: serve it and let at most one refresh per interval run in the background
+        long nextRefresh = known.nextRefreshAt.get();
+        if (now - nextRefresh >= 0 && known.nextRefreshAt.compareAndSet(nextRefresh, now + known.refreshAfter)) {
+            LOG.debugf("Refreshing instances for %s in the background", serviceName);
+            fetchInstances(serviceName).subscribe().with(
+                    instances -> known.refreshFailed = false,
+                    failure -> {
+                        known.refreshFailed = true;
+                        LOG.warnf("Background discovery refresh failed for %s, serving last known instances: %s",
+                                serviceName, failure.getMessage());
+                    });
+        }
+        metrics.recordStaleDiscoveryServed(serviceName, known.refreshFailed ? "refresh_failed" : "revalidating");
+        return Uni.createFrom().item(known.instances);
+    }
+
+    /**
+     * Subscribes to changes of a service's instance set, for services discovered through the
+     * Consul watch.
+     * <p>
+     * Every change also replaces the service's last-known-good instances, so lookups see it right
+     * away rather than after the next refresh. The listener runs on a Vert.x event loop and must
+     * not block. Services defined from plain Stork configuration, or without
+     * {@code quarkus.dynamic-grpc.discovery.watch-instances}, are not watched.
+     * </p>
+     *
+     * @param serviceName the service name as known to Stork
+     * @param listener    the listener of instance set changes
+     * @return an action cancelling the subscription; does nothing if the service is not watched
+     */
+    public Runnable watchInstances(String serviceName, Consumer<InstanceSetChange> listener) {
+        return ConsulWatchServiceDiscovery.subscribe(serviceName, change -> {
+            List<ServiceInstance> instances = change.instances();
+            if (instances.isEmpty()) {
+                knownInstances.remove(serviceName);
+            } else {
+                knownInstances.put(serviceName, new KnownInstances(instances, System.nanoTime(),
+                        dynamicGrpcConfig.discovery().refreshAfter().toNanos()));
+            }
+            metrics.recordInstanceSetChange(serviceName, change.added().size(), change.removed().size(),
+                    instances.size());
+            listener.accept(change);
+        }).orElse(NOT_WATCHED);
+    }
+
+    /**
+     * Drops the last-known-good instances of a service, so the next lookup queries discovery.
+     *
+     * @param serviceName the service name
+     */
+    public void invalidateInstances(String serviceName) {
+        knownInstances.remove(serviceName);
+    }
+
+    /**
+     * Queries Stork for the current instances of a service and records the result.
+     *
+     * @param serviceName the service name to look up
+     * @return a Uni emitting the instances
+     */
+    private Uni<List<ServiceInstance>> fetchInstances(String serviceName) {
         try {
             Service service = Stork.getInstance().getService(serviceName);
             if (service == null) {
@@ -231,9 +534,13 @@ public class ServiceDiscoveryManager {
                         if (instances.isEmpty()) {
                             LOG.warnf("No instances found for service: %s", serviceName);
                             metrics.recordServiceDiscovery(serviceName, true, 0);
+                            // An empty list is not worth keeping; the next lookup asks discovery again
+                            knownInstances.remove(serviceName);
                         } else {
                             LOG.debugf("Found %d instances for service: %s", instances.size(), serviceName);
                             metrics.recordServiceDiscovery(serviceName, true, instances.size());
+                            knownInstances.put(serviceName, new KnownInstances(List.copyOf(instances), System.nanoTime(),
+                                    dynamicGrpcConfig.discovery().refreshAfter().toNanos()));
                         }
                         return instances;
                     })
@@ -260,4 +567,22 @@ public class ServiceDiscoveryManager {
             );
         }
     }
+
+    /**
+     * Last-known-good instance list of a service.
+     */
+    private static final class KnownInstances {
+        private final List<ServiceInstance> instances;
+        private final long fetchedAt;
+        private final long refreshAfter;
+        private final AtomicLong nextRefreshAt;
+        private volatile boolean refreshFailed;
+
+        private KnownInstances(List<ServiceInstance> instances, long fetchedAt, long refreshAfter) {
+            this.instances = instances;
+            this.fetchedAt = fetchedAt;
+            this.refreshAfter = refreshAfter;
+            this.nextRefreshAt = new AtomicLong(fetchedAt + refreshAfter);
+        }
+    }
 }
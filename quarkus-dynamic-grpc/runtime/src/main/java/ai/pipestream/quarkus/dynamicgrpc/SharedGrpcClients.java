@@ -0,0 +1,126 @@
+package ai.pipestream.quarkus.dynamicgrpc;
+
+import io.vertx.core.Vertx;
+import io.vertx.grpc.client.GrpcClient;
+import io.vertx.grpc.client.GrpcClientOptions;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Reference-counted registry of Vert.x {@link GrpcClient}s shared by all dynamic channels.
+ * <p>
+ * Creating a {@link GrpcClient} creates an HTTP client with its own connection pool and, when TLS
+ * is enabled, its own parsed SSL context. Instead of one client per service, channels acquire a
+ * client for a {@link Profile} (the transport settings plus the pool slot) and release it when
+ * they are evicted. The client is closed when its last channel releases it.
+ * </p>
+ * <p>
+ * The pool slot is part of the profile so that member {@code i} of every service pool shares
+ * client {@code i}: the number of clients is bounded by the pool size per profile, while each
+ * member of a single pool still gets its own HTTP/2 connection to a given endpoint.
+ * </p>
+ */
+final class SharedGrpcClients {
+
+    private static final Logger LOG = Logger.getLogger(SharedGrpcClients.class);
+
+    /**
+     * Transport settings that determine whether two channels may share a client.
+     *
+     * @param maxInboundMessageSize the maximum inbound message size configured on the client
+     * @param slot                  the pool slot the client serves
+     */
+    record Profile(int maxInboundMessageSize, int slot) {
+    }
+
+    private static final class Entry {
+        private final GrpcClient client;
+        private int references;
+
+        private Entry(GrpcClient client) {
+            this.client = client;
+        }
+    }
+
+    private final Vertx vertx;
+    private final Map<Profile, Entry> clients = new HashMap<>();
+
+    /**
+     * Creates an empty registry.
+     *
+     * @param vertx the Vert.x instance used to create clients
+     */
+    SharedGrpcClients(Vertx vertx) {
+        this.vertx = vertx;
+    }
+
+    /**
+     * Returns the client for the given profile, creating it if needed, and takes a reference on it.
+     *
+     * @param profile the transport profile
+     * @param options supplies the client options when a new client has to be created
+     * @return the shared client
+     */
+    synchronized GrpcClient acquire(Profile profile, Supplier<GrpcClientOptions> options) {
+        Entry entry = clients.get(profile);
+        if (entry == null) {
+            LOG.debugf("Creating shared gRPC client for %s", profile);
+            entry = new Entry(GrpcClient.client(vertx, options.get()));
+            clients.put(profile, entry);
+        }
+        entry.references++;
+        return entry.client;
+    }
+
+    /**
+     * Drops a reference on the client for the given profile, closing it once unused.
+     *
+     * @param profile the transport profile previously passed to {@link #acquire}
+     */
+    synchronized void release(Profile profile) {
+        Entry entry = clients.get(profile);
+        if (entry == null) {
+            return;
+        }
+        if (--entry.references <= 0) {
+            clients.remove(profile);
+            LOG.debugf("Closing shared gRPC client for %s, no channels left", profile);
+            close(entry.client);
+        }
+    }
+
+    /**
+     * Returns the number of live clients.
+     *
+     * @return the client count
+     */
+    synchronized int size() {
+        return clients.size();
+    }
+
+    /**
+     * Closes every client regardless of outstanding references. Used on application shutdown.
+     */
+    void closeAll() {
+        List<GrpcClient> toClose;
+        synchronized (this) {
+            toClose = new ArrayList<>(clients.size());
+            clients.values().forEach(entry -> toClose.add(entry.client));
+            clients.clear();
+        }
+        toClose.forEach(SharedGrpcClients::close);
+    }
+
+    private static void close(GrpcClient client) {
+        try {
+            client.close().onFailure(e -> LOG.debugf(e, "Error closing shared gRPC client"));
+        } catch (Exception e) {
+            LOG.debugf(e, "Error closing shared gRPC client");
+        }
+    }
+}
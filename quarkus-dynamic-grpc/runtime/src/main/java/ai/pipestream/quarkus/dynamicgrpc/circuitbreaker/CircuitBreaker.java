@@ -0,0 +1,278 @@
+package ai.pipestream.quarkus.dynamicgrpc.circuitbreaker;
+
+import ai.pipestream.quarkus.dynamicgrpc.config.DynamicGrpcConfig;
+import io.grpc.Status;
+
+/**
+ * Circuit breaker of one service.
+ * <p>
+ * The breaker moves between three states:
+ * </p>
+ * <ul>
+ *   <li>{@link State#CLOSED}: calls pass, and their outcomes are recorded in a count-based
+ *   sliding window. Once the window holds the minimum number of calls and the failure or slow-call
+ *   rate reaches its threshold, the breaker opens.</li>
+ *   <li>{@link State#OPEN}: calls are rejected until the open state duration has elapsed.</li>
+ *   <li>{@link State#HALF_OPEN}: a fixed number of trial calls pass. The breaker closes when all
+ *   of them succeed in time and opens again on the first failed or slow one.</li>
+ * </ul>
+ * <p>
+ * Permission checks in the closed state read a volatile field only; everything else is
+ * synchronized on the breaker. The transition listener is called outside the lock.
+ * </p>
+ */
+public final class CircuitBreaker {
+
+    /**
+     * Circuit breaker states.
+     */
+    public enum State {
+        /** Calls pass and are measured. */
+        CLOSED,
+        /** Calls are rejected. */
+        OPEN,
+        /** Trial calls pass to decide whether to close or open again. */
+        HALF_OPEN
+    }
+
+    /**
+     * Outcome of a permission request.
+     */
+    public enum Permit {
+        /** The call must be rejected. */
+        DENIED,
+        /** The call may proceed. */
+        PERMITTED,
+        /** The call may proceed as one of the trial calls of the half-open state. */
+        TRIAL
+    }
+
+    /**
+     * Receives state transitions.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Called after the breaker changed state.
+         *
+         * @param from the previous state
+         * @param to   the new state
+         */
+        void onTransition(State from, State to);
+    }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int permittedTrials;
+    private final Listener listener;
+
+    private volatile State state = State.CLOSED;
+
+    // Guarded by this
+    private final byte[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int failures;
+    private int slowCalls;
+    private long openedAtNanos;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    /**
+     * Creates a closed breaker.
+     *
+     * @param config   the circuit breaker configuration
+     * @param listener notified of every state transition
+     */
+    public CircuitBreaker(DynamicGrpcConfig.CircuitBreakerConfig config, Listener listener) {
+        this.window = new byte[Math.max(1, config.slidingWindowSize())];
+        this.minimumCalls = Math.clamp(config.minimumCalls(), 1, window.length);
+        this.failureRateThreshold = config.failureRateThreshold();
+        this.slowCallRateThreshold = config.slowCallRateThreshold();
+        this.slowCallNanos = config.slowCallDuration().toNanos();
+        this.openNanos = config.waitDurationInOpenState().toNanos();
+        this.permittedTrials = Math.max(1, config.permittedCallsInHalfOpenState());
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the current state. An open breaker whose open state has elapsed is still reported as
+     * open until the next permission request.
+     *
+     * @return the state
+     */
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Whether a call would currently be permitted, without taking a trial slot.
+     *
+     * @return false while the breaker is open and the open state has not elapsed
+     */
+    public boolean isCallPermitted() {
+        if (state != State.OPEN) {
+            return true;
+        }
+        synchronized (this) {
+            return state != State.OPEN || System.nanoTime() - openedAtNanos >= openNanos;
+        }
+    }
+
+    /**
+     * Requests permission for a call. A permitted call must be reported with
+     * {@link #onCallEnd(Permit, long, Status)}, or given back with {@link #release(Permit)}.
+     *
+     * @return the permit
+     */
+    public Permit tryAcquire() {
+        if (state == State.CLOSED) {
+            return Permit.PERMITTED;
+        }
+
+        Permit permit;
+        boolean halfOpened = false;
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAtNanos < openNanos) {
+                    return Permit.DENIED;
+                }
+                state = State.HALF_OPEN;
+                trialsStarted = 0;
+                trialsSucceeded = 0;
+                halfOpened = true;
+            }
+            if (state == State.CLOSED) {
+                permit = Permit.PERMITTED;
+            } else if (trialsStarted < permittedTrials) {
+                trialsStarted++;
+                permit = Permit.TRIAL;
+            } else {
+                permit = Permit.DENIED;
+            }
+        }
+        if (halfOpened) {
+            listener.onTransition(State.OPEN, State.HALF_OPEN);
+        }
+        return permit;
+    }
+
+    /**
+     * Records the outcome of a permitted call.
+     *
+     * @param permit         the permit the call was given
+     * @param durationNanos  the call duration
+     * @param status         the final status of the call
+     */
+    public void onCallEnd(Permit permit, long durationNanos, Status status) {
+        Status.Code code = status.getCode();
+        boolean failed = switch (code) {
+            case UNAVAILABLE, DEADLINE_EXCEEDED, INTERNAL, UNKNOWN -> true;
+            default -> false;
+        };
+        boolean slow = durationNanos >= slowCallNanos;
+
+        State from;
+        State to;
+        synchronized (this) {
+            from = state;
+            if (permit == Permit.TRIAL) {
+                to = onTrialEnd(code, failed || slow);
+            } else if (from == State.CLOSED && code != Status.Code.CANCELLED) {
+                to = record(failed, slow);
+            } else {
+                // Calls that started before the breaker opened no longer count
+                return;
+            }
+            if (to == from) {
+                return;
+            }
+            state = to;
+        }
+        listener.onTransition(from, to);
+    }
+
+    /**
+     * Gives back the permit of a call that was turned away locally and never reached the service,
+     * e.g. by the concurrency limit. The call is not recorded, and a trial slot goes to another call.
+     *
+     * @param permit the permit the call was given
+     */
+    public void release(Permit permit) {
+        if (permit != Permit.TRIAL) {
+            return;
+        }
+        synchronized (this) {
+            if (state == State.HALF_OPEN) {
+                trialsStarted--;
+            }
+        }
+    }
+
+    /**
+     * Handles the end of a trial call. Called under lock.
+     */
+    private State onTrialEnd(Status.Code code, boolean bad) {
+        if (state != State.HALF_OPEN) {
+            return state;
+        }
+        if (code == Status.Code.CANCELLED) {
+            // Give the slot to another trial
+            trialsStarted--;
+            return State.HALF_OPEN;
+        }
+        if (bad) {
+            return open();
+        }
+        if (++trialsSucceeded < permittedTrials) {
+            return State.HALF_OPEN;
+        }
+        resetWindow();
+        return State.CLOSED;
+    }
+
+    /**
+     * Records a call in the sliding window. Called under lock.
+     */
+    private State record(boolean failed, boolean slow) {
+        if (windowCount == window.length) {
+            byte evicted = window[windowIndex];
+            if ((evicted & FAILED) != 0) failures--;
+            if ((evicted & SLOW) != 0) slowCalls--;
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+        windowIndex = (windowIndex + 1) % window.length;
+        if (failed) failures++;
+        if (slow) slowCalls++;
+
+        if (windowCount < minimumCalls) {
+            return State.CLOSED;
+        }
+        if (failures * 100 >= failureRateThreshold * windowCount
+                || slowCalls * 100 >= slowCallRateThreshold * windowCount) {
+            return open();
+        }
+        return State.CLOSED;
+    }
+
+    private State open() {
+        openedAtNanos = System.nanoTime();
+        resetWindow();
+        return State.OPEN;
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+}
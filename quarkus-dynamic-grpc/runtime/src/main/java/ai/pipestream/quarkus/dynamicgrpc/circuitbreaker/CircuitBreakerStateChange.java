@@ -0,0 +1,18 @@
+package ai.pipestream.quarkus.dynamicgrpc.circuitbreaker;
+
+/**
+ * CDI event fired when the circuit breaker of a service changes state.
+ * <p>
+ * Observed synchronously on the thread that completed the call causing the transition, so
+ * observers must not block.
+ * </p>
+ *
+ * @param serviceName the logical service name
+ * @param from        the previous state
+ * @param to          the new state
+ */
+public record CircuitBreakerStateChange(
+        String serviceName,
+        CircuitBreaker.State from,
+        CircuitBreaker.State to) {
+}
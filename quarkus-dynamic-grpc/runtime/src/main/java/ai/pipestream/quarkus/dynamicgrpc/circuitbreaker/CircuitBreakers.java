@@ -0,0 +1,98 @@
+package ai.pipestream.quarkus.dynamicgrpc.circuitbreaker;
+
+import ai.pipestream.quarkus.dynamicgrpc.config.DynamicGrpcConfig;
+import ai.pipestream.quarkus.dynamicgrpc.metrics.DynamicGrpcMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the circuit breaker of every dynamic service.
+ * <p>
+ * Breakers are kept per service name rather than per channel, so their state survives the
+ * channel eviction an opening breaker triggers. Every transition is logged, counted in
+ * {@link DynamicGrpcMetrics} and fired as a {@link CircuitBreakerStateChange} event.
+ * </p>
+ */
+@ApplicationScoped
+public class CircuitBreakers {
+
+    /**
+     * Default constructor for CDI frameworks.
+     */
+    public CircuitBreakers() {
+    }
+
+    private static final Logger LOG = Logger.getLogger(CircuitBreakers.class);
+
+    @Inject
+    DynamicGrpcConfig config;
+
+    @Inject
+    DynamicGrpcMetrics metrics;
+
+    @Inject
+    Event<CircuitBreakerStateChange> events;
+
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * Whether circuit breakers are enabled.
+     *
+     * @return true if {@code quarkus.dynamic-grpc.circuit-breaker.enabled} is set
+     */
+    public boolean enabled() {
+        return config.circuitBreaker().enabled();
+    }
+
+    /**
+     * Returns the circuit breaker of a service, creating a closed one on first use.
+     *
+     * @param serviceName the logical service name
+     * @return the circuit breaker
+     */
+    public CircuitBreaker forService(String serviceName) {
+        CircuitBreaker breaker = breakers.get(serviceName);
+        if (breaker != null) {
+            return breaker;
+        }
+        return breakers.computeIfAbsent(serviceName, name -> new CircuitBreaker(config.circuitBreaker(),
+                (from, to) -> onTransition(name, from, to)));
+    }
+
+    /**
+     * Whether calls to a service are currently permitted. Services without a breaker yet are.
+     *
+     * @param serviceName the logical service name
+     * @return false while the service's breaker is open
+     */
+    public boolean isCallPermitted(String serviceName) {
+        CircuitBreaker breaker = breakers.get(serviceName);
+        return breaker == null || breaker.isCallPermitted();
+    }
+
+    /**
+     * Returns the state of a service's circuit breaker.
+     *
+     * @param serviceName the logical service name
+     * @return the state, {@link CircuitBreaker.State#CLOSED} for services without a breaker yet
+     */
+    public CircuitBreaker.State state(String serviceName) {
+        CircuitBreaker breaker = breakers.get(serviceName);
+        return breaker != null ? breaker.state() : CircuitBreaker.State.CLOSED;
+    }
+
+    private void onTransition(String serviceName, CircuitBreaker.State from, CircuitBreaker.State to) {
+        if (to == CircuitBreaker.State.OPEN) {
+            LOG.warnf("Circuit breaker for service '%s' opened (was %s)", serviceName, from);
+        } else {
+            LOG.infof("Circuit breaker for service '%s' moved from %s to %s", serviceName, from, to);
+        }
+        metrics.recordCircuitBreakerTransition(serviceName, from.name(), to.name(), to.ordinal());
+        events.fire(new CircuitBreakerStateChange(serviceName, from, to));
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * Per-service circuit breakers.
+ * <p>
+ * {@link ai.pipestream.quarkus.dynamicgrpc.circuitbreaker.CircuitBreakers} holds one
+ * {@link ai.pipestream.quarkus.dynamicgrpc.circuitbreaker.CircuitBreaker} per service. The breaker
+ * is consulted by {@link ai.pipestream.quarkus.dynamicgrpc.DynamicGrpcClientFactory} before a
+ * channel is handed out and by the
+ * {@link ai.pipestream.quarkus.dynamicgrpc.interceptor.CircuitBreakerInterceptor} on every call.
+ * </p>
+ */
+package ai.pipestream.quarkus.dynamicgrpc.circuitbreaker;
@@ -1,11 +1,14 @@
 package ai.pipestream.quarkus.dynamicgrpc.config;
 
+import io.quarkus.runtime.annotations.ConfigDocMapKey;
 import io.quarkus.runtime.annotations.ConfigPhase;
 import io.quarkus.runtime.annotations.ConfigRoot;
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithDefault;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -43,6 +46,71 @@ public interface DynamicGrpcConfig {
      */
     ConsulConfig consul();
 
+    /**
+     * Caching of discovered service instances.
+     *
+     * @return the discovery cache configuration
+     */
+    DiscoveryConfig discovery();
+
+    /**
+     * Default Stork settings used by the channels of every dynamic service.
+     *
+     * @return the default Stork configuration
+     */
+    StorkConfig stork();
+
+    /**
+     * Per-call metrics for the RPCs made over dynamic channels.
+     *
+     * @return the metrics configuration
+     */
+    MetricsConfig metrics();
+
+    /**
+     * Channel warm-up performed at application startup.
+     *
+     * @return the warm-up configuration
+     */
+    WarmupConfig warmup();
+
+    /**
+     * Passive outlier detection for the instances behind dynamic channels.
+     *
+     * @return the outlier detection configuration
+     */
+    OutlierDetectionConfig outlierDetection();
+
+    /**
+     * Budget shared by the call retries of all dynamic services.
+     *
+     * @return the retry budget configuration
+     */
+    RetryBudgetConfig retryBudget();
+
+    /**
+     * Adaptive limit of the in-flight calls to each dynamic service.
+     *
+     * @return the concurrency limit configuration
+     */
+    ConcurrencyLimitConfig concurrencyLimit();
+
+    /**
+     * Per-service circuit breaker.
+     *
+     * @return the circuit breaker configuration
+     */
+    CircuitBreakerConfig circuitBreaker();
+
+    /**
+     * Per-service settings, keyed by the logical service name. Anything not set here falls back
+     * to the global defaults.
+     *
+     * @return the per-service configuration
+     */
+    @ConfigDocMapKey("service-name")
+    Map<String, ServiceConfig> services();
+
     /**
      * Channel cache and lifecycle configuration.
      */
@@ -64,13 +132,33 @@ public interface DynamicGrpcConfig {
         long maxSize();
 
         /**
-         * Shutdown timeout in seconds.
+         * Shutdown timeout in seconds: how long application shutdown waits for channels to drain
+         * before closing the remaining ones immediately.
          *
          * @return the shutdown timeout in seconds
          */
         @WithDefault("2")
         long shutdownTimeoutSeconds();
 
+        /**
+         * Time an evicted channel pool is given to finish its in-flight calls before it is closed.
+         * Draining runs in the background, so eviction itself never waits for it.
+         *
+         * @return the drain grace period
+         */
+        @WithDefault("5s")
+        Duration drainGracePeriod();
+
+        /**
+         * Number of channels opened per service. Each channel uses its own HTTP/2 connection and
+         * new calls go to the channel with the fewest in-flight calls, which avoids hitting the
+         * peer's MAX_CONCURRENT_STREAMS limit on a single connection under heavy fan-out.
+         *
+         * @return the number of pooled channels per service
+         */
+        @WithDefault("1")
+        int poolSize();
+
         /**
          * Maximum inbound message size in bytes.
          * Default is 2GB (Integer.MAX_VALUE) for large payload support.
@@ -88,6 +176,23 @@ public interface DynamicGrpcConfig {
          */
         @WithDefault("2147483647")
         int maxOutboundMessageSize();
+
+        /**
+         * Compressor applied to outgoing messages, e.g. {@code gzip}. Disabled when unset.
+         *
+         * @return the optional compressor name
+         */
+        Optional<String> compression();
+
+        /**
+         * Minimum serialized message size in bytes before compression is used. Calls with a
+         * smaller request message are sent uncompressed so they don't pay the CPU cost. Only
+         * unary and server-streaming calls are checked; streaming requests are always compressed.
+         *
+         * @return the compression threshold in bytes
+         */
+        @WithDefault("1024")
+        int compressionThreshold();
     }
 
     /**
@@ -224,11 +329,692 @@ public interface DynamicGrpcConfig {
         String refreshPeriod();
 
         /**
-         * Whether to use Consul health checks.
+         * Whether Stork's polling Consul discovery only returns instances passing their health
+         * checks. Only applies with {@code discovery.watch-instances=false}; the default watch
+         * always returns passing instances only.
          *
          * @return true if Consul health checks should be used
          */
         @WithDefault("false")
         boolean useHealthChecks();
+
+        /**
+         * Wait time of the Consul blocking queries that keep the direct-discovery instance cache
+         * fresh. Consul answers earlier whenever the healthy instances change.
+         *
+         * @return the blocking query wait, e.g. "55s"
+         */
+        @WithDefault("55s")
+        String watchWait();
+
+        /**
+         * Time after which the blocking-query watch of a service is stopped when no channel is
+         * subscribed to it and it has not been looked up. The next lookup starts it again.
+         * {@code 0} keeps watches for the lifetime of the application.
+         *
+         * @return the watch idle timeout
+         */
+        @WithDefault("10m")
+        Duration watchIdleTimeout();
+
+        /**
+         * Load balancer of the direct Consul discovery: {@code random}, {@code power-of-two-choices}
+         * (fewest calls in flight of two random instances), {@code least-latency} (power of two
+         * choices on the latency average) or {@code weighted} (Consul {@code weight} service meta).
+         *
+         * @return the load balancer type
+         */
+        @WithDefault("random")
+        String loadBalancer();
+    }
+
+    /**
+     * Last-known-good cache of the instance lists returned by service discovery.
+     */
+    interface DiscoveryConfig {
+        /**
+         * Age after which a cached instance list is refreshed in the background. Until the refresh
+         * succeeds the cached list keeps being served.
+         *
+         * @return the refresh interval
+         */
+        @WithDefault("5s")
+        Duration refreshAfter();
+
+        /**
+         * Maximum age of a cached instance list. Older lists are never served; discovery is
+         * queried synchronously and its failure is returned to the caller.
+         *
+         * @return the maximum staleness
+         */
+        @WithDefault("5m")
+        Duration maxStaleness();
+
+        /**
+         * Zone of this application. When set, instances labelled with the same zone are preferred
+         * and other zones are only used when no local instance is available.
+         *
+         * @return the optional local zone
+         */
+        Optional<String> zone();
+
+        /**
+         * Instance label (Consul service meta key) holding the instance zone.
+         *
+         * @return the zone label name
+         */
+        @WithDefault("zone")
+        String zoneLabel();
+
+        /**
+         * Whether services falling back to Consul discovery read the instances kept fresh by Consul
+         * blocking queries instead of polling Consul every {@code consul.refresh-period}. Channels
+         * then pick up added and removed instances on their next call, without being rebuilt.
+         * Only passing instances are returned, whatever {@code consul.use-health-checks} says:
+         * unlike the polling discovery with its default {@code use-health-checks=false}, instances
+         * failing their Consul health checks receive no calls. Set this to {@code false} to keep
+         * sending calls to them.
+         *
+         * @return {@code true} to watch instances
+         */
+        @WithDefault("true")
+        boolean watchInstances();
+
+        /**
+         * Minimum time between two resolutions requested by grpc-java channels from the
+         * {@code dynamic-grpc://} name resolver. Changes of watched services are pushed regardless.
+         *
+         * @return the minimum resolution interval
+         */
+        @WithDefault("1s")
+        Duration resolverRefreshInterval();
+
+        /**
+         * Time between two resolutions of a service without a Consul watch by the
+         * {@code dynamic-grpc://} name resolver, so grpc-java channels still pick up its instance
+         * changes.
+         *
+         * @return the resolution period of services without a watch
+         */
+        @WithDefault("30s")
+        Duration resolverPollInterval();
+    }
+
+    /**
+     * Stork instance selection and refresh settings used when creating channels.
+     */
+    interface StorkConfig {
+        /**
+         * Number of threads used to refresh service instances for each channel.
+         *
+         * @return the refresh thread count
+         */
+        @WithDefault("10")
+        int threads();
+
+        /**
+         * Deadline in milliseconds for selecting a service instance.
+         *
+         * @return the selection deadline in milliseconds
+         */
+        @WithDefault("5000")
+        long deadline();
+
+        /**
+         * Number of times instance selection is retried.
+         *
+         * @return the selection retry count
+         */
+        @WithDefault("3")
+        int retries();
+
+        /**
+         * Initial delay in seconds before the first instance refresh.
+         *
+         * @return the refresh delay in seconds
+         */
+        @WithDefault("60")
+        long delay();
+
+        /**
+         * Period in seconds between instance refreshes.
+         *
+         * @return the refresh period in seconds
+         */
+        @WithDefault("120")
+        long period();
+
+        /**
+         * Stork load balancer type, e.g. {@code round-robin}, {@code least-requests},
+         * {@code power-of-two-choices}, {@code least-response-time} or {@code random}.
+         * When unset, {@code stork.<service>.load-balancer.type} is used if present, otherwise
+         * Stork's default round-robin.
+         *
+         * @return the optional load balancer type
+         */
+        Optional<String> loadBalancer();
+    }
+
+    /**
+     * Per-call client metrics settings. Only effective when a Micrometer registry is available.
+     */
+    interface MetricsConfig {
+        /**
+         * Whether channels record per-call latency, status, in-flight and message size metrics.
+         *
+         * @return true if per-call metrics are recorded
+         */
+        @WithDefault("true")
+        boolean rpcEnabled();
+
+        /**
+         * Service level objective boundaries published as histogram buckets of the call
+         * latency timer.
+         *
+         * @return the latency buckets
+         */
+        @WithDefault("5ms,10ms,25ms,50ms,100ms,250ms,500ms,1s,2500ms,5s,10s")
+        List<Duration> sloBuckets();
+    }
+
+    /**
+     * Startup warm-up settings.
+     */
+    interface WarmupConfig {
+        /**
+         * Services whose channels are created and connected at startup, so the first request
+         * does not pay for discovery, TLS and HTTP/2 setup.
+         *
+         * @return the services to warm up
+         */
+        Optional<List<String>> services();
+
+        /**
+         * Maximum number of services warmed up at the same time.
+         *
+         * @return the warm-up concurrency
+         */
+        @WithDefault("4")
+        int concurrency();
+
+        /**
+         * Time allowed for warming up a single service, including the connection attempt.
+         *
+         * @return the per-service warm-up timeout
+         */
+        @WithDefault("10s")
+        Duration timeout();
+
+        /**
+         * Whether the readiness health check reports DOWN until warm-up has finished.
+         * Requires the SmallRye Health extension.
+         *
+         * @return true if readiness waits for warm-up
+         */
+        @WithDefault("false")
+        boolean readiness();
+    }
+
+    /**
+     * Passive outlier detection settings.
+     */
+    interface OutlierDetectionConfig {
+        /**
+         * Whether instances that keep failing or are much slower than their peers are temporarily
+         * taken out of rotation. Replaces the Stork load balancer of every dynamic service; a
+         * service's {@code stork.load-balancer} still selects among its instances in rotation if it
+         * is one of the {@link #loadBalancer()} types, other types are ignored with a warning.
+         *
+         * @return true if outlier detection is enabled
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * Consecutive failed calls (UNAVAILABLE, DEADLINE_EXCEEDED, INTERNAL or UNKNOWN) after which
+         * an instance is ejected.
+         *
+         * @return the failure threshold
+         */
+        @WithDefault("5")
+        int consecutiveFailures();
+
+        /**
+         * Ejection time of a first ejection. It doubles with every further ejection of the same
+         * instance, up to {@link #maxEjectionTime()}.
+         *
+         * @return the base ejection time
+         */
+        @WithDefault("30s")
+        Duration baseEjectionTime();
+
+        /**
+         * Longest ejection time. An instance that has stayed in rotation this long starts again
+         * from {@link #baseEjectionTime()}.
+         *
+         * @return the maximum ejection time
+         */
+        @WithDefault("5m")
+        Duration maxEjectionTime();
+
+        /**
+         * Highest share of a service's instances that may be ejected at the same time.
+         *
+         * @return the maximum ejection percentage
+         */
+        @WithDefault("50")
+        int maxEjectionPercent();
+
+        /**
+         * Ejects an instance whose latency average exceeds this multiple of the average of the
+         * other instances. Latency ejection is disabled when not set.
+         *
+         * @return the optional latency factor
+         */
+        Optional<Double> latencyFactor();
+
+        /**
+         * Selection among the instances in rotation: {@code random}, {@code power-of-two-choices},
+         * {@code least-latency} or {@code weighted}. A service's own {@code stork.load-balancer}
+         * takes precedence when it is one of these.
+         *
+         * @return the load balancer type
+         */
+        @WithDefault("power-of-two-choices")
+        String loadBalancer();
+    }
+
+    /**
+     * Retry budget settings. The budget is a token bucket: every call adds {@link #ratio()} tokens,
+     * every retry takes one, and retries are dropped while the bucket is empty.
+     */
+    interface RetryBudgetConfig {
+        /**
+         * Tokens added per call, i.e. the share of calls that may be retried in steady state.
+         *
+         * @return the token ratio
+         */
+        @WithDefault("0.1")
+        double ratio();
+
+        /**
+         * Capacity of the bucket, i.e. the retries that may be made in a burst beyond the ratio.
+         * The bucket starts full.
+         *
+         * @return the maximum tokens
+         */
+        @WithDefault("100")
+        int maxTokens();
+    }
+
+    /**
+     * Adaptive concurrency limit settings. Each service gets its own limit, adjusted by additive
+     * increase and multiplicative decrease (AIMD) from the outcome of its calls.
+     */
+    interface ConcurrencyLimitConfig {
+        /**
+         * Whether calls beyond a service's current limit fail fast with {@code RESOURCE_EXHAUSTED}.
+         *
+         * @return true if concurrency limiting is enabled
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * Limit of a service before any call has completed.
+         *
+         * @return the initial limit
+         */
+        @WithDefault("20")
+        int initialLimit();
+
+        /**
+         * Lowest limit the decrease can reach.
+         *
+         * @return the minimum limit
+         */
+        @WithDefault("1")
+        int minLimit();
+
+        /**
+         * Highest limit the increase can reach.
+         *
+         * @return the maximum limit
+         */
+        @WithDefault("1000")
+        int maxLimit();
+
+        /**
+         * Factor applied to the limit when a call is dropped: slower than
+         * {@link #latencyThreshold()} or failed with {@code DEADLINE_EXCEEDED}, {@code UNAVAILABLE}
+         * or {@code RESOURCE_EXHAUSTED}.
+         *
+         * @return the backoff ratio, between 0 and 1
+         */
+        @WithDefault("0.9")
+        double backoffRatio();
+
+        /**
+         * Latency above which a successful call still counts as dropped.
+         *
+         * @return the latency threshold
+         */
+        @WithDefault("1s")
+        Duration latencyThreshold();
+    }
+
+    /**
+     * Circuit breaker settings, applied to each service separately. Failures are calls ending with
+     * {@code UNAVAILABLE}, {@code DEADLINE_EXCEEDED}, {@code INTERNAL} or {@code UNKNOWN}.
+     */
+    interface CircuitBreakerConfig {
+        /**
+         * Whether a service whose calls keep failing is short-circuited for a while.
+         *
+         * @return true if the circuit breaker is enabled
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * Number of most recent calls the failure and slow-call rates are computed over.
+         *
+         * @return the sliding window size
+         */
+        @WithDefault("50")
+        int slidingWindowSize();
+
+        /**
+         * Calls the window must hold before the breaker can open.
+         *
+         * @return the minimum number of calls
+         */
+        @WithDefault("20")
+        int minimumCalls();
+
+        /**
+         * Percentage of failed calls in the window at which the breaker opens.
+         *
+         * @return the failure rate threshold
+         */
+        @WithDefault("50")
+        int failureRateThreshold();
+
+        /**
+         * Percentage of slow calls in the window at which the breaker opens.
+         *
+         * @return the slow-call rate threshold
+         */
+        @WithDefault("100")
+        int slowCallRateThreshold();
+
+        /**
+         * Duration from which a call counts as slow.
+         *
+         * @return the slow-call duration
+         */
+        @WithDefault("5s")
+        Duration slowCallDuration();
+
+        /**
+         * Time calls are short-circuited before trial calls are let through.
+         *
+         * @return the open state duration
+         */
+        @WithDefault("30s")
+        Duration waitDurationInOpenState();
+
+        /**
+         * Trial calls let through once the open state has elapsed. The breaker closes when all of
+         * them succeed and opens again on the first failed or slow one.
+         *
+         * @return the number of trial calls
+         */
+        @WithDefault("5")
+        int permittedCallsInHalfOpenState();
+    }
+
+    /**
+     * Settings for a single dynamic service.
+     */
+    interface ServiceConfig {
+        /**
+         * Stork overrides for this service.
+         *
+         * @return the Stork overrides
+         */
+        ServiceStorkConfig stork();
+
+        /**
+         * Maximum inbound message size in bytes for this service.
+         *
+         * @return the optional maximum inbound message size
+         */
+        Optional<Integer> maxInboundMessageSize();
+
+        /**
+         * Maximum outbound message size in bytes for this service. Larger messages fail the
+         * call with {@code RESOURCE_EXHAUSTED}.
+         *
+         * @return the optional maximum outbound message size
+         */
+        Optional<Integer> maxOutboundMessageSize();
+
+        /**
+         * Compressor applied to outgoing messages for this service, or {@code identity} to
+         * disable a globally configured compressor.
+         *
+         * @return the optional compressor name
+         */
+        Optional<String> compression();
+
+        /**
+         * Minimum serialized message size in bytes before compression is used for this service.
+         *
+         * @return the optional compression threshold in bytes
+         */
+        Optional<Integer> compressionThreshold();
+
+        /**
+         * Consul tags an instance must carry to be used for this service.
+         *
+         * @return the optional required tags
+         */
+        Optional<List<String>> requiredTags();
+
+        /**
+         * Consul service meta entries an instance must have to be used for this service.
+         *
+         * @return the required meta values, keyed by meta key
+         */
+        @ConfigDocMapKey("meta-key")
+        Map<String, String> requiredMeta();
+
+        /**
+         * Whether instances in the local zone are preferred for this service. Only effective when
+         * {@code quarkus.dynamic-grpc.discovery.zone} is set.
+         *
+         * @return the optional zone preference override
+         */
+        Optional<Boolean> preferLocalZone();
+
+        /**
+         * Hedging of idempotent calls for this service.
+         *
+         * @return the hedging configuration
+         */
+        HedgingConfig hedging();
+
+        /**
+         * Retries of failed calls for this service.
+         *
+         * @return the retry configuration
+         */
+        RetryConfig retry();
+    }
+
+    /**
+     * Hedging policy of a service: after a delay without a response, the same request is sent
+     * again and the first response wins.
+     * <p>
+     * Each attempt is a new call for which the service's Stork load balancer selects an instance.
+     * Instances of outstanding attempts are left out of that selection, whatever the load balancer,
+     * for services discovered through the Consul watch or with outlier detection enabled. A hedge
+     * only goes to an instance already serving the call when no other instance is available.
+     * </p>
+     */
+    interface HedgingConfig {
+        /**
+         * Methods to hedge, as full method names ({@code package.Service/Method}) or
+         * {@code package.Service/*}. Only idempotent unary methods should be listed. Hedging is off
+         * when no method is listed.
+         *
+         * @return the optional hedged methods
+         */
+        Optional<List<String>> methods();
+
+        /**
+         * Time to wait for a response before sending the next hedged attempt.
+         *
+         * @return the hedging delay
+         */
+        @WithDefault("50ms")
+        Duration delay();
+
+        /**
+         * Maximum number of attempts of a call, including the original one.
+         *
+         * @return the maximum attempts
+         */
+        @WithDefault("2")
+        int maxAttempts();
+
+        /**
+         * Status codes after which the next attempt is sent immediately instead of failing the
+         * call. Any other failure ends the call.
+         *
+         * @return the non-fatal status code names
+         */
+        @WithDefault("UNAVAILABLE")
+        List<String> nonFatalStatusCodes();
+    }
+
+    /**
+     * Retry policy of a service: a call failing with a retryable status is sent again after an
+     * exponential backoff, within the global retry budget.
+     */
+    interface RetryConfig {
+        /**
+         * Methods to retry, as full method names ({@code package.Service/Method}),
+         * {@code package.Service/*} or {@code *}. Retries are off when no method is listed.
+         *
+         * @return the optional retried methods
+         */
+        Optional<List<String>> methods();
+
+        /**
+         * Maximum number of attempts of a call, including the original one.
+         *
+         * @return the maximum attempts
+         */
+        @WithDefault("3")
+        int maxAttempts();
+
+        /**
+         * Upper bound of the backoff before the first retry. The actual backoff is drawn at random
+         * between zero and the bound.
+         *
+         * @return the initial backoff
+         */
+        @WithDefault("100ms")
+        Duration initialBackoff();
+
+        /**
+         * Largest backoff bound.
+         *
+         * @return the maximum backoff
+         */
+        @WithDefault("2s")
+        Duration maxBackoff();
+
+        /**
+         * Factor applied to the backoff bound after every retry.
+         *
+         * @return the backoff multiplier
+         */
+        @WithDefault("2")
+        double backoffMultiplier();
+
+        /**
+         * Status codes after which a call is retried. Any other failure ends the call.
+         *
+         * @return the retryable status code names
+         */
+        @WithDefault("UNAVAILABLE")
+        List<String> retryableStatusCodes();
+
+        /**
+         * Deadline applied to calls of this service that are made without one. It covers all
+         * attempts of a call, retried or not.
+         *
+         * @return the optional default deadline
+         */
+        Optional<Duration> deadline();
+    }
+
+    /**
+     * Per-service Stork overrides. Unset values fall back to {@code quarkus.dynamic-grpc.stork.*}.
+     */
+    interface ServiceStorkConfig {
+        /**
+         * Number of threads used to refresh service instances.
+         *
+         * @return the optional refresh thread count
+         */
+        Optional<Integer> threads();
+
+        /**
+         * Deadline in milliseconds for selecting a service instance.
+         *
+         * @return the optional selection deadline in milliseconds
+         */
+        Optional<Long> deadline();
+
+        /**
+         * Number of times instance selection is retried.
+         *
+         * @return the optional selection retry count
+         */
+        Optional<Integer> retries();
+
+        /**
+         * Initial delay in seconds before the first instance refresh.
+         *
+         * @return the optional refresh delay in seconds
+         */
+        Optional<Long> delay();
+
+        /**
+         * Period in seconds between instance refreshes.
+         *
+         * @return the optional refresh period in seconds
+         */
+        Optional<Long> period();
+
+        /**
+         * Stork load balancer type for this service.
+         *
+         * @return the optional load balancer type
+         */
+        Optional<String> loadBalancer();
+
+        /**
+         * Extra parameters passed to the load balancer, e.g. {@code declining-factor} for
+         * {@code least-response-time}.
+         *
+         * @return the load balancer parameters
+         */
+        @ConfigDocMapKey("parameter")
+        Map<String, String> loadBalancerParameters();
     }
 }
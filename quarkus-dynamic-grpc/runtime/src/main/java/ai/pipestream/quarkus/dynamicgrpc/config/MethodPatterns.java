@@ -0,0 +1,48 @@
+package ai.pipestream.quarkus.dynamicgrpc.config;
+
+import io.grpc.Status;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Parsing helpers for the per-method call policies of a service.
+ */
+final class MethodPatterns {
+
+    private MethodPatterns() {
+    }
+
+    /**
+     * Whether a method is covered by a set of patterns: full method names
+     * ({@code package.Service/Method}), {@code package.Service/*} or {@code *}.
+     *
+     * @param patterns       the configured patterns
+     * @param fullMethodName the full method name of the call
+     * @return true if one of the patterns covers the method
+     */
+    static boolean matches(Set<String> patterns, String fullMethodName) {
+        if (patterns.contains(fullMethodName) || patterns.contains("*")) {
+            return true;
+        }
+        int slash = fullMethodName.lastIndexOf('/');
+        return slash > 0 && patterns.contains(fullMethodName.substring(0, slash + 1) + "*");
+    }
+
+    /**
+     * Parses status code names such as {@code UNAVAILABLE} or {@code deadline-exceeded}.
+     *
+     * @param names the configured names
+     * @return the status codes
+     * @throws IllegalArgumentException if a name is not a gRPC status code
+     */
+    static Set<Status.Code> statusCodes(List<String> names) {
+        return names.stream()
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(name -> Status.Code.valueOf(name.toUpperCase(Locale.ROOT).replace('-', '_')))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,60 @@
+package ai.pipestream.quarkus.dynamicgrpc.config;
+
+import io.grpc.Status;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Effective hedging policy for one service, from
+ * {@code quarkus.dynamic-grpc.services.<service>.hedging.*}.
+ *
+ * @param methods             the hedged method patterns
+ * @param delay               the wait before each further attempt
+ * @param maxAttempts         the maximum attempts per call, including the original
+ * @param nonFatalStatusCodes the codes after which the next attempt is sent immediately
+ */
+public record ServiceHedgingSettings(
+        Set<String> methods,
+        Duration delay,
+        int maxAttempts,
+        Set<Status.Code> nonFatalStatusCodes) {
+
+    /**
+     * Resolves the hedging policy of a service.
+     *
+     * @param config      the extension configuration
+     * @param serviceName the logical service name
+     * @return the policy, or empty if no method of the service is hedged
+     * @throws IllegalArgumentException if a configured status code is unknown
+     */
+    public static Optional<ServiceHedgingSettings> resolve(DynamicGrpcConfig config, String serviceName) {
+        DynamicGrpcConfig.ServiceConfig service = config.services().get(serviceName);
+        if (service == null) {
+            return Optional.empty();
+        }
+
+        DynamicGrpcConfig.HedgingConfig hedging = service.hedging();
+        List<String> methods = hedging.methods().orElse(List.of());
+        if (methods.isEmpty() || hedging.maxAttempts() < 2) {
+            return Optional.empty();
+        }
+        return Optional.of(new ServiceHedgingSettings(
+                Set.copyOf(methods),
+                hedging.delay(),
+                hedging.maxAttempts(),
+                MethodPatterns.statusCodes(hedging.nonFatalStatusCodes())));
+    }
+
+    /**
+     * Whether calls of a method are hedged.
+     *
+     * @param fullMethodName the full method name, e.g. {@code package.Service/Method}
+     * @return true if the method is hedged
+     */
+    public boolean appliesTo(String fullMethodName) {
+        return MethodPatterns.matches(methods, fullMethodName);
+    }
+}
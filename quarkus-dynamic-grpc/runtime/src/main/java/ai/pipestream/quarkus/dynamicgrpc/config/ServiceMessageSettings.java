@@ -0,0 +1,61 @@
+package ai.pipestream.quarkus.dynamicgrpc.config;
+
+import java.util.Optional;
+
+/**
+ * Effective message size and compression settings for one service.
+ * <p>
+ * Combines {@code quarkus.dynamic-grpc.services.<service>.*} overrides with the
+ * {@code quarkus.dynamic-grpc.channel.*} defaults.
+ * </p>
+ *
+ * @param maxInboundMessageSize  maximum inbound message size in bytes
+ * @param maxOutboundMessageSize maximum outbound message size in bytes
+ * @param compression            the compressor name, empty when compression is disabled
+ * @param compressionThreshold   minimum serialized size in bytes before a message is compressed
+ */
+public record ServiceMessageSettings(
+        int maxInboundMessageSize,
+        int maxOutboundMessageSize,
+        Optional<String> compression,
+        int compressionThreshold) {
+
+    private static final String IDENTITY = "identity";
+
+    /**
+     * Resolves the effective message settings for a service.
+     *
+     * @param config      the extension configuration
+     * @param serviceName the logical service name
+     * @return the effective settings
+     */
+    public static ServiceMessageSettings resolve(DynamicGrpcConfig config, String serviceName) {
+        DynamicGrpcConfig.ChannelConfig defaults = config.channel();
+        DynamicGrpcConfig.ServiceConfig service = config.services().get(serviceName);
+        if (service == null) {
+            return new ServiceMessageSettings(defaults.maxInboundMessageSize(), defaults.maxOutboundMessageSize(),
+                    compressor(defaults.compression()), defaults.compressionThreshold());
+        }
+
+        return new ServiceMessageSettings(
+                service.maxInboundMessageSize().orElse(defaults.maxInboundMessageSize()),
+                service.maxOutboundMessageSize().orElse(defaults.maxOutboundMessageSize()),
+                compressor(service.compression().or(defaults::compression)),
+                service.compressionThreshold().orElse(defaults.compressionThreshold()));
+    }
+
+    /**
+     * Whether anything has to be enforced per message, i.e. an outbound limit below the
+     * protocol maximum or compression.
+     *
+     * @return true if messages need to be inspected
+     */
+    public boolean inspectsMessages() {
+        return maxOutboundMessageSize < Integer.MAX_VALUE || compression.isPresent();
+    }
+
+    private static Optional<String> compressor(Optional<String> configured) {
+        return configured.map(String::trim)
+                .filter(name -> !name.isEmpty() && !IDENTITY.equalsIgnoreCase(name));
+    }
+}
@@ -0,0 +1,80 @@
+package ai.pipestream.quarkus.dynamicgrpc.config;
+
+import io.grpc.Status;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Effective retry policy for one service, from
+ * {@code quarkus.dynamic-grpc.services.<service>.retry.*}.
+ *
+ * @param methods               the retried method patterns
+ * @param maxAttempts           the maximum attempts per call, including the original
+ * @param initialBackoff        the backoff bound before the first retry
+ * @param maxBackoff            the largest backoff bound
+ * @param backoffMultiplier     the factor applied to the bound after every retry
+ * @param retryableStatusCodes  the codes after which a call is retried
+ * @param deadline              the deadline of calls made without one
+ */
+public record ServiceRetrySettings(
+        Set<String> methods,
+        int maxAttempts,
+        Duration initialBackoff,
+        Duration maxBackoff,
+        double backoffMultiplier,
+        Set<Status.Code> retryableStatusCodes,
+        Optional<Duration> deadline) {
+
+    /**
+     * Resolves the retry policy of a service.
+     *
+     * @param config      the extension configuration
+     * @param serviceName the logical service name
+     * @return the policy, or empty if the service neither retries calls nor has a default deadline
+     * @throws IllegalArgumentException if a configured status code is unknown
+     */
+    public static Optional<ServiceRetrySettings> resolve(DynamicGrpcConfig config, String serviceName) {
+        DynamicGrpcConfig.ServiceConfig service = config.services().get(serviceName);
+        if (service == null) {
+            return Optional.empty();
+        }
+
+        DynamicGrpcConfig.RetryConfig retry = service.retry();
+        List<String> methods = retry.maxAttempts() < 2 ? List.of() : retry.methods().orElse(List.of());
+        if (methods.isEmpty() && retry.deadline().isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new ServiceRetrySettings(
+                Set.copyOf(methods),
+                retry.maxAttempts(),
+                retry.initialBackoff(),
+                retry.maxBackoff(),
+                retry.backoffMultiplier(),
+                MethodPatterns.statusCodes(retry.retryableStatusCodes()),
+                retry.deadline()));
+    }
+
+    /**
+     * Whether failed calls of a method are retried.
+     *
+     * @param fullMethodName the full method name, e.g. {@code package.Service/Method}
+     * @return true if the method is retried
+     */
+    public boolean appliesTo(String fullMethodName) {
+        return !methods.isEmpty() && MethodPatterns.matches(methods, fullMethodName);
+    }
+
+    /**
+     * Upper bound of the backoff before a retry.
+     *
+     * @param retry the retry number, starting at 1
+     * @return the backoff bound in nanoseconds
+     */
+    public long backoffBoundNanos(int retry) {
+        double bound = initialBackoff.toNanos() * Math.pow(backoffMultiplier, retry - 1);
+        return (long) Math.min(bound, maxBackoff.toNanos());
+    }
+}
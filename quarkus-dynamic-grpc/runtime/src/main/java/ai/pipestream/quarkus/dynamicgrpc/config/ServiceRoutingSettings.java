@@ -0,0 +1,152 @@
+package ai.pipestream.quarkus.dynamicgrpc.config;
+
+import io.smallrye.stork.api.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Effective instance filtering and zone preference for one service.
+ * <p>
+ * Combines {@code quarkus.dynamic-grpc.services.<service>.required-*} and
+ * {@code prefer-local-zone} with the {@code quarkus.dynamic-grpc.discovery.zone*} defaults.
+ * Instances are matched on their Stork labels: a Consul tag {@code t} is a label {@code t},
+ * and a service meta entry {@code k=v} is a label {@code k} with value {@code v}.
+ * </p>
+ *
+ * @param requiredTags tags every usable instance must carry
+ * @param requiredMeta meta entries every usable instance must have
+ * @param localZone    the zone to prefer, empty when there is no zone preference
+ * @param zoneLabel    the label holding the instance zone
+ */
+public record ServiceRoutingSettings(
+        List<String> requiredTags,
+        Map<String, String> requiredMeta,
+        Optional<String> localZone,
+        String zoneLabel) {
+
+    /**
+     * Resolves the effective routing settings for a service.
+     *
+     * @param config      the extension configuration
+     * @param serviceName the logical service name
+     * @return the effective settings
+     */
+    public static ServiceRoutingSettings resolve(DynamicGrpcConfig config, String serviceName) {
+        DynamicGrpcConfig.DiscoveryConfig defaults = config.discovery();
+        DynamicGrpcConfig.ServiceConfig service = config.services().get(serviceName);
+        if (service == null) {
+            return new ServiceRoutingSettings(List.of(), Map.of(), defaults.zone(), defaults.zoneLabel());
+        }
+
+        Optional<String> zone = service.preferLocalZone().orElse(true) ? defaults.zone() : Optional.empty();
+        return new ServiceRoutingSettings(
+                List.copyOf(service.requiredTags().orElse(List.of())),
+                Map.copyOf(service.requiredMeta()),
+                zone,
+                defaults.zoneLabel());
+    }
+
+    /**
+     * Whether the settings neither filter nor reorder instances.
+     *
+     * @return true if {@link #apply(List)} returns its input unchanged
+     */
+    public boolean isPassThrough() {
+        return requiredTags.isEmpty() && requiredMeta.isEmpty() && localZone.isEmpty();
+    }
+
+    /**
+     * Whether an instance carries the required tags and meta.
+     *
+     * @param instance the instance
+     * @return true if the instance may be used
+     */
+    public boolean matches(ServiceInstance instance) {
+        Map<String, String> labels = instance.getLabels();
+        for (String tag : requiredTags) {
+            if (!labels.containsKey(tag)) {
+                return false;
+            }
+        }
+        for (Map.Entry<String, String> meta : requiredMeta.entrySet()) {
+            if (!meta.getValue().equals(labels.get(meta.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether an instance is in the local zone.
+     *
+     * @param instance the instance
+     * @return true if a local zone is configured and the instance is labelled with it
+     */
+    public boolean isLocal(ServiceInstance instance) {
+        return localZone.isPresent() && localZone.get().equals(instance.getLabels().get(zoneLabel));
+    }
+
+    /**
+     * Filters instances and splits them by zone.
+     *
+     * @param instances the discovered instances
+     * @return the usable instances, with the local-zone subset to try first
+     */
+    public Routed apply(List<ServiceInstance> instances) {
+        if (isPassThrough()) {
+            List<ServiceInstance> all = List.copyOf(instances);
+            return new Routed(all, all);
+        }
+
+        List<ServiceInstance> local = new ArrayList<>();
+        List<ServiceInstance> remote = new ArrayList<>();
+        for (ServiceInstance instance : instances) {
+            if (!matches(instance)) {
+                continue;
+            }
+            (isLocal(instance) ? local : remote).add(instance);
+        }
+
+        List<ServiceInstance> all = new ArrayList<>(local.size() + remote.size());
+        all.addAll(local);
+        all.addAll(remote);
+        // Cross-zone overflow: without local instances every usable instance is preferred
+        return new Routed(List.copyOf(all), local.isEmpty() ? List.copyOf(all) : List.copyOf(local));
+    }
+
+    /**
+     * Result of {@link #apply(List)}.
+     *
+     * @param all       every usable instance, local zone first
+     * @param preferred the instances to select from first: the local zone, or all when it has none
+     */
+    public record Routed(List<ServiceInstance> all, List<ServiceInstance> preferred) {
+
+        /**
+         * Returns the instances to select from among some of the usable instances: those in the
+         * local zone, or all of them when none is.
+         *
+         * @param candidates a subset of {@link #all()}
+         * @return the preferred candidates
+         */
+        public List<ServiceInstance> preferred(List<ServiceInstance> candidates) {
+            if (candidates == all) {
+                return preferred;
+            }
+            if (preferred.size() == all.size()) {
+                return candidates;
+            }
+            List<ServiceInstance> local = new ArrayList<>(preferred.size());
+            for (ServiceInstance candidate : candidates) {
+                if (preferred.contains(candidate)) {
+                    local.add(candidate);
+                }
+            }
+            // Cross-zone overflow: none of the candidates is in the local zone
+            return local.isEmpty() ? candidates : local;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ai.pipestream.quarkus.dynamicgrpc.config;
+
+import io.quarkus.grpc.runtime.config.GrpcClientConfiguration;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Effective Stork settings for one service.
+ * <p>
+ * Combines {@code quarkus.dynamic-grpc.services.<service>.stork.*} overrides with the
+ * {@code quarkus.dynamic-grpc.stork.*} defaults. Implements Quarkus's
+ * {@link GrpcClientConfiguration.StorkConfig} so it can be handed straight to a
+ * {@link io.quarkus.grpc.runtime.stork.StorkGrpcChannel}.
+ * </p>
+ *
+ * @param threads                number of instance refresh threads
+ * @param deadline               instance selection deadline in milliseconds
+ * @param retries                instance selection retries
+ * @param delay                  initial refresh delay in seconds
+ * @param period                 refresh period in seconds
+ * @param loadBalancer           the load balancer type, if one is configured
+ * @param loadBalancerParameters extra load balancer parameters
+ */
+public record ServiceStorkSettings(
+        int threads,
+        long deadline,
+        int retries,
+        long delay,
+        long period,
+        Optional<String> loadBalancer,
+        Map<String, String> loadBalancerParameters) implements GrpcClientConfiguration.StorkConfig {
+
+    /**
+     * Resolves the effective Stork settings for a service.
+     *
+     * @param config      the extension configuration
+     * @param serviceName the logical service name
+     * @return the effective settings
+     */
+    public static ServiceStorkSettings resolve(DynamicGrpcConfig config, String serviceName) {
+        DynamicGrpcConfig.StorkConfig defaults = config.stork();
+        DynamicGrpcConfig.ServiceConfig service = config.services().get(serviceName);
+        if (service == null) {
+            return new ServiceStorkSettings(defaults.threads(), defaults.deadline(), defaults.retries(),
+                    defaults.delay(), defaults.period(), defaults.loadBalancer(), Map.of());
+        }
+
+        DynamicGrpcConfig.ServiceStorkConfig overrides = service.stork();
+        return new ServiceStorkSettings(
+                overrides.threads().orElse(defaults.threads()),
+                overrides.deadline().orElse(defaults.deadline()),
+                overrides.retries().orElse(defaults.retries()),
+                overrides.delay().orElse(defaults.delay()),
+                overrides.period().orElse(defaults.period()),
+                overrides.loadBalancer().or(defaults::loadBalancer),
+                Map.copyOf(overrides.loadBalancerParameters()));
+    }
+}
@@ -0,0 +1,46 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import io.smallrye.stork.api.MetadataKey;
+
+/**
+ * Stork metadata keys of instances discovered directly from Consul by
+ * {@link DynamicConsulServiceDiscovery}.
+ */
+public enum ConsulInstanceMetadataKey implements MetadataKey {
+
+    /**
+     * The Consul service tags, as a {@code List<String>}.
+     */
+    TAGS("consul-tags"),
+
+    /**
+     * The Consul service meta, as a {@code Map<String, String>}.
+     */
+    META("consul-meta"),
+
+    /**
+     * The Consul node name the instance runs on.
+     */
+    NODE("consul-node"),
+
+    /**
+     * The instance zone, taken from the configured zone label.
+     */
+    ZONE("zone"),
+
+    /**
+     * The instance weight, taken from the {@code weight} meta entry (defaults to 1).
+     */
+    WEIGHT("weight");
+
+    private final String name;
+
+    ConsulInstanceMetadataKey(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,245 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+import io.vertx.ext.consul.BlockingQueryOptions;
+import io.vertx.ext.consul.ConsulClient;
+import io.vertx.ext.consul.ServiceEntry;
+import io.vertx.ext.consul.ServiceEntryList;
+import io.vertx.ext.consul.ServiceQueryOptions;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Healthy-instance cache of a single Consul service, kept fresh by Consul blocking queries.
+ * <p>
+ * {@code T} is the immutable snapshot built from the Consul entries on every change.
+ * </p>
+ * <p>
+ * The first lookup queries Consul directly and starts the watch; concurrent first lookups share
+ * that query. From then on, lookups read an immutable snapshot without locking or I/O. The watch issues index-based blocking queries
+ * ({@code ?index=N&wait=...}); Consul answers when the healthy set changes or the wait elapses,
+ * and the snapshot is replaced only when the index moved. Failed queries are retried with
+ * exponential backoff while the last snapshot keeps being served.
+ * </p>
+ * <p>
+ * Listeners {@link #subscribe(BiConsumer) subscribed} to the watch are handed the previous and
+ * the new snapshot every time it is replaced. A watch without listeners that has not been looked
+ * up for a while can be {@link #closeIfIdle(long, long) closed} by its owner.
+ * </p>
+ */
+final class ConsulServiceWatch<T> {
+
+    private static final Logger LOG = Logger.getLogger(ConsulServiceWatch.class);
+
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final ConsulClient consulClient;
+    private final Vertx vertx;
+    private final String serviceName;
+    private final String wait;
+    private final Function<List<ServiceEntry>, T> mapper;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicReference<CompletableFuture<T>> initialQuery = new AtomicReference<>();
+    private final List<BiConsumer<T, T>> listeners = new CopyOnWriteArrayList<>();
+    private volatile T snapshot;
+    private volatile boolean closed;
+    private volatile long lastLookup = System.nanoTime();
+
+    // Only touched by update() and the sequential watch callbacks
+    private long index;
+    private int failures;
+
+    /**
+     * Creates a watch. Nothing is queried until the first call to {@link #instances()}.
+     *
+     * @param consulClient the Consul client
+     * @param vertx        the Vert.x instance used for retry timers
+     * @param serviceName  the Consul service name
+     * @param wait         the blocking query wait time, e.g. {@code 55s}
+     * @param mapper       converts Consul entries to the immutable snapshot served by lookups
+     */
+    ConsulServiceWatch(ConsulClient consulClient, Vertx vertx, String serviceName, String wait,
+                       Function<List<ServiceEntry>, T> mapper) {
+        this.consulClient = consulClient;
+        this.vertx = vertx;
+        this.serviceName = serviceName;
+        this.wait = wait;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Returns the snapshot of the current healthy instances.
+     *
+     * @return a Uni emitting the immutable snapshot
+     */
+    Uni<T> instances() {
+        lastLookup = System.nanoTime();
+        T current = snapshot;
+        if (current != null) {
+            return Uni.createFrom().item(current);
+        }
+
+        CompletableFuture<T> query = initialQuery();
+        return Uni.createFrom().emitter(emitter -> query.whenComplete((result, failure) -> {
+            if (failure != null) {
+                emitter.fail(failure);
+            } else {
+                emitter.complete(result);
+            }
+        }));
+    }
+
+    /**
+     * Returns the first query of the service, starting it unless one is in flight. A failed query
+     * is forgotten, so the next lookup queries again.
+     *
+     * @return the shared first query
+     */
+    private CompletableFuture<T> initialQuery() {
+        while (true) {
+            CompletableFuture<T> query = initialQuery.get();
+            if (query != null) {
+                return query;
+            }
+            CompletableFuture<T> created = new CompletableFuture<>();
+            if (initialQuery.compareAndSet(null, created)) {
+                consulClient.healthServiceNodes(serviceName, true).onComplete(ar -> {
+                    if (ar.failed()) {
+                        initialQuery.compareAndSet(created, null);
+                        created.completeExceptionally(ar.cause());
+                        return;
+                    }
+                    update(ar.result());
+                    if (started.compareAndSet(false, true)) {
+                        LOG.debugf("Starting Consul watch for service '%s'", serviceName);
+                        watch();
+                    }
+                    created.complete(snapshot);
+                });
+                return created;
+            }
+        }
+    }
+
+    /**
+     * Registers a listener called with the previous and the new snapshot whenever the snapshot is
+     * replaced. Listeners are usually called on the Vert.x thread completing the blocking query and
+     * must not block. The first snapshot is not reported.
+     *
+     * @param listener the change listener
+     * @return an action removing the listener, or {@code null} if the watch is closed
+     */
+    synchronized Runnable subscribe(BiConsumer<T, T> listener) {
+        if (closed) {
+            return null;
+        }
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Returns whether the watch has been closed.
+     *
+     * @return true once closed
+     */
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the watch if nobody is subscribed to it and it has not been looked up for the given time.
+     *
+     * @param idleNanos the idle time after which the watch is closed
+     * @param nowNanos  the current {@link System#nanoTime()}
+     * @return true if the watch is closed
+     */
+    synchronized boolean closeIfIdle(long idleNanos, long nowNanos) {
+        if (closed || (listeners.isEmpty() && nowNanos - lastLookup >= idleNanos)) {
+            close();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stops the watch. The in-flight blocking query is left to complete and is ignored.
+     */
+    synchronized void close() {
+        closed = true;
+        listeners.clear();
+    }
+
+    /**
+     * Replaces the snapshot if the Consul index moved and notifies the listeners.
+     */
+    private void update(ServiceEntryList result) {
+        T previous;
+        T current;
+        synchronized (this) {
+            long previousIndex = index;
+            long next = result.getIndex();
+
+            // Consul asks clients to reset when the index goes backwards (e.g. after a snapshot restore)
+            index = next < previousIndex ? 0 : next;
+            if (snapshot != null && next == previousIndex) {
+                return;
+            }
+
+            List<ServiceEntry> entries = result.getList() != null ? result.getList() : List.of();
+            previous = snapshot;
+            current = mapper.apply(entries);
+            snapshot = current;
+            LOG.debugf("Consul service '%s' now has %d healthy instance(s) (index %d)",
+                    serviceName, entries.size(), next);
+        }
+
+        if (previous == null) {
+            return;
+        }
+        for (BiConsumer<T, T> listener : listeners) {
+            try {
+                listener.accept(previous, current);
+            } catch (RuntimeException e) {
+                LOG.warnf(e, "Instance change listener of Consul service '%s' failed", serviceName);
+            }
+        }
+    }
+
+    private void watch() {
+        if (closed) {
+            return;
+        }
+
+        long currentIndex;
+        synchronized (this) {
+            currentIndex = index;
+        }
+        ServiceQueryOptions options = new ServiceQueryOptions()
+                .setBlockingOptions(new BlockingQueryOptions().setIndex(currentIndex).setWait(wait));
+
+        consulClient.healthServiceNodesWithOptions(serviceName, true, options).onComplete(ar -> {
+            if (closed) {
+                return;
+            }
+            if (ar.succeeded()) {
+                failures = 0;
+                update(ar.result());
+                watch();
+            } else {
+                long delay = Math.min(MAX_BACKOFF_MILLIS, 1000L << Math.min(failures++, 5));
+                LOG.warnf("Consul watch for service '%s' failed, retrying in %d ms: %s",
+                        serviceName, delay, ar.cause().getMessage());
+                vertx.setTimer(delay, id -> watch());
+            }
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.stork.api.ServiceDiscovery;
+import io.smallrye.stork.api.ServiceInstance;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Stork service discovery reading the instances kept by a {@link ConsulServiceWatch}.
+ * <p>
+ * Stork's own {@code consul} discovery polls Consul every {@code refresh-period}, so channels keep
+ * selecting removed instances, and ignore new ones, until the next poll. This discovery instead
+ * answers from the snapshot that {@link DynamicConsulServiceDiscovery} replaces as soon as a
+ * Consul blocking query reports a change, so a channel sees every change on its next call
+ * without being rebuilt.
+ * </p>
+ * <p>
+ * Channels select among the instances of the local zone while it has any, as
+ * {@link DynamicConsulServiceDiscovery#discoverService(String)} does. With outlier detection, the
+ * {@link OutlierDetectionLoadBalancer} receives every instance instead and prefers the local zone
+ * among those in rotation, so traffic also overflows when all local instances are ejected.
+ * </p>
+ * <p>
+ * The watch of a service is {@link #register(String, String, DynamicConsulServiceDiscovery) registered}
+ * by {@link ai.pipestream.quarkus.dynamicgrpc.ServiceDiscoveryManager} before its definition, since
+ * Stork may instantiate the loader through {@code META-INF/services} where nothing can be injected.
+ * The same registry lets other components without injection, such as the {@code dynamic-grpc://} name
+ * resolver, {@link #subscribe(String, Consumer) subscribe} to a service's instance changes.
+ * </p>
+ */
+public final class ConsulWatchServiceDiscovery implements ServiceDiscovery {
+
+    /**
+     * Stork service discovery type of this discovery.
+     */
+    public static final String TYPE = "dynamic-grpc-consul-watch";
+
+    private static final ConcurrentMap<String, Source> SOURCES = new ConcurrentHashMap<>();
+
+    private final String serviceName;
+
+    /**
+     * Watched Consul service backing a Stork service.
+     *
+     * @param application the Consul service name
+     * @param discovery   the discovery holding the watch
+     */
+    private record Source(String application, DynamicConsulServiceDiscovery discovery) {
+    }
+
+    /**
+     * Creates the discovery of one Stork service.
+     *
+     * @param serviceName the Stork service name, whose registered watch is queried
+     */
+    ConsulWatchServiceDiscovery(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    /**
+     * Registers the watched Consul service of a Stork service, replacing any previous one.
+     *
+     * @param serviceName the Stork service name
+     * @param application the Consul service name to watch
+     * @param discovery   the discovery holding the watch
+     */
+    public static void register(String serviceName, String application, DynamicConsulServiceDiscovery discovery) {
+        SOURCES.put(serviceName, new Source(application, discovery));
+    }
+
+    /**
+     * Forgets every service watched by a discovery that is being destroyed.
+     *
+     * @param discovery the discovery
+     */
+    static void unregisterAll(DynamicConsulServiceDiscovery discovery) {
+        SOURCES.values().removeIf(source -> source.discovery() == discovery);
+    }
+
+    /**
+     * Subscribes to the instance changes of a Stork service, if it is backed by a Consul watch.
+     *
+     * @param serviceName the Stork service name
+     * @param listener    the listener of instance set changes, called on a Vert.x event loop
+     * @return an action cancelling the subscription, or empty if the service is not watched
+     * @see DynamicConsulServiceDiscovery#subscribe(String, Consumer)
+     */
+    public static Optional<Runnable> subscribe(String serviceName, Consumer<InstanceSetChange> listener) {
+        Source source = SOURCES.get(serviceName);
+        if (source == null) {
+            return Optional.empty();
+        }
+        return Optional.of(source.discovery().subscribe(source.application(), listener));
+    }
+
+    @Override
+    public Uni<List<ServiceInstance>> getServiceInstances() {
+        Source source = SOURCES.get(serviceName);
+        if (source == null) {
+            return Uni.createFrom().failure(new IllegalStateException(
+                    "No Consul watch registered for service " + serviceName));
+        }
+        return source.discovery().routedInstances(source.application()).map(routed -> {
+            if (OutlierDetector.isRegistered(serviceName)) {
+                // The outlier detection balancer needs every instance, it applies exclusions and zones itself
+                return routed.all();
+            }
+            // Selections for a hedged attempt skip the instances its sibling attempts reached
+            return routed.preferred(OutstandingAttempts.exclude(routed.all()));
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import io.smallrye.stork.api.ServiceDiscovery;
+import io.smallrye.stork.api.config.ConfigWithType;
+import io.smallrye.stork.api.config.ServiceConfig;
+import io.smallrye.stork.spi.StorkInfrastructure;
+import io.smallrye.stork.spi.internal.ServiceDiscoveryLoader;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Stork loader of the {@link ConsulWatchServiceDiscovery}, available to Stork both as a CDI bean
+ * and through {@code META-INF/services}.
+ * <p>
+ * The discovery takes no parameters: the watched Consul service is the one registered for the
+ * Stork service name.
+ * </p>
+ */
+@ApplicationScoped
+public class ConsulWatchServiceDiscoveryLoader implements ServiceDiscoveryLoader {
+
+    /**
+     * Creates the loader. Instantiated by CDI or by Stork's service loader.
+     */
+    public ConsulWatchServiceDiscoveryLoader() {
+    }
+
+    @Override
+    public ServiceDiscovery createServiceDiscovery(ConfigWithType config, String serviceName,
+                                                   ServiceConfig serviceConfig,
+                                                   StorkInfrastructure storkInfrastructure) {
+        return new ConsulWatchServiceDiscovery(serviceName);
+    }
+
+    @Override
+    public String type() {
+        return ConsulWatchServiceDiscovery.TYPE;
+    }
+}
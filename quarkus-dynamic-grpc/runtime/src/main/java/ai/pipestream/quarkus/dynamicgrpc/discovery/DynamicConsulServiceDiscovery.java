@@ -1,12 +1,14 @@
 package ai.pipestream.quarkus.dynamicgrpc.discovery;
 
+import ai.pipestream.quarkus.dynamicgrpc.config.DynamicGrpcConfig;
+import ai.pipestream.quarkus.dynamicgrpc.config.ServiceRoutingSettings;
 import io.smallrye.mutiny.Uni;
-import io.smallrye.mutiny.vertx.UniHelper;
 import io.smallrye.stork.api.LoadBalancer;
 import io.smallrye.stork.api.Metadata;
 import io.smallrye.stork.api.MetadataKey;
 import io.vertx.ext.consul.ConsulClient;
 import io.vertx.ext.consul.ConsulClientOptions;
+import io.vertx.ext.consul.Service;
 import io.vertx.ext.consul.ServiceEntry;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -16,15 +18,37 @@ import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Dynamic Consul-based service discovery that uses Stork's LoadBalancer
  * for intelligent instance selection without requiring pre-configuration.
  * <p>
+ * Healthy instances are cached per service by a {@link ConsulServiceWatch}, which keeps them
+ * fresh with Consul blocking queries. Lookups read the cached snapshot instead of querying
+ * Consul each time. A watch nobody is subscribed to is stopped once the service has not been
+ * looked up for {@code quarkus.dynamic-grpc.consul.watch-idle-timeout}. Changes of the instance set can be {@link #subscribe(String, Consumer) subscribed}
+ * to, and services defined by {@link ai.pipestream.quarkus.dynamicgrpc.ServiceDiscoveryManager}
+ * read the same snapshots through {@link ConsulWatchServiceDiscovery}.
+ * </p>
+ * <p>
+ * Each snapshot is filtered by the service's {@code required-tags} and {@code required-meta}
+ * and split by zone when {@code quarkus.dynamic-grpc.discovery.zone} is set: single-instance
+ * lookups select among same-zone instances and overflow to other zones only when the local
+ * zone has none. See {@link ServiceRoutingSettings}.
+ * </p>
+ * <p>
  * This class is typed as DynamicConsulServiceDiscovery only (not ServiceDiscovery) to avoid
  * ambiguous dependencies. It's made available as ServiceDiscovery through producers.
  * </p>
@@ -46,15 +70,25 @@ public class DynamicConsulServiceDiscovery implements ServiceDiscovery {
     @Inject
     io.vertx.core.Vertx vertx;
 
+    @Inject
+    DynamicGrpcConfig config;
+
     @ConfigProperty(name = "quarkus.dynamic-grpc.consul.host", defaultValue = "localhost")
     String consulHost;
 
     @ConfigProperty(name = "quarkus.dynamic-grpc.consul.port", defaultValue = "8500")
     int consulPort;
 
+    @ConfigProperty(name = "quarkus.dynamic-grpc.consul.watch-wait", defaultValue = "55s")
+    String watchWait;
+
     private ConsulClient consulClient;
 
-    private final LoadBalancer loadBalancer = new RandomLoadBalancer();
+    private final ConcurrentMap<String, ConsulServiceWatch<ServiceRoutingSettings.Routed>> watches = new ConcurrentHashMap<>();
+
+    private LoadBalancer loadBalancer;
+
+    private long idleTimerId = -1;
 
     /**
      * Initializes the Consul client using the configured host and port.
@@ -70,6 +104,16 @@ public class DynamicConsulServiceDiscovery implements ServiceDiscovery {
 
         this.consulClient = ConsulClient.create(vertx, options);
         LOG.infof("ConsulClient connected to %s:%d", consulHost, consulPort);
+
+        this.loadBalancer = createLoadBalancer(config.consul().loadBalancer());
+
+        Duration idleTimeout = config.consul().watchIdleTimeout();
+        if (!idleTimeout.isZero() && !idleTimeout.isNegative()) {
+            // Check a few times per timeout, so a watch outlives its last use by at most half of it
+            long period = Math.clamp(idleTimeout.toMillis() / 2, 1_000L, 60_000L);
+            long idleNanos = idleTimeout.toNanos();
+            this.idleTimerId = vertx.setPeriodic(period, id -> stopIdleWatches(idleNanos));
+        }
     }
 
     /**
@@ -77,6 +121,12 @@ public class DynamicConsulServiceDiscovery implements ServiceDiscovery {
      */
     @PreDestroy
     void cleanup() {
+        if (idleTimerId >= 0) {
+            vertx.cancelTimer(idleTimerId);
+        }
+        ConsulWatchServiceDiscovery.unregisterAll(this);
+        watches.values().forEach(ConsulServiceWatch::close);
+        watches.clear();
         if (consulClient != null) {
             LOG.info("Closing ConsulClient");
             consulClient.close();
@@ -85,7 +135,14 @@ public class DynamicConsulServiceDiscovery implements ServiceDiscovery {
 
     /**
      * Discovers a single healthy instance for the given service name using Consul, selecting the
-     * instance via a {@link io.smallrye.stork.api.LoadBalancer}.
+     * instance via a {@link io.smallrye.stork.api.LoadBalancer} among the preferred (local-zone)
+     * instances.
+     * <p>
+     * The returned instance is valid for one call. Callers report the call with
+     * {@code recordStart(true)} and {@code recordEnd(failure)} on it, which feeds the
+     * {@link InstanceLoad} read by the load-aware balancers
+     * ({@code quarkus.dynamic-grpc.consul.load-balancer}).
+     * </p>
      *
      * @param serviceName the logical service name registered in Consul
      * @return a Uni emitting the selected service instance or failing if none found
@@ -94,163 +151,273 @@ public class DynamicConsulServiceDiscovery implements ServiceDiscovery {
     public Uni<io.smallrye.stork.api.ServiceInstance> discoverService(String serviceName) {
         LOG.debugf("Discovering service %s dynamically from Consul", serviceName);
 
-        return findHealthyInstances(serviceName)
-                .map(instances -> {
-                    if (instances == null || instances.isEmpty()) {
+        return watch(serviceName).instances()
+                .map(routed -> {
+                    List<io.smallrye.stork.api.ServiceInstance> instances = routed.preferred();
+                    if (instances.isEmpty()) {
                         throw new ServiceDiscoveryException(
                                 "No healthy instances found for service: " + serviceName
                         );
                     }
 
-                    List<io.smallrye.stork.api.ServiceInstance> storkInstances = new ArrayList<>();
-                    long id = 0;
-                    for (ServiceEntry entry : instances) {
-                        storkInstances.add(new StorkServiceInstanceAdapter(
-                                id++,
-                                entry.getService().getAddress(),
-                                entry.getService().getPort()
-                        ));
-                    }
-
-                    io.smallrye.stork.api.ServiceInstance selected = loadBalancer.selectServiceInstance(storkInstances);
+                    io.smallrye.stork.api.ServiceInstance selected = loadBalancer.selectServiceInstance(instances);
 
                     LOG.debugf("Selected instance for service %s: %s:%d (id=%d)",
                             serviceName, selected.getHost(), selected.getPort(), selected.getId());
 
-                    return new ConsulServiceInstance(
-                            String.valueOf(selected.getId()),
-                            selected.getHost(),
-                            selected.getPort(),
-                            serviceName
-                    );
+                    return LoadRecordingInstance.wrap(selected);
                 });
     }
 
     /**
-     * Discovers all healthy instances for the given service name from Consul.
+     * Discovers all healthy instances for the given service name from Consul that pass the
+     * service's filters, local-zone instances first.
      *
      * @param serviceName the logical service name registered in Consul
-     * @return a Uni emitting a list of available instances (possibly empty)
+     * @return a Uni emitting an immutable list of available instances (possibly empty)
      */
     @Override
     public Uni<List<io.smallrye.stork.api.ServiceInstance>> discoverAllInstances(String serviceName) {
         LOG.debugf("Discovering all instances for service %s from Consul", serviceName);
 
-        return findHealthyInstances(serviceName)
-                .map(instances -> {
-                    if (instances == null) {
-                        return List.of();
-                    }
+        return watch(serviceName).instances().map(ServiceRoutingSettings.Routed::all);
+    }
 
-                    return instances.stream()
-                            .map(entry -> {
-                                String host = entry.getService().getAddress();
-                                int port = entry.getService().getPort();
-                                String id = entry.getService().getId();
-                                return (io.smallrye.stork.api.ServiceInstance)
-                                        new ConsulServiceInstance(id, host, port, serviceName);
-                            })
-                            .collect(Collectors.toList());
-                });
+    /**
+     * Returns the watched instances of a service that pass its filters, with its local-zone subset.
+     *
+     * @param serviceName the logical service name registered in Consul
+     * @return a Uni emitting the routed instances
+     */
+    Uni<ServiceRoutingSettings.Routed> routedInstances(String serviceName) {
+        return watch(serviceName).instances();
+    }
+
+    /**
+     * Subscribes to changes of the healthy instance set of a service, starting its watch if needed.
+     * <p>
+     * The listener is called whenever Consul reports that instances were added or removed; changes
+     * that leave the set of instance ids unchanged are not reported. It runs on a Vert.x event
+     * loop and must not block.
+     * </p>
+     *
+     * @param serviceName the logical service name registered in Consul
+     * @param listener    the listener of instance set changes
+     * @return an action cancelling the subscription
+     */
+    public Runnable subscribe(String serviceName, Consumer<InstanceSetChange> listener) {
+        ConsulServiceWatch<ServiceRoutingSettings.Routed> watch;
+        Runnable unsubscribe;
+        do {
+            // A watch stopped as idle right after the lookup refuses the subscription; use its replacement
+            watch = watch(serviceName);
+            unsubscribe = watch.subscribe((previous, current) -> {
+                InstanceSetChange change = InstanceSetChange.between(serviceName, previous.all(), current.all());
+                if (!change.isEmpty()) {
+                    listener.accept(change);
+                }
+            });
+        } while (unsubscribe == null);
+        watch.instances().subscribe().with(
+                routed -> LOG.debugf("Watching %d instance(s) of service %s", routed.all().size(), serviceName),
+                failure -> LOG.debugf("Initial lookup of service %s failed, the next lookup starts the watch: %s",
+                        serviceName, failure.getMessage()));
+        return unsubscribe;
     }
 
     /**
-     * Queries Consul for healthy nodes of the given service name.
+     * Returns the watch that keeps the healthy instances of a service cached, creating it on
+     * first use.
      *
      * @param serviceName the logical Consul service name
-     * @return a Uni emitting the raw Consul ServiceEntry list (possibly empty)
+     * @return the service watch
      * @throws ServiceDiscoveryException if the Consul client is not initialized
      */
-    private Uni<List<ServiceEntry>> findHealthyInstances(String serviceName) {
+    private ConsulServiceWatch<ServiceRoutingSettings.Routed> watch(String serviceName) {
         if (consulClient == null) {
             throw new ServiceDiscoveryException("ConsulClient not initialized. Check configuration.");
         }
 
-        return UniHelper.toUni(consulClient.healthServiceNodes(serviceName, true))
-                .map(serviceList -> {
-                    if (serviceList == null || serviceList.getList() == null) {
-                        LOG.warnf("No healthy nodes found for service '%s' in Consul", serviceName);
-                        return List.<ServiceEntry>of();
-                    }
-
-                    LOG.debugf("Found %d healthy instances for service '%s'",
-                            serviceList.getList().size(), serviceName);
+        ConsulServiceWatch<ServiceRoutingSettings.Routed> watch = watches.get(serviceName);
+        if (watch == null || watch.isClosed()) {
+            watch = watches.compute(serviceName, (name, existing) -> existing != null && !existing.isClosed()
+                    ? existing
+                    : new ConsulServiceWatch<>(consulClient, vertx, name, watchWait,
+                            new InstanceMapper(name, ServiceRoutingSettings.resolve(config, name))));
+        }
+        return watch;
+    }
 
-                    return serviceList.getList();
-                })
-                .onFailure().invoke(error ->
-                        LOG.errorf(error, "Failed to query Consul for service '%s'", serviceName)
-                )
-                .map(list -> (List<ServiceEntry>) list);
+    /**
+     * Stops the watches that nobody is subscribed to and that have not been looked up for the idle
+     * timeout. The next lookup of such a service starts a new watch.
+     *
+     * @param idleNanos the idle timeout
+     */
+    private void stopIdleWatches(long idleNanos) {
+        long now = System.nanoTime();
+        watches.forEach((serviceName, watch) -> {
+            if (watch.closeIfIdle(idleNanos, now) && watches.remove(serviceName, watch)) {
+                LOG.debugf("Stopped idle Consul watch for service %s", serviceName);
+            }
+        });
     }
 
     /**
-     * Simple ServiceInstance implementation for Consul service entries.
+     * Returns the names of the services currently watched.
+     *
+     * @return a snapshot of the watched service names
      */
-    private static class ConsulServiceInstance implements io.smallrye.stork.api.ServiceInstance {
-        private final String id;
-        private final String host;
-        private final int port;
-        private final String serviceName;
+    Set<String> watchedServices() {
+        return Set.copyOf(watches.keySet());
+    }
 
-        ConsulServiceInstance(String id, String host, int port, String serviceName) {
-            this.id = id;
-            this.host = host;
-            this.port = port;
-            this.serviceName = serviceName;
+    /**
+     * Returns the Stork instance id of a Consul service id: the 64-bit FNV-1a hash of its UTF-8
+     * bytes, finished with a bit mixer so similar ids spread over the whole range.
+     * <p>
+     * Load balancers that keep per-instance statistics key them on this id, so it must be the
+     * same for the same Consul registration across refreshes and differ between registrations.
+     * </p>
+     *
+     * @param consulServiceId the Consul service id
+     * @return the stable instance id
+     */
+    public static long instanceId(String consulServiceId) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : consulServiceId.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
         }
+        // MurmurHash3 fmix64
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
 
-        @Override
-        public long getId() {
-            String numericId = id.replaceAll("[^0-9]", "");
-            if (numericId.isEmpty()) {
-                return 0L;
-            }
-            try {
-                return Long.parseLong(numericId.substring(0, Math.min(8, numericId.length())));
-            } catch (NumberFormatException e) {
-                return 0L;
+    /**
+     * Creates the load balancer used to select among the preferred instances.
+     *
+     * @param type {@code random}, {@code power-of-two-choices}, {@code least-latency} or {@code weighted}
+     * @return the load balancer; random for unknown types
+     */
+    static LoadBalancer createLoadBalancer(String type) {
+        return switch (type) {
+            case "random" -> new RandomLoadBalancer();
+            case "power-of-two-choices" -> new PowerOfTwoChoicesLoadBalancer();
+            case "least-latency" -> new LeastLatencyLoadBalancer();
+            case "weighted" -> new WeightedLoadBalancer();
+            default -> {
+                LOG.warnf("Unknown load balancer '%s', using random selection", type);
+                yield new RandomLoadBalancer();
             }
-        }
-
-        @Override
-        public String getHost() {
-            return host;
-        }
-
-        @Override
-        public int getPort() {
-            return port;
-        }
+        };
+    }
 
-        @Override
-        public boolean isSecure() {
-            return false;
-        }
+    /**
+     * Converts the Consul entries of a service to Stork instances and applies the service's
+     * tag/meta filters and zone preference.
+     * <p>
+     * The {@link InstanceLoad} of every instance is carried over from the previous snapshot by
+     * Consul service id, so load-aware balancing is not reset when the healthy set changes.
+     * Calls are sequential (see {@link ConsulServiceWatch}).
+     * </p>
+     */
+    private static final class InstanceMapper implements Function<List<ServiceEntry>, ServiceRoutingSettings.Routed> {
+        private final String serviceName;
+        private final ServiceRoutingSettings routing;
+        private Map<String, InstanceLoad> loads = Map.of();
 
-        @Override
-        public Optional<String> getPath() {
-            return Optional.empty();
+        InstanceMapper(String serviceName, ServiceRoutingSettings routing) {
+            this.serviceName = serviceName;
+            this.routing = routing;
         }
 
         @Override
-        public Metadata<? extends MetadataKey> getMetadata() {
-            return Metadata.empty();
+        public ServiceRoutingSettings.Routed apply(List<ServiceEntry> entries) {
+            List<io.smallrye.stork.api.ServiceInstance> instances = new ArrayList<>(entries.size());
+            Map<String, InstanceLoad> current = new HashMap<>();
+            for (ServiceEntry entry : entries) {
+                String id = entry.getService().getId();
+                InstanceLoad load = loads.get(id);
+                if (load == null) {
+                    load = new InstanceLoad();
+                }
+                current.put(id, load);
+                instances.add(new ConsulServiceInstance(entry, serviceName, routing.zoneLabel(), load));
+            }
+            loads = current;
+            return routing.apply(instances);
         }
     }
 
     /**
-     * Adapter for Stork ServiceInstance.
+     * ServiceInstance implementation for Consul service entries.
+     * <p>
+     * Consul service meta entries become labels with their value and tags become labels with an
+     * empty value, so both can be matched by {@link ServiceRoutingSettings}. Tags, meta, node, zone
+     * and weight (meta {@code weight}) are also exposed as {@link ConsulInstanceMetadataKey} metadata.
+     * An instance is secure if its meta has {@code secure=true} or it is tagged {@code secure} or
+     * {@code tls}. Its live load and weight are available to the balancers through
+     * {@link InstanceLoad.Tracked}.
+     * </p>
      */
-    private static class StorkServiceInstanceAdapter implements io.smallrye.stork.api.ServiceInstance {
+    private static class ConsulServiceInstance implements io.smallrye.stork.api.ServiceInstance, InstanceLoad.Tracked {
         private final long id;
         private final String host;
         private final int port;
+        private final String serviceName;
+        private final boolean secure;
+        private final Map<String, String> labels;
+        private final Metadata<ConsulInstanceMetadataKey> metadata;
+        private final InstanceLoad load;
+        private final int weight;
+
+        ConsulServiceInstance(ServiceEntry entry, String serviceName, String zoneLabel, InstanceLoad load) {
+            Service service = entry.getService();
+            this.id = instanceId(service.getId());
+            this.host = service.getAddress();
+            this.port = service.getPort();
+            this.serviceName = serviceName;
+            this.load = load;
+
+            List<String> tags = service.getTags() != null ? List.copyOf(service.getTags()) : List.of();
+            Map<String, String> meta = service.getMeta() != null ? Map.copyOf(service.getMeta()) : Map.of();
 
-        StorkServiceInstanceAdapter(long id, String host, int port) {
-            this.id = id;
-            this.host = host;
-            this.port = port;
+            Map<String, String> merged = new HashMap<>(meta);
+            for (String tag : tags) {
+                merged.putIfAbsent(tag, "");
+            }
+            this.labels = Map.copyOf(merged);
+            this.secure = "true".equalsIgnoreCase(meta.get("secure")) || tags.contains("secure") || tags.contains("tls");
+
+            this.weight = weight(meta.get("weight"));
+            Metadata<ConsulInstanceMetadataKey> md = Metadata.of(ConsulInstanceMetadataKey.class)
+                    .with(ConsulInstanceMetadataKey.TAGS, tags)
+                    .with(ConsulInstanceMetadataKey.META, meta)
+                    .with(ConsulInstanceMetadataKey.WEIGHT, weight);
+            if (entry.getNode() != null && entry.getNode().getName() != null) {
+                md = md.with(ConsulInstanceMetadataKey.NODE, entry.getNode().getName());
+            }
+            String zone = meta.get(zoneLabel);
+            if (zone != null) {
+                md = md.with(ConsulInstanceMetadataKey.ZONE, zone);
+            }
+            this.metadata = md;
+        }
+
+        private static int weight(String value) {
+            if (value == null) {
+                return 1;
+            }
+            try {
+                return Math.max(0, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                return 1;
+            }
         }
 
         @Override
@@ -270,7 +437,7 @@ public class DynamicConsulServiceDiscovery implements ServiceDiscovery {
 
         @Override
         public boolean isSecure() {
-            return false;
+            return secure;
         }
 
         @Override
@@ -280,7 +447,22 @@ public class DynamicConsulServiceDiscovery implements ServiceDiscovery {
 
         @Override
         public Metadata<? extends MetadataKey> getMetadata() {
-            return Metadata.empty();
+            return metadata;
+        }
+
+        @Override
+        public Map<String, String> getLabels() {
+            return labels;
+        }
+
+        @Override
+        public InstanceLoad load() {
+            return load;
+        }
+
+        @Override
+        public int weight() {
+            return weight;
         }
     }
 
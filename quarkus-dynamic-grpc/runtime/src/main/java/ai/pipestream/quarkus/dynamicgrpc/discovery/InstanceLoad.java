@@ -0,0 +1,186 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import io.smallrye.stork.api.ServiceInstance;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Live load of one service instance: calls in flight and an exponentially weighted moving
+ * average of the call latency.
+ * <p>
+ * Instances that implement {@link Tracked} (such as the instances of
+ * {@link DynamicConsulServiceDiscovery}) carry their load, and it survives discovery refreshes
+ * for as long as the instance stays registered. The load-aware balancers read it without
+ * allocating; other instances report {@link #UNTRACKED}, so those balancers fall back to
+ * random selection for them.
+ * </p>
+ * <p>
+ * Instances selected by {@link DynamicConsulServiceDiscovery#discoverService(String)} and by
+ * {@link OutlierDetectionLoadBalancer} record their calls here when the caller reports them through
+ * {@code ServiceInstance.recordStart}/{@code recordEnd}, as the channels of the extension do through
+ * {@link ai.pipestream.quarkus.dynamicgrpc.interceptor.InstanceFeedbackInterceptor}. Other callers record calls with
+ * {@link #recordStart()} and {@link #recordEnd(long, boolean)}:
+ * </p>
+ * <pre>{@code
+ * InstanceLoad load = InstanceLoad.of(instance);
+ * long start = load.recordStart();
+ * // ... call the instance ...
+ * load.recordEnd(start, failed);
+ * }</pre>
+ */
+public final class InstanceLoad {
+
+    /**
+     * Load of instances that do not track it. Always idle; recording is a no-op.
+     */
+    public static final InstanceLoad UNTRACKED = new InstanceLoad(0);
+
+    /**
+     * Default decay time of the latency average.
+     */
+    public static final long DEFAULT_DECAY_NANOS = 10_000_000_000L;
+
+    private static final AtomicIntegerFieldUpdater<InstanceLoad> IN_FLIGHT =
+            AtomicIntegerFieldUpdater.newUpdater(InstanceLoad.class, "inFlight");
+
+    /**
+     * A service instance that carries its own load and weight.
+     */
+    public interface Tracked {
+
+        /**
+         * Returns the live load of the instance.
+         *
+         * @return the load
+         */
+        InstanceLoad load();
+
+        /**
+         * Returns the relative capacity of the instance.
+         *
+         * @return the weight, {@code 0} to receive no traffic from weighted selection
+         */
+        int weight();
+    }
+
+    private final long decayNanos;
+
+    // Calls in flight, updated through IN_FLIGHT
+    private volatile int inFlight;
+
+    // Latency average in nanoseconds and the time it was last updated
+    private volatile double latencyEwma;
+    private long lastUpdate;
+
+    /**
+     * Creates an idle load with the {@link #DEFAULT_DECAY_NANOS default} latency decay.
+     */
+    public InstanceLoad() {
+        this(DEFAULT_DECAY_NANOS);
+    }
+
+    /**
+     * Creates an idle load.
+     *
+     * @param decayNanos time after which an old latency sample has decayed to about a third
+     */
+    public InstanceLoad(long decayNanos) {
+        this.decayNanos = decayNanos;
+    }
+
+    /**
+     * Returns the load of an instance.
+     *
+     * @param instance the instance
+     * @return its load, or {@link #UNTRACKED} if it does not track one
+     */
+    public static InstanceLoad of(ServiceInstance instance) {
+        return instance instanceof Tracked tracked ? tracked.load() : UNTRACKED;
+    }
+
+    /**
+     * Returns the weight of an instance.
+     *
+     * @param instance the instance
+     * @return its weight, or {@code 1} if it does not declare one
+     */
+    public static int weightOf(ServiceInstance instance) {
+        return instance instanceof Tracked tracked ? tracked.weight() : 1;
+    }
+
+    /**
+     * Records the start of a call.
+     *
+     * @return the start time to pass to {@link #recordEnd(long, boolean)}
+     */
+    public long recordStart() {
+        if (this != UNTRACKED) {
+            IN_FLIGHT.incrementAndGet(this);
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the end of a call started with {@link #recordStart()}.
+     *
+     * @param startNanos the value returned by {@link #recordStart()}
+     * @param failed     whether the call failed; failures are not folded into the latency average
+     */
+    public void recordEnd(long startNanos, boolean failed) {
+        if (this == UNTRACKED) {
+            return;
+        }
+        IN_FLIGHT.decrementAndGet(this);
+        if (!failed) {
+            long now = System.nanoTime();
+            recordLatency(now - startNanos, now);
+        }
+    }
+
+    /**
+     * Folds a latency sample into the average. The weight of the previous average decays with
+     * the time since the last sample, so the average follows recent behaviour.
+     *
+     * @param latencyNanos the observed latency
+     * @param nowNanos     the current {@link System#nanoTime()}
+     */
+    synchronized void recordLatency(long latencyNanos, long nowNanos) {
+        double previous = latencyEwma;
+        if (previous == 0) {
+            latencyEwma = latencyNanos;
+        } else {
+            double elapsed = Math.max(0, nowNanos - lastUpdate);
+            double keep = Math.exp(-elapsed / decayNanos);
+            latencyEwma = previous * keep + latencyNanos * (1 - keep);
+        }
+        lastUpdate = nowNanos;
+    }
+
+    /**
+     * Returns the number of calls in flight.
+     *
+     * @return the calls in flight
+     */
+    public int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Returns the latency average.
+     *
+     * @return the average in nanoseconds, {@code 0} before the first successful call
+     */
+    public double latencyEwmaNanos() {
+        return latencyEwma;
+    }
+
+    /**
+     * Returns the expected cost of sending one more call: the latency average scaled by the
+     * calls that would be in flight.
+     *
+     * @return the cost; lower is better
+     */
+    public double cost() {
+        return latencyEwma * (inFlight + 1);
+    }
+}
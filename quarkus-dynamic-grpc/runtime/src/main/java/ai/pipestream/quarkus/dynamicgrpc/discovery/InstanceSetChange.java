@@ -0,0 +1,73 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import io.smallrye.stork.api.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Change of the healthy instance set of a service, as reported by
+ * {@link DynamicConsulServiceDiscovery#subscribe(String, java.util.function.Consumer)}.
+ * <p>
+ * Instances are compared by their Stork id, which is stable for a Consul registration
+ * (see {@link DynamicConsulServiceDiscovery#instanceId(String)}).
+ * </p>
+ *
+ * @param serviceName the logical service name
+ * @param instances   the instances after the change, local-zone instances first
+ * @param added       the instances that were not in the previous set
+ * @param removed     the instances of the previous set that are gone
+ */
+public record InstanceSetChange(String serviceName, List<ServiceInstance> instances,
+                                List<ServiceInstance> added, List<ServiceInstance> removed) {
+
+    /**
+     * Creates a change with immutable copies of the instance lists.
+     */
+    public InstanceSetChange {
+        instances = List.copyOf(instances);
+        added = List.copyOf(added);
+        removed = List.copyOf(removed);
+    }
+
+    /**
+     * Computes the change between two instance sets.
+     *
+     * @param serviceName the logical service name
+     * @param previous    the instances before the change
+     * @param current     the instances after the change
+     * @return the change; {@link #isEmpty() empty} if both sets have the same instances
+     */
+    public static InstanceSetChange between(String serviceName, List<ServiceInstance> previous,
+                                            List<ServiceInstance> current) {
+        Set<Long> previousIds = new HashSet<>(previous.size() * 2);
+        previous.forEach(instance -> previousIds.add(instance.getId()));
+        Set<Long> currentIds = new HashSet<>(current.size() * 2);
+        current.forEach(instance -> currentIds.add(instance.getId()));
+
+        List<ServiceInstance> added = new ArrayList<>();
+        for (ServiceInstance instance : current) {
+            if (!previousIds.contains(instance.getId())) {
+                added.add(instance);
+            }
+        }
+        List<ServiceInstance> removed = new ArrayList<>();
+        for (ServiceInstance instance : previous) {
+            if (!currentIds.contains(instance.getId())) {
+                removed.add(instance);
+            }
+        }
+        return new InstanceSetChange(serviceName, current, added, removed);
+    }
+
+    /**
+     * Returns whether no instance was added or removed, e.g. when only health output or metadata changed.
+     *
+     * @return {@code true} if the instance set is unchanged
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+}
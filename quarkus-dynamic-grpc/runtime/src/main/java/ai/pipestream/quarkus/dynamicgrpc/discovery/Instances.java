@@ -0,0 +1,46 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import io.smallrye.stork.api.ServiceInstance;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Allocation-free access helpers shared by the load balancers of this package.
+ */
+final class Instances {
+
+    private Instances() {
+    }
+
+    /**
+     * Rejects a missing or empty candidate collection.
+     *
+     * @param instances the candidates
+     * @throws IllegalArgumentException if {@code instances} is null or empty
+     */
+    static void requireNonEmpty(Collection<ServiceInstance> instances) {
+        if (instances == null || instances.isEmpty()) {
+            throw new IllegalArgumentException("No instances available for selection");
+        }
+    }
+
+    /**
+     * Returns the instance at a position, indexing lists directly and walking other collections.
+     *
+     * @param instances the candidates
+     * @param index     the position, less than {@code instances.size()}
+     * @return the instance
+     */
+    static ServiceInstance get(Collection<ServiceInstance> instances, int index) {
+        if (instances instanceof List<ServiceInstance> list) {
+            return list.get(index);
+        }
+        Iterator<ServiceInstance> iterator = instances.iterator();
+        for (int i = 0; i < index; i++) {
+            iterator.next();
+        }
+        return iterator.next();
+    }
+}
@@ -0,0 +1,27 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import io.smallrye.stork.api.ServiceInstance;
+
+/**
+ * Power-of-two-choices load balancer on the latency average (EWMA) of each instance, scaled by
+ * its calls in flight.
+ * <p>
+ * The cost {@code ewma * (inFlight + 1)} (see {@link InstanceLoad#cost()}) moves traffic away
+ * from slow instances quickly while a stalled instance's growing in-flight count keeps it from
+ * looking fast on stale samples. Instances without samples cost nothing, so new instances are
+ * tried first.
+ * </p>
+ */
+public class LeastLatencyLoadBalancer extends PowerOfTwoChoicesLoadBalancer {
+
+    /**
+     * Creates a new LeastLatencyLoadBalancer.
+     */
+    public LeastLatencyLoadBalancer() {
+    }
+
+    @Override
+    double score(ServiceInstance instance) {
+        return InstanceLoad.of(instance).cost();
+    }
+}
@@ -0,0 +1,148 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import io.smallrye.stork.api.Metadata;
+import io.smallrye.stork.api.MetadataKey;
+import io.smallrye.stork.api.ServiceInstance;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * The selected instance of one call, recording the call into the instance's {@link InstanceLoad}.
+ * <p>
+ * Load-aware balancers only see load that somebody records. Selecting code hands out this wrapper
+ * instead of the shared instance, so the caller's per-call reports ({@code recordStart}/{@code recordEnd})
+ * update the in-flight count and latency average the balancers read. On the channels of the extension
+ * the reports come from {@link ai.pipestream.quarkus.dynamicgrpc.interceptor.InstanceFeedbackInterceptor};
+ * callers of {@link DynamicConsulServiceDiscovery#discoverService(String)} make them themselves.
+ * A new wrapper is created per selection, so it can hold the start time of its call.
+ * </p>
+ * <p>
+ * The call ends once, whatever reports it: later {@code recordEnd} calls are ignored. A call that
+ * was never started through {@code recordStart} holds nothing in flight, its latency is then
+ * measured from the selection.
+ * </p>
+ */
+class LoadRecordingInstance implements ServiceInstance, InstanceLoad.Tracked {
+
+    private static final AtomicIntegerFieldUpdater<LoadRecordingInstance> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(LoadRecordingInstance.class, "state");
+
+    private static final int SELECTED = 0;
+    private static final int STARTED = 1;
+    private static final int ENDED = 2;
+
+    private final ServiceInstance delegate;
+    private final InstanceLoad load;
+    private final long selectedAt;
+    private long start;
+
+    // SELECTED, STARTED or ENDED, updated through STATE
+    private volatile int state;
+
+    /**
+     * Wraps an instance for one call.
+     *
+     * @param delegate the selected instance
+     */
+    LoadRecordingInstance(ServiceInstance delegate) {
+        this.delegate = delegate;
+        this.load = InstanceLoad.of(delegate);
+        this.selectedAt = System.nanoTime();
+    }
+
+    /**
+     * Wraps an instance for one call if it tracks its load.
+     *
+     * @param instance the selected instance
+     * @return the recording wrapper, or the instance itself if it does not track load
+     */
+    static ServiceInstance wrap(ServiceInstance instance) {
+        return instance instanceof InstanceLoad.Tracked ? new LoadRecordingInstance(instance) : instance;
+    }
+
+    @Override
+    public boolean gatherStatistics() {
+        return true;
+    }
+
+    @Override
+    public void recordStart(boolean measureTime) {
+        long started = load.recordStart();
+        if (STATE.compareAndSet(this, SELECTED, STARTED)) {
+            start = started;
+        } else {
+            // Started twice or after its end: give back the call just counted
+            load.recordEnd(started, true);
+        }
+    }
+
+    @Override
+    public void recordEnd(Throwable failure) {
+        int previous = STATE.getAndSet(this, ENDED);
+        if (previous == ENDED) {
+            return;
+        }
+        if (previous == STARTED) {
+            load.recordEnd(start, failure != null);
+        } else if (failure == null && load != InstanceLoad.UNTRACKED) {
+            long now = System.nanoTime();
+            load.recordLatency(now - selectedAt, now);
+        }
+        ended(failure);
+    }
+
+    /**
+     * Called once when the call of this selection ends, after its load was recorded.
+     *
+     * @param failure the failure of the call, or {@code null} if it succeeded
+     */
+    void ended(Throwable failure) {
+    }
+
+    @Override
+    public InstanceLoad load() {
+        return load;
+    }
+
+    @Override
+    public int weight() {
+        return InstanceLoad.weightOf(delegate);
+    }
+
+    @Override
+    public long getId() {
+        return delegate.getId();
+    }
+
+    @Override
+    public String getHost() {
+        return delegate.getHost();
+    }
+
+    @Override
+    public int getPort() {
+        return delegate.getPort();
+    }
+
+    @Override
+    public boolean isSecure() {
+        return delegate.isSecure();
+    }
+
+    @Override
+    public Optional<String> getPath() {
+        return delegate.getPath();
+    }
+
+    @Override
+    public Metadata<? extends MetadataKey> getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public Map<String, String> getLabels() {
+        return delegate.getLabels();
+    }
+}
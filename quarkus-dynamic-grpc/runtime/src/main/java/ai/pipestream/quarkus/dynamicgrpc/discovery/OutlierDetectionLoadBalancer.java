@@ -0,0 +1,110 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import io.smallrye.stork.api.LoadBalancer;
+import io.smallrye.stork.api.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stork load balancer that leaves instances ejected by an {@link OutlierDetector} out of the
+ * selection and reports the outcome of every call back to it. The instances of a hedged call's
+ * {@link OutstandingAttempts} are left out as well, and instances of the local zone are preferred
+ * among the remaining ones: other zones are only used when every local instance is gone, ejected
+ * or serving another attempt of the call.
+ * <p>
+ * Selection among the remaining instances is delegated to one of the balancers of this package
+ * ({@link OutlierDetector.Settings#loadBalancer()}), which see each instance's live
+ * {@link InstanceLoad}. The selected instance is returned wrapped so that the per-call reports
+ * ({@code recordStart}/{@code recordEnd}) update the load and feed the detector. On dynamic channels
+ * those reports come from {@link ai.pipestream.quarkus.dynamicgrpc.interceptor.InstanceFeedbackInterceptor}.
+ * </p>
+ */
+public class OutlierDetectionLoadBalancer implements LoadBalancer {
+
+    /**
+     * Stork load balancer type.
+     */
+    public static final String TYPE = "dynamic-grpc-outlier-detection";
+
+    private final OutlierDetector detector;
+    private final LoadBalancer delegate;
+    private final String localZone;
+    private final String zoneLabel;
+
+    /**
+     * Creates a load balancer for the detector of a service, without zone preference.
+     *
+     * @param detector the service's outlier detector
+     */
+    public OutlierDetectionLoadBalancer(OutlierDetector detector) {
+        this(detector, Optional.empty(), "zone");
+    }
+
+    /**
+     * Creates a load balancer for the detector of a service that prefers the instances in rotation
+     * in the local zone, and overflows to other zones when it has none.
+     *
+     * @param detector  the service's outlier detector
+     * @param localZone the zone to prefer, empty for no preference
+     * @param zoneLabel the label holding the instance zone
+     */
+    public OutlierDetectionLoadBalancer(OutlierDetector detector, Optional<String> localZone, String zoneLabel) {
+        this.detector = detector;
+        this.delegate = DynamicConsulServiceDiscovery.createLoadBalancer(detector.settings().loadBalancer());
+        this.localZone = localZone.orElse(null);
+        this.zoneLabel = zoneLabel;
+    }
+
+    /**
+     * Selects an instance among those not ejected.
+     *
+     * @param instances the discovered instances (must not be null or empty)
+     * @return the selected instance, recording its calls
+     * @throws IllegalArgumentException if {@code instances} is null or empty
+     */
+    @Override
+    public ServiceInstance selectServiceInstance(Collection<ServiceInstance> instances) {
+        Instances.requireNonEmpty(instances);
+
+        List<ServiceInstance> list = instances instanceof List<ServiceInstance> l ? l : List.copyOf(instances);
+        List<ServiceInstance> candidates = OutstandingAttempts.exclude(detector.available(list));
+        ServiceInstance selected = delegate.selectServiceInstance(preferLocal(candidates));
+        return new RecordingInstance((OutlierDetector.View) selected);
+    }
+
+    /**
+     * Returns the candidates in the local zone, or all of them when none is.
+     */
+    private List<ServiceInstance> preferLocal(List<ServiceInstance> candidates) {
+        if (localZone == null) {
+            return candidates;
+        }
+        List<ServiceInstance> local = new ArrayList<>(candidates.size());
+        for (ServiceInstance candidate : candidates) {
+            if (localZone.equals(candidate.getLabels().get(zoneLabel))) {
+                local.add(candidate);
+            }
+        }
+        return local.isEmpty() ? candidates : local;
+    }
+
+    /**
+     * The selected instance of one call, which also reports the call's outcome to the detector.
+     */
+    private static final class RecordingInstance extends LoadRecordingInstance {
+        private final OutlierDetector.View view;
+
+        RecordingInstance(OutlierDetector.View view) {
+            super(view);
+            this.view = view;
+        }
+
+        @Override
+        void ended(Throwable failure) {
+            view.detector.onCallEnd(view, failure);
+        }
+    }
+}
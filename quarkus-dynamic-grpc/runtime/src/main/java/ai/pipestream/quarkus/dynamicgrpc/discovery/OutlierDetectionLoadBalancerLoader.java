@@ -0,0 +1,45 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import io.smallrye.stork.api.LoadBalancer;
+import io.smallrye.stork.api.ServiceDiscovery;
+import io.smallrye.stork.api.config.ConfigWithType;
+import io.smallrye.stork.spi.internal.LoadBalancerLoader;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Optional;
+
+/**
+ * Stork loader of the {@link OutlierDetectionLoadBalancer}, available to Stork both as a CDI bean
+ * and through {@code META-INF/services}.
+ * <p>
+ * The service is passed as the {@code service} parameter of the load balancer configuration;
+ * its detector is the one registered by {@link ai.pipestream.quarkus.dynamicgrpc.ServiceDiscoveryManager}.
+ * The optional {@code zone} and {@code zone-label} parameters set the zone to prefer.
+ * </p>
+ */
+@ApplicationScoped
+public class OutlierDetectionLoadBalancerLoader implements LoadBalancerLoader {
+
+    /**
+     * Creates the loader. Instantiated by CDI or by Stork's service loader.
+     */
+    public OutlierDetectionLoadBalancerLoader() {
+    }
+
+    @Override
+    public LoadBalancer createLoadBalancer(ConfigWithType config, ServiceDiscovery serviceDiscovery) {
+        String serviceName = config.parameters().get("service");
+        if (serviceName == null) {
+            throw new IllegalArgumentException("The " + OutlierDetectionLoadBalancer.TYPE
+                    + " load balancer requires a 'service' parameter");
+        }
+        String zone = config.parameters().get("zone");
+        return new OutlierDetectionLoadBalancer(OutlierDetector.forService(serviceName), Optional.ofNullable(zone),
+                config.parameters().getOrDefault("zone-label", "zone"));
+    }
+
+    @Override
+    public String type() {
+        return OutlierDetectionLoadBalancer.TYPE;
+    }
+}
@@ -0,0 +1,465 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import ai.pipestream.quarkus.dynamicgrpc.config.DynamicGrpcConfig;
+import io.grpc.Status;
+import io.smallrye.stork.api.Metadata;
+import io.smallrye.stork.api.MetadataKey;
+import io.smallrye.stork.api.ServiceInstance;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Passive outlier detection for the instances of one service.
+ * <p>
+ * The outcome and latency of every call are reported through {@link #onCallEnd}. An instance is
+ * ejected, i.e. left out of {@link #available(List)}, after a run of consecutive failures or when
+ * its latency average exceeds a multiple of its peers'. The first ejection lasts the base
+ * ejection time and every further one doubles it up to the maximum; an instance that stayed in
+ * rotation for the maximum ejection time starts again from the base. No more than the configured
+ * share of instances is ejected at once, and if every instance is ejected all of them are used.
+ * </p>
+ * <p>
+ * Detectors are created by {@link ai.pipestream.quarkus.dynamicgrpc.ServiceDiscoveryManager} and
+ * {@link #register(OutlierDetector) registered} by service name so that the
+ * {@link OutlierDetectionLoadBalancer} Stork instantiates for the service can find them. The
+ * manager {@link #unregister(OutlierDetector) unregisters} them when it is destroyed, so the
+ * registry does not outlive the application, e.g. across dev mode restarts.
+ * </p>
+ */
+public final class OutlierDetector {
+
+    private static final Logger LOG = Logger.getLogger(OutlierDetector.class);
+
+    private static final ConcurrentMap<String, OutlierDetector> DETECTORS = new ConcurrentHashMap<>();
+
+    /**
+     * Effective outlier detection settings.
+     *
+     * @param consecutiveFailures consecutive failures that eject an instance
+     * @param baseEjectionTime    duration of a first ejection
+     * @param maxEjectionTime     longest ejection
+     * @param maxEjectionPercent  highest share of instances ejected at once
+     * @param latencyFactor       latency multiple of the peers' average that ejects an instance
+     * @param loadBalancer        selection among the instances in rotation
+     */
+    public record Settings(
+            int consecutiveFailures,
+            Duration baseEjectionTime,
+            Duration maxEjectionTime,
+            int maxEjectionPercent,
+            Optional<Double> latencyFactor,
+            String loadBalancer) {
+
+        /**
+         * Settings used when no detector was registered for a service.
+         */
+        public static final Settings DEFAULTS = new Settings(5, Duration.ofSeconds(30), Duration.ofMinutes(5), 50,
+                Optional.empty(), "power-of-two-choices");
+
+        /**
+         * Load balancer types that can select among the instances in rotation.
+         */
+        public static final Set<String> LOAD_BALANCERS =
+                Set.of("random", "power-of-two-choices", "least-latency", "weighted");
+
+        /**
+         * Reads the settings from the extension configuration.
+         *
+         * @param config the outlier detection configuration
+         * @return the settings
+         */
+        public static Settings from(DynamicGrpcConfig.OutlierDetectionConfig config) {
+            return new Settings(config.consecutiveFailures(), config.baseEjectionTime(), config.maxEjectionTime(),
+                    config.maxEjectionPercent(), config.latencyFactor(), config.loadBalancer());
+        }
+
+        /**
+         * Returns these settings with another selection among the instances in rotation.
+         *
+         * @param loadBalancer one of {@link #LOAD_BALANCERS}
+         * @return the settings
+         */
+        public Settings withLoadBalancer(String loadBalancer) {
+            return new Settings(consecutiveFailures, baseEjectionTime, maxEjectionTime, maxEjectionPercent,
+                    latencyFactor, loadBalancer);
+        }
+    }
+
+    /**
+     * Receives ejection events, e.g. to record metrics.
+     */
+    public interface Listener {
+
+        /**
+         * Called when an instance is ejected.
+         *
+         * @param instance the ejected instance
+         * @param reason   {@code consecutive_failures} or {@code latency}
+         * @param duration how long the instance stays ejected
+         */
+        void ejected(ServiceInstance instance, String reason, Duration duration);
+
+        /**
+         * Called when the number of ejected instances changes.
+         *
+         * @param ejected the number of instances currently ejected
+         */
+        void ejectedCount(int ejected);
+    }
+
+    private final String serviceName;
+    private final Settings settings;
+    private final Listener listener;
+
+    private final AtomicInteger ejectedCount = new AtomicInteger();
+    private volatile Views views = new Views(List.of(), List.of());
+    private Map<Long, InstanceHealth> health = Map.of();
+
+    /**
+     * Creates a detector.
+     *
+     * @param serviceName the service name
+     * @param settings    the detection settings
+     * @param listener    receives ejection events
+     */
+    public OutlierDetector(String serviceName, Settings settings, Listener listener) {
+        this.serviceName = serviceName;
+        this.settings = settings;
+        this.listener = listener;
+    }
+
+    /**
+     * Registers a detector under its service name, replacing any previous one.
+     *
+     * @param detector the detector
+     */
+    public static void register(OutlierDetector detector) {
+        DETECTORS.put(detector.serviceName, detector);
+    }
+
+    /**
+     * Removes a detector from the registry, unless another one has replaced it since.
+     *
+     * @param detector the detector
+     */
+    public static void unregister(OutlierDetector detector) {
+        DETECTORS.remove(detector.serviceName, detector);
+    }
+
+    /**
+     * Returns the detector registered for a service, or a new unregistered one with
+     * {@link Settings#DEFAULTS default settings} if there is none.
+     *
+     * @param serviceName the service name
+     * @return the detector
+     */
+    static OutlierDetector forService(String serviceName) {
+        OutlierDetector detector = DETECTORS.get(serviceName);
+        return detector != null ? detector : new OutlierDetector(serviceName, Settings.DEFAULTS, null);
+    }
+
+    /**
+     * Whether a detector is registered for a service.
+     *
+     * @param serviceName the service name
+     * @return true if the service selects through outlier detection
+     */
+    static boolean isRegistered(String serviceName) {
+        return DETECTORS.containsKey(serviceName);
+    }
+
+    /**
+     * Returns the settings of this detector.
+     *
+     * @return the settings
+     */
+    public Settings settings() {
+        return settings;
+    }
+
+    /**
+     * Returns the number of instances currently ejected.
+     *
+     * @return the ejected instance count
+     */
+    public int ejectedCount() {
+        return ejectedCount.get();
+    }
+
+    /**
+     * Returns the instances in rotation, as load-tracking views of the discovered instances.
+     * <p>
+     * The views are rebuilt only when discovery hands out a new list, and a new list is only
+     * allocated while some instance is ejected.
+     * </p>
+     *
+     * @param instances the discovered instances
+     * @return the instances to select from
+     */
+    List<ServiceInstance> available(List<ServiceInstance> instances) {
+        Views current = views;
+        if (current.source != instances) {
+            current = rebuild(instances);
+        }
+        if (ejectedCount.get() == 0) {
+            return current.all;
+        }
+
+        long now = System.nanoTime();
+        List<ServiceInstance> inRotation = new ArrayList<>(current.all.size());
+        for (ServiceInstance instance : current.all) {
+            InstanceHealth state = ((View) instance).health;
+            if (!state.isEjected(now)) {
+                inRotation.add(instance);
+            }
+        }
+        // Fail open: serving from ejected instances beats failing every call
+        return inRotation.isEmpty() ? current.all : inRotation;
+    }
+
+    /**
+     * Records the end of a call to an instance and ejects it if it has become an outlier.
+     *
+     * @param instance the view the call went to, whose load has already recorded the call
+     * @param failure  the call failure, or {@code null}
+     */
+    void onCallEnd(View instance, Throwable failure) {
+        InstanceHealth state = instance.health;
+        if (failure != null && isInstanceFailure(failure)) {
+            if (state.consecutiveFailures.incrementAndGet() >= settings.consecutiveFailures()) {
+                eject(instance, "consecutive_failures");
+            }
+            return;
+        }
+        state.consecutiveFailures.set(0);
+
+        if (settings.latencyFactor().isPresent() && isSlow(state, settings.latencyFactor().get())) {
+            eject(instance, "latency");
+        }
+    }
+
+    /**
+     * Whether a failure points at the instance rather than at the request.
+     */
+    private static boolean isInstanceFailure(Throwable failure) {
+        return switch (Status.fromThrowable(failure).getCode()) {
+            case UNAVAILABLE, DEADLINE_EXCEEDED, INTERNAL, UNKNOWN -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Whether an instance's latency average exceeds {@code factor} times the average of its peers.
+     */
+    private boolean isSlow(InstanceHealth state, double factor) {
+        double own = state.load.latencyEwmaNanos();
+        if (own == 0) {
+            return false;
+        }
+        double sum = 0;
+        int peers = 0;
+        for (ServiceInstance instance : views.all) {
+            InstanceHealth other = ((View) instance).health;
+            double latency = other.load.latencyEwmaNanos();
+            if (other != state && latency > 0) {
+                sum += latency;
+                peers++;
+            }
+        }
+        // Needs at least two peers so one slow peer cannot mask the comparison
+        return peers >= 2 && own > factor * (sum / peers);
+    }
+
+    private synchronized void eject(View instance, String reason) {
+        InstanceHealth state = instance.health;
+        long now = System.nanoTime();
+        if (state.isEjected(now)) {
+            return;
+        }
+
+        int total = views.all.size();
+        int ejected = ejectedCount.get();
+        if ((ejected + 1) * 100L > (long) settings.maxEjectionPercent() * total) {
+            LOG.debugf("Not ejecting instance %s:%d of %s: %d of %d instance(s) already ejected",
+                    instance.getHost(), instance.getPort(), serviceName, ejected, total);
+            state.consecutiveFailures.set(0);
+            return;
+        }
+
+        long base = settings.baseEjectionTime().toNanos();
+        long max = settings.maxEjectionTime().toNanos();
+        if (state.ejections > 0 && now - state.readmittedAt > max) {
+            state.ejections = 0;
+        }
+        long duration = Math.min(max, base << Math.min(state.ejections, 20));
+        state.ejections++;
+        state.consecutiveFailures.set(0);
+        state.ejectedUntil = now + duration;
+        ejectedCount.incrementAndGet();
+
+        LOG.infof("Ejected instance %s:%d of service %s for %d ms (%s)",
+                instance.getHost(), instance.getPort(), serviceName, duration / 1_000_000, reason);
+        if (listener != null) {
+            listener.ejected(instance.delegate, reason, Duration.ofNanos(duration));
+            listener.ejectedCount(ejectedCount.get());
+        }
+    }
+
+    /**
+     * Re-admits an instance whose ejection has expired.
+     */
+    private synchronized void readmit(InstanceHealth state) {
+        if (state.ejectedUntil == 0) {
+            return;
+        }
+        state.ejectedUntil = 0;
+        state.readmittedAt = System.nanoTime();
+        int ejected = ejectedCount.decrementAndGet();
+        if (listener != null) {
+            listener.ejectedCount(ejected);
+        }
+    }
+
+    /**
+     * Rebuilds the views for a new discovery result, keeping the state of known instances.
+     */
+    private synchronized Views rebuild(List<ServiceInstance> instances) {
+        Views current = views;
+        if (current.source == instances) {
+            return current;
+        }
+
+        Map<Long, InstanceHealth> next = new HashMap<>();
+        List<ServiceInstance> all = new ArrayList<>(instances.size());
+        int ejected = 0;
+        for (ServiceInstance instance : instances) {
+            InstanceHealth state = health.get(instance.getId());
+            if (state == null) {
+                state = new InstanceHealth();
+            }
+            next.put(instance.getId(), state);
+            if (state.ejectedUntil != 0) {
+                ejected++;
+            }
+            all.add(new View(instance, state, this));
+        }
+        health = next;
+        ejectedCount.set(ejected);
+        Views rebuilt = new Views(instances, List.copyOf(all));
+        views = rebuilt;
+        return rebuilt;
+    }
+
+    private record Views(List<ServiceInstance> source, List<ServiceInstance> all) {
+    }
+
+    /**
+     * Ejection state and load of one instance, kept across discovery refreshes by instance id.
+     */
+    private final class InstanceHealth {
+        final InstanceLoad load = new InstanceLoad();
+        final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+        // Guarded by the detector; ejectedUntil is read without locking
+        volatile long ejectedUntil;
+        int ejections;
+        long readmittedAt;
+
+        boolean isEjected(long now) {
+            long until = ejectedUntil;
+            if (until == 0) {
+                return false;
+            }
+            if (now - until < 0) {
+                return true;
+            }
+            readmit(this);
+            return false;
+        }
+    }
+
+    /**
+     * A discovered instance seen through the detector: it carries the instance's
+     * {@link InstanceLoad} for the load-aware balancers and its weight from the {@code weight} label.
+     */
+    static final class View implements ServiceInstance, InstanceLoad.Tracked {
+        final ServiceInstance delegate;
+        final OutlierDetector detector;
+        private final InstanceHealth health;
+        private final int weight;
+
+        private View(ServiceInstance delegate, InstanceHealth health, OutlierDetector detector) {
+            this.delegate = delegate;
+            this.health = health;
+            this.detector = detector;
+            this.weight = weightLabel(delegate);
+        }
+
+        private static int weightLabel(ServiceInstance instance) {
+            String value = instance.getLabels().get("weight");
+            if (value == null) {
+                return InstanceLoad.weightOf(instance);
+            }
+            try {
+                return Math.max(0, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                return 1;
+            }
+        }
+
+        @Override
+        public long getId() {
+            return delegate.getId();
+        }
+
+        @Override
+        public String getHost() {
+            return delegate.getHost();
+        }
+
+        @Override
+        public int getPort() {
+            return delegate.getPort();
+        }
+
+        @Override
+        public boolean isSecure() {
+            return delegate.isSecure();
+        }
+
+        @Override
+        public Optional<String> getPath() {
+            return delegate.getPath();
+        }
+
+        @Override
+        public Metadata<? extends MetadataKey> getMetadata() {
+            return delegate.getMetadata();
+        }
+
+        @Override
+        public Map<String, String> getLabels() {
+            return delegate.getLabels();
+        }
+
+        @Override
+        public InstanceLoad load() {
+            return health.load;
+        }
+
+        @Override
+        public int weight() {
+            return weight;
+        }
+    }
+}
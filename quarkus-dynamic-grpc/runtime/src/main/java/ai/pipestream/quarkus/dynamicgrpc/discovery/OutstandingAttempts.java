@@ -0,0 +1,99 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import io.grpc.CallOptions;
+import io.grpc.Context;
+import io.smallrye.stork.api.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Instances reached by the outstanding attempts of one hedged call, left out of the selection of
+ * its next attempt.
+ * <p>
+ * The hedging interceptor passes one instance per call with every attempt as the
+ * {@link #CALL_OPTION} call option. The innermost channel interceptor registers the slot the
+ * Stork gRPC channel fills with the attempt's selected instance, and binds this object to the
+ * gRPC {@link Context} in which the channel selects, where {@link ConsulWatchServiceDiscovery} and
+ * {@link OutlierDetectionLoadBalancer} read it. When every instance has an outstanding attempt,
+ * nothing is excluded, so an attempt may land on an instance already serving the call.
+ * </p>
+ */
+public final class OutstandingAttempts {
+
+    /**
+     * Call option carrying the outstanding attempts of the hedged call an attempt belongs to.
+     */
+    public static final CallOptions.Key<OutstandingAttempts> CALL_OPTION =
+            CallOptions.Key.create("dynamic-grpc.outstanding-attempts");
+
+    private static final Context.Key<OutstandingAttempts> CONTEXT = Context.key("dynamic-grpc.outstanding-attempts");
+
+    private final List<AtomicReference<ServiceInstance>> attempts = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates an empty set of attempts for one hedged call.
+     */
+    public OutstandingAttempts() {
+    }
+
+    /**
+     * Registers an attempt until it closes.
+     *
+     * @param selected the slot filled with the attempt's instance once it is selected
+     */
+    public void add(AtomicReference<ServiceInstance> selected) {
+        attempts.add(selected);
+    }
+
+    /**
+     * Forgets a closed attempt.
+     *
+     * @param selected the slot passed to {@link #add(AtomicReference)}
+     */
+    public void remove(AtomicReference<ServiceInstance> selected) {
+        attempts.remove(selected);
+    }
+
+    /**
+     * Returns a context in which instance selection leaves out the instances of these attempts.
+     *
+     * @param context the context to extend
+     * @return the extended context
+     */
+    public Context bind(Context context) {
+        return context.withValue(CONTEXT, this);
+    }
+
+    /**
+     * Leaves out the instances of the outstanding attempts bound to the current context.
+     *
+     * @param instances the candidates
+     * @return the candidates without those instances, or all candidates if none would remain
+     */
+    static List<ServiceInstance> exclude(List<ServiceInstance> instances) {
+        OutstandingAttempts outstanding = CONTEXT.get();
+        if (outstanding == null || outstanding.attempts.isEmpty()) {
+            return instances;
+        }
+        List<ServiceInstance> remaining = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!outstanding.reached(instance)) {
+                remaining.add(instance);
+            }
+        }
+        return remaining.isEmpty() || remaining.size() == instances.size() ? instances : remaining;
+    }
+
+    private boolean reached(ServiceInstance instance) {
+        for (AtomicReference<ServiceInstance> attempt : attempts) {
+            ServiceInstance selected = attempt.get();
+            if (selected != null && selected.getId() == instance.getId()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import io.smallrye.stork.api.LoadBalancer;
+import io.smallrye.stork.api.ServiceInstance;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load balancer that samples two distinct instances at random and picks the one with fewer
+ * calls in flight.
+ * <p>
+ * Comparing two random candidates avoids the herding of "least loaded overall" selection while
+ * keeping the load spread close to optimal. In-flight counts come from {@link InstanceLoad};
+ * instances that do not track load tie, which makes the selection random.
+ * </p>
+ */
+public class PowerOfTwoChoicesLoadBalancer implements LoadBalancer {
+
+    /**
+     * Creates a new PowerOfTwoChoicesLoadBalancer.
+     */
+    public PowerOfTwoChoicesLoadBalancer() {
+    }
+
+    /**
+     * Selects the less loaded of two randomly sampled instances.
+     *
+     * @param instances the available instances to pick from (must not be null or empty)
+     * @return the selected instance
+     * @throws IllegalArgumentException if {@code instances} is null or empty
+     */
+    @Override
+    public ServiceInstance selectServiceInstance(Collection<ServiceInstance> instances) {
+        Instances.requireNonEmpty(instances);
+
+        int size = instances.size();
+        if (size == 1) {
+            return Instances.get(instances, 0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        ServiceInstance a = Instances.get(instances, first);
+        ServiceInstance b = Instances.get(instances, second);
+        return score(b) < score(a) ? b : a;
+    }
+
+    /**
+     * Returns the load figure compared between the two candidates.
+     *
+     * @param instance a candidate
+     * @return the score; lower is better
+     */
+    double score(ServiceInstance instance) {
+        return InstanceLoad.of(instance).inFlight();
+    }
+}
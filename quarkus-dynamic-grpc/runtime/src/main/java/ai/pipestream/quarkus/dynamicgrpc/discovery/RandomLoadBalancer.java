@@ -4,8 +4,7 @@ import io.smallrye.stork.api.LoadBalancer;
 import io.smallrye.stork.api.ServiceInstance;
 
 import java.util.Collection;
-import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Simple random load balancer implementation for Stork.
@@ -18,8 +17,6 @@ public class RandomLoadBalancer implements LoadBalancer {
     public RandomLoadBalancer() {
     }
 
-    private final Random random = new Random();
-
     /**
      * Selects a service instance at random from the provided collection.
      * If only one instance is available, that instance is returned.
@@ -30,18 +27,12 @@ public class RandomLoadBalancer implements LoadBalancer {
      */
     @Override
     public ServiceInstance selectServiceInstance(Collection<ServiceInstance> instances) {
-        if (instances == null || instances.isEmpty()) {
-            throw new IllegalArgumentException("No instances available for selection");
-        }
+        Instances.requireNonEmpty(instances);
 
-        List<ServiceInstance> instanceList = instances instanceof List ?
-                (List<ServiceInstance>) instances : new java.util.ArrayList<>(instances);
-
-        if (instanceList.size() == 1) {
-            return instanceList.getFirst();
+        int size = instances.size();
+        if (size == 1) {
+            return Instances.get(instances, 0);
         }
-
-        int index = random.nextInt(instanceList.size());
-        return instanceList.get(index);
+        return Instances.get(instances, ThreadLocalRandom.current().nextInt(size));
     }
 }
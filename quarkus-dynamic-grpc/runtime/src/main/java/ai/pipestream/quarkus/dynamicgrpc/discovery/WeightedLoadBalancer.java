@@ -0,0 +1,71 @@
+package ai.pipestream.quarkus.dynamicgrpc.discovery;
+
+import io.smallrye.stork.api.LoadBalancer;
+import io.smallrye.stork.api.ServiceInstance;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load balancer that selects instances at random in proportion to their weight.
+ * <p>
+ * Weights come from {@link InstanceLoad#weightOf(ServiceInstance)}; for Consul instances that is
+ * the {@code weight} service meta entry (default {@code 1}). Instances with weight {@code 0}
+ * only receive traffic when every candidate has weight {@code 0}.
+ * </p>
+ */
+public class WeightedLoadBalancer implements LoadBalancer {
+
+    /**
+     * Creates a new WeightedLoadBalancer.
+     */
+    public WeightedLoadBalancer() {
+    }
+
+    /**
+     * Selects an instance with a probability proportional to its weight.
+     *
+     * @param instances the available instances to pick from (must not be null or empty)
+     * @return the selected instance
+     * @throws IllegalArgumentException if {@code instances} is null or empty
+     */
+    @Override
+    public ServiceInstance selectServiceInstance(Collection<ServiceInstance> instances) {
+        Instances.requireNonEmpty(instances);
+
+        int size = instances.size();
+        if (size == 1) {
+            return Instances.get(instances, 0);
+        }
+
+        // Lists (what discovery hands out) are indexed so selection does not allocate
+        List<ServiceInstance> list = instances instanceof List<ServiceInstance> l ? l : List.copyOf(instances);
+
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += Math.max(0, InstanceLoad.weightOf(list.get(i)));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (total == 0) {
+            return list.get(random.nextInt(size));
+        }
+
+        long target = random.nextLong(total);
+        ServiceInstance last = null;
+        for (int i = 0; i < size; i++) {
+            ServiceInstance instance = list.get(i);
+            int weight = InstanceLoad.weightOf(instance);
+            if (weight <= 0) {
+                continue;
+            }
+            target -= weight;
+            if (target < 0) {
+                return instance;
+            }
+            last = instance;
+        }
+        // Only reached if the weights changed between the two passes
+        return last != null ? last : list.getFirst();
+    }
+}
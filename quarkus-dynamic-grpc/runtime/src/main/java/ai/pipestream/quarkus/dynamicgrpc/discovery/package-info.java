@@ -6,9 +6,21 @@
  *   <li>{@link ai.pipestream.quarkus.dynamicgrpc.discovery.ServiceDiscovery} – the abstraction used by
  *   the runtime to obtain available service instances.</li>
  *   <li>{@link ai.pipestream.quarkus.dynamicgrpc.discovery.DynamicConsulServiceDiscovery} – a direct Consul-based
- *   discovery implementation usable even when Stork is not pre-configured.</li>
+ *   discovery implementation usable even when Stork is not pre-configured. Consul tags and meta are exposed
+ *   as instance labels and {@link ai.pipestream.quarkus.dynamicgrpc.discovery.ConsulInstanceMetadataKey}
+ *   metadata. Changes of a service's instances are reported as
+ *   {@link ai.pipestream.quarkus.dynamicgrpc.discovery.InstanceSetChange}s.</li>
+ *   <li>{@link ai.pipestream.quarkus.dynamicgrpc.discovery.ConsulWatchServiceDiscovery} – the Stork discovery
+ *   serving the same watched instances to the channels of Consul-discovered services.</li>
  *   <li>{@link ai.pipestream.quarkus.dynamicgrpc.discovery.RandomLoadBalancer} – a simple random
  *   selection strategy compatible with SmallRye Stork’s APIs.</li>
+ *   <li>Load-aware strategies: {@link ai.pipestream.quarkus.dynamicgrpc.discovery.PowerOfTwoChoicesLoadBalancer},
+ *   {@link ai.pipestream.quarkus.dynamicgrpc.discovery.LeastLatencyLoadBalancer} and
+ *   {@link ai.pipestream.quarkus.dynamicgrpc.discovery.WeightedLoadBalancer}, reading the per-instance
+ *   {@link ai.pipestream.quarkus.dynamicgrpc.discovery.InstanceLoad}.</li>
+ *   <li>{@link ai.pipestream.quarkus.dynamicgrpc.discovery.OutlierDetector} and the Stork
+ *   {@link ai.pipestream.quarkus.dynamicgrpc.discovery.OutlierDetectionLoadBalancer} that keeps ejected
+ *   instances out of selection.</li>
  *   <li>Producers like {@link ai.pipestream.quarkus.dynamicgrpc.discovery.StandaloneServiceDiscoveryProducer}
  *   and {@link ai.pipestream.quarkus.dynamicgrpc.discovery.StandaloneVertxProducer} that provide sensible
  *   defaults when running this module outside a full Quarkus application.</li>
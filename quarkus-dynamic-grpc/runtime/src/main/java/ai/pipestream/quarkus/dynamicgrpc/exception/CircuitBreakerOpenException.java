@@ -0,0 +1,49 @@
+package ai.pipestream.quarkus.dynamicgrpc.exception;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+/**
+ * Thrown when a call or channel request is short-circuited because the service's circuit breaker
+ * is open.
+ * <p>
+ * This exception extends {@link StatusRuntimeException} with {@link Status#UNAVAILABLE}, so
+ * callers handling an unavailable service need no special case.
+ * </p>
+ */
+public class CircuitBreakerOpenException extends StatusRuntimeException {
+    /**
+     * The logical service name whose circuit breaker is open.
+     */
+    private final String serviceName;
+
+    /**
+     * Creates a new CircuitBreakerOpenException.
+     *
+     * @param serviceName the name of the service whose circuit breaker is open
+     */
+    public CircuitBreakerOpenException(String serviceName) {
+        super(status(serviceName));
+        this.serviceName = serviceName;
+    }
+
+    /**
+     * Returns the status reported for calls short-circuited by the circuit breaker of a service.
+     *
+     * @param serviceName the service name
+     * @return an {@code UNAVAILABLE} status
+     */
+    public static Status status(String serviceName) {
+        return Status.UNAVAILABLE.withDescription(
+            String.format("Circuit breaker for service '%s' is open", serviceName));
+    }
+
+    /**
+     * Returns the name of the service whose circuit breaker is open.
+     *
+     * @return the service name
+     */
+    public String getServiceName() {
+        return serviceName;
+    }
+}
@@ -4,8 +4,8 @@ package ai.pipestream.quarkus.dynamicgrpc.exception;
  * Base exception for all dynamic gRPC extension errors that are not gRPC-specific.
  * <p>
  * For gRPC-related errors, prefer the domain-specific {@link io.grpc.StatusRuntimeException}
- * subclasses like {@link ServiceNotFoundException}, {@link ServiceDiscoveryException}, or
- * {@link ChannelCreationException}.
+ * subclasses like {@link ServiceNotFoundException}, {@link ServiceDiscoveryException},
+ * {@link ChannelCreationException}, or {@link CircuitBreakerOpenException}.
  * </p>
  */
 public class DynamicGrpcException extends RuntimeException {
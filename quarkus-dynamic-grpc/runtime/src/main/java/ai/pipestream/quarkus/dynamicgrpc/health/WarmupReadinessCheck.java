@@ -0,0 +1,48 @@
+package ai.pipestream.quarkus.dynamicgrpc.health;
+
+import ai.pipestream.quarkus.dynamicgrpc.ChannelWarmup;
+import ai.pipestream.quarkus.dynamicgrpc.config.DynamicGrpcConfig;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+
+import java.util.List;
+
+/**
+ * Readiness check that stays DOWN until the startup channel warm-up has finished.
+ * <p>
+ * Registered by the deployment module only when SmallRye Health is present. It always reports
+ * UP unless {@code quarkus.dynamic-grpc.warmup.readiness} is enabled.
+ * </p>
+ */
+@Readiness
+@ApplicationScoped
+public class WarmupReadinessCheck implements HealthCheck {
+
+    private static final String NAME = "Dynamic gRPC channel warm-up";
+
+    /**
+     * Default constructor for CDI frameworks.
+     */
+    public WarmupReadinessCheck() {
+    }
+
+    @Inject
+    ChannelWarmup warmup;
+
+    @Inject
+    DynamicGrpcConfig config;
+
+    @Override
+    public HealthCheckResponse call() {
+        if (!config.warmup().readiness() || warmup.isComplete()) {
+            return HealthCheckResponse.up(NAME);
+        }
+        return HealthCheckResponse.named(NAME)
+                .down()
+                .withData("services", String.join(",", config.warmup().services().orElse(List.of())))
+                .build();
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Health checks contributed by the Dynamic gRPC extension.
+ * <p>
+ * These checks are only registered when the application includes SmallRye Health.
+ * </p>
+ */
+package ai.pipestream.quarkus.dynamicgrpc.health;
@@ -0,0 +1,131 @@
+package ai.pipestream.quarkus.dynamicgrpc.interceptor;
+
+import ai.pipestream.quarkus.dynamicgrpc.config.DynamicGrpcConfig;
+import io.grpc.Status;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Concurrency limit of one service, adjusted by additive increase and multiplicative decrease.
+ * <p>
+ * A call is admitted while fewer calls than the limit are in flight. When a call completes:
+ * </p>
+ * <ul>
+ *   <li>If it was dropped, i.e. slower than the latency threshold or failed with
+ *   {@code DEADLINE_EXCEEDED}, {@code UNAVAILABLE} or {@code RESOURCE_EXHAUSTED}, the limit is
+ *   multiplied by the backoff ratio. Only calls started after the last decrease can decrease it
+ *   again, so one overload episode shrinks the limit once rather than once per timed-out call.</li>
+ *   <li>Otherwise the limit grows by {@code 1/limit}, about one per round of calls, but only while
+ *   at least half of it is in use.</li>
+ * </ul>
+ * <p>
+ * Cancelled calls only release their slot. Admission is a lock-free compare-and-set on the
+ * in-flight count; the limit itself is updated under the instance lock.
+ * </p>
+ */
+public final class AimdConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final IntConsumer limitListener;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimate;
+    private long lastDecreaseNanos;
+
+    /**
+     * Creates a limit starting at the configured initial limit.
+     *
+     * @param config        the concurrency limit configuration
+     * @param limitListener notified with every new integer limit, including the initial one
+     */
+    public AimdConcurrencyLimit(DynamicGrpcConfig.ConcurrencyLimitConfig config, IntConsumer limitListener) {
+        this.minLimit = Math.max(1, config.minLimit());
+        this.maxLimit = Math.max(minLimit, config.maxLimit());
+        this.backoffRatio = config.backoffRatio();
+        this.latencyThresholdNanos = config.latencyThreshold().toNanos();
+        this.limitListener = limitListener;
+        this.estimate = Math.clamp(config.initialLimit(), minLimit, maxLimit);
+        this.limit = (int) estimate;
+        this.lastDecreaseNanos = System.nanoTime();
+        limitListener.accept(limit);
+    }
+
+    /**
+     * Takes an in-flight slot if the limit allows it.
+     *
+     * @return true if the call may proceed; it must then be ended with {@link #onCallEnd(long, Status)}
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Releases the slot of a completed call and adjusts the limit from its outcome.
+     *
+     * @param startNanos the {@link System#nanoTime()} at which the call started
+     * @param status     the final status of the call
+     */
+    public void onCallEnd(long startNanos, Status status) {
+        long now = System.nanoTime();
+        int inFlightAtEnd = inFlight.getAndDecrement();
+        if (status.getCode() == Status.Code.CANCELLED) {
+            return;
+        }
+
+        boolean dropped = switch (status.getCode()) {
+            case DEADLINE_EXCEEDED, UNAVAILABLE, RESOURCE_EXHAUSTED -> true;
+            default -> now - startNanos > latencyThresholdNanos;
+        };
+        update(startNanos, now, dropped, inFlightAtEnd);
+    }
+
+    /**
+     * Returns the number of calls currently allowed in flight.
+     *
+     * @return the current limit
+     */
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of calls currently in flight.
+     *
+     * @return the in-flight count
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long startNanos, long nowNanos, boolean dropped, int inFlightAtEnd) {
+        if (dropped) {
+            if (startNanos - lastDecreaseNanos < 0) {
+                return;
+            }
+            estimate = Math.max(minLimit, estimate * backoffRatio);
+            lastDecreaseNanos = nowNanos;
+        } else if (inFlightAtEnd * 2 >= estimate) {
+            estimate = Math.min(maxLimit, estimate + 1 / estimate);
+        }
+
+        int next = (int) estimate;
+        if (next != limit) {
+            limit = next;
+            limitListener.accept(next);
+        }
+    }
+}
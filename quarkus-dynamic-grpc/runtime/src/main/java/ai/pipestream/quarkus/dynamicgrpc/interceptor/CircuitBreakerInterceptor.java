@@ -0,0 +1,131 @@
+package ai.pipestream.quarkus.dynamicgrpc.interceptor;
+
+import ai.pipestream.quarkus.dynamicgrpc.circuitbreaker.CircuitBreaker;
+import ai.pipestream.quarkus.dynamicgrpc.exception.CircuitBreakerOpenException;
+import ai.pipestream.quarkus.dynamicgrpc.metrics.DynamicGrpcMetrics;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * gRPC client interceptor that short-circuits calls while a service's {@link CircuitBreaker} is
+ * open and reports the outcome of the others to it.
+ * <p>
+ * One instance is created per service by {@link ai.pipestream.quarkus.dynamicgrpc.ChannelManager}
+ * when {@code quarkus.dynamic-grpc.circuit-breaker.enabled} is set. A rejected call fails
+ * immediately with the {@code UNAVAILABLE} status of {@link CircuitBreakerOpenException}, so
+ * stubs kept by callers are short-circuited as well, not only new channel requests. Calls the
+ * concurrency limit inside it turns away are neither successes nor failures for the breaker; in the
+ * half-open state they give their trial slot back.
+ * </p>
+ */
+public class CircuitBreakerInterceptor implements ClientInterceptor {
+
+    private final String serviceName;
+    private final CircuitBreaker breaker;
+    private final DynamicGrpcMetrics metrics;
+
+    /**
+     * Creates an interceptor for the given breaker.
+     *
+     * @param serviceName the logical service name, used in errors and as metric tag
+     * @param breaker     the circuit breaker of the service
+     * @param metrics     the metrics collector
+     */
+    public CircuitBreakerInterceptor(String serviceName, CircuitBreaker breaker, DynamicGrpcMetrics metrics) {
+        this.serviceName = serviceName;
+        this.breaker = breaker;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+        return new BreakerCall<>(next.newCall(method, callOptions));
+    }
+
+    /**
+     * Call that asks the breaker for permission when started and reports its outcome when closed.
+     */
+    private final class BreakerCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        private volatile boolean rejected;
+
+        BreakerCall(ClientCall<ReqT, RespT> delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            CircuitBreaker.Permit permit = breaker.tryAcquire();
+            if (permit == CircuitBreaker.Permit.DENIED) {
+                rejected = true;
+                metrics.recordCircuitBreakerRejected(serviceName);
+                responseListener.onClose(CircuitBreakerOpenException.status(serviceName), new Metadata());
+                return;
+            }
+
+            long startNanos = System.nanoTime();
+            super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                @Override
+                public void onClose(Status status, Metadata trailers) {
+                    if (ConcurrencyLimitInterceptor.isRejection(status)) {
+                        // Turned away by the local limit: says nothing about the service
+                        breaker.release(permit);
+                    } else {
+                        breaker.onCallEnd(permit, System.nanoTime() - startNanos, status);
+                    }
+                    super.onClose(status, trailers);
+                }
+            }, headers);
+        }
+
+        @Override
+        public void request(int numMessages) {
+            if (!rejected) {
+                super.request(numMessages);
+            }
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            if (!rejected) {
+                super.sendMessage(message);
+            }
+        }
+
+        @Override
+        public void halfClose() {
+            if (!rejected) {
+                super.halfClose();
+            }
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+            if (!rejected) {
+                super.cancel(message, cause);
+            }
+        }
+
+        @Override
+        public void setMessageCompression(boolean enabled) {
+            if (!rejected) {
+                super.setMessageCompression(enabled);
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return !rejected && super.isReady();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package ai.pipestream.quarkus.dynamicgrpc.interceptor;
+
+import ai.pipestream.quarkus.dynamicgrpc.metrics.DynamicGrpcMetrics;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * gRPC client interceptor that bounds the calls in flight to a service by an
+ * {@link AimdConcurrencyLimit}.
+ * <p>
+ * One instance is created per service by {@link ai.pipestream.quarkus.dynamicgrpc.ChannelManager}
+ * when {@code quarkus.dynamic-grpc.concurrency-limit.enabled} is set. A call started while the
+ * limit is reached fails immediately with {@code RESOURCE_EXHAUSTED} and never reaches the
+ * transport, so a slow downstream cannot make calls pile up in the client. Retries and hedged
+ * attempts of a call share the slot of that call.
+ * </p>
+ */
+public class ConcurrencyLimitInterceptor implements ClientInterceptor {
+
+    // Cause of the rejection status, never sent over the wire; no stack trace, it is shared
+    private static final Throwable LIMIT_REACHED = new Throwable("Concurrency limit reached", null, false, false) {
+    };
+
+    private final String serviceName;
+    private final AimdConcurrencyLimit limit;
+    private final DynamicGrpcMetrics metrics;
+
+    /**
+     * Creates an interceptor for the given limit.
+     *
+     * @param serviceName the logical service name, used in errors and as metric tag
+     * @param limit       the concurrency limit of the service
+     * @param metrics     the metrics collector
+     */
+    public ConcurrencyLimitInterceptor(String serviceName, AimdConcurrencyLimit limit, DynamicGrpcMetrics metrics) {
+        this.serviceName = serviceName;
+        this.limit = limit;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Whether a status is the rejection of a call by a concurrency limit, as opposed to a
+     * {@code RESOURCE_EXHAUSTED} returned by the service.
+     *
+     * @param status the final status of a call
+     * @return true if the call was turned away before reaching the transport
+     */
+    public static boolean isRejection(Status status) {
+        return status.getCause() == LIMIT_REACHED;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+        return new LimitedCall<>(next.newCall(method, callOptions));
+    }
+
+    /**
+     * Call that takes a slot when started and releases it when closed.
+     */
+    private final class LimitedCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        private volatile boolean rejected;
+
+        LimitedCall(ClientCall<ReqT, RespT> delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            if (!limit.tryAcquire()) {
+                rejected = true;
+                metrics.recordConcurrencyRejected(serviceName);
+                responseListener.onClose(Status.RESOURCE_EXHAUSTED.withDescription(String.format(
+                        "Concurrency limit of %d reached for service %s", limit.limit(), serviceName))
+                        .withCause(LIMIT_REACHED), new Metadata());
+                return;
+            }
+
+            long startNanos = System.nanoTime();
+            super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                @Override
+                public void onClose(Status status, Metadata trailers) {
+                    limit.onCallEnd(startNanos, status);
+                    super.onClose(status, trailers);
+                }
+            }, headers);
+        }
+
+        @Override
+        public void request(int numMessages) {
+            if (!rejected) {
+                super.request(numMessages);
+            }
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            if (!rejected) {
+                super.sendMessage(message);
+            }
+        }
+
+        @Override
+        public void halfClose() {
+            if (!rejected) {
+                super.halfClose();
+            }
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+            if (!rejected) {
+                super.cancel(message, cause);
+            }
+        }
+
+        @Override
+        public void setMessageCompression(boolean enabled) {
+            if (!rejected) {
+                super.setMessageCompression(enabled);
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return !rejected && super.isReady();
+        }
+    }
+}
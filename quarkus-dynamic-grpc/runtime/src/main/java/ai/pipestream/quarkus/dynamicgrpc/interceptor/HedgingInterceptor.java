@@ -0,0 +1,368 @@
+package ai.pipestream.quarkus.dynamicgrpc.interceptor;
+
+import ai.pipestream.quarkus.dynamicgrpc.config.ServiceHedgingSettings;
+import ai.pipestream.quarkus.dynamicgrpc.discovery.OutstandingAttempts;
+import ai.pipestream.quarkus.dynamicgrpc.metrics.DynamicGrpcMetrics;
+import io.grpc.Attributes;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.vertx.core.Vertx;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * gRPC client interceptor that hedges unary calls of idempotent methods.
+ * <p>
+ * One instance is created per service by {@link ai.pipestream.quarkus.dynamicgrpc.ChannelManager}
+ * when {@code quarkus.dynamic-grpc.services.<service>.hedging.methods} is set. For a hedged call
+ * the original attempt is sent immediately; while no attempt has answered, a further attempt is
+ * sent after every hedge delay until {@code max-attempts} is reached:
+ * </p>
+ * <ul>
+ *   <li>The first attempt that succeeds, or fails with a fatal status, answers the call; the
+ *   remaining attempts are cancelled.</li>
+ *   <li>An attempt failing with a non-fatal status (by default {@code UNAVAILABLE}) sends the next
+ *   attempt right away instead of waiting for the delay. The call fails with the last status once
+ *   every attempt has failed.</li>
+ * </ul>
+ * <p>
+ * Every attempt is a new call on the service channel, so Stork selects its instance anew. The
+ * attempts of a call share one {@link OutstandingAttempts}, passed as a call option, so the
+ * instances of outstanding attempts are left out of that selection; an attempt only goes to the
+ * same instance as another when no other instance is available. Attempts after the first carry the
+ * {@code grpc-previous-rpc-attempts} header. Responses are buffered until an attempt is chosen,
+ * which is why only unary calls are hedged.
+ * </p>
+ */
+public class HedgingInterceptor implements ClientInterceptor {
+
+    static final Metadata.Key<String> PREVIOUS_ATTEMPTS =
+            Metadata.Key.of("grpc-previous-rpc-attempts", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final String serviceName;
+    private final ServiceHedgingSettings settings;
+    private final Vertx vertx;
+    private final DynamicGrpcMetrics metrics;
+    private final long delayMillis;
+
+    /**
+     * Creates an interceptor for the given policy.
+     *
+     * @param serviceName the logical service name, used as metric tag
+     * @param settings    the effective hedging policy of the service
+     * @param vertx       the Vert.x instance used for hedge timers
+     * @param metrics     the metrics collector
+     */
+    public HedgingInterceptor(String serviceName, ServiceHedgingSettings settings, Vertx vertx,
+                              DynamicGrpcMetrics metrics) {
+        this.serviceName = serviceName;
+        this.settings = settings;
+        this.vertx = vertx;
+        this.metrics = metrics;
+        // Vert.x timers need at least one millisecond
+        this.delayMillis = Math.max(1, settings.delay().toMillis());
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+
+        if (method.getType() != MethodDescriptor.MethodType.UNARY
+                || !settings.appliesTo(method.getFullMethodName())) {
+            return next.newCall(method, callOptions);
+        }
+        return new HedgingCall<>(method, callOptions, next);
+    }
+
+    /**
+     * Client call fanning out to up to {@code max-attempts} underlying calls.
+     * <p>
+     * Attempts are started and driven under {@code lock}; callbacks to the application listener
+     * are made outside it. An attempt may close synchronously while it is driven and start the
+     * next one, so the attempts are driven from a snapshot of the list; attempts started meanwhile
+     * replay what was sent so far.
+     * </p>
+     */
+    private final class HedgingCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+        private final MethodDescriptor<ReqT, RespT> method;
+        private final CallOptions callOptions;
+        private final Channel next;
+        private final OutstandingAttempts outstanding = new OutstandingAttempts();
+
+        private final Object lock = new Object();
+        private final List<Attempt> attempts = new ArrayList<>(settings.maxAttempts());
+
+        // Guarded by lock; replayed on every attempt started later
+        private Listener<RespT> listener;
+        private Metadata headers;
+        private ReqT message;
+        private int requested;
+        private boolean halfClosed;
+        private Boolean messageCompression;
+
+        private Attempt committed;
+        private boolean cancelled;
+        private long timerId = -1;
+
+        HedgingCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+            this.method = method;
+            this.callOptions = callOptions.withOption(OutstandingAttempts.CALL_OPTION, outstanding);
+            this.next = next;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            synchronized (lock) {
+                // Like grpc-java's ClientCallImpl, a call cancelled before it started cannot be started
+                if (cancelled) {
+                    throw new IllegalStateException("Call was cancelled");
+                }
+                metrics.recordHedgedCall(serviceName, method.getFullMethodName());
+                this.listener = responseListener;
+                this.headers = headers;
+                startAttempt();
+            }
+        }
+
+        @Override
+        public void request(int numMessages) {
+            synchronized (lock) {
+                requested += numMessages;
+                for (Attempt attempt : List.copyOf(attempts)) {
+                    attempt.call.request(numMessages);
+                }
+            }
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            synchronized (lock) {
+                this.message = message;
+                for (Attempt attempt : List.copyOf(attempts)) {
+                    attempt.call.sendMessage(message);
+                }
+            }
+        }
+
+        @Override
+        public void halfClose() {
+            synchronized (lock) {
+                halfClosed = true;
+                for (Attempt attempt : List.copyOf(attempts)) {
+                    attempt.call.halfClose();
+                }
+                scheduleHedge();
+            }
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+            List<Attempt> toCancel;
+            synchronized (lock) {
+                cancelled = true;
+                cancelTimer();
+                toCancel = List.copyOf(attempts);
+            }
+            // The first attempt to report the cancellation answers the call
+            for (Attempt attempt : toCancel) {
+                attempt.call.cancel(message, cause);
+            }
+        }
+
+        @Override
+        public void setMessageCompression(boolean enabled) {
+            synchronized (lock) {
+                messageCompression = enabled;
+                for (Attempt attempt : List.copyOf(attempts)) {
+                    attempt.call.setMessageCompression(enabled);
+                }
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            synchronized (lock) {
+                Attempt current = current();
+                return current != null && current.call.isReady();
+            }
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            synchronized (lock) {
+                Attempt current = current();
+                return current != null ? current.call.getAttributes() : Attributes.EMPTY;
+            }
+        }
+
+        /**
+         * Returns the committed attempt, else the first one, or null before the call started.
+         * Called under lock.
+         */
+        private Attempt current() {
+            if (committed != null) {
+                return committed;
+            }
+            return attempts.isEmpty() ? null : attempts.getFirst();
+        }
+
+        /**
+         * Starts the next attempt and replays what the application has sent so far. Called under lock.
+         */
+        private void startAttempt() {
+            int index = attempts.size();
+            Metadata attemptHeaders = new Metadata();
+            attemptHeaders.merge(headers);
+            if (index > 0) {
+                attemptHeaders.put(PREVIOUS_ATTEMPTS, Integer.toString(index));
+                metrics.recordHedgeSent(serviceName, method.getFullMethodName());
+            }
+
+            Attempt attempt = new Attempt(index, next.newCall(method, callOptions));
+            attempts.add(attempt);
+            attempt.call.start(attempt, attemptHeaders);
+            if (messageCompression != null) {
+                attempt.call.setMessageCompression(messageCompression);
+            }
+            if (requested > 0) {
+                attempt.call.request(requested);
+            }
+            if (message != null) {
+                attempt.call.sendMessage(message);
+            }
+            if (halfClosed) {
+                attempt.call.halfClose();
+            }
+        }
+
+        /**
+         * Arms the timer for the next attempt, if any is left. Called under lock.
+         */
+        private void scheduleHedge() {
+            if (attempts.size() < settings.maxAttempts()) {
+                timerId = vertx.setTimer(delayMillis, id -> onHedgeTimer(id));
+            }
+        }
+
+        private void cancelTimer() {
+            if (timerId >= 0) {
+                vertx.cancelTimer(timerId);
+                timerId = -1;
+            }
+        }
+
+        private void onHedgeTimer(long id) {
+            synchronized (lock) {
+                if (id != timerId || committed != null || cancelled) {
+                    return;
+                }
+                timerId = -1;
+                startAttempt();
+                scheduleHedge();
+            }
+        }
+
+        /**
+         * Listener of one attempt. Buffers the response until the attempt is chosen to answer the call.
+         */
+        private final class Attempt extends Listener<RespT> {
+
+            final int index;
+            final ClientCall<ReqT, RespT> call;
+
+            // Guarded by lock
+            private Metadata responseHeaders;
+            private RespT response;
+            private boolean closed;
+
+            Attempt(int index, ClientCall<ReqT, RespT> call) {
+                this.index = index;
+                this.call = call;
+            }
+
+            @Override
+            public void onHeaders(Metadata headers) {
+                synchronized (lock) {
+                    responseHeaders = headers;
+                }
+            }
+
+            @Override
+            public void onMessage(RespT message) {
+                synchronized (lock) {
+                    response = message;
+                }
+            }
+
+            @Override
+            public void onClose(Status status, Metadata trailers) {
+                List<Attempt> losers;
+                synchronized (lock) {
+                    closed = true;
+                    if (committed != null) {
+                        return;
+                    }
+                    if (!answers(status)) {
+                        if (attempts.size() < settings.maxAttempts()) {
+                            // Non-fatal failure: hedge right away rather than waiting out the delay
+                            cancelTimer();
+                            startAttempt();
+                            scheduleHedge();
+                        }
+                        return;
+                    }
+                    committed = this;
+                    cancelTimer();
+                    losers = new ArrayList<>(attempts.size() - 1);
+                    for (Attempt attempt : attempts) {
+                        if (attempt != this && !attempt.closed) {
+                            losers.add(attempt);
+                        }
+                    }
+                }
+
+                for (Attempt loser : losers) {
+                    loser.call.cancel("Hedged call answered by another attempt", null);
+                }
+                if (index > 0 && status.isOk()) {
+                    metrics.recordHedgeWin(serviceName, method.getFullMethodName());
+                }
+                if (responseHeaders != null) {
+                    listener.onHeaders(responseHeaders);
+                }
+                if (response != null) {
+                    listener.onMessage(response);
+                }
+                listener.onClose(status, trailers);
+            }
+
+            /**
+             * Whether this attempt's status answers the call. Called under lock.
+             */
+            private boolean answers(Status status) {
+                if (status.isOk() || cancelled || !settings.nonFatalStatusCodes().contains(status.getCode())) {
+                    return true;
+                }
+                // Non-fatal, but the call fails once every attempt has failed
+                if (attempts.size() < settings.maxAttempts()) {
+                    return false;
+                }
+                for (Attempt attempt : attempts) {
+                    if (!attempt.closed) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ai.pipestream.quarkus.dynamicgrpc.interceptor;
+
+import ai.pipestream.quarkus.dynamicgrpc.discovery.OutstandingAttempts;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.Context;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.quarkus.grpc.runtime.stork.StorkMeasuringGrpcInterceptor;
+import io.smallrye.stork.api.ServiceInstance;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * gRPC client interceptor that reports the outcome and latency of every call to the Stork service
+ * instance the call was sent to.
+ * <p>
+ * Load balancers that gather statistics, such as the outlier detection balancer of this extension
+ * and Stork's {@code least-response-time}, only learn through {@code ServiceInstance.recordStart}
+ * and {@code recordEnd}. The Stork gRPC channel records the start and hands out the selected
+ * instance only when the keys of Quarkus's {@link StorkMeasuringGrpcInterceptor} are set in the
+ * gRPC {@link Context}, and Quarkus installs that interceptor on injected clients only. This
+ * interceptor sets the same keys for the channels of {@link ai.pipestream.quarkus.dynamicgrpc.ChannelManager}
+ * and ends the recording with the call's status when the call closes.
+ * </p>
+ * <p>
+ * It is the innermost interceptor of a channel, so each retry and hedged attempt reports the
+ * instance it reached. For an attempt of a hedged call, it also registers the attempt with the
+ * call's {@link OutstandingAttempts}, so the next attempt is sent to another instance.
+ * </p>
+ */
+public class InstanceFeedbackInterceptor implements ClientInterceptor {
+
+    /**
+     * Creates a new InstanceFeedbackInterceptor.
+     */
+    public InstanceFeedbackInterceptor() {
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+        AtomicReference<ServiceInstance> selected = new AtomicReference<>();
+        Context context = Context.current()
+                .withValue(StorkMeasuringGrpcInterceptor.STORK_SERVICE_INSTANCE, selected)
+                .withValue(StorkMeasuringGrpcInterceptor.STORK_MEASURE_TIME, true);
+        OutstandingAttempts outstanding = callOptions.getOption(OutstandingAttempts.CALL_OPTION);
+        if (outstanding != null) {
+            outstanding.add(selected);
+            context = outstanding.bind(context);
+        }
+        Context previous = context.attach();
+        try {
+            return new FeedbackCall<>(next.newCall(method, callOptions), context, selected, outstanding);
+        } finally {
+            context.detach(previous);
+        }
+    }
+
+    /**
+     * Call that reports its outcome to the instance selected for it when closed.
+     */
+    private static final class FeedbackCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        private final Context context;
+        private final AtomicReference<ServiceInstance> selected;
+        private final OutstandingAttempts outstanding;
+
+        FeedbackCall(ClientCall<ReqT, RespT> delegate, Context context, AtomicReference<ServiceInstance> selected,
+                     OutstandingAttempts outstanding) {
+            super(delegate);
+            this.context = context;
+            this.selected = selected;
+            this.outstanding = outstanding;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            Listener<RespT> listener = new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                @Override
+                public void onClose(Status status, Metadata trailers) {
+                    if (outstanding != null) {
+                        outstanding.remove(selected);
+                    }
+                    // Nothing was selected when the call failed before reaching an instance
+                    ServiceInstance instance = selected.getAndSet(null);
+                    if (instance != null) {
+                        instance.recordEnd(status.isOk() ? null : status.asRuntimeException(trailers));
+                    }
+                    super.onClose(status, trailers);
+                }
+            };
+            // The channel may select the instance when the call starts rather than when it is created
+            context.run(() -> super.start(listener, headers));
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package ai.pipestream.quarkus.dynamicgrpc.interceptor;
+
+import ai.pipestream.quarkus.dynamicgrpc.config.ServiceMessageSettings;
+import com.google.protobuf.MessageLite;
+import io.grpc.Attributes;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * gRPC client interceptor that applies a service's outbound message limit and compression.
+ * <p>
+ * One instance is created per service by {@link ai.pipestream.quarkus.dynamicgrpc.ChannelManager}
+ * and installed alongside {@link ai.pipestream.quarkus.dynamicgrpc.auth.AuthMetadataInterceptor}.
+ * It sets the limit on the {@link CallOptions} (unless the caller already chose one) and enforces
+ * it per message: a message whose serialized size exceeds the outbound limit fails the call with
+ * {@code RESOURCE_EXHAUSTED} before it reaches the transport.
+ * </p>
+ * <p>
+ * The Vert.x transport behind the Stork channels compresses a whole call with the compressor of
+ * its {@link CallOptions} and ignores {@link ClientCall#setMessageCompression(boolean)}, so the
+ * compression threshold is applied per call. Calls sending a single request message (unary and
+ * server streaming) are created on the transport only once that message is known, with the
+ * compressor if the message reaches the threshold and without it otherwise. Client and
+ * bidirectional streaming calls are always compressed. A compressor chosen by the caller is kept.
+ * </p>
+ * <p>
+ * Sizes are taken from protobuf's memoized {@link MessageLite#getSerializedSize()}; messages of
+ * other types are sent unchecked and compressed.
+ * </p>
+ */
+public class MessageSettingsInterceptor implements ClientInterceptor {
+
+    private final int maxOutboundMessageSize;
+    private final String compressor;
+    private final int compressionThreshold;
+
+    /**
+     * Creates an interceptor for the given settings.
+     *
+     * @param settings the effective message settings of the service
+     */
+    public MessageSettingsInterceptor(ServiceMessageSettings settings) {
+        this.maxOutboundMessageSize = settings.maxOutboundMessageSize();
+        this.compressor = settings.compression().orElse(null);
+        this.compressionThreshold = settings.compressionThreshold();
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+
+        CallOptions options = callOptions;
+        if (options.getMaxOutboundMessageSize() == null) {
+            options = options.withMaxOutboundMessageSize(maxOutboundMessageSize);
+        }
+        int limit = options.getMaxOutboundMessageSize();
+
+        if (compressor != null && options.getCompressor() == null) {
+            if (method.getType().clientSendsOneMessage()) {
+                return new SingleMessageCall<>(method, options, next, limit);
+            }
+            options = options.withCompression(compressor);
+        }
+
+        ClientCall<ReqT, RespT> call = next.newCall(method, options);
+        if (limit == Integer.MAX_VALUE) {
+            return call;
+        }
+        return new LimitingCall<>(call, limit);
+    }
+
+    private static int serializedSize(Object message) {
+        return message instanceof MessageLite lite ? lite.getSerializedSize() : -1;
+    }
+
+    private static Status tooLarge(int limit, int size) {
+        return Status.RESOURCE_EXHAUSTED.withDescription(String.format(
+                "gRPC message exceeds maximum size %d: %d", limit, size));
+    }
+
+    /**
+     * Call that checks every outgoing message against the limit.
+     */
+    private static final class LimitingCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        private final int limit;
+        private volatile Status rejection;
+
+        LimitingCall(ClientCall<ReqT, RespT> delegate, int limit) {
+            super(delegate);
+            this.limit = limit;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                @Override
+                public void onClose(Status status, Metadata trailers) {
+                    Status rejected = rejection;
+                    if (rejected != null) {
+                        super.onClose(rejected, new Metadata());
+                    } else {
+                        super.onClose(status, trailers);
+                    }
+                }
+            }, headers);
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            if (rejection != null) {
+                return;
+            }
+            int size = serializedSize(message);
+            if (size > limit) {
+                rejection = tooLarge(limit, size);
+                delegate().cancel("Outbound message too large", rejection.asRuntimeException());
+                return;
+            }
+            super.sendMessage(message);
+        }
+    }
+
+    /**
+     * Call of a method sending a single request message. The transport call is created when the
+     * message is sent, compressed if the message reaches the threshold; until then the start and
+     * the requested messages are held back.
+     */
+    private final class SingleMessageCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+        private final MethodDescriptor<ReqT, RespT> method;
+        private final CallOptions callOptions;
+        private final Channel next;
+        private final int limit;
+
+        // Guarded by this
+        private ClientCall<ReqT, RespT> delegate;
+        private Listener<RespT> listener;
+        private Metadata headers;
+        private int requested;
+        private boolean closed;
+
+        SingleMessageCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next, int limit) {
+            this.method = method;
+            this.callOptions = callOptions;
+            this.next = next;
+            this.limit = limit;
+        }
+
+        @Override
+        public synchronized void start(Listener<RespT> responseListener, Metadata headers) {
+            this.listener = responseListener;
+            this.headers = headers;
+        }
+
+        @Override
+        public synchronized void request(int numMessages) {
+            if (delegate != null) {
+                delegate.request(numMessages);
+            } else {
+                requested += numMessages;
+            }
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            ClientCall<ReqT, RespT> call;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (delegate != null) {
+                    // Only one message is expected; let the transport reject any other
+                    call = delegate;
+                } else {
+                    int size = serializedSize(message);
+                    if (size > limit) {
+                        close(tooLarge(limit, size));
+                        return;
+                    }
+                    boolean compress = size < 0 || size >= compressionThreshold;
+                    call = next.newCall(method, compress ? callOptions.withCompression(compressor) : callOptions);
+                    delegate = call;
+                    call.start(listener, headers);
+                    if (requested > 0) {
+                        call.request(requested);
+                    }
+                }
+            }
+            call.sendMessage(message);
+        }
+
+        @Override
+        public synchronized void halfClose() {
+            if (delegate != null) {
+                delegate.halfClose();
+            }
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+            ClientCall<ReqT, RespT> call;
+            synchronized (this) {
+                call = delegate;
+                if (call == null) {
+                    // Never reached the transport: answer the listener like grpc-java does
+                    if (listener != null && !closed) {
+                        Status status = Status.CANCELLED;
+                        status = message != null ? status.withDescription(message) : status;
+                        close(cause != null ? status.withCause(cause) : status);
+                    }
+                    closed = true;
+                    return;
+                }
+            }
+            call.cancel(message, cause);
+        }
+
+        @Override
+        public synchronized boolean isReady() {
+            // Ready for the one message until it is sent
+            return delegate != null ? delegate.isReady() : !closed;
+        }
+
+        @Override
+        public synchronized void setMessageCompression(boolean enabled) {
+            if (delegate != null) {
+                delegate.setMessageCompression(enabled);
+            }
+        }
+
+        @Override
+        public synchronized Attributes getAttributes() {
+            return delegate != null ? delegate.getAttributes() : Attributes.EMPTY;
+        }
+
+        /**
+         * Closes the call before it reached the transport. Called under lock.
+         */
+        private void close(Status status) {
+            closed = true;
+            listener.onClose(status, new Metadata());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ai.pipestream.quarkus.dynamicgrpc.interceptor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket limiting retries to a share of the calls made.
+ * <p>
+ * Every call deposits {@code ratio} tokens, every retry withdraws one token, and a retry is
+ * dropped when less than one token is left. The bucket starts full and holds at most
+ * {@code maxTokens}, so retries may burst up to that number before they are held to the ratio.
+ * When a downstream degrades, retries thereby add at most {@code ratio} to the load instead of
+ * multiplying it by the number of attempts.
+ * </p>
+ * <p>
+ * One budget is shared by all services of the channel manager. Tokens are kept in thousandths
+ * in a single atomic, so the bucket is lock-free.
+ * </p>
+ */
+public final class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong tokens;
+
+    /**
+     * Creates a full budget.
+     *
+     * @param ratio     the tokens deposited per call
+     * @param maxTokens the capacity of the bucket
+     */
+    public RetryBudget(double ratio, int maxTokens) {
+        this.deposit = Math.max(0, Math.round(ratio * SCALE));
+        this.capacity = Math.max(0, maxTokens) * SCALE;
+        this.tokens = new AtomicLong(capacity);
+    }
+
+    /**
+     * Deposits the tokens of a call.
+     */
+    public void recordCall() {
+        long current;
+        long next;
+        do {
+            current = tokens.get();
+            if (current >= capacity) {
+                return;
+            }
+            next = Math.min(capacity, current + deposit);
+        } while (!tokens.compareAndSet(current, next));
+    }
+
+    /**
+     * Withdraws the token of a retry.
+     *
+     * @return true if the retry may be made, false if the budget is exhausted
+     */
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * Returns the tokens currently available.
+     *
+     * @return the available tokens
+     */
+    public double tokens() {
+        return (double) tokens.get() / SCALE;
+    }
+}
@@ -0,0 +1,351 @@
+package ai.pipestream.quarkus.dynamicgrpc.interceptor;
+
+import ai.pipestream.quarkus.dynamicgrpc.config.ServiceRetrySettings;
+import ai.pipestream.quarkus.dynamicgrpc.metrics.DynamicGrpcMetrics;
+import io.grpc.Attributes;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.Deadline;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.vertx.core.Vertx;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC client interceptor that retries failed unary calls and applies a service's default deadline.
+ * <p>
+ * One instance is created per service by {@link ai.pipestream.quarkus.dynamicgrpc.ChannelManager}
+ * when {@code quarkus.dynamic-grpc.services.<service>.retry} lists methods or sets a deadline.
+ * Calls made without a deadline get the configured one, which then bounds all their attempts.
+ * A call of a retried method is sent again when it fails with a retryable status, unless:
+ * </p>
+ * <ul>
+ *   <li>{@code max-attempts} is reached, or the caller cancelled the call;</li>
+ *   <li>the server asked not to retry with a negative {@code grpc-retry-pushback-ms} trailer;</li>
+ *   <li>the deadline would expire during the backoff;</li>
+ *   <li>the shared {@link RetryBudget} is exhausted.</li>
+ * </ul>
+ * <p>
+ * The backoff before retry {@code n} is drawn at random below
+ * {@code min(initial-backoff * backoff-multiplier^(n-1), max-backoff)}, or taken from the server's
+ * pushback trailer. Every retry is a new call on the service channel, so Stork selects its
+ * instance anew. Responses are buffered until an attempt ends, which is why only unary calls are
+ * retried.
+ * </p>
+ */
+public class RetryInterceptor implements ClientInterceptor {
+
+    static final Metadata.Key<String> RETRY_PUSHBACK =
+            Metadata.Key.of("grpc-retry-pushback-ms", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final String serviceName;
+    private final ServiceRetrySettings settings;
+    private final RetryBudget budget;
+    private final Vertx vertx;
+    private final DynamicGrpcMetrics metrics;
+    private final long deadlineNanos;
+
+    /**
+     * Creates an interceptor for the given policy.
+     *
+     * @param serviceName the logical service name, used as metric tag
+     * @param settings    the effective retry policy of the service
+     * @param budget      the retry budget shared by all services
+     * @param vertx       the Vert.x instance used for backoff timers
+     * @param metrics     the metrics collector
+     */
+    public RetryInterceptor(String serviceName, ServiceRetrySettings settings, RetryBudget budget, Vertx vertx,
+                            DynamicGrpcMetrics metrics) {
+        this.serviceName = serviceName;
+        this.settings = settings;
+        this.budget = budget;
+        this.vertx = vertx;
+        this.metrics = metrics;
+        this.deadlineNanos = settings.deadline().map(Duration::toNanos).orElse(0L);
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+
+        CallOptions options = callOptions;
+        if (deadlineNanos > 0 && options.getDeadline() == null) {
+            options = options.withDeadlineAfter(deadlineNanos, TimeUnit.NANOSECONDS);
+        }
+        if (method.getType() != MethodDescriptor.MethodType.UNARY
+                || !settings.appliesTo(method.getFullMethodName())) {
+            return next.newCall(method, options);
+        }
+        return new RetryingCall<>(method, options, next);
+    }
+
+    /**
+     * Client call running its attempts one after another.
+     * <p>
+     * Attempts are started and driven under {@code lock}; callbacks to the application listener
+     * are made outside it.
+     * </p>
+     */
+    private final class RetryingCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+        private final MethodDescriptor<ReqT, RespT> method;
+        private final CallOptions callOptions;
+        private final Channel next;
+
+        private final Object lock = new Object();
+
+        // Guarded by lock; replayed on every retry
+        private Listener<RespT> listener;
+        private Metadata headers;
+        private ReqT message;
+        private int requested;
+        private boolean halfClosed;
+        private Boolean messageCompression;
+
+        // Null while backing off
+        private Attempt current;
+        private int attempts;
+        private boolean cancelled;
+        private long timerId = -1;
+
+        RetryingCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+            this.method = method;
+            this.callOptions = callOptions;
+            this.next = next;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            synchronized (lock) {
+                // Like grpc-java's ClientCallImpl, a call cancelled before it started cannot be started
+                if (cancelled) {
+                    throw new IllegalStateException("Call was cancelled");
+                }
+                budget.recordCall();
+                this.listener = responseListener;
+                this.headers = headers;
+                startAttempt();
+            }
+        }
+
+        @Override
+        public void request(int numMessages) {
+            synchronized (lock) {
+                requested += numMessages;
+                if (current != null) {
+                    current.call.request(numMessages);
+                }
+            }
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            synchronized (lock) {
+                this.message = message;
+                if (current != null) {
+                    current.call.sendMessage(message);
+                }
+            }
+        }
+
+        @Override
+        public void halfClose() {
+            synchronized (lock) {
+                halfClosed = true;
+                if (current != null) {
+                    current.call.halfClose();
+                }
+            }
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+            Attempt toCancel;
+            synchronized (lock) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                if (listener == null) {
+                    // Not started yet: there is nobody to tell
+                    return;
+                }
+                toCancel = current;
+                if (toCancel == null && timerId >= 0) {
+                    vertx.cancelTimer(timerId);
+                    timerId = -1;
+                }
+            }
+            if (toCancel != null) {
+                // The attempt reports the cancellation to the listener
+                toCancel.call.cancel(message, cause);
+            } else {
+                Status status = Status.CANCELLED;
+                if (message != null) {
+                    status = status.withDescription(message);
+                }
+                listener.onClose(status.withCause(cause), new Metadata());
+            }
+        }
+
+        @Override
+        public void setMessageCompression(boolean enabled) {
+            synchronized (lock) {
+                messageCompression = enabled;
+                if (current != null) {
+                    current.call.setMessageCompression(enabled);
+                }
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            synchronized (lock) {
+                return current != null && current.call.isReady();
+            }
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            synchronized (lock) {
+                return current != null ? current.call.getAttributes() : Attributes.EMPTY;
+            }
+        }
+
+        /**
+         * Starts the next attempt and replays what the application has sent so far. Called under lock.
+         */
+        private void startAttempt() {
+            Metadata attemptHeaders = new Metadata();
+            attemptHeaders.merge(headers);
+            if (attempts > 0) {
+                attemptHeaders.put(HedgingInterceptor.PREVIOUS_ATTEMPTS, Integer.toString(attempts));
+                metrics.recordRetry(serviceName, method.getFullMethodName());
+            }
+            attempts++;
+
+            Attempt attempt = new Attempt(next.newCall(method, callOptions));
+            current = attempt;
+            attempt.call.start(attempt, attemptHeaders);
+            if (messageCompression != null) {
+                attempt.call.setMessageCompression(messageCompression);
+            }
+            if (requested > 0) {
+                attempt.call.request(requested);
+            }
+            if (message != null) {
+                attempt.call.sendMessage(message);
+            }
+            if (halfClosed) {
+                attempt.call.halfClose();
+            }
+        }
+
+        private void onBackoffElapsed(long id) {
+            synchronized (lock) {
+                if (id != timerId || cancelled) {
+                    return;
+                }
+                timerId = -1;
+                startAttempt();
+            }
+        }
+
+        /**
+         * Returns the backoff before retrying a failed attempt, or -1 if the failure ends the call.
+         * Called under lock.
+         */
+        private long backoffNanos(Status status, Metadata trailers) {
+            if (status.isOk() || cancelled || attempts >= settings.maxAttempts()
+                    || !settings.retryableStatusCodes().contains(status.getCode())) {
+                return -1;
+            }
+
+            long backoff;
+            String pushback = trailers.get(RETRY_PUSHBACK);
+            if (pushback != null) {
+                try {
+                    backoff = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(pushback));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+                if (backoff < 0) {
+                    return -1;
+                }
+            } else {
+                long bound = settings.backoffBoundNanos(attempts);
+                backoff = bound > 0 ? ThreadLocalRandom.current().nextLong(bound) : 0;
+            }
+
+            Deadline deadline = callOptions.getDeadline();
+            if (deadline != null && deadline.timeRemaining(TimeUnit.NANOSECONDS) <= backoff) {
+                return -1;
+            }
+            if (!budget.tryAcquire()) {
+                metrics.recordRetryThrottled(serviceName, method.getFullMethodName());
+                return -1;
+            }
+            return backoff;
+        }
+
+        /**
+         * Listener of one attempt. Buffers the response until the attempt ends.
+         */
+        private final class Attempt extends Listener<RespT> {
+
+            final ClientCall<ReqT, RespT> call;
+
+            // Guarded by lock
+            private Metadata responseHeaders;
+            private RespT response;
+
+            Attempt(ClientCall<ReqT, RespT> call) {
+                this.call = call;
+            }
+
+            @Override
+            public void onHeaders(Metadata headers) {
+                synchronized (lock) {
+                    responseHeaders = headers;
+                }
+            }
+
+            @Override
+            public void onMessage(RespT message) {
+                synchronized (lock) {
+                    response = message;
+                }
+            }
+
+            @Override
+            public void onClose(Status status, Metadata trailers) {
+                synchronized (lock) {
+                    long backoff = backoffNanos(status, trailers);
+                    if (backoff >= 0) {
+                        current = null;
+                        // Vert.x timers need at least one millisecond
+                        long delayMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(backoff));
+                        timerId = vertx.setTimer(delayMillis, id -> onBackoffElapsed(id));
+                        return;
+                    }
+                }
+
+                if (responseHeaders != null) {
+                    listener.onHeaders(responseHeaders);
+                }
+                if (response != null) {
+                    listener.onMessage(response);
+                }
+                listener.onClose(status, trailers);
+            }
+        }
+    }
+}
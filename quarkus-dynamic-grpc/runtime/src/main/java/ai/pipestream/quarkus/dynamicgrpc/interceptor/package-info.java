@@ -0,0 +1,11 @@
+/**
+ * Client interceptors installed by {@link ai.pipestream.quarkus.dynamicgrpc.ChannelManager} on the
+ * channels it creates.
+ * <p>
+ * Unlike the CDI-managed {@link ai.pipestream.quarkus.dynamicgrpc.auth.AuthMetadataInterceptor},
+ * the interceptors in this package are created per service from that service's effective settings:
+ * message limits and compression, request hedging, retries with default deadlines, and the
+ * adaptive concurrency limit and circuit breaker.
+ * </p>
+ */
+package ai.pipestream.quarkus.dynamicgrpc.interceptor;
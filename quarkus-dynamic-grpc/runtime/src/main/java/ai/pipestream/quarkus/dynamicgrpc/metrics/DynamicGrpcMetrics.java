@@ -1,14 +1,25 @@
 package ai.pipestream.quarkus.dynamicgrpc.metrics;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import io.grpc.ClientInterceptor;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
@@ -19,6 +30,11 @@ import java.util.function.Supplier;
  * and exception patterns for monitoring and tracing.
  * </p>
  * <p>
+ * Meters are registered once per service (and per tag combination) and kept in
+ * {@link ConcurrentHashMap}s, so recording on the request path is a map lookup and an
+ * increment rather than a registry lookup with tag sorting.
+ * </p>
+ * <p>
  * Metrics are optional - if Micrometer is not available, all operations become no-ops.
  * </p>
  */
@@ -40,13 +56,30 @@ public class DynamicGrpcMetrics {
     @Inject
     Instance<MeterRegistry> registryInstance;
 
+    /**
+     * Registry resolved once at startup, or {@code null} if metrics are disabled.
+     */
+    MeterRegistry registry;
+
     private final AtomicInteger activeChannels = new AtomicInteger(0);
 
+    private final ConcurrentMap<String, ServiceMeters> serviceMeters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        registry = registryInstance.isResolvable() ? registryInstance.get() : null;
+    }
+
     /**
-     * Returns the MeterRegistry if available, or null if metrics are disabled.
+     * Returns the pre-registered meters of a service, registering them on first use.
      */
-    private MeterRegistry getRegistry() {
-        return registryInstance.isResolvable() ? registryInstance.get() : null;
+    private ServiceMeters meters(String serviceName) {
+        String service = serviceName != null ? serviceName : "unknown";
+        ServiceMeters meters = serviceMeters.get(service);
+        if (meters == null) {
+            meters = serviceMeters.computeIfAbsent(service, s -> new ServiceMeters(registry, s));
+        }
+        return meters;
     }
 
     /**
@@ -55,15 +88,9 @@ public class DynamicGrpcMetrics {
      * @param serviceName the service name
      */
     public void recordClientCreationSuccess(String serviceName) {
-        MeterRegistry registry = getRegistry();
         if (registry == null) return;
 
-        Counter.builder(METRIC_PREFIX + ".client.created")
-                .tag("service", serviceName)
-                .tag("result", "success")
-                .description("Number of gRPC clients successfully created")
-                .register(registry)
-                .increment();
+        meters(serviceName).clientCreated.increment();
     }
 
     /**
@@ -73,16 +100,9 @@ public class DynamicGrpcMetrics {
      * @param exceptionType the exception class name
      */
     public void recordClientCreationFailure(String serviceName, String exceptionType) {
-        MeterRegistry registry = getRegistry();
         if (registry == null) return;
 
-        Counter.builder(METRIC_PREFIX + ".client.created")
-                .tag("service", serviceName)
-                .tag("result", "failure")
-                .tag("exception", exceptionType)
-                .description("Number of gRPC client creation failures")
-                .register(registry)
-                .increment();
+        meters(serviceName).clientCreationFailure(exceptionType).increment();
     }
 
     /**
@@ -93,14 +113,20 @@ public class DynamicGrpcMetrics {
     public void recordChannelCreated(String serviceName) {
         activeChannels.incrementAndGet();
 
-        MeterRegistry registry = getRegistry();
         if (registry == null) return;
 
-        Counter.builder(METRIC_PREFIX + ".channel.created")
-                .tag("service", serviceName)
-                .description("Number of gRPC channels created")
-                .register(registry)
-                .increment();
+        meters(serviceName).channelCreated.increment();
+    }
+
+    /**
+     * Records a caller that joined an in-progress channel creation instead of building its own.
+     *
+     * @param serviceName the service name
+     */
+    public void recordChannelCreationCoalesced(String serviceName) {
+        if (registry == null) return;
+
+        meters(serviceName).channelCreationCoalesced.increment();
     }
 
     /**
@@ -112,15 +138,9 @@ public class DynamicGrpcMetrics {
     public void recordChannelEvicted(String serviceName, String reason) {
         activeChannels.decrementAndGet();
 
-        MeterRegistry registry = getRegistry();
         if (registry == null) return;
 
-        Counter.builder(METRIC_PREFIX + ".channel.evicted")
-                .tag("service", serviceName)
-                .tag("reason", reason)
-                .description("Number of gRPC channels evicted")
-                .register(registry)
-                .increment();
+        meters(serviceName).channelEvicted(reason).increment();
     }
 
     /**
@@ -129,14 +149,9 @@ public class DynamicGrpcMetrics {
      * @param serviceName the service name
      */
     public void recordCacheHit(String serviceName) {
-        MeterRegistry registry = getRegistry();
         if (registry == null) return;
 
-        Counter.builder(METRIC_PREFIX + ".cache.hit")
-                .tag("service", serviceName)
-                .description("Number of channel cache hits")
-                .register(registry)
-                .increment();
+        meters(serviceName).cacheHit.increment();
     }
 
     /**
@@ -145,14 +160,9 @@ public class DynamicGrpcMetrics {
      * @param serviceName the service name
      */
     public void recordCacheMiss(String serviceName) {
-        MeterRegistry registry = getRegistry();
         if (registry == null) return;
 
-        Counter.builder(METRIC_PREFIX + ".cache.miss")
-                .tag("service", serviceName)
-                .description("Number of channel cache misses")
-                .register(registry)
-                .increment();
+        meters(serviceName).cacheMiss.increment();
     }
 
     /**
@@ -163,24 +173,180 @@ public class DynamicGrpcMetrics {
      * @param instanceCount number of instances found (0 if failed)
      */
     public void recordServiceDiscovery(String serviceName, boolean success, int instanceCount) {
-        MeterRegistry registry = getRegistry();
         if (registry == null) return;
 
-        Counter.builder(METRIC_PREFIX + ".discovery.attempts")
-                .tag("service", serviceName)
-                .tag("result", success ? "success" : "failure")
-                .description("Number of service discovery attempts")
-                .register(registry)
-                .increment();
-
+        ServiceMeters meters = meters(serviceName);
         if (success) {
-            io.micrometer.core.instrument.Gauge.builder(METRIC_PREFIX + ".discovery.instances", () -> instanceCount)
-                    .tags("service", serviceName)
-                    .description("Number of discovered service instances")
-                    .register(registry);
+            meters.discoverySuccess.increment();
+            meters.discoveredInstances.set(instanceCount);
+        } else {
+            meters.discoveryFailure.increment();
         }
     }
 
+    /**
+     * Records a lookup answered from a cached instance list older than the refresh interval.
+     *
+     * @param serviceName the service name
+     * @param reason why the stale list was served (e.g., "revalidating", "refresh_failed")
+     */
+    public void recordStaleDiscoveryServed(String serviceName, String reason) {
+        if (registry == null) return;
+
+        meters(serviceName).staleServed(reason).increment();
+    }
+
+    /**
+     * Records a change of the instance set of a service reported by the discovery watch.
+     *
+     * @param serviceName the service name
+     * @param added the number of instances added
+     * @param removed the number of instances removed
+     * @param instanceCount the number of instances after the change
+     */
+    public void recordInstanceSetChange(String serviceName, int added, int removed, int instanceCount) {
+        if (registry == null) return;
+
+        ServiceMeters meters = meters(serviceName);
+        meters.instanceChanges("added").increment(added);
+        meters.instanceChanges("removed").increment(removed);
+        meters.discoveredInstances.set(instanceCount);
+    }
+
+    /**
+     * Records an instance taken out of rotation by outlier detection.
+     *
+     * @param serviceName the service name
+     * @param reason why the instance was ejected (e.g., "consecutive_failures", "latency")
+     */
+    public void recordOutlierEjection(String serviceName, String reason) {
+        if (registry == null) return;
+
+        meters(serviceName).outlierEjection(reason).increment();
+    }
+
+    /**
+     * Records the number of instances of a service currently ejected by outlier detection.
+     *
+     * @param serviceName the service name
+     * @param ejected the number of ejected instances
+     */
+    public void recordEjectedInstances(String serviceName, int ejected) {
+        if (registry == null) return;
+
+        meters(serviceName).ejectedInstances().set(ejected);
+    }
+
+    /**
+     * Records the current concurrency limit of a service.
+     *
+     * @param serviceName the service name
+     * @param limit the number of calls allowed in flight
+     */
+    public void recordConcurrencyLimit(String serviceName, int limit) {
+        if (registry == null) return;
+
+        meters(serviceName).concurrencyLimit().set(limit);
+    }
+
+    /**
+     * Records a call rejected because the service's concurrency limit was reached.
+     *
+     * @param serviceName the service name
+     */
+    public void recordConcurrencyRejected(String serviceName) {
+        if (registry == null) return;
+
+        meters(serviceName).concurrencyRejected().increment();
+    }
+
+    /**
+     * Records a circuit breaker state transition.
+     *
+     * @param serviceName the service name
+     * @param from the previous state
+     * @param to the new state
+     * @param stateCode the numeric value of the new state (0 closed, 1 open, 2 half-open)
+     */
+    public void recordCircuitBreakerTransition(String serviceName, String from, String to, int stateCode) {
+        if (registry == null) return;
+
+        ServiceMeters meters = meters(serviceName);
+        meters.circuitBreakerTransition(from, to).increment();
+        meters.circuitBreakerState().set(stateCode);
+    }
+
+    /**
+     * Records a call short-circuited by an open circuit breaker.
+     *
+     * @param serviceName the service name
+     */
+    public void recordCircuitBreakerRejected(String serviceName) {
+        if (registry == null) return;
+
+        meters(serviceName).circuitBreakerRejected().increment();
+    }
+
+    /**
+     * Records a call subject to hedging.
+     *
+     * @param serviceName the service name
+     * @param fullMethodName the full gRPC method name
+     */
+    public void recordHedgedCall(String serviceName, String fullMethodName) {
+        if (registry == null) return;
+
+        meters(serviceName).hedge(fullMethodName).calls.increment();
+    }
+
+    /**
+     * Records a hedged attempt sent in addition to the original call.
+     *
+     * @param serviceName the service name
+     * @param fullMethodName the full gRPC method name
+     */
+    public void recordHedgeSent(String serviceName, String fullMethodName) {
+        if (registry == null) return;
+
+        meters(serviceName).hedge(fullMethodName).sent.increment();
+    }
+
+    /**
+     * Records a call answered by a hedged attempt rather than the original.
+     *
+     * @param serviceName the service name
+     * @param fullMethodName the full gRPC method name
+     */
+    public void recordHedgeWin(String serviceName, String fullMethodName) {
+        if (registry == null) return;
+
+        meters(serviceName).hedge(fullMethodName).wins.increment();
+    }
+
+    /**
+     * Records a retried attempt.
+     *
+     * @param serviceName the service name
+     * @param fullMethodName the full gRPC method name
+     */
+    public void recordRetry(String serviceName, String fullMethodName) {
+        if (registry == null) return;
+
+        meters(serviceName).retry(fullMethodName).retries.increment();
+    }
+
+    /**
+     * Records a retry dropped because the retry budget was exhausted.
+     *
+     * @param serviceName the service name
+     * @param fullMethodName the full gRPC method name
+     */
+    public void recordRetryThrottled(String serviceName, String fullMethodName) {
+        if (registry == null) return;
+
+        meters(serviceName).retry(fullMethodName).throttled.increment();
+    }
+
     /**
      * Records an exception occurrence with full context for tracing.
      *
@@ -189,16 +355,9 @@ public class DynamicGrpcMetrics {
      * @param operation the operation that failed (e.g., "client_creation", "channel_creation", "discovery")
      */
     public void recordException(String exceptionType, String serviceName, String operation) {
-        MeterRegistry registry = getRegistry();
         if (registry == null) return;
 
-        Counter.builder(METRIC_PREFIX + ".exceptions")
-                .tag("exception", exceptionType)
-                .tag("service", serviceName != null ? serviceName : "unknown")
-                .tag("operation", operation)
-                .description("Number of exceptions by type and operation")
-                .register(registry)
-                .increment();
+        meters(serviceName).exception(exceptionType, operation).increment();
     }
 
     /**
@@ -212,19 +371,29 @@ public class DynamicGrpcMetrics {
      * @throws Exception if the operation fails
      */
     public <T> T timeOperation(String serviceName, String operation, Callable<T> callable) throws Exception {
-        MeterRegistry registry = getRegistry();
         if (registry == null) {
             // If metrics not available, just execute the callable
             return callable.call();
         }
 
-        Timer timer = Timer.builder(METRIC_PREFIX + ".operation.duration")
-                .tag("service", serviceName)
-                .tag("operation", operation)
-                .description("Duration of operations")
-                .register(registry);
+        return meters(serviceName).operationTimer(operation).recordCallable(callable);
+    }
+
+    /**
+     * Creates the interceptor that records per-call metrics for a service's channel.
+     * <p>
+     * Meters are owned by this bean, so channels recreated for the same service keep reporting
+     * into the same time series.
+     * </p>
+     *
+     * @param serviceName the service name
+     * @param sloBuckets  latency boundaries published as histogram buckets
+     * @return the interceptor, or empty if metrics are disabled
+     */
+    public Optional<ClientInterceptor> createRpcMetricsInterceptor(String serviceName, List<Duration> sloBuckets) {
+        if (registry == null) return Optional.empty();
 
-        return timer.recordCallable(callable);
+        return Optional.of(new RpcMetricsInterceptor(meters(serviceName), sloBuckets.toArray(Duration[]::new)));
     }
 
     /**
@@ -242,49 +411,352 @@ public class DynamicGrpcMetrics {
      * @param countSupplier supplier that provides the current channel count
      */
     public void registerActiveChannelGauge(Supplier<Integer> countSupplier) {
-        MeterRegistry registry = getRegistry();
         if (registry == null) return;
 
-        io.micrometer.core.instrument.Gauge.builder(METRIC_PREFIX + ".channels.active", countSupplier, s -> s.get().doubleValue())
+        Gauge.builder(METRIC_PREFIX + ".channels.active", countSupplier, s -> s.get().doubleValue())
                 .description("Number of active gRPC channels")
                 .register(registry);
     }
 
     /**
-     * Records cache statistics.
+     * Registers a gauge for the tokens left in the retry budget.
      *
-     * @param hitCount total cache hits
-     * @param missCount total cache misses
-     * @param evictionCount total evictions
-     * @param size current cache size
+     * @param tokensSupplier supplier of the available tokens
      */
-    public void updateCacheStats(long hitCount, long missCount, long evictionCount, long size) {
-        MeterRegistry registry = getRegistry();
+    public void registerRetryBudgetGauge(Supplier<Double> tokensSupplier) {
+        if (registry == null) return;
+
+        Gauge.builder(METRIC_PREFIX + ".client.retry.budget.tokens", tokensSupplier, Supplier::get)
+                .description("Retries currently allowed by the retry budget")
+                .register(registry);
+    }
+
+    /**
+     * Registers live gauges over the statistics of the channel cache.
+     * <p>
+     * The gauges read {@link Cache#stats()} and {@link Cache#estimatedSize()} when the registry is
+     * scraped, so they always reflect the current cache. The cache must be built with
+     * {@code recordStats()}. Load statistics cover channel creation, which the channel manager
+     * reports as cache loads.
+     * </p>
+     *
+     * @param cache the channel cache
+     */
+    public void registerCacheGauges(Cache<?, ?> cache) {
         if (registry == null) return;
 
-        io.micrometer.core.instrument.Gauge.builder(METRIC_PREFIX + ".cache.size", () -> size)
+        Gauge.builder(METRIC_PREFIX + ".cache.size", cache, Cache::estimatedSize)
                 .description("Current cache size")
                 .register(registry);
 
-        io.micrometer.core.instrument.Gauge.builder(METRIC_PREFIX + ".cache.hit.total", () -> hitCount)
+        Gauge.builder(METRIC_PREFIX + ".cache.hit.total", cache, c -> c.stats().hitCount())
                 .description("Total cache hits")
                 .register(registry);
 
-        io.micrometer.core.instrument.Gauge.builder(METRIC_PREFIX + ".cache.miss.total", () -> missCount)
+        Gauge.builder(METRIC_PREFIX + ".cache.miss.total", cache, c -> c.stats().missCount())
                 .description("Total cache misses")
                 .register(registry);
 
-        io.micrometer.core.instrument.Gauge.builder(METRIC_PREFIX + ".cache.evictions.total", () -> evictionCount)
+        Gauge.builder(METRIC_PREFIX + ".cache.hit.rate", cache, c -> c.stats().hitRate())
+                .description("Cache hit rate")
+                .register(registry);
+
+        Gauge.builder(METRIC_PREFIX + ".cache.evictions.total", cache, c -> c.stats().evictionCount())
                 .description("Total cache evictions")
                 .register(registry);
 
-        // Calculate hit rate
-        long total = hitCount + missCount;
-        if (total > 0) {
-            double hitRate = (double) hitCount / total;
-            io.micrometer.core.instrument.Gauge.builder(METRIC_PREFIX + ".cache.hit.rate", () -> hitRate)
-                    .description("Cache hit rate")
+        Gauge.builder(METRIC_PREFIX + ".cache.eviction.weight.total", cache, c -> c.stats().evictionWeight())
+                .description("Total weight of evicted cache entries")
+                .register(registry);
+
+        Gauge.builder(METRIC_PREFIX + ".cache.load.failure.total", cache, c -> c.stats().loadFailureCount())
+                .description("Total failed channel creations")
+                .register(registry);
+
+        FunctionTimer.builder(METRIC_PREFIX + ".cache.load", cache,
+                        c -> c.stats().loadSuccessCount(),
+                        c -> c.stats().totalLoadTime(),
+                        TimeUnit.NANOSECONDS)
+                .description("Successful channel creations and the time spent creating them")
+                .register(registry);
+    }
+
+    /**
+     * Formerly recorded a snapshot of the cache statistics.
+     * <p>
+     * The cache gauges now read the live statistics of the cache handed to
+     * {@link #registerCacheGauges(Cache)} on every scrape, so snapshots are ignored.
+     * </p>
+     *
+     * @param hitCount total cache hits
+     * @param missCount total cache misses
+     * @param evictionCount total evictions
+     * @param size current cache size
+     * @deprecated the cache gauges follow the cache itself; use {@link #registerCacheGauges(Cache)}.
+     *             This method will be removed in a future release.
+     */
+    @Deprecated(forRemoval = true)
+    public void updateCacheStats(long hitCount, long missCount, long evictionCount, long size) {
+        // No-op: the gauges registered by registerCacheGauges are already current
+    }
+
+    /**
+     * Meters of a single service, registered once and reused for every recording.
+     * <p>
+     * Meters without extra tags are registered eagerly. Meters tagged with a reason, exception or
+     * operation are registered on first use and kept in a map keyed by that tag value.
+     * </p>
+     */
+    static final class ServiceMeters {
+
+        private final MeterRegistry registry;
+        private final String service;
+
+        final Counter clientCreated;
+        final Counter channelCreated;
+        final Counter channelCreationCoalesced;
+        final Counter cacheHit;
+        final Counter cacheMiss;
+        final Counter discoverySuccess;
+        final Counter discoveryFailure;
+        final AtomicInteger discoveredInstances = new AtomicInteger();
+
+        private final ConcurrentMap<String, Counter> clientCreationFailures = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Counter> channelEvictions = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Counter> staleServed = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Counter> instanceChanges = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Counter> outlierEjections = new ConcurrentHashMap<>();
+        private volatile AtomicInteger ejectedInstances;
+        private volatile AtomicInteger concurrencyLimit;
+        private volatile Counter concurrencyRejected;
+        private final ConcurrentMap<String, Counter> circuitBreakerTransitions = new ConcurrentHashMap<>();
+        private volatile AtomicInteger circuitBreakerState;
+        private volatile Counter circuitBreakerRejected;
+        private final ConcurrentMap<String, ConcurrentMap<String, Counter>> exceptions = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Timer> operationTimers = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, RpcMeters> rpcMeters = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, HedgeMeters> hedgeMeters = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, RetryMeters> retryMeters = new ConcurrentHashMap<>();
+
+        ServiceMeters(MeterRegistry registry, String service) {
+            this.registry = registry;
+            this.service = service;
+
+            clientCreated = Counter.builder(METRIC_PREFIX + ".client.created")
+                    .tag("service", service)
+                    .tag("result", "success")
+                    .description("Number of gRPC clients successfully created")
+                    .register(registry);
+            channelCreated = Counter.builder(METRIC_PREFIX + ".channel.created")
+                    .tag("service", service)
+                    .description("Number of gRPC channels created")
+                    .register(registry);
+            channelCreationCoalesced = Counter.builder(METRIC_PREFIX + ".channel.creation.coalesced")
+                    .tag("service", service)
+                    .description("Number of duplicate channel creations avoided by sharing an in-progress creation")
+                    .register(registry);
+            cacheHit = Counter.builder(METRIC_PREFIX + ".cache.hit")
+                    .tag("service", service)
+                    .description("Number of channel cache hits")
                     .register(registry);
+            cacheMiss = Counter.builder(METRIC_PREFIX + ".cache.miss")
+                    .tag("service", service)
+                    .description("Number of channel cache misses")
+                    .register(registry);
+            discoverySuccess = discoveryAttempts("success");
+            discoveryFailure = discoveryAttempts("failure");
+            Gauge.builder(METRIC_PREFIX + ".discovery.instances", discoveredInstances, AtomicInteger::get)
+                    .tags("service", service)
+                    .description("Number of discovered service instances")
+                    .register(registry);
+        }
+
+        private Counter discoveryAttempts(String result) {
+            return Counter.builder(METRIC_PREFIX + ".discovery.attempts")
+                    .tag("service", service)
+                    .tag("result", result)
+                    .description("Number of service discovery attempts")
+                    .register(registry);
+        }
+
+        Counter clientCreationFailure(String exceptionType) {
+            Counter counter = clientCreationFailures.get(exceptionType);
+            if (counter != null) return counter;
+            return clientCreationFailures.computeIfAbsent(exceptionType, e -> Counter.builder(METRIC_PREFIX + ".client.created")
+                    .tag("service", service)
+                    .tag("result", "failure")
+                    .tag("exception", e)
+                    .description("Number of gRPC client creation failures")
+                    .register(registry));
+        }
+
+        Counter channelEvicted(String reason) {
+            Counter counter = channelEvictions.get(reason);
+            if (counter != null) return counter;
+            return channelEvictions.computeIfAbsent(reason, r -> Counter.builder(METRIC_PREFIX + ".channel.evicted")
+                    .tag("service", service)
+                    .tag("reason", r)
+                    .description("Number of gRPC channels evicted")
+                    .register(registry));
+        }
+
+        Counter staleServed(String reason) {
+            Counter counter = staleServed.get(reason);
+            if (counter != null) return counter;
+            return staleServed.computeIfAbsent(reason, r -> Counter.builder(METRIC_PREFIX + ".discovery.stale.served")
+                    .tag("service", service)
+                    .tag("reason", r)
+                    .description("Number of lookups answered from a stale cached instance list")
+                    .register(registry));
+        }
+
+        Counter instanceChanges(String change) {
+            Counter counter = instanceChanges.get(change);
+            if (counter != null) return counter;
+            return instanceChanges.computeIfAbsent(change, c -> Counter.builder(METRIC_PREFIX + ".discovery.instance.changes")
+                    .tag("service", service)
+                    .tag("change", c)
+                    .description("Number of instances added to or removed from a service by the discovery watch")
+                    .register(registry));
+        }
+
+        Counter outlierEjection(String reason) {
+            Counter counter = outlierEjections.get(reason);
+            if (counter != null) return counter;
+            return outlierEjections.computeIfAbsent(reason, r -> Counter.builder(METRIC_PREFIX + ".outlier.ejections")
+                    .tag("service", service)
+                    .tag("reason", r)
+                    .description("Number of instances ejected by outlier detection")
+                    .register(registry));
+        }
+
+        AtomicInteger ejectedInstances() {
+            AtomicInteger gauge = ejectedInstances;
+            if (gauge != null) return gauge;
+            synchronized (this) {
+                if (ejectedInstances == null) {
+                    AtomicInteger value = new AtomicInteger();
+                    Gauge.builder(METRIC_PREFIX + ".outlier.ejected", value, AtomicInteger::get)
+                            .tags("service", service)
+                            .description("Number of instances currently ejected by outlier detection")
+                            .register(registry);
+                    ejectedInstances = value;
+                }
+                return ejectedInstances;
+            }
+        }
+
+        AtomicInteger concurrencyLimit() {
+            AtomicInteger gauge = concurrencyLimit;
+            if (gauge != null) return gauge;
+            synchronized (this) {
+                if (concurrencyLimit == null) {
+                    AtomicInteger value = new AtomicInteger();
+                    Gauge.builder(METRIC_PREFIX + ".client.concurrency.limit", value, AtomicInteger::get)
+                            .tags("service", service)
+                            .description("Number of calls currently allowed in flight")
+                            .register(registry);
+                    concurrencyLimit = value;
+                }
+                return concurrencyLimit;
+            }
+        }
+
+        Counter concurrencyRejected() {
+            Counter counter = concurrencyRejected;
+            if (counter != null) return counter;
+            synchronized (this) {
+                if (concurrencyRejected == null) {
+                    concurrencyRejected = Counter.builder(METRIC_PREFIX + ".client.concurrency.rejected")
+                            .tag("service", service)
+                            .description("Number of calls rejected because the concurrency limit was reached")
+                            .register(registry);
+                }
+                return concurrencyRejected;
+            }
+        }
+
+        Counter circuitBreakerTransition(String from, String to) {
+            return circuitBreakerTransitions.computeIfAbsent(from + "->" + to, k ->
+                    Counter.builder(METRIC_PREFIX + ".circuit.breaker.transitions")
+                            .tag("service", service)
+                            .tag("from", from)
+                            .tag("to", to)
+                            .description("Number of circuit breaker state transitions")
+                            .register(registry));
+        }
+
+        AtomicInteger circuitBreakerState() {
+            AtomicInteger gauge = circuitBreakerState;
+            if (gauge != null) return gauge;
+            synchronized (this) {
+                if (circuitBreakerState == null) {
+                    AtomicInteger value = new AtomicInteger();
+                    Gauge.builder(METRIC_PREFIX + ".circuit.breaker.state", value, AtomicInteger::get)
+                            .tags("service", service)
+                            .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                            .register(registry);
+                    circuitBreakerState = value;
+                }
+                return circuitBreakerState;
+            }
+        }
+
+        Counter circuitBreakerRejected() {
+            Counter counter = circuitBreakerRejected;
+            if (counter != null) return counter;
+            synchronized (this) {
+                if (circuitBreakerRejected == null) {
+                    circuitBreakerRejected = Counter.builder(METRIC_PREFIX + ".circuit.breaker.rejected")
+                            .tag("service", service)
+                            .description("Number of calls short-circuited by an open circuit breaker")
+                            .register(registry);
+                }
+                return circuitBreakerRejected;
+            }
+        }
+
+        Counter exception(String exceptionType, String operation) {
+            ConcurrentMap<String, Counter> byOperation = exceptions.get(exceptionType);
+            if (byOperation == null) {
+                byOperation = exceptions.computeIfAbsent(exceptionType, e -> new ConcurrentHashMap<>());
+            }
+            Counter counter = byOperation.get(operation);
+            if (counter != null) return counter;
+            return byOperation.computeIfAbsent(operation, o -> Counter.builder(METRIC_PREFIX + ".exceptions")
+                    .tag("exception", exceptionType)
+                    .tag("service", service)
+                    .tag("operation", o)
+                    .description("Number of exceptions by type and operation")
+                    .register(registry));
+        }
+
+        RpcMeters rpc(String fullMethodName, Duration[] sloBuckets) {
+            RpcMeters meters = rpcMeters.get(fullMethodName);
+            if (meters != null) return meters;
+            return rpcMeters.computeIfAbsent(fullMethodName, m -> new RpcMeters(registry, service, m, sloBuckets));
+        }
+
+        HedgeMeters hedge(String fullMethodName) {
+            HedgeMeters meters = hedgeMeters.get(fullMethodName);
+            if (meters != null) return meters;
+            return hedgeMeters.computeIfAbsent(fullMethodName, m -> new HedgeMeters(registry, service, m));
+        }
+
+        RetryMeters retry(String fullMethodName) {
+            RetryMeters meters = retryMeters.get(fullMethodName);
+            if (meters != null) return meters;
+            return retryMeters.computeIfAbsent(fullMethodName, m -> new RetryMeters(registry, service, m));
+        }
+
+        Timer operationTimer(String operation) {
+            Timer timer = operationTimers.get(operation);
+            if (timer != null) return timer;
+            return operationTimers.computeIfAbsent(operation, o -> Timer.builder(METRIC_PREFIX + ".operation.duration")
+                    .tag("service", service)
+                    .tag("operation", o)
+                    .description("Duration of operations")
+                    .register(registry));
         }
     }
 }
@@ -0,0 +1,35 @@
+package ai.pipestream.quarkus.dynamicgrpc.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hedging counters of a single service method. The hedge rate is {@code sent / calls}, the
+ * share of calls answered by a hedged attempt {@code wins / calls}.
+ */
+final class HedgeMeters {
+
+    private static final String METRIC_PREFIX = "dynamic.grpc.client.hedge";
+
+    final Counter calls;
+    final Counter sent;
+    final Counter wins;
+
+    HedgeMeters(MeterRegistry registry, String service, String method) {
+        calls = Counter.builder(METRIC_PREFIX + ".calls")
+                .tag("service", service)
+                .tag("method", method)
+                .description("Number of calls subject to hedging")
+                .register(registry);
+        sent = Counter.builder(METRIC_PREFIX + ".sent")
+                .tag("service", service)
+                .tag("method", method)
+                .description("Number of hedged attempts sent in addition to the original call")
+                .register(registry);
+        wins = Counter.builder(METRIC_PREFIX + ".wins")
+                .tag("service", service)
+                .tag("method", method)
+                .description("Number of calls answered by a hedged attempt rather than the original")
+                .register(registry);
+    }
+}
@@ -0,0 +1,28 @@
+package ai.pipestream.quarkus.dynamicgrpc.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Retry counters of a single service method.
+ */
+final class RetryMeters {
+
+    private static final String METRIC_PREFIX = "dynamic.grpc.client.retries";
+
+    final Counter retries;
+    final Counter throttled;
+
+    RetryMeters(MeterRegistry registry, String service, String method) {
+        retries = Counter.builder(METRIC_PREFIX)
+                .tag("service", service)
+                .tag("method", method)
+                .description("Number of retried attempts sent after a retryable failure")
+                .register(registry);
+        throttled = Counter.builder(METRIC_PREFIX + ".throttled")
+                .tag("service", service)
+                .tag("method", method)
+                .description("Number of retries dropped because the retry budget was exhausted")
+                .register(registry);
+    }
+}
@@ -0,0 +1,88 @@
+package ai.pipestream.quarkus.dynamicgrpc.metrics;
+
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Client call meters of a single service method, registered once and shared by every channel
+ * created for the service.
+ * <p>
+ * Completion counters are registered lazily per status code, so only codes that actually occur
+ * produce a time series.
+ * </p>
+ */
+final class RpcMeters {
+
+    private static final String METRIC_PREFIX = "dynamic.grpc.client";
+    private static final Status.Code[] CODES = Status.Code.values();
+
+    private final MeterRegistry registry;
+    private final String service;
+    private final String method;
+
+    final Timer latency;
+    final DistributionSummary requestBytes;
+    final DistributionSummary responseBytes;
+    final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicReferenceArray<Counter> completions = new AtomicReferenceArray<>(CODES.length);
+
+    RpcMeters(MeterRegistry registry, String service, String method, Duration[] sloBuckets) {
+        this.registry = registry;
+        this.service = service;
+        this.method = method;
+
+        latency = Timer.builder(METRIC_PREFIX + ".call.duration")
+                .tag("service", service)
+                .tag("method", method)
+                .serviceLevelObjectives(sloBuckets)
+                .description("Duration of client calls over dynamic channels")
+                .register(registry);
+        requestBytes = DistributionSummary.builder(METRIC_PREFIX + ".request.size")
+                .tag("service", service)
+                .tag("method", method)
+                .baseUnit("bytes")
+                .description("Serialized size of request messages")
+                .register(registry);
+        responseBytes = DistributionSummary.builder(METRIC_PREFIX + ".response.size")
+                .tag("service", service)
+                .tag("method", method)
+                .baseUnit("bytes")
+                .description("Serialized size of response messages")
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".calls.active", inFlight, AtomicInteger::get)
+                .tag("service", service)
+                .tag("method", method)
+                .description("Number of client calls in flight")
+                .register(registry);
+    }
+
+    /**
+     * Returns the completion counter for a status code.
+     *
+     * @param code the status code the call closed with
+     * @return the counter
+     */
+    Counter completed(Status.Code code) {
+        int index = code.ordinal();
+        Counter counter = completions.get(index);
+        if (counter == null) {
+            counter = Counter.builder(METRIC_PREFIX + ".calls")
+                    .tag("service", service)
+                    .tag("method", method)
+                    .tag("code", code.name())
+                    .description("Number of completed client calls by status code")
+                    .register(registry);
+            // The registry returns the same counter to racing threads, so a lost race is harmless
+            completions.set(index, counter);
+        }
+        return counter;
+    }
+}
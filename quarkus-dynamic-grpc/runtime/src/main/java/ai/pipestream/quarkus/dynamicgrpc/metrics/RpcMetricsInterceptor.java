@@ -0,0 +1,103 @@
+package ai.pipestream.quarkus.dynamicgrpc.metrics;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client interceptor that records latency, status, in-flight and message size metrics for every
+ * call made over a dynamic channel.
+ * <p>
+ * Created per service through {@link DynamicGrpcMetrics#createRpcMetricsInterceptor}. Meters are
+ * looked up by full method name in a map owned by the service, so a call allocates only its
+ * forwarding call and listener. Message sizes come from protobuf's memoized
+ * {@link MessageLite#getSerializedSize()}; other message types are not measured.
+ * </p>
+ */
+final class RpcMetricsInterceptor implements ClientInterceptor {
+
+    private final DynamicGrpcMetrics.ServiceMeters meters;
+    private final Duration[] sloBuckets;
+
+    RpcMetricsInterceptor(DynamicGrpcMetrics.ServiceMeters meters, Duration[] sloBuckets) {
+        this.meters = meters;
+        this.sloBuckets = sloBuckets;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+        RpcMeters rpc = meters.rpc(method.getFullMethodName(), sloBuckets);
+        return new MeteredCall<>(next.newCall(method, callOptions), rpc);
+    }
+
+    private static int serializedSize(Object message) {
+        return message instanceof MessageLite lite ? lite.getSerializedSize() : -1;
+    }
+
+    private static final class MeteredCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        private final RpcMeters rpc;
+        private long startNanos;
+
+        MeteredCall(ClientCall<ReqT, RespT> delegate, RpcMeters rpc) {
+            super(delegate);
+            this.rpc = rpc;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            rpc.inFlight.incrementAndGet();
+            startNanos = System.nanoTime();
+            try {
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onMessage(RespT message) {
+                        int size = serializedSize(message);
+                        if (size >= 0) {
+                            rpc.responseBytes.record(size);
+                        }
+                        super.onMessage(message);
+                    }
+
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        finish(status.getCode());
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            } catch (RuntimeException e) {
+                // The listener is never closed when start fails
+                finish(Status.fromThrowable(e).getCode());
+                throw e;
+            }
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+            int size = serializedSize(message);
+            if (size >= 0) {
+                rpc.requestBytes.record(size);
+            }
+            super.sendMessage(message);
+        }
+
+        private void finish(Status.Code code) {
+            rpc.inFlight.decrementAndGet();
+            rpc.latency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            rpc.completed(code).increment();
+        }
+    }
+}
@@ -29,9 +29,12 @@
  *   <li>{@code quarkus.dynamic-grpc.consul.port} – Consul port (default {@code 8500})</li>
  *   <li>{@code quarkus.dynamic-grpc.consul.refresh-period} – Stork refresh period (default {@code 10s})</li>
  *   <li>{@code quarkus.dynamic-grpc.consul.use-health-checks} – Use Consul health checks (default {@code false})</li>
+ *   <li>{@code quarkus.dynamic-grpc.discovery.watch-instances} – Follow Consul instance changes through blocking
+ *   queries instead of the two settings above (default {@code true})</li>
  *   <li>{@code quarkus.dynamic-grpc.channel.idle-ttl-minutes} – Channel cache idle TTL (default {@code 15})</li>
  *   <li>{@code quarkus.dynamic-grpc.channel.max-size} – Channel cache max size (default {@code 1000})</li>
  *   <li>{@code quarkus.dynamic-grpc.channel.shutdown-timeout-seconds} – Cleanup timeout (default {@code 2})</li>
+ *   <li>{@code quarkus.dynamic-grpc.channel.pool-size} – Channels per service (default {@code 1})</li>
  * </ul>
  *
  * <h2>How it works</h2>